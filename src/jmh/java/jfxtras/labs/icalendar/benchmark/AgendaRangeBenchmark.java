@@ -0,0 +1,81 @@
+package jfxtras.labs.icalendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.embed.swing.JFXPanel;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.ICalendarAgenda;
+import jfxtras.scene.control.agenda.Agenda.LocalDateTimeRange;
+
+/**
+ * Refreshing the appointments of an {@link ICalendarAgenda} holding componentCount VEVENTs
+ * (see {@link BenchmarkCalendars#makeVEvents(int, java.util.List)}) when its one week range changes.
+ *
+ * nextWeek moves the range to a week that doesn't overlap the current one, so all appointments are
+ * remade.  nextDay scrolls the range by one day, so the incremental refresh keeps the appointments
+ * that stay visible.  The range cycles through the two years the calendar covers.
+ *
+ * The agenda isn't displayed, but its controls need the JavaFX toolkit, so a display is required.
+ *
+ * @author David Bal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgendaRangeBenchmark
+{
+    private final static int CYCLE_DAYS = 700;
+
+    @Param({ "1000", "10000", "100000" })
+    public int componentCount;
+
+    private ICalendarAgenda agenda;
+    private int day;
+
+    @Setup
+    public void setup()
+    {
+        new JFXPanel(); // starts JavaFX toolkit
+        agenda = new ICalendarAgenda();
+        agenda.vComponents().addAll(BenchmarkCalendars.makeVEvents(componentCount, agenda.appointmentGroups()));
+        day = 0;
+        setRange();
+    }
+
+    @Benchmark
+    public int nextWeek()
+    {
+        day = (day + 7) % CYCLE_DAYS;
+        return setRange();
+    }
+
+    @Benchmark
+    public int nextDay()
+    {
+        day = (day + 1) % CYCLE_DAYS;
+        return setRange();
+    }
+
+    /* sets agenda's range to the week starting day days after DTSTART, returns number of appointments */
+    private int setRange()
+    {
+        LocalDateTime start = BenchmarkCalendars.DATE_TIME_START.toLocalDate().plusDays(day).atStartOfDay();
+        agenda.getLocalDateTimeRangeCallback().call(new LocalDateTimeRange(start, start.plusWeeks(1)));
+        return agenda.appointments().size();
+    }
+}
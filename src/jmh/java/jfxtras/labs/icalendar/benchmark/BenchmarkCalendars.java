@@ -0,0 +1,118 @@
+package jfxtras.labs.icalendar.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import jfxtras.labs.icalendar.ICalendarWriter;
+import jfxtras.labs.icalendar.VCalendar;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.VEventImpl;
+import jfxtras.scene.control.agenda.Agenda.AppointmentGroup;
+
+/**
+ * Recurrence rules and calendars shared by the benchmarks
+ *
+ * @author David Bal
+ */
+final class BenchmarkCalendars
+{
+    private BenchmarkCalendars() { }
+
+    final static ZoneId ZONE = ZoneId.of("America/New_York");
+    final static LocalDateTime DATE_TIME_START = LocalDateTime.of(2016, 1, 4, 10, 0);
+
+    /** Shapes of RRULE, from one date/time per period to a BYSETPOS selection from a yearly set */
+    final static String[] RULE_SHAPES = { "DAILY", "WEEKLY", "MONTHLY_BYDAY", "YEARLY_BYSETPOS" };
+
+    /**
+     * Returns the RRULE value for one of {@link #RULE_SHAPES}, or MONTHLY_BYMONTHDAY (a day of month
+     * missing from shorter months) or MONTHLY_BYSETPOS
+     */
+    static String ruleValue(String shape)
+    {
+        switch (shape)
+        {
+        case "DAILY":
+            return "FREQ=DAILY";
+        case "WEEKLY":
+            return "FREQ=WEEKLY;BYDAY=MO,WE,FR";
+        case "MONTHLY_BYDAY":
+            return "FREQ=MONTHLY;BYDAY=2TU,-1FR";
+        case "YEARLY_BYSETPOS":
+            return "FREQ=YEARLY;BYMONTH=3,6,9,12;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=1,-1";
+        case "MONTHLY_BYMONTHDAY":
+            return "FREQ=MONTHLY;BYMONTHDAY=1,15,31";
+        case "MONTHLY_BYSETPOS":
+            return "FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-2";
+        default:
+            throw new IllegalArgumentException("Unknown rule shape: " + shape);
+        }
+    }
+
+    /** Returns a one hour VEVENT starting at {@link #DATE_TIME_START} with a rule of shape */
+    static VEventImpl makeVEvent(String shape, List<AppointmentGroup> appointmentGroups)
+    {
+        return makeVEvent(0, ZonedDateTime.of(DATE_TIME_START, ZONE), new RRule(ruleValue(shape)), appointmentGroups);
+    }
+
+    /**
+     * Returns a calendar of componentCount VEVENTs with start times spread evenly over two years.
+     * Every tenth VEVENT repeats, cycling through {@link #RULE_SHAPES}.
+     */
+    static List<VEventImpl> makeVEvents(int componentCount, List<AppointmentGroup> appointmentGroups)
+    {
+        List<VEventImpl> vEvents = new ArrayList<>(componentCount);
+        long minutesApart = Duration.ofDays(730).toMinutes() / componentCount;
+        for (int i=0; i<componentCount; i++)
+        {
+            ZonedDateTime dateTimeStart = ZonedDateTime.of(DATE_TIME_START.plusMinutes(i * minutesApart), ZONE);
+            RRule rRule = (i % 10 == 0) ? new RRule(ruleValue(RULE_SHAPES[(i / 10) % RULE_SHAPES.length])) : null;
+            vEvents.add(makeVEvent(i, dateTimeStart, rRule, appointmentGroups));
+        }
+        return vEvents;
+    }
+
+    private static VEventImpl makeVEvent(int i, ZonedDateTime dateTimeStart, RRule rRule, List<AppointmentGroup> appointmentGroups)
+    {
+        VEventImpl vEvent = new VEventImpl(appointmentGroups)
+                .withDateTimeStart(dateTimeStart)
+                .withDuration(Duration.ofHours(1))
+                .withDateTimeStamp(ZonedDateTime.of(DATE_TIME_START, ZoneOffset.UTC))
+                .withSummary("Event " + i)
+                .withDescription("Description of event " + i + " that is long enough to be folded across two content lines")
+                .withUniqueIdentifier(i + "@jfxtras.org");
+        if (rRule != null) vEvent.setRRule(rRule);
+        return vEvent;
+    }
+
+    /** Returns a VCALENDAR containing vEvents */
+    static VCalendar makeVCalendar(List<VEventImpl> vEvents)
+    {
+        VCalendar vCalendar = new VCalendar()
+                .withProductIdentifier("-//JFxtras//Benchmark//EN");
+        vCalendar.vEvents().addAll(vEvents);
+        return vCalendar;
+    }
+
+    /** Returns the iCalendar text of vCalendar */
+    static String toICalendar(VCalendar vCalendar)
+    {
+        StringWriter stringWriter = new StringWriter();
+        try (ICalendarWriter writer = new ICalendarWriter(stringWriter))
+        {
+            writer.writeCalendar(vCalendar);
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return stringWriter.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package jfxtras.labs.icalendar.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jfxtras.labs.icalendar.ICalendarWriter;
+import jfxtras.labs.icalendar.VCalendar;
+import jfxtras.labs.icalendar.VCalendarUtilities;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.ICalendarAgendaUtilities;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.VEventImpl;
+
+/**
+ * Parsing and serializing calendars of componentCount VEVENTs (see {@link BenchmarkCalendars#makeVEvents(int, List)}).
+ *
+ * parse reads the iCalendar text with {@link VCalendarUtilities#parseICalendar(java.io.Reader, VCalendar)},
+ * parseParallel makes the components in a ForkJoinPool
+ * (see {@link VCalendarUtilities#parseICalendar(java.io.Reader, VCalendar, java.util.concurrent.Executor)}),
+ * componentText makes the content lines of each VEVENT with toComponentText, and write streams the
+ * whole calendar with {@link ICalendarWriter} to a writer that discards its output.
+ *
+ * @author David Bal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalendarBenchmark
+{
+    /** Discards characters */
+    private static class NullWriter extends Writer
+    {
+        @Override public void write(char[] buffer, int offset, int length) { }
+        @Override public void write(String string, int offset, int length) { }
+        @Override public void flush() { }
+        @Override public void close() { }
+    }
+
+    @Param({ "1000", "10000", "100000" })
+    public int componentCount;
+
+    private VCalendar vCalendar;
+    private String iCalendarText;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup()
+    {
+        List<VEventImpl> vEvents = BenchmarkCalendars.makeVEvents(componentCount, ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS);
+        vCalendar = BenchmarkCalendars.makeVCalendar(vEvents);
+        iCalendarText = BenchmarkCalendars.toICalendar(vCalendar);
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public VCalendar parse() throws IOException
+    {
+        VCalendar parsedVCalendar = new VCalendar()
+                .withVEventCallback((s) -> VEventImpl.parse(s, ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS));
+        VCalendarUtilities.parseICalendar(new StringReader(iCalendarText), parsedVCalendar);
+        return parsedVCalendar;
+    }
+
+    @Benchmark
+    public VCalendar parseParallel() throws IOException
+    {
+        VCalendar parsedVCalendar = new VCalendar()
+                .withVEventCallback((s) -> VEventImpl.parse(s, ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS));
+        VCalendarUtilities.parseICalendar(new StringReader(iCalendarText), parsedVCalendar, pool);
+        return parsedVCalendar;
+    }
+
+    @Benchmark
+    public void componentText(Blackhole blackhole)
+    {
+        vCalendar.vEvents().forEach(v -> blackhole.consume(v.toComponentText()));
+    }
+
+    @Benchmark
+    public void write() throws IOException
+    {
+        try (ICalendarWriter writer = new ICalendarWriter(new NullWriter()))
+        {
+            writer.writeCalendar(vCalendar);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package jfxtras.labs.icalendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jfxtras.labs.icalendar.DateTimeUtilities;
+
+/**
+ * Parsing the four forms of DATE and DATE-TIME values with {@link DateTimeUtilities#parse(String)},
+ * and sorting temporalCount LocalDateTimes with {@link DateTimeUtilities#TEMPORAL_COMPARATOR}.
+ * Streams of recurrences that use them are measured by {@link RecurrenceBenchmark}.
+ *
+ * @author David Bal
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeUtilitiesBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class ParseState
+    {
+        @Param({ "19980119T020000", "19980119T070000Z", "TZID=America/New_York:19980119T020000", "VALUE=DATE:19970304" })
+        public String temporalString;
+    }
+
+    @State(Scope.Benchmark)
+    public static class SortState
+    {
+        @Param({ "1000000" })
+        public int temporalCount;
+
+        private List<Temporal> temporals;
+
+        @Setup
+        public void setup()
+        {
+            Random random = new Random(0);
+            temporals = new ArrayList<>(temporalCount);
+            LocalDateTime start = LocalDateTime.of(2016, 1, 1, 0, 0);
+            for (int i=0; i<temporalCount; i++) temporals.add(start.plusMinutes(random.nextInt(5_000_000)));
+        }
+    }
+
+    @Benchmark
+    public Temporal parse(ParseState state)
+    {
+        return DateTimeUtilities.parse(state.temporalString);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Temporal> sort(SortState state)
+    {
+        List<Temporal> list = new ArrayList<>(state.temporals);
+        Collections.sort(list, DateTimeUtilities.TEMPORAL_COMPARATOR);
+        return list;
+    }
+}
@@ -0,0 +1,121 @@
+package jfxtras.labs.icalendar.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jfxtras.labs.icalendar.components.VComponent;
+import jfxtras.labs.icalendar.components.VFreeBusy;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.ICalendarAgendaUtilities;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.VEventImpl;
+
+/**
+ * Finding a free slot for attendeeCount attendees over two years.  Each attendee has a daily
+ * stand-up, weekly meetings and individual appointments.  Measures making the busy time of
+ * every attendee serially and in parallel, and finding the first free hour for all of them.
+ *
+ * @author David Bal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FreeBusyBenchmark
+{
+    private final static LocalDateTime WINDOW_START = LocalDateTime.of(2016, 1, 1, 0, 0);
+    private final static LocalDateTime WINDOW_END = WINDOW_START.plusYears(2);
+    private final static String[] WEEKDAYS = { "MO", "TU", "WE", "TH", "FR" };
+
+    @Param({ "50", "500" })
+    public int attendeeCount;
+
+    private List<List<VComponent<?>>> calendars;
+    private long[] busy;
+    private long windowStart;
+    private long windowEnd;
+
+    @Setup
+    public void setup()
+    {
+        calendars = makeCalendars(attendeeCount);
+        busy = VFreeBusy.busyOfAny(calendars, WINDOW_START, WINDOW_END, BenchmarkCalendars.ZONE);
+        windowStart = WINDOW_START.atZone(BenchmarkCalendars.ZONE).toEpochSecond();
+        windowEnd = WINDOW_END.atZone(BenchmarkCalendars.ZONE).toEpochSecond();
+    }
+
+    @Benchmark
+    public long busySerial()
+    {
+        long intervals = 0;
+        for (List<VComponent<?>> c : calendars)
+        {
+            intervals += VFreeBusy.busy(c, WINDOW_START, WINDOW_END, BenchmarkCalendars.ZONE).length / 2;
+        }
+        return intervals;
+    }
+
+    @Benchmark
+    public long[] busyOfAny()
+    {
+        return VFreeBusy.busyOfAny(calendars, WINDOW_START, WINDOW_END, BenchmarkCalendars.ZONE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public OptionalLong firstFreeHour()
+    {
+        return VFreeBusy.firstFreeSlot(busy, windowStart, windowEnd, 3600);
+    }
+
+    private static List<List<VComponent<?>>> makeCalendars(int attendeeCount)
+    {
+        Random random = new Random(0);
+        List<List<VComponent<?>>> calendars = new ArrayList<>(attendeeCount);
+        for (int a=0; a<attendeeCount; a++)
+        {
+            List<VComponent<?>> vComponents = new ArrayList<>();
+            vComponents.add(new VEventImpl(ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS)
+                    .withDateTimeStart(WINDOW_START.minusMonths(6).withHour(9).withMinute(random.nextInt(4) * 15))
+                    .withDuration(Duration.ofMinutes(15))
+                    .withUniqueIdentifier(a + "-standup@jfxtras.org")
+                    .withRRule(new RRule("FREQ=DAILY")));
+            for (int m=0; m<5; m++)
+            {
+                vComponents.add(new VEventImpl(ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS)
+                        .withDateTimeStart(WINDOW_START.plusDays(random.nextInt(7)).withHour(10 + random.nextInt(7)))
+                        .withDuration(Duration.ofMinutes(60))
+                        .withUniqueIdentifier(a + "-weekly" + m + "@jfxtras.org")
+                        .withRRule(new RRule("FREQ=WEEKLY;BYDAY=" + WEEKDAYS[random.nextInt(WEEKDAYS.length)])));
+            }
+            for (int i=0; i<200; i++)
+            {
+                vComponents.add(new VEventImpl(ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS)
+                        .withDateTimeStart(WINDOW_START.plusDays(random.nextInt(730)).withHour(8 + random.nextInt(9)))
+                        .withDuration(Duration.ofMinutes(30 + 30 * random.nextInt(4)))
+                        .withUniqueIdentifier(a + "-" + i + "@jfxtras.org"));
+            }
+            calendars.add(vComponents);
+        }
+        return calendars;
+    }
+}
@@ -0,0 +1,113 @@
+package jfxtras.labs.icalendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.ICalendarAgendaUtilities;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.VEventImpl;
+import jfxtras.scene.control.agenda.Agenda.Appointment;
+
+/**
+ * Recurrence expansion of one VEVENT for a five week window (the agenda month view) starting
+ * yearsAhead years after DTSTART.
+ *
+ * rruleStream iterates the RRULE from DTSTART to the window, rruleStreamFrom seeks to the window,
+ * vComponentStream and makeInstances are the VEVENT stream and the appointments made for the window.
+ *
+ * @author David Bal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceBenchmark
+{
+    @Param({ "DAILY", "WEEKLY", "MONTHLY_BYDAY", "MONTHLY_BYMONTHDAY", "MONTHLY_BYSETPOS", "YEARLY_BYSETPOS" })
+    public String rule;
+
+    @Param({ "0", "10", "100" })
+    public int yearsAhead;
+
+    private VEventImpl vEvent;
+    private RRule rRule;
+    private ZonedDateTime dateTimeStart;
+    private ZonedDateTime rangeStart;
+    private ZonedDateTime rangeEnd;
+    private LocalDateTime localRangeStart;
+    private LocalDateTime localRangeEnd;
+
+    @Setup
+    public void setup()
+    {
+        vEvent = BenchmarkCalendars.makeVEvent(rule, ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS);
+        rRule = vEvent.getRRule();
+        dateTimeStart = (ZonedDateTime) vEvent.getDateTimeStart();
+        rangeStart = dateTimeStart.plusYears(yearsAhead).plusMonths(2).withDayOfMonth(1).withHour(0);
+        rangeEnd = rangeStart.plusWeeks(5);
+        localRangeStart = rangeStart.toLocalDateTime();
+        localRangeEnd = rangeEnd.toLocalDateTime();
+    }
+
+    @Benchmark
+    public int rruleStream(Blackhole blackhole)
+    {
+        return consumeRange(rRule.stream(dateTimeStart).iterator(), blackhole);
+    }
+
+    @Benchmark
+    public int rruleStreamFrom(Blackhole blackhole)
+    {
+        return consumeRange(rRule.streamFrom(dateTimeStart, rangeStart).iterator(), blackhole);
+    }
+
+    @Benchmark
+    public int vComponentStream(Blackhole blackhole)
+    {
+        return consumeRange(vEvent.stream(rangeStart).iterator(), blackhole);
+    }
+
+    @Benchmark
+    public List<Appointment> makeInstances()
+    {
+        vEvent.instances().clear();
+        return vEvent.makeInstances(localRangeStart, localRangeEnd);
+    }
+
+    /* consumes the date/times in the window, returns how many there are */
+    private int consumeRange(Iterator<Temporal> i, Blackhole blackhole)
+    {
+        int count = 0;
+        while (i.hasNext())
+        {
+            Temporal t = i.next();
+            if (! DateTimeUtilities.isBefore(t, rangeEnd)) break;
+            if (! DateTimeUtilities.isBefore(t, rangeStart))
+            {
+                blackhole.consume(t);
+                count++;
+            }
+        }
+        return count;
+    }
+}
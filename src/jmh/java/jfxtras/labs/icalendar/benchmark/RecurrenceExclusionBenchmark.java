@@ -0,0 +1,68 @@
+package jfxtras.labs.icalendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.temporal.Temporal;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.ICalendarAgendaUtilities;
+import jfxtras.labs.icalendaragenda.scene.control.agenda.VEventImpl;
+
+/**
+ * Removing recurrences (child components with RECURRENCE-ID) from the stream of a daily RRULE
+ * with recurrenceCount recurrences, one every third day.  With the hash index of RECURRENCE-ID
+ * values the time to make the first occurrences shouldn't grow with recurrenceCount.
+ *
+ * @author David Bal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceExclusionBenchmark
+{
+    private final static int OCCURRENCES = 20_000;
+
+    @Param({ "0", "100", "1000", "5000" })
+    public int recurrenceCount;
+
+    private RRule rRule;
+
+    @Setup
+    public void setup()
+    {
+        LocalDateTime dateTimeStart = BenchmarkCalendars.DATE_TIME_START;
+        rRule = new RRule("FREQ=DAILY");
+        for (int i=0; i<recurrenceCount; i++)
+        {
+            VEventImpl recurrence = new VEventImpl(ICalendarAgendaUtilities.DEFAULT_APPOINTMENT_GROUPS)
+                    .withDateTimeRecurrence(dateTimeStart.plusDays(i*3))
+                    .withDateTimeStart(dateTimeStart.plusDays(i*3).plusHours(1));
+            rRule.recurrences().add(recurrence);
+        }
+    }
+
+    @Benchmark
+    public Temporal stream()
+    {
+        Iterator<Temporal> i = rRule.stream(BenchmarkCalendars.DATE_TIME_START).limit(OCCURRENCES).iterator();
+        Temporal last = null;
+        while (i.hasNext()) last = i.next();
+        return last;
+    }
+}
@@ -0,0 +1,131 @@
+package jfxtras.labs.scene.control.gauge.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jfxtras.labs.scene.control.gauge.UtilHex;
+
+/**
+ * Reading a 24 bit BMP of width x width/3 pixels into the LED levels of a MatrixPanel image content.
+ *
+ * convertsBmp is the BMT rawData path (hex strings, then a BitSet per byte to unpack the levels),
+ * decodeFile memory-maps the file and decodeStream reads it from an InputStream, both with
+ * {@link UtilHex#decodeBmpLevels(ByteBuffer, int, int, boolean, boolean, boolean)}.
+ *
+ * @author David Bal
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BmpDecodeBenchmark
+{
+    private final static int MIN_LEVEL = 65;
+    private final static int MAX_LEVEL = 190;
+
+    @Param({ "64", "192", "640" })
+    public int width;
+
+    private File bmpFile;
+    private byte[] bmpBytes;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        bmpBytes = makeBmp(width, width / 3);
+        bmpFile = File.createTempFile("matrixpanel", ".bmp");
+        Files.write(bmpFile.toPath(), bmpBytes);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        bmpFile.delete();
+    }
+
+    @Benchmark
+    public short[] convertsBmp()
+    {
+        UtilHex img = new UtilHex();
+        img.convertsBmp(bmpFile.getAbsolutePath(), MIN_LEVEL, MAX_LEVEL, true, true, true);
+        byte[] sBytes = img.getRawData();
+        final int levels = 3;
+        final int bmpHeight = UtilHex.bytes2int(new byte[] { sBytes[8], sBytes[9] });
+        final int tamLineaBMT = UtilHex.bytes2int(new byte[] { sBytes[20], sBytes[21], sBytes[22], sBytes[23] }) / bmpHeight / levels / 3;
+        final short[] leds = new short[bmpHeight * tamLineaBMT * 8];
+        int pos = 32;
+        for (int j = 0; j < levels; j++)
+        {
+            for (int k = 0; k < 3; k++)
+            {
+                for (int fila = 0; fila < bmpHeight; fila++)
+                {
+                    for (int i = 0; i < tamLineaBMT; i++)
+                    {
+                        BitSet bs = BitSet.valueOf(new byte[] { sBytes[pos++] });
+                        for (int m = 0; m < 8; m++)
+                        {
+                            leds[fila * tamLineaBMT * 8 + i * 8 + m] += (bs.get(7 - m) ? 1 : 0) * Math.pow(10, k);
+                        }
+                    }
+                }
+            }
+        }
+        return leds;
+    }
+
+    @Benchmark
+    public UtilHex.BmpLevels decodeFile() throws IOException
+    {
+        return UtilHex.decodeBmpLevels(bmpFile.toPath(), MIN_LEVEL, MAX_LEVEL, true, true, true);
+    }
+
+    @Benchmark
+    public UtilHex.BmpLevels decodeStream() throws IOException
+    {
+        return UtilHex.decodeBmpLevels(new ByteArrayInputStream(bmpBytes), MIN_LEVEL, MAX_LEVEL, true, true, true);
+    }
+
+    /* uncompressed bottom-up 24 bit BMP of random pixels */
+    private static byte[] makeBmp(int width, int height)
+    {
+        int scanLineSize = ((width * 24 + 31) / 32) * 4;
+        ByteBuffer bmp = ByteBuffer.allocate(54 + scanLineSize * height).order(ByteOrder.LITTLE_ENDIAN);
+        bmp.putShort((short) 0x4d42).putInt(bmp.capacity()).putInt(0).putInt(54) // file header
+           .putInt(40).putInt(width).putInt(height).putShort((short) 1).putShort((short) 24) // bitmap header
+           .putInt(0).putInt(scanLineSize * height).putInt(2835).putInt(2835).putInt(0).putInt(0);
+        Random random = new Random(0);
+        byte[] line = new byte[scanLineSize];
+        for (int fila = 0; fila < height; fila++)
+        {
+            for (int i = 0; i < width * 3; i++)
+            {
+                line[i] = (byte) random.nextInt(256);
+            }
+            bmp.put(line);
+        }
+        return bmp.array();
+    }
+}
@@ -9,19 +9,21 @@ import static java.time.temporal.ChronoField.YEAR;
 
 import java.time.DateTimeException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.time.format.SignStyle;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.TemporalAmount;
-import java.util.Arrays;
 import java.util.Comparator;
 
 
@@ -89,16 +91,31 @@ public final class DateTimeUtilities
             .optionalEnd()
             .toFormatter();
     
-    /** Compares two temporals of the same type */
-    public final static Comparator<Temporal> TEMPORAL_COMPARATOR = (t1, t2) -> 
+    /**
+     * Compares two temporals of the same type.  ZonedDateTimes are compared by their local date/times.
+     * LocalDate, LocalDateTime and ZonedDateTime pairs of the same class are compared without conversion.
+     */
+    public final static Comparator<Temporal> TEMPORAL_COMPARATOR = DateTimeUtilities::compare;
+
+    private static int compare(Temporal t1, Temporal t2)
     {
+        Class<?> temporalClass = t1.getClass();
+        if (temporalClass == t2.getClass())
+        { // fast paths - no new objects
+            if (temporalClass == LocalDateTime.class) return ((LocalDateTime) t1).compareTo((LocalDateTime) t2);
+            if (temporalClass == LocalDate.class) return ((LocalDate) t1).compareTo((LocalDate) t2);
+            if (temporalClass == ZonedDateTime.class)
+            {
+                return ((ZonedDateTime) t1).toLocalDateTime().compareTo(((ZonedDateTime) t2).toLocalDateTime());
+            }
+        }
         LocalDateTime ld1 = (t1.isSupported(ChronoUnit.NANOS)) ? LocalDateTime.from(t1) : LocalDate.from(t1).atStartOfDay();
         LocalDateTime ld2 = (t2.isSupported(ChronoUnit.NANOS)) ? LocalDateTime.from(t2) : LocalDate.from(t2).atStartOfDay();
         return ld1.compareTo(ld2);
-    };
+    }
     
     /** Determines if Temporal is before t2
-     * Works for LocalDate or LocalDateTime
+     * Works for LocalDate, LocalDateTime or ZonedDateTime.  ZonedDateTimes are compared by instant.
      * 
      * @param t1 first Temporal
      * @param t2 second Temporal (to compare with t1)
@@ -106,16 +123,19 @@ public final class DateTimeUtilities
      */
     public static boolean isBefore(Temporal t1, Temporal t2)
     {
-        if (t1.getClass().equals(t2.getClass()))
+        Class<?> temporalClass = t1.getClass();
+        if (temporalClass != t2.getClass())
         {
-            LocalDateTime d1 = DateTimeUtilities.toLocalDateTime(t1);
-            LocalDateTime d2 = DateTimeUtilities.toLocalDateTime(t2);
-            return d1.isBefore(d2);
-        } throw new DateTimeException("For comparision, Temporal classes must be equal (" + t1.getClass().getSimpleName() + ", " + t2.getClass().getSimpleName() + ")");
+            throw new DateTimeException("For comparision, Temporal classes must be equal (" + t1.getClass().getSimpleName() + ", " + t2.getClass().getSimpleName() + ")");
+        }
+        if (temporalClass == LocalDateTime.class) return ((LocalDateTime) t1).isBefore((LocalDateTime) t2);
+        if (temporalClass == LocalDate.class) return ((LocalDate) t1).isBefore((LocalDate) t2);
+        if (temporalClass == ZonedDateTime.class) return ((ZonedDateTime) t1).isBefore((ZonedDateTime) t2);
+        return toLocalDateTime(t1).isBefore(toLocalDateTime(t2));
     }
 
     /** Determines if Temporal is after t2
-     * Works for LocalDate or LocalDateTime
+     * Works for LocalDate, LocalDateTime or ZonedDateTime.  ZonedDateTimes are compared by instant.
      * 
      * @param t1 first Temporal
      * @param t2 second Temporal (to compare with t1)
@@ -123,12 +143,7 @@ public final class DateTimeUtilities
      */
     public static boolean isAfter(Temporal t1, Temporal t2)
     {
-        if (t1.getClass().equals(t2.getClass()))
-        {
-            LocalDateTime d1 = DateTimeUtilities.toLocalDateTime(t1);
-            LocalDateTime d2 = DateTimeUtilities.toLocalDateTime(t2);
-            return d1.isAfter(d2);
-        } throw new DateTimeException("For comparision, Temporal classes must be equal (" + t1.getClass().getSimpleName() + ", " + t2.getClass().getSimpleName() + ")");
+        return isBefore(t2, t1);
     }
     
     /**
@@ -185,22 +200,66 @@ public final class DateTimeUtilities
      * e.g. VALUE=DATE:19960401         VALUE=DATE-TIME:19980101T050000Z
      * 
      * Based on ISO.8601.2004
+     * 
+     * @throws DateTimeException if temporalString isn't one of the above forms
      */
     public static Temporal parse(String temporalString)
     {
-        final String temporalStringAdjusted;
-        if (temporalString.matches("^VALUE=DATE-TIME:.*"))
+        // single pass - parameters, then digits.  Whitespace around the value is ignored.
+        int start = 0;
+        int end = temporalString.length();
+        while ((start < end) && Character.isWhitespace(temporalString.charAt(start))) start++;
+        while ((end > start) && Character.isWhitespace(temporalString.charAt(end-1))) end--;
+        boolean isDateOnly = false;
+        if (temporalString.startsWith("VALUE=DATE-TIME:", start))
         {
-            temporalStringAdjusted = temporalString.substring(temporalString.indexOf("VALUE=DATE-TIME:")+"VALUE=DATE-TIME:".length()).trim();
-        } else
+            start += "VALUE=DATE-TIME:".length();
+        } else if (temporalString.startsWith("VALUE=DATE:", start))
+        {
+            start += "VALUE=DATE:".length();
+            isDateOnly = true;
+        }
+        ZoneId zone = null;
+        if (temporalString.startsWith("TZID=", start))
+        {
+            int colon = temporalString.indexOf(':', start);
+            if (colon < 0) throw new DateTimeParseException("TZID has no value", temporalString, start);
+            zone = ZoneId.of(temporalString.substring(start + "TZID=".length(), colon));
+            start = colon + 1;
+        }
+        while ((start < end) && Character.isWhitespace(temporalString.charAt(start))) start++;
+
+        int length = end - start;
+        boolean isUTC = (length == 16) && (temporalString.charAt(end-1) == 'Z');
+        boolean isValid = (length == 8) ? (zone == null) : (! isDateOnly) && ((length == 15) || isUTC);
+        if (! isValid) throw new DateTimeParseException("Unsupported date or date/time", temporalString, start);
+        LocalDate date = LocalDate.of(parseDigits(temporalString, start, 4)
+                , parseDigits(temporalString, start+4, 2)
+                , parseDigits(temporalString, start+6, 2));
+        if (length == 8) return date;
+        if (temporalString.charAt(start+8) != 'T') throw new DateTimeParseException("Missing T", temporalString, start+8);
+        LocalDateTime dateTime = date.atTime(parseDigits(temporalString, start+9, 2)
+                , parseDigits(temporalString, start+11, 2)
+                , parseDigits(temporalString, start+13, 2));
+        if (isUTC)
+        {
+            ZonedDateTime utcDateTime = ZonedDateTime.of(dateTime, ZoneOffset.UTC);
+            return (zone == null) ? utcDateTime : utcDateTime.withZoneSameInstant(zone);
+        }
+        return (zone == null) ? dateTime : ZonedDateTime.of(dateTime, zone);
+    }
+
+    /* parses digits characters starting at index as a positive number */
+    private static int parseDigits(String text, int index, int digits)
+    {
+        int value = 0;
+        for (int i=index; i<index+digits; i++)
         {
-            temporalStringAdjusted = temporalString;
+            char c = text.charAt(i);
+            if ((c < '0') || (c > '9')) throw new DateTimeParseException("Expected digit", text, i);
+            value = value * 10 + (c - '0');
         }
-        return Arrays.stream(DateTimeType.values())
-                .filter(d -> temporalStringAdjusted.matches(d.getPattern()))
-                .findFirst()
-                .get()
-                .parse(temporalString);
+        return value;
     }
     
     /**
@@ -244,6 +303,45 @@ public final class DateTimeUtilities
         return (LocalDateTime) DateTimeType.DATE_WITH_LOCAL_TIME.from(temporal);
     }
     
+    /**
+     * Returns epoch second of a Temporal that is an instance of either LocalDate, LocalDateTime or ZonedDateTime.
+     * LocalDate is the start of the day in zone and LocalDateTime (floating time) is in zone.
+     */
+    public static long toEpochSecond(Temporal temporal, ZoneId zone)
+    {
+        if (temporal instanceof LocalDate)
+        {
+            return ((LocalDate) temporal).atStartOfDay(zone).toEpochSecond();
+        } else if (temporal instanceof LocalDateTime)
+        {
+            return ((LocalDateTime) temporal).atZone(zone).toEpochSecond();
+        } else if (temporal instanceof ZonedDateTime)
+        {
+            return ((ZonedDateTime) temporal).toEpochSecond();
+        }
+        throw new IllegalArgumentException("Unsupported Temporal class:" + temporal.getClass().getSimpleName());
+    }
+
+    /**
+     * Returns Temporal of the same type as dateTimeStart at or before epochSecond.
+     * Inverse of {@link #toEpochSecond(Temporal, ZoneId)}, a ZonedDateTime keeps the zone of dateTimeStart.
+     */
+    public static Temporal fromEpochSecond(long epochSecond, Temporal dateTimeStart, ZoneId zone)
+    {
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        if (dateTimeStart instanceof LocalDate)
+        {
+            return LocalDateTime.ofInstant(instant, zone).toLocalDate();
+        } else if (dateTimeStart instanceof LocalDateTime)
+        {
+            return LocalDateTime.ofInstant(instant, zone);
+        } else if (dateTimeStart instanceof ZonedDateTime)
+        {
+            return ZonedDateTime.ofInstant(instant, ((ZonedDateTime) dateTimeStart).getZone());
+        }
+        throw new IllegalArgumentException("Unsupported Temporal class:" + dateTimeStart.getClass().getSimpleName());
+    }
+    
     public enum DateTimeType
     {
         DATE ("^(VALUE=DATE:)?[0-9]{8}")
@@ -398,7 +496,7 @@ public final class DateTimeUtilities
                 if (temporal instanceof ZonedDateTime)
                 {
                     ZoneId z = ((ZonedDateTime) temporal).getZone();
-                    return z == ZoneId.of("Z");
+                    return z == ZoneOffset.UTC;
                 }
                 return false;
             }
@@ -465,10 +563,13 @@ public final class DateTimeUtilities
         /** Find DateTimeType of Temporal parameter temporal */
         public static DateTimeType of(Temporal temporal)
         {
-            return Arrays.stream(DateTimeType.values())
-                    .filter(d -> d.is(temporal))
-                    .findFirst()
-                    .get();
+            if (temporal instanceof LocalDate) return DATE;
+            if (temporal instanceof LocalDateTime) return DATE_WITH_LOCAL_TIME;
+            if (temporal instanceof ZonedDateTime)
+            {
+                return (((ZonedDateTime) temporal).getZone() == ZoneOffset.UTC) ? DATE_WITH_UTC_TIME : DATE_WITH_LOCAL_TIME_AND_TIME_ZONE;
+            }
+            throw new DateTimeException("Unsupported Temporal class:" + temporal.getClass().getSimpleName());
         }
         
         /**
@@ -0,0 +1,241 @@
+package jfxtras.labs.icalendar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming, single-pass pull parser for iCalendar content, RFC 5545.
+ *
+ * Reads characters incrementally from a Reader, unfolds content lines (RFC 5545 3.1, page 9) as it goes
+ * and reports one event at a time, similar to StAX:
+ *
+ * BEGIN:VEVENT produces BEGIN_COMPONENT with name VEVENT
+ * SUMMARY:test1 produces PROPERTY with name SUMMARY and value test1
+ * END:VEVENT produces END_COMPONENT with name VEVENT
+ *
+ * CRLF, LF and CR line endings are accepted.  Only the current content line is held in memory, so
+ * calendars of any size can be read in constant memory.
+ *
+ * Example:
+ * <pre>
+ * ICalendarParser parser = new ICalendarParser(reader);
+ * while (parser.next() != EventType.END_DOCUMENT)
+ * {
+ *     if (parser.getEventType() == EventType.PROPERTY) System.out.println(parser.getName() + " " + parser.getValue());
+ * }
+ * </pre>
+ *
+ * @author David Bal
+ * @see VCalendarUtilities#parseICalendar(Reader, VCalendar)
+ */
+public class ICalendarParser implements Closeable
+{
+    private final static String BEGIN = "BEGIN:";
+    private final static String END = "END:";
+    private final static int BUFFER_SIZE = 8192;
+
+    /** Kinds of events produced by {@link ICalendarParser#next()} */
+    public enum EventType
+    {
+        BEGIN_COMPONENT  // BEGIN:name line
+      , PROPERTY         // content line for a property
+      , END_COMPONENT    // END:name line
+      , END_DOCUMENT;    // no more content
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final StringBuilder lineBuilder = new StringBuilder(120);
+
+    /** Type of current event */
+    public EventType getEventType() { return eventType; }
+    private EventType eventType;
+
+    /** Component name for BEGIN_COMPONENT and END_COMPONENT, property name for PROPERTY (e.g. DTSTART) */
+    public String getName() { return name; }
+    private String name;
+
+    /** For PROPERTY, everything after the property name and its separator, including parameters
+     * (e.g. TZID=America/Los_Angeles:20160214T110000).  Null for other events. */
+    public String getValue() { return value; }
+    private String value;
+
+    /** Unfolded content line of current event */
+    public String getContentLine() { return contentLine; }
+    private String contentLine;
+
+    /** Number of open components.  Includes the component for a BEGIN_COMPONENT or END_COMPONENT event. */
+    public int getDepth() { return depth; }
+    private int depth;
+    private boolean endComponentPending; // depth is decremented on the event following END_COMPONENT
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    public ICalendarParser(Reader reader)
+    {
+        this.reader = reader;
+    }
+
+    /** Parser for UTF-8 encoded iCalendar content */
+    public ICalendarParser(ReadableByteChannel channel)
+    {
+        this(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1));
+    }
+
+    /**
+     * Advance to next event.
+     *
+     * @return - type of the new current event.  END_DOCUMENT when the content is exhausted.
+     * @throws IOException
+     */
+    public EventType next() throws IOException
+    {
+        if (endComponentPending)
+        {
+            depth--;
+            endComponentPending = false;
+        }
+        name = null;
+        value = null;
+        while ((contentLine = readContentLine()) != null)
+        {
+            if (contentLine.regionMatches(true, 0, BEGIN, 0, BEGIN.length()))
+            {
+                name = contentLine.substring(BEGIN.length()).trim().toUpperCase();
+                depth++;
+                return eventType = EventType.BEGIN_COMPONENT;
+            } else if (contentLine.regionMatches(true, 0, END, 0, END.length()))
+            {
+                name = contentLine.substring(END.length()).trim().toUpperCase();
+                endComponentPending = true;
+                return eventType = EventType.END_COMPONENT;
+            }
+            int separatorIndex = propertyValueSeparatorIndex(contentLine);
+            if (separatorIndex > 0)
+            {
+                name = contentLine.substring(0, separatorIndex).toUpperCase();
+                value = contentLine.substring(separatorIndex + 1);
+                return eventType = EventType.PROPERTY;
+            } // otherwise, line doesn't contain a property - skip
+        }
+        return eventType = EventType.END_DOCUMENT;
+    }
+
+    /**
+     * Returns the current component, from its BEGIN line to its matching END line, as a string of
+     * unfolded content lines each ended by a line separator.  Nested components are included.
+     * The parser must be on a BEGIN_COMPONENT event and is left on the matching END_COMPONENT event.
+     *
+     * @return - component string suitable for component parsing callbacks (e.g. VCalendar makeVEventCallback)
+     * @throws IOException
+     */
+    public String readComponent() throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append(contentLine).append(System.lineSeparator());
+        readToEndComponent(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Skips the current component, including nested components.
+     * The parser must be on a BEGIN_COMPONENT event and is left on the matching END_COMPONENT event.
+     *
+     * @throws IOException
+     */
+    public void skipComponent() throws IOException
+    {
+        readToEndComponent(null);
+    }
+
+    private void readToEndComponent(StringBuilder builder) throws IOException
+    {
+        if (eventType != EventType.BEGIN_COMPONENT)
+        {
+            throw new IllegalStateException("Parser must be on " + EventType.BEGIN_COMPONENT + " not " + eventType);
+        }
+        int componentDepth = depth;
+        String componentName = name;
+        while (next() != EventType.END_DOCUMENT)
+        {
+            if (builder != null) builder.append(contentLine).append(System.lineSeparator());
+            if ((eventType == EventType.END_COMPONENT) && (depth == componentDepth)) return;
+        }
+        throw new IllegalArgumentException("Missing END:" + componentName);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+    /*
+     * LINE READING
+     */
+
+    /* index of first ';' or ':', which separates the property name from the rest of the line */
+    private static int propertyValueSeparatorIndex(String line)
+    {
+        for (int i=0; i<line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if ((c == ';') || (c == ':')) return i;
+        }
+        return -1;
+    }
+
+    /* Read next unfolded content line, skipping blank lines.  Returns null at end of input */
+    private String readContentLine() throws IOException
+    {
+        lineBuilder.setLength(0);
+        int c;
+        while ((c = read()) != -1)
+        {
+            if ((c == '\r') || (c == '\n'))
+            {
+                if ((c == '\r') && (peek() == '\n')) read();
+                int next = peek();
+                if ((next == ' ') || (next == '\t'))
+                { // folded line - drop line break and the one leading whitespace character
+                    read();
+                    continue;
+                }
+                if (lineBuilder.length() > 0) return lineBuilder.toString();
+            } else
+            {
+                lineBuilder.append((char) c);
+            }
+        }
+        return (lineBuilder.length() == 0) ? null : lineBuilder.toString();
+    }
+
+    private int read() throws IOException
+    {
+        if ((position == limit) && ! fill()) return -1;
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException
+    {
+        if ((position == limit) && ! fill()) return -1;
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException
+    {
+        int count = reader.read(buffer, 0, buffer.length);
+        if (count <= 0) return false;
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
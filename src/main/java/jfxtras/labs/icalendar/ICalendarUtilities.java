@@ -35,6 +35,9 @@ public final class ICalendarUtilities
     final private static Comparator<? super Pair<String, String>> DTSTART_FIRST_COMPARATOR = (p1, p2) ->
         (p1.getKey().equals(VComponentProperty.DATE_TIME_START.toString())) ? -1 : 1;
 
+    /** matches CRLF, LF or CR line breaks */
+    private final static String LINE_BREAK_REGEX = "\\r\\n|\\r|\\n";
+
     /** key mapping to property value, instead of parameter value*/
     public final static String PROPERTY_VALUE_KEY = ":";
     
@@ -74,7 +77,7 @@ public final class ICalendarUtilities
     {
         List<Pair<String,String>> propertyPairs = new ArrayList<>();
         String storedLine = "";
-        Iterator<String> lineIterator = Arrays.stream( componentString.split(System.lineSeparator()) ).iterator();
+        Iterator<String> lineIterator = Arrays.stream( componentString.split(LINE_BREAK_REGEX) ).iterator();
         while (lineIterator.hasNext())
         {
             // unwrap lines by storing previous line, adding to it if next is a continuation
@@ -133,7 +136,6 @@ public final class ICalendarUtilities
      */
     public static Map<String,String> propertyLineToParameterMap(String propertyLine)
     {
-        System.out.println("propertyline:" + propertyLine);
         return Arrays.stream(propertyLine.split(";"))
 //                .peek(System.out::println)
                 .collect(Collectors.toMap(
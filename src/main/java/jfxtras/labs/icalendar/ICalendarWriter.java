@@ -0,0 +1,363 @@
+package jfxtras.labs.icalendar;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Iterator;
+
+import jfxtras.labs.icalendar.components.VAlarm;
+import jfxtras.labs.icalendar.components.VComponent;
+import jfxtras.labs.icalendar.components.VFreeBusy;
+import jfxtras.labs.icalendar.components.VTimeZone;
+
+/**
+ * Streaming writer of iCalendar content, RFC 5545.  The counterpart of {@link ICalendarParser}.
+ *
+ * Each content line is built in a reusable buffer and written as soon as it is complete, folded to
+ * 75 octets (RFC 5545 3.1, page 9) and ended with CRLF.  Folding never splits a UTF-8 multi-octet
+ * character.  Dates and date/times are written digit by digit instead of with a DateTimeFormatter.
+ * Only the current content line and a fixed output buffer are held in memory, so calendars of any size
+ * can be written in constant memory.
+ *
+ * Example:
+ * <pre>
+ * try (ICalendarWriter writer = new ICalendarWriter(Files.newBufferedWriter(path)))
+ * {
+ *     writer.writeCalendar(vCalendar);
+ * }
+ * </pre>
+ *
+ * Not thread-safe.
+ *
+ * @author David Bal
+ * @see VComponent#writeComponent(ICalendarWriter)
+ */
+public class ICalendarWriter implements Closeable, Flushable
+{
+    private final static int BUFFER_SIZE = 8192;
+    private final static int MAX_LINE_OCTETS = 75; // excluding CRLF
+
+    private final Writer writer; // null if writing to channel
+    private final WritableByteChannel channel; // null if writing to writer
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes;
+
+    private final char[] output = new char[BUFFER_SIZE];
+    private int outputLength;
+    private char[] line = new char[256];
+    private int lineLength;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    public ICalendarWriter(Writer writer)
+    {
+        this.writer = writer;
+        channel = null;
+        encoder = null;
+        bytes = null;
+    }
+
+    /** Writer of UTF-8 encoded iCalendar content */
+    public ICalendarWriter(WritableByteChannel channel)
+    {
+        writer = null;
+        this.channel = channel;
+        encoder = StandardCharsets.UTF_8.newEncoder();
+        bytes = ByteBuffer.allocate(BUFFER_SIZE * 2);
+    }
+
+    /*
+     * CALENDAR AND COMPONENTS
+     */
+
+    /**
+     * Writes the calendar's properties and all its components, from BEGIN:VCALENDAR to END:VCALENDAR
+     */
+    public ICalendarWriter writeCalendar(VCalendar vCalendar) throws IOException
+    {
+        beginComponent("VCALENDAR");
+        writeProperty("VERSION", vCalendar.getICalendarSpecificationVersion());
+        writeProperty("PRODID", vCalendar.getProductIdentifier());
+        writeProperty("CALSCALE", vCalendar.getCalendarScale());
+        writeProperty("METHOD", vCalendar.getObjectMethod());
+        for (VTimeZone vTimeZone : vCalendar.vTimeZones()) writeContentLines(vTimeZone.toComponentText());
+        for (VComponent<?> vComponent : vCalendar.vEvents()) vComponent.writeComponent(this);
+        for (VComponent<?> vComponent : vCalendar.vTodos()) vComponent.writeComponent(this);
+        for (VComponent<?> vComponent : vCalendar.vJournals()) vComponent.writeComponent(this);
+        for (VFreeBusy vFreeBusy : vCalendar.vFreeBusyList()) writeContentLines(vFreeBusy.toComponentText());
+        for (VAlarm vAlarm : vCalendar.vAlarms()) writeContentLines(vAlarm.toComponentText());
+        endComponent("VCALENDAR");
+        return this;
+    }
+
+    /** Writes BEGIN:name */
+    public ICalendarWriter beginComponent(String name) throws IOException
+    {
+        return writeProperty("BEGIN", name);
+    }
+
+    /** Writes END:name */
+    public ICalendarWriter endComponent(String name) throws IOException
+    {
+        return writeProperty("END", name);
+    }
+
+    /*
+     * CONTENT LINES
+     */
+
+    /**
+     * Writes name:value.  Nothing is written if value is null or empty.
+     */
+    public ICalendarWriter writeProperty(String name, CharSequence value) throws IOException
+    {
+        if ((value == null) || (value.length() == 0)) return this;
+        lineLength = 0;
+        append(name);
+        append(':');
+        append(value);
+        return endLine();
+    }
+
+    /**
+     * Writes a date or date/time property, such as DTSTART;TZID=America/New_York:20151109T100000.
+     * The form matches {@link DateTimeUtilities#dateTimePropertyTag(String, Temporal)} and
+     * {@link DateTimeUtilities#format(Temporal)}.  Nothing is written if temporal is null.
+     */
+    public ICalendarWriter writeDateTimeProperty(String name, Temporal temporal) throws IOException
+    {
+        if (temporal == null) return this;
+        lineLength = 0;
+        appendDateTimeTag(name, temporal);
+        appendDateTime(temporal);
+        return endLine();
+    }
+
+    /**
+     * Writes a property with a comma-separated list of dates or date/times, such as RDATE or EXDATE.
+     * The parameters are taken from the first one.  Nothing is written if temporals is null or empty.
+     */
+    public ICalendarWriter writeDateTimeProperty(String name, Collection<? extends Temporal> temporals) throws IOException
+    {
+        if ((temporals == null) || temporals.isEmpty()) return this;
+        lineLength = 0;
+        Iterator<? extends Temporal> i = temporals.iterator();
+        Temporal temporal = i.next();
+        appendDateTimeTag(name, temporal);
+        appendDateTime(temporal);
+        while (i.hasNext())
+        {
+            append(',');
+            appendDateTime(i.next());
+        }
+        return endLine();
+    }
+
+    /**
+     * Writes unfolded content lines, such as those made by toComponentText methods, one line for each line
+     * separator.  Empty lines are skipped.
+     */
+    public ICalendarWriter writeContentLines(CharSequence contentLines) throws IOException
+    {
+        if (contentLines == null) return this;
+        lineLength = 0;
+        for (int i=0; i<contentLines.length(); i++)
+        {
+            char c = contentLines.charAt(i);
+            if ((c == '\r') || (c == '\n'))
+            {
+                if (lineLength > 0) endLine();
+            } else
+            {
+                append(c);
+            }
+        }
+        if (lineLength > 0) endLine();
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+        flushOutput(false);
+        if (writer != null) writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        flushOutput(true);
+        if (writer != null) writer.close();
+        else channel.close();
+    }
+
+    /*
+     * LINE BUILDING
+     */
+
+    private void append(char c)
+    {
+        if (lineLength == line.length)
+        {
+            char[] newLine = new char[line.length * 2];
+            System.arraycopy(line, 0, newLine, 0, lineLength);
+            line = newLine;
+        }
+        line[lineLength++] = c;
+    }
+
+    private void append(CharSequence text)
+    {
+        for (int i=0; i<text.length(); i++) append(text.charAt(i));
+    }
+
+    private void appendDigits(int value, int digits)
+    {
+        for (int divisor = (digits == 4) ? 1000 : 10; divisor > 0; divisor /= 10)
+        {
+            append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private void appendDateTimeTag(String name, Temporal temporal)
+    {
+        append(name);
+        if (temporal instanceof LocalDate)
+        {
+            append(";VALUE=DATE");
+        } else if ((temporal instanceof ZonedDateTime) && (((ZonedDateTime) temporal).getZone() != ZoneOffset.UTC))
+        {
+            append(";TZID=");
+            append(((ZonedDateTime) temporal).getZone().getId());
+        }
+        append(':');
+    }
+
+    private void appendDateTime(Temporal temporal)
+    {
+        if (temporal instanceof LocalDate)
+        {
+            appendDate((LocalDate) temporal);
+        } else if (temporal instanceof LocalDateTime)
+        {
+            appendDate(((LocalDateTime) temporal).toLocalDate());
+            appendTime(((LocalDateTime) temporal).toLocalTime());
+        } else if (temporal instanceof ZonedDateTime)
+        {
+            ZonedDateTime zonedDateTime = (ZonedDateTime) temporal;
+            appendDate(zonedDateTime.toLocalDate());
+            appendTime(zonedDateTime.toLocalTime());
+            if (zonedDateTime.getZone() == ZoneOffset.UTC) append('Z');
+        } else
+        {
+            throw new IllegalArgumentException("Unsupported Temporal class:" + temporal.getClass().getSimpleName());
+        }
+    }
+
+    private void appendDate(LocalDate date)
+    {
+        int year = date.getYear();
+        if ((year < 0) || (year > 9999))
+        { // rare - formatter adds sign and extra digits
+            append(DateTimeUtilities.LOCAL_DATE_FORMATTER.format(date));
+            return;
+        }
+        appendDigits(year, 4);
+        appendDigits(date.getMonthValue(), 2);
+        appendDigits(date.getDayOfMonth(), 2);
+    }
+
+    private void appendTime(LocalTime time)
+    {
+        append('T');
+        appendDigits(time.getHour(), 2);
+        appendDigits(time.getMinute(), 2);
+        appendDigits(time.getSecond(), 2);
+    }
+
+    /*
+     * FOLDING AND OUTPUT
+     */
+
+    /* writes line folded to MAX_LINE_OCTETS, followed by CRLF */
+    private ICalendarWriter endLine() throws IOException
+    {
+        int octets = 0;
+        for (int i=0; i<lineLength; i++)
+        {
+            char c = line[i];
+            boolean isPair = Character.isHighSurrogate(c) && (i+1 < lineLength) && Character.isLowSurrogate(line[i+1]);
+            int size = (c < 0x80) ? 1 : (c < 0x800) ? 2 : isPair ? 4 : 3;
+            if (octets + size > MAX_LINE_OCTETS)
+            { // continuation line starts with a space
+                write('\r');
+                write('\n');
+                write(' ');
+                octets = 1;
+            }
+            write(c);
+            if (isPair) write(line[++i]);
+            octets += size;
+        }
+        write('\r');
+        write('\n');
+        lineLength = 0;
+        return this;
+    }
+
+    private void write(char c) throws IOException
+    {
+        if (outputLength == output.length) flushOutput(false);
+        output[outputLength++] = c;
+    }
+
+    /* Writes output buffer.  A surrogate pair split at the end of the buffer is kept until endOfInput. */
+    private void flushOutput(boolean endOfInput) throws IOException
+    {
+        if (writer != null)
+        {
+            writer.write(output, 0, outputLength);
+            outputLength = 0;
+            return;
+        }
+        CharBuffer chars = CharBuffer.wrap(output, 0, outputLength);
+        while (true)
+        {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isError()) result.throwException();
+            if (result.isUnderflow()) break;
+            drainBytes(); // overflow
+        }
+        if (endOfInput)
+        {
+            while (encoder.flush(bytes).isOverflow()) drainBytes();
+        }
+        drainBytes();
+        int remaining = chars.remaining();
+        System.arraycopy(output, chars.position(), output, 0, remaining);
+        outputLength = remaining;
+    }
+
+    private void drainBytes() throws IOException
+    {
+        bytes.flip();
+        while (bytes.hasRemaining()) channel.write(bytes);
+        bytes.clear();
+    }
+}
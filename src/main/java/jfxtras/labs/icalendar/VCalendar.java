@@ -1,5 +1,13 @@
 package jfxtras.labs.icalendar;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
@@ -8,6 +16,7 @@ import javafx.util.Callback;
 import jfxtras.labs.icalendar.VCalendarUtilities.VCalendarProperty;
 import jfxtras.labs.icalendar.components.VAlarm;
 import jfxtras.labs.icalendar.components.VComponent;
+import jfxtras.labs.icalendar.components.VComponentIntervalIndex;
 import jfxtras.labs.icalendar.components.VEvent;
 import jfxtras.labs.icalendar.components.VFreeBusy;
 import jfxtras.labs.icalendar.components.VJournal;
@@ -151,6 +160,15 @@ public class VCalendar
     public ObservableList<VEvent<?, ?>> vEvents() { return vEvents; }
     private ObservableList<VEvent<?,?>> vEvents = FXCollections.observableArrayList();
 
+    /**
+     * Interval index of vEvents.  Finds the VEvents that can have instances in a date/time range
+     * without checking every VEvent.  Kept synchronized with vEvents.
+     * 
+     * @see VComponentIntervalIndex
+     */
+    public VComponentIntervalIndex<VEvent<?,?>> vEventIndex() { return vEventIndex; }
+    private final VComponentIntervalIndex<VEvent<?,?>> vEventIndex = new VComponentIntervalIndex<>(vEvents);
+
     /** 
      * VEVENT Callback
      * Callback to make a VEvent from a string.  This defines how the specific VEvent implementation
@@ -223,7 +241,46 @@ public class VCalendar
      */
     public ObservableList<VTimeZone> vTimeZones() { return vTimeZones; }
     private ObservableList<VTimeZone> vTimeZones = FXCollections.observableArrayList();
-    
+    private final Map<String, ZoneTransitions> zoneTransitionsMap = new ConcurrentHashMap<>(); // by TZID
+    {
+        vTimeZones.addListener((InvalidationListener) obs -> zoneTransitionsMap.clear());
+    }
+
+    /**
+     * Offset transitions of the time zone with TZID, shared by all VComponents in this calendar.
+     * A VTIMEZONE in {@link #vTimeZones()} with the same TZID is used if present, otherwise the
+     * time-zone database's rules for the zone.
+     * 
+     * @param timeZoneIdentifier - TZID, such as America/Los_Angeles
+     * @return - compiled transition table
+     * @see ZoneTransitions
+     */
+    public ZoneTransitions zoneTransitions(String timeZoneIdentifier)
+    {
+        return zoneTransitionsMap.computeIfAbsent(timeZoneIdentifier, tzid -> vTimeZones()
+                .stream()
+                .filter(v -> tzid.equals(v.getTimeZoneIdentifier()))
+                .findFirst()
+                .map(v -> v.transitions())
+                .orElseGet(() -> ZoneTransitions.of(ZoneId.of(tzid))));
+    }
+
+    /**
+     * Epoch values of vComponent's recurrence set (see {@link VComponent#epochStream(Temporal)}) with the
+     * TZID of its DTSTART resolved against this calendar's VTIMEZONEs by {@link #zoneTransitions(String)}.
+     * 
+     * @param vComponent - component in this calendar
+     * @param startTemporal - start dates or date/times produced after this date
+     * @return - stream of epoch values for the recurrence set
+     */
+    public LongStream epochStream(VComponent<?> vComponent, Temporal startTemporal)
+    {
+        Temporal dateTimeStart = vComponent.getDateTimeStart();
+        ZoneTransitions transitions = (dateTimeStart instanceof ZonedDateTime)
+                ? zoneTransitions(((ZonedDateTime) dateTimeStart).getZone().getId()) : null;
+        return vComponent.epochStream(startTemporal, transitions);
+    }
+
     /** 
      * VALARM: RFC 5545 iCalendar 3.6.6. page 71
      * 
@@ -1,25 +1,34 @@
 package jfxtras.labs.icalendar;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
+import javafx.util.Callback;
 import javafx.util.Pair;
+import jfxtras.labs.icalendar.ICalendarParser.EventType;
+import jfxtras.labs.icalendar.components.VAlarm;
+import jfxtras.labs.icalendar.components.VTimeZone;
 
 public final class VCalendarUtilities
 {
     private VCalendarUtilities() { }
     
+    private final static String VCALENDAR = "VCALENDAR";
+    
     /**
      * Parse iCalendar ics and add its properties to vCalendar parameter
      * 
@@ -28,45 +37,159 @@ public final class VCalendarUtilities
      */
     public static void parseICalendarFile(Path icsFilePath, VCalendar vCalendar)
     {
-        ExecutorService service = Executors.newSingleThreadExecutor();
-        List<Callable<Object>> tasks = new ArrayList<>();
-        try
+        try (Reader reader = Files.newBufferedReader(icsFilePath))
         {
-            BufferedReader br = Files.newBufferedReader(icsFilePath);
-            Iterator<String> lineIterator = br.lines().iterator();
-            while (lineIterator.hasNext())
-            {
-                String line = lineIterator.next();
-                Pair<String, String> p = ICalendarUtilities.parsePropertyLine(line);
-                String propertyName = p.getKey();
-                Arrays.stream(VCalendarProperty.values())
-                        .forEach(property -> 
-                        {
-                            boolean matchOneLineProperty = propertyName.equals(property.toString());
-                            if (matchOneLineProperty)
-                            {
-                                property.parseAndSetProperty(vCalendar, p.getValue());
-                            } else if (line.equals(property.startDelimiter()))
-                            {// multi-line property
-                                StringBuilder propertyValue = new StringBuilder(line + System.lineSeparator());
-                                boolean matchEnd = false;
-                                do
-                                {
-                                    String propertyLine = lineIterator.next();
-                                    matchEnd = propertyLine.equals(property.endDelimiter());
-                                    propertyValue.append(propertyLine + System.lineSeparator());
-                                } while (! matchEnd);
-                                Runnable multiLinePropertyRunnable = () -> property.parseAndSetProperty(vCalendar, propertyValue.toString());
-                                tasks.add(Executors.callable(multiLinePropertyRunnable));
-                            } // otherwise, unknown property should be ignored
-                        });
-            }
-                service.invokeAll(tasks);
-        } catch (IOException | InterruptedException e)
+            parseICalendar(reader, vCalendar);
+        } catch (IOException e)
         {
             e.printStackTrace();
         }  
     }
+
+    /**
+     * Parse iCalendar ics and add its properties to vCalendar parameter.  VEVENT, VTODO and VJOURNAL
+     * components are made in parallel on executor (see {@link #parseICalendar(Reader, VCalendar, Executor)}).
+     * 
+     * @param icsFilePath - URI of ics file
+     * @param vCalendar - vCalendar object with callbacks set for making components (e.g. makeVEventCallback)
+     * @param executor - executor for making components, such as {@link ForkJoinPool#commonPool()}
+     */
+    public static void parseICalendarFile(Path icsFilePath, VCalendar vCalendar, Executor executor)
+    {
+        try (Reader reader = Files.newBufferedReader(icsFilePath))
+        {
+            parseICalendar(reader, vCalendar, executor);
+        } catch (IOException e)
+        {
+            e.printStackTrace();
+        }  
+    }
+
+    /**
+     * Write vCalendar to an ics file as UTF-8 iCalendar content.  Components are written one at a time,
+     * so the whole document is never held in memory (see {@link ICalendarWriter}).
+     * 
+     * @param icsFilePath - path of ics file, replaced if it exists
+     * @param vCalendar - calendar to write
+     * @throws IOException
+     */
+    public static void writeICalendarFile(Path icsFilePath, VCalendar vCalendar) throws IOException
+    {
+        try (ICalendarWriter writer = new ICalendarWriter(FileChannel.open(icsFilePath
+                , StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)))
+        {
+            writer.writeCalendar(vCalendar);
+        }
+    }
+
+    /**
+     * Parse iCalendar content in a single pass and add its properties to vCalendar parameter.
+     * Calendar properties are matched by name with a lookup table.  Each component is passed to its
+     * callback as soon as its END line is read, so only one component is held in memory at a time.
+     * Unknown properties and components are ignored.
+     * 
+     * @param reader - iCalendar content
+     * @param vCalendar - vCalendar object with callbacks set for making components (e.g. makeVEventCallback)
+     * @throws IOException
+     */
+    public static void parseICalendar(Reader reader, VCalendar vCalendar) throws IOException
+    {
+        parse(reader, vCalendar, (component, componentString) -> component.parseAndSetProperty(vCalendar, componentString));
+    }
+
+    /**
+     * Parse iCalendar content in a single pass and add its properties to vCalendar parameter, making the
+     * VEVENT, VTODO and VJOURNAL components in parallel.
+     * 
+     * The content is split into components on the calling thread.  Each component string is passed to its
+     * VCalendar callback (e.g. makeVEventCallback) on executor, so the callbacks must be thread-safe.
+     * When all components are made they are added to vEvents, vTodos and vJournals in one batch each,
+     * in the order they appear in the content.  Other components are handled on the calling thread.
+     * 
+     * @param reader - iCalendar content
+     * @param vCalendar - vCalendar object with callbacks set for making components (e.g. makeVEventCallback)
+     * @param executor - executor for making components, such as {@link ForkJoinPool#commonPool()}
+     * @throws IOException
+     */
+    public static void parseICalendar(Reader reader, VCalendar vCalendar, Executor executor) throws IOException
+    {
+        Map<VCalendarProperty, ComponentBatch<?>> batches = new EnumMap<>(VCalendarProperty.class);
+        parse(reader, vCalendar, (component, componentString) ->
+        {
+            ComponentBatch<?> batch = batches.computeIfAbsent(component, c -> c.newComponentBatch(vCalendar));
+            if (batch == null)
+            {
+                component.parseAndSetProperty(vCalendar, componentString);
+            } else
+            {
+                batch.submit(componentString, executor);
+            }
+        });
+        
+        // publish in one ordered batch for each component type
+        batches.values().forEach(ComponentBatch::publish);
+    }
+
+    /* Components of one type made in parallel by their VCalendar callback, added to their VCalendar
+     * list in the order they were submitted */
+    static class ComponentBatch<T>
+    {
+        private final Callback<String, T> callback;
+        private final List<T> components;
+        private final List<CompletableFuture<T>> madeComponents = new ArrayList<>();
+
+        ComponentBatch(Callback<String, T> callback, List<T> components)
+        {
+            this.callback = callback;
+            this.components = components;
+        }
+
+        void submit(String componentString, Executor executor)
+        {
+            madeComponents.add(CompletableFuture.supplyAsync(() -> callback.call(componentString), executor));
+        }
+
+        void publish()
+        {
+            components.addAll(madeComponents.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /* Parse loop shared by serial and parallel parsing.  componentHandler receives each known
+     * component with its component string. */
+    private static void parse(Reader reader, VCalendar vCalendar, BiConsumer<VCalendarProperty, String> componentHandler) throws IOException
+    {
+        ICalendarParser parser = new ICalendarParser(reader);
+        while (parser.next() != EventType.END_DOCUMENT)
+        {
+            switch (parser.getEventType())
+            {
+            case BEGIN_COMPONENT:
+                if (parser.getName().equals(VCALENDAR)) break; // calendar's properties and components follow
+                VCalendarProperty component = VCalendarProperty.propertyFromString(parser.getName());
+                if (component != null)
+                {
+                    componentHandler.accept(component, parser.readComponent());
+                } else
+                {
+                    parser.skipComponent();
+                }
+                break;
+            case PROPERTY:
+                VCalendarProperty property = VCalendarProperty.propertyFromString(parser.getName());
+                String value = parser.getValue().trim();
+                if ((property != null) && (property.endDelimiter() == null) && ! value.isEmpty())
+                {
+                    property.parseAndSetProperty(vCalendar, value);
+                }
+                break;
+            default:
+                break;
+            }
+        }
+    }
     
     /**
      * Parses the property-value pair to the matching property, if a match is found.
@@ -151,7 +274,7 @@ public final class VCalendarUtilities
             @Override
             public void parseAndSetProperty(VCalendar vCalendar, String value)
             {
-                throw new RuntimeException(toString() + " not supported.");
+                vCalendar.vAlarms().add(VAlarm.parse(value));
             }
 
             @Override
@@ -167,6 +290,9 @@ public final class VCalendarUtilities
                 vCalendar.vEvents().add( vCalendar.getMakeVEventCallback().call(value) );
             }
 
+            @Override
+            ComponentBatch<?> newComponentBatch(VCalendar vCalendar) { return new ComponentBatch<>(vCalendar.getMakeVEventCallback(), vCalendar.vEvents()); }
+
             @Override
             public String startDelimiter() { return "BEGIN:" + toString(); }
 
@@ -212,6 +338,9 @@ public final class VCalendarUtilities
                 vCalendar.vJournals().add( vCalendar.getMakeVJournalCallback().call(value) );
             }
 
+            @Override
+            ComponentBatch<?> newComponentBatch(VCalendar vCalendar) { return new ComponentBatch<>(vCalendar.getMakeVJournalCallback(), vCalendar.vJournals()); }
+
             @Override
             public String startDelimiter() { return "BEGIN:" + toString(); }
 
@@ -222,7 +351,7 @@ public final class VCalendarUtilities
             @Override
             public void parseAndSetProperty(VCalendar vCalendar, String value)
             {
-                // not supported - ignore property
+                vCalendar.vTimeZones().add(VTimeZone.parse(value));
             }
 
             @Override
@@ -238,6 +367,9 @@ public final class VCalendarUtilities
                 vCalendar.vTodos().add( vCalendar.getMakeVTodoCallback().call(value) );
             }
 
+            @Override
+            ComponentBatch<?> newComponentBatch(VCalendar vCalendar) { return new ComponentBatch<>(vCalendar.getMakeVTodoCallback(), vCalendar.vTodos()); }
+
             @Override
             public String startDelimiter() { return "BEGIN:" + toString(); }
 
@@ -284,6 +416,10 @@ public final class VCalendarUtilities
         /** returns string that delimitates end of property.  Is null for one-line properties*/
         public abstract String endDelimiter();
 
+        /** Batch that makes components from their strings for parallel parsing and adds them to vCalendar.
+         * Null if the property isn't a component made by a VCalendar callback */
+        ComponentBatch<?> newComponentBatch(VCalendar vCalendar) { return null; }
+
         /*
          * STATIC METHODS
          */
@@ -0,0 +1,166 @@
+package jfxtras.labs.icalendar;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled table of the UTC offset transitions of a time zone, for converting between local date/times
+ * and instants as primitive epoch seconds without making a ZonedDateTime or searching ZoneRules for
+ * every date/time.
+ *
+ * Conversions match ZonedDateTime: a local date/time in a gap (e.g. the hour skipped when daylight saving
+ * time starts) is moved later by the length of the gap, and a local date/time in an overlap (the hour
+ * repeated when it ends) uses the preferred offset if it is one of the two valid offsets, otherwise the
+ * earlier offset.
+ *
+ * A table compiled from ZoneRules covers 1800 to 2200 and uses the ZoneRules outside that range.
+ * A table compiled from a VTIMEZONE (see {@link jfxtras.labs.icalendar.components.VTimeZone}) uses the
+ * offset of its last transition for all later date/times.
+ *
+ * Tables are immutable and can be shared between threads.  {@link #of(ZoneId)} keeps one table per
+ * zone, so all VComponents with date/times in the same zone share it.
+ *
+ * @author David Bal
+ */
+public final class ZoneTransitions
+{
+    private final static long TABLE_START = LocalDateTime.of(1800, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private final static long TABLE_END = LocalDateTime.of(2200, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private final static Map<ZoneId, ZoneTransitions> CACHE = new ConcurrentHashMap<>();
+
+    private final long[] instants; // epoch second of each transition, ascending
+    private final int[] offsets; // offsets[i] is the offset before transition i, offsets[instants.length] after the last one
+    private final long[] localStarts; // earliest local epoch second of each transition's gap or overlap
+    private final long[] localEnds; // end of each transition's gap or overlap (exclusive)
+    private final ZoneRules rules; // for date/times outside table, null if table covers all date/times
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Table of transitions.  The offset before the first transition applies to all earlier date/times
+     * and the offset after the last one to all later date/times.
+     *
+     * @param instants - epoch second of each transition, ascending
+     * @param offsets - total offset seconds, one more than instants: the offset before the first transition
+     * followed by the offset after each transition
+     */
+    public ZoneTransitions(long[] instants, int[] offsets)
+    {
+        this(instants, offsets, null);
+    }
+
+    private ZoneTransitions(long[] instants, int[] offsets, ZoneRules rules)
+    {
+        if (offsets.length != instants.length + 1)
+        {
+            throw new IllegalArgumentException("There must be one more offset than instants (" + offsets.length + ", " + instants.length + ")");
+        }
+        this.instants = instants;
+        this.offsets = offsets;
+        this.rules = rules;
+        localStarts = new long[instants.length];
+        localEnds = new long[instants.length];
+        for (int i=0; i<instants.length; i++)
+        {
+            if ((i > 0) && (instants[i] <= instants[i-1])) throw new IllegalArgumentException("Transition instants must be ascending");
+            localStarts[i] = instants[i] + Math.min(offsets[i], offsets[i+1]);
+            localEnds[i] = instants[i] + Math.max(offsets[i], offsets[i+1]);
+        }
+    }
+
+    /** Shared table of zone's transitions from the time-zone database */
+    public static ZoneTransitions of(ZoneId zone)
+    {
+        return CACHE.computeIfAbsent(zone, z -> of(z.getRules()));
+    }
+
+    /** Table of the transitions of rules */
+    public static ZoneTransitions of(ZoneRules rules)
+    {
+        List<ZoneOffsetTransition> transitions = new ArrayList<>();
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(TABLE_START));
+        while ((transition != null) && (transition.toEpochSecond() < TABLE_END))
+        {
+            transitions.add(transition);
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        long[] instants = new long[transitions.size()];
+        int[] offsets = new int[transitions.size() + 1];
+        offsets[0] = rules.getOffset(Instant.ofEpochSecond(TABLE_START)).getTotalSeconds();
+        for (int i=0; i<instants.length; i++)
+        {
+            instants[i] = transitions.get(i).toEpochSecond();
+            offsets[i+1] = transitions.get(i).getOffsetAfter().getTotalSeconds();
+        }
+        return new ZoneTransitions(instants, offsets, rules.isFixedOffset() ? null : rules);
+    }
+
+    /** Number of transitions in table */
+    public int size() { return instants.length; }
+
+    /** Total offset seconds at the instant epochSecond */
+    public int offsetAt(long epochSecond)
+    {
+        if ((rules != null) && ((epochSecond < TABLE_START) || (epochSecond >= TABLE_END)))
+        {
+            return rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+        int index = Arrays.binarySearch(instants, epochSecond);
+        int transitionsBefore = (index >= 0) ? index + 1 : -index - 1; // a transition's own instant has the offset after it
+        return offsets[transitionsBefore];
+    }
+
+    /**
+     * Epoch second of a local date/time, like ZonedDateTime.ofLocal(localDateTime, zone, preferredOffset)
+     *
+     * @param localEpochSecond - local date/time as epoch second, as if it were UTC
+     * @param preferredOffset - total offset seconds to use in an overlap, if it is valid
+     * @return - epoch second of instant
+     */
+    public long toEpochSecond(long localEpochSecond, int preferredOffset)
+    {
+        if ((rules != null) && ((localEpochSecond < TABLE_START) || (localEpochSecond >= TABLE_END)))
+        {
+            return toEpochSecondByRules(localEpochSecond, preferredOffset);
+        }
+        // last transition whose gap or overlap starts on or before local date/time
+        int low = 0;
+        int high = localStarts.length;
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (localStarts[middle] <= localEpochSecond) low = middle + 1;
+            else high = middle;
+        }
+        int i = low - 1;
+        if (i < 0) return localEpochSecond - offsets[0];
+        int before = offsets[i];
+        int after = offsets[i+1];
+        if (localEpochSecond < localEnds[i])
+        {
+            if (after > before) return localEpochSecond - before; // gap - moved later by length of gap
+            return localEpochSecond - ((preferredOffset == after) ? after : before); // overlap
+        }
+        return localEpochSecond - after;
+    }
+
+    private long toEpochSecondByRules(long localEpochSecond, int preferredOffset)
+    {
+        LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+        List<ZoneOffset> validOffsets = rules.getValidOffsets(localDateTime);
+        if (validOffsets.size() == 1) return localEpochSecond - validOffsets.get(0).getTotalSeconds();
+        if (validOffsets.isEmpty()) return localEpochSecond - rules.getTransition(localDateTime).getOffsetBefore().getTotalSeconds();
+        return localEpochSecond - ((validOffsets.get(1).getTotalSeconds() == preferredOffset) ? preferredOffset : validOffsets.get(0).getTotalSeconds());
+    }
+}
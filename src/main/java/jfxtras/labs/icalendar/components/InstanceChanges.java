@@ -0,0 +1,122 @@
+package jfxtras.labs.icalendar.components;
+
+import java.time.LocalDate;
+import java.time.temporal.Temporal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes to the instances of VComponents made by an edit, such as a THIS_AND_FUTURE or ALL change
+ * to a series.  Only the removed and added instances change in the collection of all instances
+ * (e.g. Agenda's appointments).
+ *
+ * The previous instances of the edited VComponents are matched by start date to the instances the
+ * VComponents make after the edit.  A matched previous instance is updated in place
+ * (see {@link VComponent#updateInstance(Object, Object)}) and kept, so only the instances of dates
+ * that were added or removed are replaced.
+ *
+ * @author David Bal
+ *
+ * @param <I> - type of instance, such as Agenda's Appointment
+ */
+public class InstanceChanges<I>
+{
+    private final List<I> previousInstances;
+    private Map<LocalDate, Deque<I>> previousInstancesByDate; // made by the first remakeInstances
+    private final Set<I> keptInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final List<I> addedInstances = new ArrayList<>();
+
+    /**
+     * @param previousInstances - instances of the edited VComponents before the edit
+     */
+    public InstanceChanges(Collection<I> previousInstances)
+    {
+        this.previousInstances = new ArrayList<>(previousInstances);
+    }
+
+    /** Instances that are new, not updated previous instances */
+    public List<I> addedInstances() { return Collections.unmodifiableList(addedInstances); }
+
+    /** Previous instances that aren't kept */
+    public Set<I> removedInstances()
+    {
+        Set<I> removedInstances = Collections.newSetFromMap(new IdentityHashMap<>());
+        previousInstances.stream()
+                .filter(a -> ! keptInstances.contains(a))
+                .forEach(a -> removedInstances.add(a));
+        return removedInstances;
+    }
+
+    /**
+     * Makes the instances of vComponent in its current range.  A previous instance on the same date as a
+     * new instance is updated and replaces the new one in vComponent's instances.
+     *
+     * @param vComponent - edited VComponent, its range must be set
+     * @return - this InstanceChanges
+     */
+    public InstanceChanges<I> remakeInstances(VComponent<I> vComponent)
+    {
+        vComponent.instances().clear();
+        List<I> madeInstances = new ArrayList<>(vComponent.makeInstances());
+        if (previousInstancesByDate == null) previousInstancesByDate = indexByDate(vComponent);
+        vComponent.instances().clear();
+        for (I madeInstance : madeInstances)
+        {
+            Temporal start = vComponent.instanceStart(madeInstance);
+            Deque<I> previousOnDate = (start == null) ? null : previousInstancesByDate.get(LocalDate.from(start));
+            I previousInstance = (previousOnDate == null) ? null : previousOnDate.poll();
+            if (previousInstance == null)
+            {
+                addedInstances.add(madeInstance);
+                vComponent.instances().add(madeInstance);
+            } else
+            {
+                vComponent.updateInstance(previousInstance, madeInstance);
+                keptInstances.add(previousInstance);
+                vComponent.instances().add(previousInstance);
+            }
+        }
+        return this;
+    }
+
+    /* previous instances by start date, in their original order */
+    private Map<LocalDate, Deque<I>> indexByDate(VComponent<I> vComponent)
+    {
+        Map<LocalDate, Deque<I>> instancesByDate = new HashMap<>();
+        for (I instance : previousInstances)
+        {
+            Temporal start = vComponent.instanceStart(instance);
+            if (start != null)
+            {
+                instancesByDate.computeIfAbsent(LocalDate.from(start), d -> new ArrayDeque<>()).add(instance);
+            }
+        }
+        return instancesByDate;
+    }
+
+    /**
+     * Removes the previous instances that weren't kept from instances and adds the new ones.  The
+     * listeners of an ObservableList see the removal of each removed instance and the addition of the
+     * new ones; kept instances stay in the list.  A kept instance can belong to another VComponent
+     * after the edit (e.g. THIS_AND_FUTURE keeps the earlier instances in the copy of the original),
+     * so a map of instances to VComponents must be updated from the edited VComponents' instances.
+     * Nothing is changed if there were no previous or new instances.
+     *
+     * @param instances - all instances of all VComponents
+     */
+    public void apply(Collection<I> instances)
+    {
+        if (previousInstances.isEmpty() && addedInstances.isEmpty()) return;
+        Set<I> removedInstances = removedInstances();
+        if (! removedInstances.isEmpty()) instances.removeIf(a -> removedInstances.contains(a));
+        if (! addedInstances.isEmpty()) instances.addAll(addedInstances);
+    }
+}
@@ -0,0 +1,186 @@
+package jfxtras.labs.icalendar.components;
+
+import java.time.temporal.Temporal;
+import java.util.Iterator;
+
+import javafx.beans.InvalidationListener;
+import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.properties.recurrence.ExDate;
+import jfxtras.labs.icalendar.properties.recurrence.RDate;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+
+/**
+ * Summary of the recurrence set of a VComponent - its first and last date/time, the number of
+ * date/times and if it is an individual.  Values are calculated from {@link VComponent#stream(Temporal)}
+ * when first requested and kept until the recurrence set changes.
+ *
+ * The first date/time and the individual test only read the first two elements of the stream.  The
+ * last date/time and count walk the whole stream once, unless the RRULE is infinite.
+ *
+ * The summary is recalculated when DTSTART, RRULE, RDATE or EXDATE are replaced, which is detected by
+ * comparing them on each request because RDATE and EXDATE are lazily initialized properties.  In-place
+ * changes to the RRule and to the RDATE and EXDATE sets are caught by listeners.
+ *
+ * @author David Bal
+ * @see VComponent#recurrenceSummary()
+ */
+public class RecurrenceSummary
+{
+    private final VComponent<?> vComponent;
+
+    /* recurrence set properties the values were calculated for */
+    private Temporal dateTimeStart;
+    private RRule rRule;
+    private RDate rDate;
+    private ExDate exDate;
+    private boolean isValid;
+    private final InvalidationListener invalidationListener = (obs) -> invalidate();
+
+    private boolean isHeadValid;
+    private Temporal first;
+    private boolean hasSecond;
+
+    private boolean isTailValid;
+    private Temporal last;
+    private long count;
+
+    public RecurrenceSummary(VComponent<?> vComponent)
+    {
+        this.vComponent = vComponent;
+    }
+
+    /** Discard calculated values.  They are recalculated when next requested. */
+    public synchronized void invalidate()
+    {
+        isValid = false;
+    }
+
+    /** First date/time in recurrence set, null if it is empty */
+    public synchronized Temporal first()
+    {
+        validateHead();
+        return first;
+    }
+
+    /** Returns true if recurrence set has no date/times */
+    public boolean isEmpty()
+    {
+        return first() == null;
+    }
+
+    /** Returns true if recurrence set has exactly one date/time */
+    public synchronized boolean isIndividual()
+    {
+        validateHead();
+        return (first != null) && ! hasSecond;
+    }
+
+    /** Returns true if recurrence set has no end (RRULE without COUNT or UNTIL) */
+    public synchronized boolean isInfinite()
+    {
+        validate();
+        return (rRule != null) && rRule.isInfinite();
+    }
+
+    /** Last date/time in recurrence set, null if it is empty or infinite */
+    public synchronized Temporal last()
+    {
+        validateTail();
+        return last;
+    }
+
+    /** Number of date/times in recurrence set, -1 if infinite */
+    public synchronized long count()
+    {
+        validateTail();
+        return count;
+    }
+
+    /**
+     * Returns true if temporal is a date/time in the recurrence set.  Date/times outside the first and
+     * last date/times are rejected without streaming, others are found by seeking the stream to temporal.
+     */
+    public boolean contains(Temporal temporal)
+    {
+        Temporal first;
+        Temporal last;
+        synchronized (this)
+        {
+            validateHead();
+            first = this.first;
+            last = isTailValid ? this.last : null;
+        }
+        if (first == null) return false;
+        if (first.getClass() == temporal.getClass())
+        {
+            if (DateTimeUtilities.isBefore(temporal, first)) return false;
+            if ((last != null) && DateTimeUtilities.isAfter(temporal, last)) return false;
+        }
+        Iterator<Temporal> i = vComponent.stream(temporal).iterator();
+        while (i.hasNext())
+        {
+            Temporal t = i.next();
+            if (t.equals(temporal)) return true;
+            if (DateTimeUtilities.isAfter(t, temporal)) return false;
+        }
+        return false;
+    }
+
+    private void validateHead()
+    {
+        validate();
+        if (isHeadValid) return;
+        Iterator<Temporal> i = vComponent.stream(dateTimeStart).iterator();
+        first = i.hasNext() ? i.next() : null;
+        hasSecond = i.hasNext();
+        isHeadValid = true;
+    }
+
+    private void validateTail()
+    {
+        validate();
+        if (isTailValid) return;
+        if ((rRule != null) && rRule.isInfinite())
+        {
+            last = null;
+            count = -1;
+        } else
+        {
+            Iterator<Temporal> i = vComponent.stream(dateTimeStart).iterator();
+            Temporal myLast = null;
+            long myCount = 0;
+            while (i.hasNext())
+            {
+                myLast = i.next();
+                myCount++;
+            }
+            last = myLast;
+            count = myCount;
+        }
+        isTailValid = true;
+    }
+
+    /* check if recurrence set properties were replaced, move listeners to new ones */
+    private void validate()
+    {
+        boolean isSame = isValid
+                && (dateTimeStart == vComponent.getDateTimeStart())
+                && (rRule == vComponent.getRRule())
+                && (rDate == vComponent.getRDate())
+                && (exDate == vComponent.getExDate());
+        if (isSame) return;
+        if (rRule != null) rRule.removeListener(invalidationListener);
+        if (rDate != null) rDate.getTemporals().removeListener(invalidationListener);
+        if (exDate != null) exDate.getTemporals().removeListener(invalidationListener);
+        dateTimeStart = vComponent.getDateTimeStart();
+        rRule = vComponent.getRRule();
+        rDate = vComponent.getRDate();
+        exDate = vComponent.getExDate();
+        if (rRule != null) rRule.addListener(invalidationListener);
+        if (rDate != null) rDate.getTemporals().addListener(invalidationListener);
+        if (exDate != null) exDate.getTemporals().addListener(invalidationListener);
+        isHeadValid = false;
+        isTailValid = false;
+        isValid = true;
+    }
+}
@@ -0,0 +1,214 @@
+package jfxtras.labs.icalendar.components;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel.  Timers are kept in levels of 64 slots - level 0 slots are one tick wide,
+ * level 1 slots 64 ticks, level 2 slots 4096 ticks and so on.  A timer is placed in the level of the
+ * highest 6-bit digit in which its deadline tick differs from the current tick, so scheduling and
+ * cancelling are O(1).  When the current tick reaches a slot of a higher level, the slot's timers
+ * are cascaded down to lower levels.
+ *
+ * A bit mask of occupied slots in each level lets {@link #advance(long, Consumer)} jump directly to
+ * the next occupied slot, so advancing over long idle periods doesn't visit empty ticks.
+ *
+ * Timers whose deadline tick has been reached are held in a small priority queue, so they are
+ * removed in exact deadline order, ties in the order they were scheduled.
+ *
+ * Not thread-safe.
+ *
+ * @author David Bal
+ * @param <T> - type of timer value
+ * @see VAlarmScheduler
+ */
+class TimingWheel<T>
+{
+    private final static int BITS = 6;
+    private final static int SLOTS = 1 << BITS;
+    private final static int LEVELS = (Long.SIZE + BITS - 1) / BITS; // enough for any tick
+
+    private final long tickMillis;
+    private final long originTick; // ticks are counted from the tick the wheel was made in
+    private long currentTick;
+    private final Timer<T>[][] slots;
+    private final long[] occupied = new long[LEVELS]; // bit i set if slot i has a timer
+    private final PriorityQueue<Timer<T>> due = new PriorityQueue<>(Comparator
+            .<Timer<T>>comparingLong(t -> t.deadline)
+            .thenComparingLong(t -> t.sequence));
+    private long sequence;
+    private int size;
+
+    /** Scheduled value with its deadline in epoch milliseconds */
+    static final class Timer<T>
+    {
+        final T value;
+        final long deadline;
+        private final long sequence;
+        private Timer<T> previous;
+        private Timer<T> next;
+        private int level = -1; // -1 if not in a slot
+        private int slot;
+        private boolean isScheduled = true;
+
+        private Timer(T value, long deadline, long sequence)
+        {
+            this.value = value;
+            this.deadline = deadline;
+            this.sequence = sequence;
+        }
+
+        /** true until the timer expires or is cancelled */
+        boolean isScheduled() { return isScheduled; }
+    }
+
+    /**
+     * @param tickMillis - width of a level 0 slot in milliseconds
+     * @param nowMillis - current time in epoch milliseconds
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimingWheel(long tickMillis, long nowMillis)
+    {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive (" + tickMillis + ")");
+        this.tickMillis = tickMillis;
+        originTick = Math.floorDiv(nowMillis, tickMillis);
+        slots = new Timer[LEVELS][SLOTS];
+    }
+
+    /** Number of scheduled timers */
+    int size() { return size; }
+
+    /** Schedules value to expire at deadline in epoch milliseconds.  A deadline in the past expires on the next advance. */
+    Timer<T> schedule(T value, long deadline)
+    {
+        Timer<T> timer = new Timer<>(value, deadline, sequence++);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /** Removes timer, returns false if it already expired or was cancelled */
+    boolean cancel(Timer<T> timer)
+    {
+        if (! timer.isScheduled) return false;
+        if (timer.level >= 0) unlink(timer);
+        else due.remove(timer);
+        timer.isScheduled = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Expires, in deadline order, all timers with deadlines at or before nowMillis.  The consumer
+     * may schedule more timers; those that are already due expire in the same call.
+     *
+     * @param nowMillis - current time in epoch milliseconds
+     * @param consumer - receives the value of each expired timer
+     * @return - number of expired timers
+     */
+    int advance(long nowMillis, Consumer<T> consumer)
+    {
+        long targetTick = Math.max(Math.floorDiv(nowMillis, tickMillis) - originTick, currentTick);
+        int expired = 0;
+        while (true)
+        {
+            while (! due.isEmpty() && (due.peek().deadline <= nowMillis))
+            {
+                Timer<T> timer = due.poll();
+                timer.isScheduled = false;
+                size--;
+                expired++;
+                consumer.accept(timer.value);
+            }
+            if (currentTick >= targetTick) break;
+            long nextTick = nextOccupiedTick();
+            if (nextTick > targetTick)
+            {
+                currentTick = targetTick;
+            } else
+            {
+                currentTick = nextTick;
+                cascade();
+            }
+        }
+        return expired;
+    }
+
+    /* earliest tick after current tick that starts an occupied slot, Long.MAX_VALUE if none */
+    private long nextOccupiedTick()
+    {
+        long nextTick = Long.MAX_VALUE;
+        for (int level=0; level<LEVELS; level++)
+        {
+            if (occupied[level] == 0) continue;
+            int shift = BITS * level;
+            int digit = digit(currentTick, level);
+            long later = (digit == SLOTS - 1) ? 0 : occupied[level] & (-1L << (digit + 1));
+            if (later == 0) continue;
+            long higher = (shift + BITS >= Long.SIZE) ? 0 : (currentTick >>> (shift + BITS)) << (shift + BITS);
+            long tick = higher | ((long) Long.numberOfTrailingZeros(later) << shift);
+            nextTick = Math.min(nextTick, tick);
+        }
+        return nextTick;
+    }
+
+    /* move timers in slots that start at current tick down a level, or to due from level 0 */
+    private void cascade()
+    {
+        for (int level=LEVELS-1; level>=0; level--)
+        {
+            int shift = BITS * level;
+            if ((level > 0) && ((currentTick & ((1L << shift) - 1)) != 0)) continue; // not at start of slot
+            int digit = digit(currentTick, level);
+            Timer<T> timer = slots[level][digit];
+            if (timer == null) continue;
+            slots[level][digit] = null;
+            occupied[level] &= ~(1L << digit);
+            while (timer != null)
+            {
+                Timer<T> next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                timer.level = -1;
+                place(timer);
+                timer = next;
+            }
+        }
+    }
+
+    private void place(Timer<T> timer)
+    {
+        long deadlineTick = Math.floorDiv(timer.deadline, tickMillis) - originTick;
+        if (deadlineTick <= currentTick)
+        {
+            due.add(timer);
+            return;
+        }
+        int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(deadlineTick ^ currentTick)) / BITS;
+        int digit = digit(deadlineTick, level);
+        Timer<T> head = slots[level][digit];
+        timer.next = head;
+        if (head != null) head.previous = timer;
+        slots[level][digit] = timer;
+        occupied[level] |= 1L << digit;
+        timer.level = level;
+        timer.slot = digit;
+    }
+
+    private void unlink(Timer<T> timer)
+    {
+        if (timer.previous != null) timer.previous.next = timer.next;
+        else slots[timer.level][timer.slot] = timer.next;
+        if (timer.next != null) timer.next.previous = timer.previous;
+        if (slots[timer.level][timer.slot] == null) occupied[timer.level] &= ~(1L << timer.slot);
+        timer.previous = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+
+    private static int digit(long tick, int level)
+    {
+        return (int) ((tick >>> (BITS * level)) & (SLOTS - 1));
+    }
+}
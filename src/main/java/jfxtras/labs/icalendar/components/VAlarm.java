@@ -1,11 +1,231 @@
 package jfxtras.labs.icalendar.components;
 
-/** 
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javafx.util.Pair;
+import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.ICalendarUtilities;
+
+/**
  * VALARM: RFC 5545 iCalendar 3.6.6. page 71
- * 
- * Not implemented
+ *
+ * A reminder for a VEVENT or VTODO.  The TRIGGER is either a duration relative to the start or end
+ * of each occurrence of the parent component, or an absolute UTC date/time.  After the trigger the
+ * alarm repeats REPEAT more times, DURATION apart.
+ *
+ * Alarms are scheduled by {@link VAlarmScheduler}.  ATTACH and ATTENDEE properties aren't supported.
+ *
+ * @author David Bal
+ * @see VAlarmScheduler
  */
 public class VAlarm
 {
-    public VAlarm() { throw new RuntimeException("not supported"); }
+    private final static Pattern WEEK_DURATION_PATTERN = Pattern.compile("([+-]?)P(\\d+)W");
+
+    /**
+     * ACTION: RFC 5545 iCalendar 3.8.6.1 page 132
+     * AUDIO, DISPLAY or EMAIL.  The default is DISPLAY.
+     */
+    public String getAction() { return action; }
+    private String action = "DISPLAY";
+    public void setAction(String action) { this.action = action; }
+    public VAlarm withAction(String action) { setAction(action); return this; }
+
+    /**
+     * DESCRIPTION: RFC 5545 iCalendar 3.8.1.5. page 84
+     * Text displayed by a DISPLAY alarm or body of an EMAIL alarm
+     */
+    public String getDescription() { return description; }
+    private String description;
+    public void setDescription(String description) { this.description = description; }
+    public VAlarm withDescription(String description) { setDescription(description); return this; }
+
+    /**
+     * SUMMARY: RFC 5545 iCalendar 3.8.1.12. page 83
+     * Subject of an EMAIL alarm
+     */
+    public String getSummary() { return summary; }
+    private String summary;
+    public void setSummary(String summary) { this.summary = summary; }
+    public VAlarm withSummary(String summary) { setSummary(summary); return this; }
+
+    /**
+     * TRIGGER: RFC 5545 iCalendar 3.8.6.3 page 133
+     * Duration relative to the start (or end, see {@link #isRelatedToEnd()}) of each occurrence of
+     * the parent component, such as -PT15M for 15 minutes before.  Null if the trigger is absolute.
+     */
+    public Duration getTrigger() { return trigger; }
+    private Duration trigger;
+    public void setTrigger(Duration trigger) { this.trigger = trigger; if (trigger != null) triggerDateTime = null; }
+    public VAlarm withTrigger(Duration trigger) { setTrigger(trigger); return this; }
+
+    /** true if {@link #getTrigger()} is relative to the end of each occurrence (RELATED=END) */
+    public boolean isRelatedToEnd() { return isRelatedToEnd; }
+    private boolean isRelatedToEnd;
+    public void setRelatedToEnd(boolean isRelatedToEnd) { this.isRelatedToEnd = isRelatedToEnd; }
+    public VAlarm withRelatedToEnd(boolean isRelatedToEnd) { setRelatedToEnd(isRelatedToEnd); return this; }
+
+    /**
+     * TRIGGER with VALUE=DATE-TIME: absolute trigger in UTC.  Null if the trigger is relative.
+     */
+    public ZonedDateTime getTriggerDateTime() { return triggerDateTime; }
+    private ZonedDateTime triggerDateTime;
+    public void setTriggerDateTime(ZonedDateTime triggerDateTime) { this.triggerDateTime = triggerDateTime; if (triggerDateTime != null) trigger = null; }
+    public VAlarm withTriggerDateTime(ZonedDateTime triggerDateTime) { setTriggerDateTime(triggerDateTime); return this; }
+
+    /**
+     * DURATION: RFC 5545 iCalendar 3.8.2.5 page 99
+     * Time between repetitions of the alarm
+     */
+    public Duration getDuration() { return duration; }
+    private Duration duration;
+    public void setDuration(Duration duration) { this.duration = duration; }
+    public VAlarm withDuration(Duration duration) { setDuration(duration); return this; }
+
+    /**
+     * REPEAT: RFC 5545 iCalendar 3.8.6.2 page 133
+     * Number of times the alarm repeats after the trigger
+     */
+    public int getRepeat() { return repeat; }
+    private int repeat;
+    public void setRepeat(int repeat)
+    {
+        if (repeat < 0) throw new IllegalArgumentException("REPEAT can't be negative (" + repeat + ")");
+        this.repeat = repeat;
+    }
+    public VAlarm withRepeat(int repeat) { setRepeat(repeat); return this; }
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    public VAlarm() { }
+
+    /**
+     * Parse a VALARM component.  Unknown properties are ignored.
+     *
+     * @param componentString - content lines from BEGIN:VALARM to END:VALARM
+     * @return - the parsed VAlarm
+     */
+    public static VAlarm parse(String componentString)
+    {
+        VAlarm vAlarm = new VAlarm();
+        for (Pair<String, String> pair : ICalendarUtilities.componentStringToPropertyList(componentString))
+        {
+            String value = pair.getValue();
+            switch (pair.getKey().toUpperCase())
+            {
+            case "ACTION":
+                vAlarm.setAction(value);
+                break;
+            case "DESCRIPTION":
+                vAlarm.setDescription(value);
+                break;
+            case "SUMMARY":
+                vAlarm.setSummary(value);
+                break;
+            case "DURATION":
+                vAlarm.setDuration(parseDuration(value));
+                break;
+            case "REPEAT":
+                vAlarm.setRepeat(Integer.parseInt(value));
+                break;
+            case "TRIGGER":
+                vAlarm.parseTrigger(value);
+                break;
+            default:
+                break; // ignore unknown property
+            }
+        }
+        return vAlarm;
+    }
+
+    /* value is parameters and value of TRIGGER line, e.g. RELATED=END:-PT5M */
+    private void parseTrigger(String value)
+    {
+        int valueIndex = value.indexOf(':');
+        Map<String, String> parameters = (valueIndex < 0) ? null
+                : ICalendarUtilities.propertyLineToParameterMap(value.substring(0, valueIndex));
+        String triggerValue = value.substring(valueIndex + 1);
+        if ((parameters != null) && "DATE-TIME".equals(parameters.get("VALUE")))
+        {
+            Temporal dateTime = DateTimeUtilities.parse(triggerValue);
+            if (! (dateTime instanceof ZonedDateTime))
+            {
+                throw new IllegalArgumentException("TRIGGER date/time must be in UTC (" + triggerValue + ")");
+            }
+            setTriggerDateTime((ZonedDateTime) dateTime);
+        } else
+        {
+            setTrigger(parseDuration(triggerValue));
+            setRelatedToEnd((parameters != null) && "END".equals(parameters.get("RELATED")));
+        }
+    }
+
+    /* Duration.parse with iCalendar's week form, e.g. P2W */
+    private static Duration parseDuration(String value)
+    {
+        Matcher matcher = WEEK_DURATION_PATTERN.matcher(value.trim());
+        if (matcher.matches())
+        {
+            Duration weeks = Duration.ofDays(7 * Long.parseLong(matcher.group(2)));
+            return matcher.group(1).equals("-") ? weeks.negated() : weeks;
+        }
+        return Duration.parse(value.trim());
+    }
+
+    /* iCalendar puts the sign before P, e.g. -PT15M instead of Duration's PT-15M */
+    private static String formatDuration(Duration duration)
+    {
+        return duration.isNegative() ? "-" + duration.negated() : duration.toString();
+    }
+
+    /** Checks REPEAT has a DURATION and there is a TRIGGER.  Returns null if valid, otherwise the error. */
+    public String errorString()
+    {
+        List<String> errors = new ArrayList<>();
+        if ((trigger == null) && (triggerDateTime == null)) errors.add("TRIGGER is not present.  TRIGGER is REQUIRED and MUST NOT occur more than once");
+        if ((repeat > 0) && ((duration == null) || duration.isZero() || duration.isNegative()))
+        {
+            errors.add("REPEAT is " + repeat + " but DURATION isn't positive.  DURATION and REPEAT MUST both occur");
+        }
+        return (errors.isEmpty()) ? null : errors.stream().collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    /** true if the alarm can be scheduled */
+    public boolean isValid() { return errorString() == null; }
+
+    /** Produces a VALARM component */
+    public String toComponentText()
+    {
+        List<String> properties = new ArrayList<>();
+        properties.add("ACTION:" + getAction());
+        if (getTrigger() != null)
+        {
+            properties.add("TRIGGER" + (isRelatedToEnd() ? ";RELATED=END:" : ":") + formatDuration(getTrigger()));
+        } else if (getTriggerDateTime() != null)
+        {
+            properties.add("TRIGGER;VALUE=DATE-TIME:" + DateTimeUtilities.format(getTriggerDateTime()));
+        }
+        if (getRepeat() > 0) properties.add("REPEAT:" + getRepeat());
+        if (getDuration() != null) properties.add("DURATION:" + formatDuration(getDuration()));
+        if (getSummary() != null) properties.add("SUMMARY:" + getSummary());
+        if (getDescription() != null) properties.add("DESCRIPTION:" + getDescription());
+        String propertiesString = properties
+                .stream()
+                .map(p -> p + System.lineSeparator())
+                .collect(Collectors.joining());
+        return "BEGIN:VALARM" + System.lineSeparator() + propertiesString + "END:VALARM";
+    }
+
+    @Override
+    public String toString() { return super.toString() + System.lineSeparator() + "[" + toComponentText() + "]"; }
 }
@@ -0,0 +1,253 @@
+package jfxtras.labs.icalendar.components;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAmount;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+import jfxtras.labs.icalendar.DateTimeUtilities;
+
+/**
+ * Scheduler of VALARM triggers for thousands of recurring VComponents.
+ *
+ * Each armed alarm holds a lazy iterator over its parent's recurrence set and only its next trigger time
+ * is scheduled, in a hierarchical timing wheel (O(1) arm and cancel).  When the trigger fires, the next
+ * repetition or occurrence is taken from the iterator and scheduled, so future occurrences are never
+ * materialized.
+ *
+ * Time comes from a {@link Clock}.  The scheduler doesn't own a thread - the application calls
+ * {@link #advance()} periodically (e.g. once a second from a ScheduledExecutorService or a JavaFX Timeline),
+ * and every trigger at or before the clock's instant fires in trigger order, ties in the order the alarms
+ * were armed.  A fixed or hand-advanced clock makes the scheduler deterministic for testing.
+ *
+ * Triggers earlier than the clock's instant when an alarm is armed are skipped.  A parent that is edited
+ * after its alarms are armed must have its alarms cancelled and armed again.  DATE and floating DATE-TIME
+ * values are converted to instants in the scheduler's zone.
+ *
+ * Not thread-safe - arm, cancel and advance must be called on the same thread.
+ *
+ * @author David Bal
+ * @see VAlarm
+ */
+public class VAlarmScheduler
+{
+    private final Clock clock;
+    private final ZoneId zone;
+    private final Consumer<Firing> handler;
+    private final TimingWheel<Armed> wheel;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Scheduler with one second precision
+     *
+     * @param clock - source of current time
+     * @param zone - zone of DATE and floating DATE-TIME values
+     * @param handler - receives each fired trigger
+     */
+    public VAlarmScheduler(Clock clock, ZoneId zone, Consumer<Firing> handler)
+    {
+        this(clock, zone, Duration.ofSeconds(1), handler);
+    }
+
+    /**
+     * @param clock - source of current time
+     * @param zone - zone of DATE and floating DATE-TIME values
+     * @param tick - width of the timing wheel's finest slot.  Triggers still fire in exact order.
+     * @param handler - receives each fired trigger
+     */
+    public VAlarmScheduler(Clock clock, ZoneId zone, Duration tick, Consumer<Firing> handler)
+    {
+        this.clock = clock;
+        this.zone = zone;
+        this.handler = handler;
+        wheel = new TimingWheel<>(tick.toMillis(), clock.millis());
+    }
+
+    /** Number of armed alarms with a trigger still to fire */
+    public int size() { return wheel.size(); }
+
+    /**
+     * Arms alarm for each occurrence of parent's recurrence set.  An alarm with an absolute trigger
+     * fires once, independent of the recurrence set.
+     *
+     * @param parent - VEVENT or VTODO the alarm belongs to
+     * @param alarm - alarm to schedule
+     * @return - handle to cancel the alarm
+     * @throws IllegalArgumentException if the alarm isn't valid
+     */
+    public Armed arm(VComponent<?> parent, VAlarm alarm)
+    {
+        if (! alarm.isValid()) throw new IllegalArgumentException("Invalid VAlarm: " + alarm.errorString());
+        Armed armed = new Armed(parent, alarm);
+        armed.scheduleNext(clock.millis());
+        return armed;
+    }
+
+    /**
+     * Fires all triggers at or before the clock's current instant
+     *
+     * @return - number of fired triggers
+     */
+    public int advance()
+    {
+        long now = clock.millis();
+        return wheel.advance(now, armed ->
+        {
+            handler.accept(armed.firing());
+            armed.scheduleNext(armed.triggerMillis + 1);
+        });
+    }
+
+    /**
+     * Alarm armed for a parent VComponent.  Produces the parent's occurrences lazily.
+     */
+    public class Armed
+    {
+        private final VComponent<?> parent;
+        private final VAlarm alarm;
+        private final long triggerOffsetMillis;
+        private final long repeatMillis;
+        private final long endOffsetMillis; // duration of parent if trigger is related to end, otherwise 0
+        private Iterator<Temporal> occurrences; // null before first use and for absolute trigger
+        private boolean isAbsoluteTriggerUsed;
+        private Temporal occurrence;
+        private long occurrenceMillis; // trigger of occurrence before repetitions
+        private int repetition;
+        private long triggerMillis;
+        private boolean isDone;
+        private TimingWheel.Timer<Armed> timer;
+
+        private Armed(VComponent<?> parent, VAlarm alarm)
+        {
+            this.parent = parent;
+            this.alarm = alarm;
+            triggerOffsetMillis = (alarm.getTrigger() == null) ? 0 : alarm.getTrigger().toMillis();
+            repeatMillis = (alarm.getRepeat() == 0) ? 0 : alarm.getDuration().toMillis();
+            long endOffset = 0;
+            if (alarm.isRelatedToEnd() && (parent instanceof VEvent) && (parent.getDateTimeStart() != null))
+            {
+                VEvent<?,?> vEvent = (VEvent<?,?>) parent;
+                TemporalAmount duration = vEvent.endType().getDuration(vEvent);
+                if (duration != null)
+                {
+                    Temporal start = parent.getDateTimeStart();
+                    endOffset = (DateTimeUtilities.toEpochSecond(start.plus(duration), zone) - DateTimeUtilities.toEpochSecond(start, zone)) * 1000;
+                }
+            }
+            endOffsetMillis = endOffset;
+            repetition = alarm.getRepeat(); // so first call moves to first occurrence
+        }
+
+        public VComponent<?> getParent() { return parent; }
+        public VAlarm getAlarm() { return alarm; }
+
+        /** true until all triggers have fired or the alarm is cancelled */
+        public boolean isArmed() { return (timer != null) && timer.isScheduled(); }
+
+        /** Epoch milliseconds of next trigger, if armed */
+        public long nextTriggerMillis() { return triggerMillis; }
+
+        /** Removes alarm from scheduler.  Returns false if it wasn't armed. */
+        public boolean cancel()
+        {
+            isDone = true;
+            return (timer != null) && wheel.cancel(timer);
+        }
+
+        private Firing firing()
+        {
+            return new Firing(parent, alarm, occurrence, repetition, triggerMillis);
+        }
+
+        /* schedule first trigger at or after notBefore */
+        private void scheduleNext(long notBefore)
+        {
+            while (! isDone)
+            {
+                if (repetition < alarm.getRepeat())
+                {
+                    repetition++;
+                } else if (! nextOccurrence(notBefore))
+                {
+                    isDone = true;
+                    return;
+                }
+                triggerMillis = occurrenceMillis + repetition * repeatMillis;
+                if (triggerMillis >= notBefore)
+                {
+                    timer = wheel.schedule(this, triggerMillis);
+                    return;
+                }
+            }
+        }
+
+        /* moves to next occurrence, returns false if there are no more */
+        private boolean nextOccurrence(long notBefore)
+        {
+            repetition = 0;
+            if (alarm.getTriggerDateTime() != null)
+            {
+                if (isAbsoluteTriggerUsed) return false; // absolute trigger fires once
+                isAbsoluteTriggerUsed = true;
+                occurrenceMillis = alarm.getTriggerDateTime().toInstant().toEpochMilli();
+                return true;
+            }
+            Temporal dateTimeStart = parent.getDateTimeStart();
+            if (dateTimeStart == null) return false;
+            if (occurrences == null)
+            {
+                // seek to occurrences whose last repetition can be at or after notBefore, with a day for time zone transitions
+                long seekMillis = notBefore - triggerOffsetMillis - endOffsetMillis - alarm.getRepeat() * repeatMillis - 86_400_000L;
+                occurrences = parent.stream(DateTimeUtilities.fromEpochSecond(Math.floorDiv(seekMillis, 1000), dateTimeStart, zone)).iterator();
+            }
+            if (! occurrences.hasNext()) return false;
+            occurrence = occurrences.next();
+            occurrenceMillis = DateTimeUtilities.toEpochSecond(occurrence, zone) * 1000 + endOffsetMillis + triggerOffsetMillis;
+            return true;
+        }
+
+        @Override
+        public String toString() { return super.toString() + " " + parent.getUniqueIdentifier() + " next:" + triggerMillis; }
+    }
+
+    /**
+     * A fired trigger
+     */
+    public static class Firing
+    {
+        private final VComponent<?> parent;
+        private final VAlarm alarm;
+        private final Temporal occurrence;
+        private final int repetition;
+        private final long triggerMillis;
+
+        Firing(VComponent<?> parent, VAlarm alarm, Temporal occurrence, int repetition, long triggerMillis)
+        {
+            this.parent = parent;
+            this.alarm = alarm;
+            this.occurrence = occurrence;
+            this.repetition = repetition;
+            this.triggerMillis = triggerMillis;
+        }
+
+        /** VComponent the alarm belongs to */
+        public VComponent<?> getParent() { return parent; }
+        /** Alarm that fired */
+        public VAlarm getAlarm() { return alarm; }
+        /** Start of parent's occurrence the trigger is for, null for an absolute trigger */
+        public Temporal getOccurrence() { return occurrence; }
+        /** 0 for the trigger, then 1 to REPEAT for the repetitions */
+        public int getRepetition() { return repetition; }
+        /** Epoch milliseconds of the trigger */
+        public long getTriggerMillis() { return triggerMillis; }
+
+        @Override
+        public String toString() { return super.toString() + " " + parent.getUniqueIdentifier() + " " + occurrence + " repetition:" + repetition; }
+    }
+}
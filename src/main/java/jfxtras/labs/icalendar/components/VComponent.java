@@ -1,5 +1,6 @@
 package jfxtras.labs.icalendar.components;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -14,6 +15,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import javafx.beans.property.IntegerProperty;
@@ -22,11 +24,14 @@ import javafx.beans.property.StringProperty;
 import javafx.util.Callback;
 import jfxtras.labs.icalendar.DateTimeUtilities;
 import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
+import jfxtras.labs.icalendar.ICalendarWriter;
 import jfxtras.labs.icalendar.ICalendarUtilities.ChangeDialogOption;
+import jfxtras.labs.icalendar.ZoneTransitions;
 import jfxtras.labs.icalendar.properties.descriptive.Comment;
 import jfxtras.labs.icalendar.properties.descriptive.Summary;
 import jfxtras.labs.icalendar.properties.recurrence.ExDate;
 import jfxtras.labs.icalendar.properties.recurrence.RDate;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDays;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
 
 /** Interface for VEVENT, VTODO, VJOURNAL calendar components. 
@@ -351,6 +356,31 @@ public interface VComponent<I>
      */
     Stream<Temporal> stream(Temporal startTemporal);
 
+    /** Epoch values of {@link #stream(Temporal)} - epoch days for a LocalDate DTSTART and epoch seconds
+     * otherwise (see {@link EpochDays}).  For bulk consumers, such as free/busy time and indexing,
+     * that don't need Temporals.
+     * 
+     * @param startTemporal - start dates or date/times produced after this date
+     * @return - stream of epoch values for the recurrence set
+     */
+    default LongStream epochStream(Temporal startTemporal)
+    {
+        return epochStream(startTemporal, null);
+    }
+
+    /** Same as {@link #epochStream(Temporal)}, but zoned date/times are converted to instants with
+     * zoneTransitions instead of the time-zone database.  Used to apply the VTIMEZONE of DTSTART's TZID.
+     * 
+     * @param startTemporal - start dates or date/times produced after this date
+     * @param zoneTransitions - transitions of DTSTART's zone, null to use the time-zone database
+     * @return - stream of epoch values for the recurrence set
+     * @see jfxtras.labs.icalendar.VCalendar#epochStream(VComponent, Temporal)
+     */
+    default LongStream epochStream(Temporal startTemporal, ZoneTransitions zoneTransitions)
+    {
+        return stream(startTemporal).mapToLong(t -> EpochDays.toEpoch(t, zoneTransitions));
+    }
+
     /**
      * Produces a stream of start dates or date/times by calling {@link #stream(Temporal)} using {@link #getStartRange()}
      * as the temporal parameter, minus the duration if the VComponent has one.  This stream is used
@@ -421,7 +451,30 @@ public interface VComponent<I>
      * @see makeRecurrenceSet
      */
     Collection<I> instances();
-       
+
+    /**
+     * Returns the start date or date/time of instance, an instance made by {@link #makeInstances()}.
+     * Edits use it to match previous instances to the ones made after the edit (see {@link InstanceChanges}).
+     * The default returns null, so previous instances are always replaced.
+     *
+     * @param instance - instance made by a VComponent of this type
+     * @return - start of instance, or null if unknown
+     */
+    default Temporal instanceStart(I instance) { return null; }
+
+    /**
+     * Copies the values of madeInstance, a new instance, into instance, a previous instance on the same
+     * date, so an edit can keep instance instead of replacing it.  Only called when
+     * {@link #instanceStart(Object)} returns a value.
+     *
+     * @param instance - previous instance, updated
+     * @param madeInstance - instance made after the edit
+     */
+    default void updateInstance(I instance, I madeInstance)
+    {
+        throw new UnsupportedOperationException("Instances can't be updated");
+    }
+
     /**
      * returns string of line-separated properties defining calendar component.
      * 
@@ -439,6 +492,19 @@ public interface VComponent<I>
      * 
      */
     String toComponentText();
+
+    /**
+     * Writes the calendar component to writer, folded with CRLF line endings.  Unlike
+     * {@link #toComponentText()} the properties are written as they are made, without building the
+     * component's text.  The default writes the lines of {@link #toComponentText()}.
+     * 
+     * @param writer - destination of content lines
+     * @throws IOException
+     */
+    default void writeComponent(ICalendarWriter writer) throws IOException
+    {
+        writer.writeContentLines(toComponentText());
+    }
     
     /**
      * Handles how an edited VComponent is processed.  For a VComponent with a recurrence rule (RRULE)
@@ -586,74 +652,55 @@ public interface VComponent<I>
         return errorString().equals("");
     };
     
+    /**
+     * Summary of the recurrence set - first and last date/time, count and individual test.  Implementations
+     * return the same summary on each call, so the values are only calculated again when the recurrence
+     * set changes.  The summary listens to the RRULE, RDATE and EXDATE of this VComponent.
+     * 
+     * @return - recurrence set summary
+     */
+    RecurrenceSummary recurrenceSummary();
+    
     /** Returns true if VComponent is an individual (only one instance in recurrence set),
      *  false if has more than 1 instance */
     default boolean isIndividual()
     {
-        Iterator<Temporal> i = stream(getDateTimeStart()).iterator();
-        if (i.hasNext())
-        {
-            i.next();
-            if (i.hasNext()) return false; // has at least two elements
-            else return true; // has only one element
-        } else throw new RuntimeException("VComponent stream has no elements");
+        RecurrenceSummary summary = recurrenceSummary();
+        if (summary.isEmpty()) throw new RuntimeException("VComponent stream has no elements");
+        return summary.isIndividual();
     }
     
     /** Returns true if startInstance is first in recurrence set, false otherwise */
     default boolean isFirstRecurrence(Temporal startInstance)
     {
-        Iterator<Temporal> i = stream(getDateTimeStart()).iterator();
-        if (i.hasNext())
-        {
-            Temporal myTemporal = i.next();
-            return (myTemporal.equals(startInstance));
-        } else
-        {
-            return false;
-        }
+        Temporal first = recurrenceSummary().first();
+        return (first != null) && first.equals(startInstance);
     }
     
     /** Returns true if startInstance is last in recurrence set,
      *  false there are recurrences after startInstance */
     default boolean isLastRecurrence(Temporal startInstance)
     {
-        if ((getRRule() != null) && (getRRule().isInfinite()))
+        RecurrenceSummary summary = recurrenceSummary();
+        if (summary.isInfinite())
         {
             return false;
         }
-        Iterator<Temporal> i = stream(getDateTimeStart()).iterator();
-        while (i.hasNext())
-        {
-            Temporal myTemporal = i.next();
-            if (myTemporal.equals(startInstance)) { return ! i.hasNext(); } // matched startInstance, does iterator have next?
-            if (LocalDate.from(myTemporal).isAfter(LocalDate.from(startInstance))) break;
-        }
+        if (startInstance.equals(summary.last())) return true;
+        if (summary.contains(startInstance)) return false;
         throw new RuntimeException("Instance is not in recurrence set:" + startInstance);
     }
     
     /** returns the last date or date/time of the series.  If infinite returns null */
     default Temporal lastRecurrence()
     {
-        if ((getRRule() != null) && (getRRule().isInfinite()))
-        {
-            return null;
-        } else
-        {
-            Iterator<Temporal> i = stream(getDateTimeStart()).iterator();
-            Temporal myTemporal = null;
-            while (i.hasNext())
-            {
-                myTemporal = i.next();
-            }
-            return myTemporal;
-        }       
+        return recurrenceSummary().last();
     }
     
     /** Returns true if VComponent has zero instances in recurrence set */
     default boolean isRecurrenceSetEmpty()
     {
-        Iterator<Temporal> i = stream(getDateTimeStart()).iterator();
-        return ! i.hasNext();
+        return recurrenceSummary().isEmpty();
     }
         
     /** Returns true if temporal is in vComponent's stream of start date-time
@@ -661,20 +708,7 @@ public interface VComponent<I>
      */
     default boolean isStreamValue(Temporal temporal)
     {
-        Iterator<Temporal> startInstanceIterator = stream(temporal).iterator();
-        while (startInstanceIterator.hasNext())
-        {
-            Temporal myStartInstance = startInstanceIterator.next();
-            if (myStartInstance.equals(temporal))
-            {
-                return true;
-            }
-            if (DateTimeUtilities.isAfter(myStartInstance, temporal))
-            {
-                return false;
-            }
-        }
-        return false;
+        return recurrenceSummary().contains(temporal);
     }
     
     /*
@@ -1,5 +1,6 @@
 package jfxtras.labs.icalendar.components;
 
+import java.io.IOException;
 import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.LocalDate;
@@ -19,8 +20,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -32,12 +35,16 @@ import javafx.util.Callback;
 import jfxtras.labs.icalendar.DateTimeUtilities;
 import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
 import jfxtras.labs.icalendar.ICalendarUtilities.ChangeDialogOption;
+import jfxtras.labs.icalendar.ICalendarWriter;
+import jfxtras.labs.icalendar.ZoneTransitions;
 import jfxtras.labs.icalendar.components.VComponentUtilities.VComponentProperty;
 import jfxtras.labs.icalendar.properties.descriptive.Comment;
 import jfxtras.labs.icalendar.properties.descriptive.Summary;
 import jfxtras.labs.icalendar.properties.recurrence.ExDate;
 import jfxtras.labs.icalendar.properties.recurrence.RDate;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDays;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RecurrenceIndex;
 
 /**
  * Abstract implementation of VComponent with all common methods for VEvent, VTodo, and VJournal
@@ -485,7 +492,11 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
     @Override
     public ObjectProperty<RRule> rRuleProperty()
     {
-        if (rRule == null) rRule = new SimpleObjectProperty<RRule>(this, VComponentProperty.RECURRENCE_RULE.toString(), _rRule);
+        if (rRule == null)
+        {
+            rRule = new SimpleObjectProperty<RRule>(this, VComponentProperty.RECURRENCE_RULE.toString(), _rRule);
+            rRule.addListener((obs, oldValue, newValue) -> replaceRRuleListener(oldValue, newValue));
+        }
         return rRule;
     }
     private ObjectProperty<RRule> rRule;
@@ -497,6 +508,7 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
     {
         if (this.rRule == null)
         {
+            replaceRRuleListener(_rRule, rRule);
             _rRule = rRule;
         } else
         {
@@ -504,6 +516,32 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
         }
     }
     public T withRRule(RRule rRule) { setRRule(rRule); return (T) this; }
+
+    /**
+     * Index of checkpoints into the RRULE stream, used by {@link #stream(Temporal)} and
+     * {@link #previousStreamValue(Temporal)} to resume part way through a series instead of at DTSTART.
+     * It is cleared by listeners when DTSTART or RRULE change, including in-place changes to the RRULE's
+     * COUNT, UNTIL, recurrences, Frequency and BYxxx rules.  EXDATE and RDATE are applied after the
+     * RRULE stream, so they don't affect the index.
+     */
+    public RecurrenceIndex recurrenceIndex() { return recurrenceIndex; }
+    private final RecurrenceIndex recurrenceIndex = new RecurrenceIndex();
+    private final InvalidationListener recurrenceIndexListener = (obs) -> recurrenceIndex.clear();
+    private void replaceRRuleListener(RRule oldRRule, RRule newRRule)
+    {
+        if (oldRRule != null) oldRRule.removeListener(recurrenceIndexListener);
+        if (newRRule != null) newRRule.addListener(recurrenceIndexListener);
+        recurrenceIndex.clear();
+    }
+    
+    /**
+     * Cached summary of the recurrence set, used by {@link #lastRecurrence()}, {@link #isIndividual()},
+     * {@link #isLastRecurrence(Temporal)}, {@link #isRecurrenceSetEmpty()} and {@link #isStreamValue(Temporal)}
+     * so they don't stream the whole series on each call.
+     */
+    @Override
+    public RecurrenceSummary recurrenceSummary() { return recurrenceSummary; }
+    private final RecurrenceSummary recurrenceSummary = new RecurrenceSummary(this);
     
     /**
      *  SEQUENCE: RFC 5545 iCalendar 3.8.7.4. page 138
@@ -624,10 +662,14 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
     /** Copy constructor */
     public VComponentBase(VComponentBase<I, T> vcomponent)
     {
+        this();
         copy(vcomponent, this);
     }
     
-    public VComponentBase() { }
+    public VComponentBase()
+    {
+        dateTimeStartProperty().addListener(recurrenceIndexListener);
+    }
     
     @Override
     public boolean handleEdit(
@@ -643,7 +685,7 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
         final RRuleStatus rruleType = RRuleStatus.getRRuleType(getRRule(), vComponentOriginal.getRRule());
         System.out.println("rruleType:" + rruleType);
         boolean incrementSequence = true;
-        Collection<I> newInstances = null;
+        InstanceChanges<I> instanceChanges = null;
         switch (rruleType)
         {
         case HAD_REPEAT_BECOMING_INDIVIDUAL:
@@ -652,7 +694,7 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
         case WITH_NEW_REPEAT: // no dialog
         case INDIVIDUAL:
             adjustDateTime(startOriginalInstance, startInstance, endInstance);
-            if (! this.equals(vComponentOriginal)) { newInstances = updateInstances(instances); }
+            if (! this.equals(vComponentOriginal)) { instanceChanges = new InstanceChanges<>(instances()).remakeInstances(this); }
             break;
         case WITH_EXISTING_REPEAT:
             // Find which properties changed
@@ -691,7 +733,7 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
                                 v.setDateTimeRecurrence(newRecurreneId);
                             });
                         }
-                        newInstances = updateInstances(instances);
+                        instanceChanges = new InstanceChanges<>(instances()).remakeInstances(this);
                     } else
                     {
                         throw new RuntimeException("Only 1 relatedVComponents currently supported");
@@ -701,10 +743,10 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
                     vComponentOriginal.copyTo(this); // return to original
                     return false;
                 case THIS_AND_FUTURE:
-                    newInstances = editThisAndFuture(vComponentOriginal, vComponents, startOriginalInstance, startInstance, endInstance, instances);
+                    instanceChanges = editThisAndFuture(vComponentOriginal, vComponents, startOriginalInstance, startInstance, endInstance, instances);
                     break;
                 case ONE:
-                    newInstances = editOne(vComponentOriginal, vComponents, startOriginalInstance, startInstance, endInstance, instances);
+                    instanceChanges = editOne(vComponentOriginal, vComponents, startOriginalInstance, startInstance, endInstance, instances);
                     break;
                 default:
                     break;
@@ -713,11 +755,7 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
         }
         if (! isValid()) throw new RuntimeException(errorString());
         if (incrementSequence) { incrementSequence(); }
-        if (newInstances != null)
-        {
-            instances.clear();
-            instances.addAll(newInstances);
-        }
+        if (instanceChanges != null) instanceChanges.apply(instances);
         return true;
     }
     
@@ -808,16 +846,6 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
         return changedProperties;
     }
     
-    private Collection<I> updateInstances(Collection<I> instances)
-    {
-        Collection<I> instancesTemp = new ArrayList<>(); // use temp array to avoid unnecessary firing of Agenda change listener attached to appointments
-        instancesTemp.addAll(instances);
-        instancesTemp.removeIf(a -> instances().stream().anyMatch(a2 -> a2 == a));
-        instances().clear(); // clear VEvent of outdated appointments
-        instancesTemp.addAll(makeInstances()); // make new appointments and add to main collection (added to VEvent's collection in makeAppointments)
-        return instancesTemp;
-    }
-    
     /**
      * Part of handleEdit.
      * Changes a VComponent with a RRULE to be an individual,
@@ -842,9 +870,10 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
      * Edit one instance of a VEvent with a RRule.  The instance becomes a new VEvent without a RRule
      * as with the same UID as the parent and a recurrence-id for the replaced date or date/time.
      * 
+     * @return - changes to instances, applied by handleEdit
      * @see #handleEdit(VComponent, Collection, Temporal, Temporal, Temporal, Collection)
      */
-    protected Collection<I> editOne(
+    protected InstanceChanges<I> editOne(
             VComponent<I> vComponentOriginal
           , Collection<VComponent<I>> vComponents
           , Temporal startOriginalInstance
@@ -872,16 +901,12 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
 //        System.out.println("here:" + vComponentOriginal);
         if (! vComponentOriginal.isValid()) { throw new RuntimeException(vComponentOriginal.errorString()); }
         
-        // Remove old instances, add back ones
-        Collection<I> instancesTemp = new ArrayList<>(); // use temp array to avoid unnecessary firing of Agenda change listener attached to instances
-        instancesTemp.addAll(instances);
-        instancesTemp.removeIf(a -> vComponentOriginal.instances().stream().anyMatch(a2 -> a2 == a));
-        vComponentOriginal.instances().clear(); // clear vEventOriginal outdated collection of instances
-        instancesTemp.addAll(vComponentOriginal.makeInstances()); // make new instances and add to main collection (added to vEventNew's collection in makeinstances)
-        instances().clear(); // clear vEvent outdated collection of instances
-        instancesTemp.addAll(makeInstances()); // add vEventOld part of new instances
+        // Remake instances of both VComponents, keeping previous ones on the same dates
+        InstanceChanges<I> instanceChanges = new InstanceChanges<>(vComponentOriginal.instances())
+                .remakeInstances(vComponentOriginal)
+                .remakeInstances(this);
         vComponents.add(vComponentOriginal);
-        return instancesTemp;
+        return instanceChanges;
     }
     
     /**
@@ -892,9 +917,10 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
      * @param endInstance 
      * @param <T>
      * 
+     * @return - changes to instances, applied by handleEdit
      * @see VComponent#handleEdit(VComponent, Collection, Temporal, Temporal, Temporal, Collection)
      */
-    protected Collection<I> editThisAndFuture(
+    protected InstanceChanges<I> editThisAndFuture(
             VComponent<I> vComponentOriginal
           , Collection<VComponent<I>> vComponents
           , Temporal startOriginalInstance
@@ -902,6 +928,8 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
           , Temporal endInstance
           , Collection<I> instances)
     {
+        InstanceChanges<I> instanceChanges = new InstanceChanges<>(vComponentOriginal.instances());
+
         // adjust original VEvent
         if (vComponentOriginal.getRRule().getCount() > 0)
         {
@@ -996,17 +1024,10 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
         if (! vComponentOriginal.isValid()) throw new RuntimeException(vComponentOriginal.errorString());
         vComponents.add(vComponentOriginal);
 
-        // Remove old appointments, add back ones
-        Collection<I> instancesTemp = new ArrayList<>(); // use temp array to avoid unnecessary firing of Agenda change listener attached to appointments
-        instancesTemp.addAll(instances);
-        instancesTemp.removeIf(a -> vComponentOriginal.instances().stream().anyMatch(a2 -> a2 == a));
-        vComponentOriginal.instances().clear(); // clear vEvent outdated collection of appointments
-        instancesTemp.addAll(vComponentOriginal.makeInstances()); // make new appointments and add to main collection (added to vEvent's collection in makeAppointments)
-        instances().clear(); // clear vEvent's outdated collection of appointments
-        instancesTemp.addAll(makeInstances()); // add vEventOld part of new appointments
-        return instancesTemp;
-//        instances.clear();
-//        instances.addAll(instancesTemp);
+        // Remake instances of both VComponents, keeping previous ones on the same dates
+        return instanceChanges
+                .remakeInstances(vComponentOriginal)
+                .remakeInstances(this);
     }
      
     
@@ -1073,14 +1094,10 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
                 }
                 getRRule().setUntil(untilNew);
 
-                // Remove old appointments, add back ones
-                Collection<I> instancesTemp = new ArrayList<>(); // use temp array to avoid unnecessary firing of Agenda change listener attached to appointments
-                instancesTemp.addAll(instances);
-                instancesTemp.removeIf(a -> instances().stream().anyMatch(a2 -> a2 == a));
-                instances().clear(); // clear this's outdated collection of appointments
-                instancesTemp.addAll(makeInstances()); // add vEventOld part of new appointments
-                instances.clear();
-                instances.addAll(instancesTemp);
+                // Remove instances after UNTIL, keep the others
+                new InstanceChanges<>(instances())
+                        .remakeInstances(this)
+                        .apply(instances);
                 break;
             default:
                 break;
@@ -1136,43 +1153,59 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
                 });
         return properties;
     }
-    
-    // Variables for start date or date/time cache used as starting Temporal for stream
-    private static final int CACHE_RANGE = 51; // number of values in cache
-    private static final int CACHE_SKIP = 21; // store every nth value in the cache
-    private int skipCounter = 0; // counter that increments up to CACHE_SKIP, indicates time to record a value, then resets to 0
-    private Temporal[] temporalCache; // the start date or date/time cache
-    private Temporal dateTimeStartLast; // last dateTimeStart, when changes indicates clearing the cache is necessary
-    private RRule rRuleLast; // last rRule, when changes indicates clearing the cache is necessary
-    private int cacheStart = 0; // start index where cache values are stored (starts in middle)
-    private int cacheEnd = 0; // end index where cache values are stored
 
+    /** Streaming counterpart of {@link #makeContentLines()} - writes content line of each property to writer */
+    void writeContentLines(ICalendarWriter writer) throws IOException
+    {
+        for (VComponentProperty p : VComponentProperty.values())
+        {
+            p.writeProperty(this, writer);
+        }
+    }
+    
     /**
      * finds previous stream Temporal before input parameter value
      * 
+     * When the RRULE stream can seek (see {@link RRule#streamFrom(Temporal, Temporal)}), the search starts
+     * a few frequency periods before value, doubling the look back until a value is found, instead of
+     * replaying the stream from DTSTART.
+     * 
      * @param value
      * @return
      */
     public Temporal previousStreamValue(Temporal value)
     {
-        final Temporal start; 
-        if (cacheEnd == 0)
+        RRule rRule = getRRule();
+        if ((rRule != null) && ((rRule.getCount() == 0) || rRule.getFrequency().byRules().isEmpty()))
         {
-            start = getDateTimeStart();
-        } else
-        { // try to get start from cache
-            Temporal m  = null;
-            for (int i=cacheEnd; i>cacheStart; i--)
+            ChronoUnit frequencyUnit = rRule.getFrequency().frequencyType().getChronoUnit();
+            if (value.isSupported(frequencyUnit))
             {
-                if (DateTimeUtilities.isBefore(temporalCache[i], value))
+                for (long lookBack = rRule.getFrequency().getInterval(); lookBack < Integer.MAX_VALUE; lookBack *= 2)
                 {
-                    m = temporalCache[i];
-                    break;
+                    Temporal start = value.minus(lookBack, frequencyUnit);
+                    if (! DateTimeUtilities.isAfter(start, getDateTimeStart())) break; // search from DTSTART
+                    Temporal lastT = previousStreamValue(start, value);
+                    if (lastT != null) return lastT;
                 }
             }
-            start = (m != null) ? m : getDateTimeStart();
         }
-        Iterator<Temporal> i = streamNoCache(start).iterator();
+        
+        // start from closest checkpoint before value, if there is one
+        RecurrenceIndex.Checkpoint checkpoint = recurrenceIndex.lower(value);
+        if (checkpoint != null)
+        {
+            Temporal lastT = previousStreamValue(checkpoint.getTemporal(), value);
+            if (lastT != null) return lastT;
+            // checkpoint and values after it are excluded (e.g. by EXDATE), so search from DTSTART
+        }
+        return previousStreamValue(getDateTimeStart(), value);
+    }
+    
+    /* last stream value on or after start and before value, null if there isn't one */
+    private Temporal previousStreamValue(Temporal start, Temporal value)
+    {
+        Iterator<Temporal> i = stream(start).iterator();
         Temporal lastT = null;
         while (i.hasNext())
         {
@@ -1183,186 +1216,51 @@ public abstract class VComponentBase<I, T> implements VComponent<I>
         return lastT;
     }
     
+    /** Stream of date/times that indicate the start of the event(s).
+     * For a VEvent without RRULE the stream will contain only one date/time element.
+     * A VEvent with a RRULE the stream contains more than one date/time element.  It will be infinite 
+     * if COUNT or UNTIL is not present.  The stream has an end when COUNT or UNTIL condition is met.
+     * The RRULE part of the stream skips directly to start, or the closest checkpoint in the
+     * {@link #recurrenceIndex()}, instead of iterating from DTSTART
+     * (see {@link RRule#streamFrom(Temporal, Temporal, RecurrenceIndex)}).
+     * 
+     * @param start - starting date or date/time for which occurrence start date or date/time
+     * are generated by the returned stream
+     * @return stream of starting dates or date/times for occurrences after start
+     */
     @Override
     public Stream<Temporal> stream(Temporal start)
     {
         // adjust start to ensure its not before dateTimeStart
         final Temporal start2 = (DateTimeUtilities.isBefore(start, getDateTimeStart())) ? getDateTimeStart() : start;
         final Stream<Temporal> stream1; // individual or rrule stream
-        final Temporal earliestCacheValue;
-        final Temporal latestCacheValue;
-        
         if (getRRule() == null)
         { // if individual event
             stream1 = Arrays.asList(getDateTimeStart())
                     .stream()
                     .filter(d -> ! DateTimeUtilities.isBefore(d, start2));
-            earliestCacheValue = null;
-            latestCacheValue = null;
         } else
-        {
-            // check if cache needs to be cleared (changes to RRULE or DTSTART)
-            if ((dateTimeStartLast != null) && (rRuleLast != null))
-            {
-                boolean startChanged = ! getDateTimeStart().equals(dateTimeStartLast);
-                boolean rRuleChanged = ! getRRule().equals(rRuleLast);
-                if (startChanged || rRuleChanged)
-                {
-                    temporalCache = null;
-                    cacheStart = 0;
-                    cacheEnd = 0;
-                    skipCounter = 0;
-                    dateTimeStartLast = getDateTimeStart();
-                    rRuleLast = getRRule();
-                }
-            } else
-            { // save current DTSTART and RRULE for next time
-                dateTimeStartLast = getDateTimeStart();
-                rRuleLast = getRRule();
-            }
-            
-            final Temporal match;
-            
-            // use cache if available to find matching start date or date/time
-            if (temporalCache != null)
-            {
-                // Reorder cache to maintain centered and sorted
-                final int len = temporalCache.length;
-                final Temporal[] p1;
-                final Temporal[] p2;
-                if (cacheEnd < cacheStart) // high values have wrapped from end to beginning
-                {
-                    p1 = Arrays.copyOfRange(temporalCache, cacheStart, len);
-                    p2 = Arrays.copyOfRange(temporalCache, 0, Math.min(cacheEnd+1,len));
-                } else if (cacheEnd > cacheStart) // low values have wrapped from beginning to end
-                {
-                    p2 = Arrays.copyOfRange(temporalCache, cacheStart, len);
-                    p1 = Arrays.copyOfRange(temporalCache, 0, Math.min(cacheEnd+1,len));
-                } else
-                {
-                    p1 = null;
-                    p2 = null;
-                }
-                if (p1 != null)
-                { // copy elements to accommodate wrap and restore sort order
-                    int p1Index = 0;
-                    int p2Index = 0;
-                    for (int i=0; i<len; i++)
-                    {
-                        if (p1Index < p1.length)
-                        {
-                            temporalCache[i] = p1[p1Index];
-                            p1Index++;
-                        } else if (p2Index < p2.length)
-                        {
-                            temporalCache[i] = p2[p2Index];
-                            p2Index++;
-                        } else
-                        {
-                            cacheEnd = i;
-                            break;
-                        }
-                    }
-                }
-    
-                // Find match in cache
-                latestCacheValue = temporalCache[cacheEnd];
-                if ((! DateTimeUtilities.isBefore(start2, temporalCache[cacheStart])))
-                {
-                    Temporal m = latestCacheValue;
-                    for (int i=cacheStart; i<cacheEnd+1; i++)
-                    {
-                        if (DateTimeUtilities.isAfter(temporalCache[i], start2))
-                        {
-                            m = temporalCache[i-1];
-                            break;
-                        }
-                    }
-                    match = m;
-                } else
-                { // all cached values too late - start over
-                    cacheStart = 0;
-                    cacheEnd = 0;
-                    temporalCache[cacheStart] = getDateTimeStart();
-                    match = getDateTimeStart();
-                }
-                earliestCacheValue = temporalCache[cacheStart];
-            } else
-            { // no previous cache.  initialize new array with dateTimeStart as first value.
-                temporalCache = new Temporal[CACHE_RANGE];
-                temporalCache[cacheStart] = getDateTimeStart();
-                match = getDateTimeStart();
-                earliestCacheValue = getDateTimeStart();
-                latestCacheValue = getDateTimeStart();
-            }
-            stream1 = getRRule().stream(match);
+        { // if has recurrence rule
+            stream1 = getRRule().streamFrom(getDateTimeStart(), start2, recurrenceIndex);
         }
-        
         Stream<Temporal> stream2 = (getRDate() == null) ? stream1 : getRDate().stream(stream1, start2); // add recurrence list
         Stream<Temporal> stream3 = (getExDate() == null) ? stream2 : getExDate().stream(stream2, start2); // remove exceptions
-        Stream<Temporal> stream4 = stream3
-                .peek(t ->
-                { // save new values in cache
-                    if (getRRule() != null)
-                    {
-                        if (DateTimeUtilities.isBefore(t, earliestCacheValue))
-                        {
-                            if (skipCounter == CACHE_SKIP)
-                            {
-                                cacheStart--;
-                                if (cacheStart < 0) cacheStart = CACHE_RANGE - 1;
-                                if (cacheStart == cacheEnd) cacheEnd--; // just overwrote oldest value - push cacheEnd down
-                                temporalCache[cacheStart] = t;
-                                skipCounter = 0;
-                            } else skipCounter++;
-                        }
-                        if (DateTimeUtilities.isAfter(t, latestCacheValue))
-                        {
-                            if (skipCounter == CACHE_SKIP)
-                            {
-                                cacheEnd++;
-                                if (cacheEnd == CACHE_RANGE) cacheEnd = 0;
-                                if (cacheStart == cacheEnd) cacheStart++; // just overwrote oldest value - push cacheStart up
-                                temporalCache[cacheEnd] = t;
-                                skipCounter = 0;
-                            } else skipCounter++;
-                        }
-                        // check if start or end needs to wrap
-                        if (cacheEnd < 0) cacheEnd = CACHE_RANGE - 1;
-                        if (cacheStart == CACHE_RANGE) cacheStart = 0;
-                    }
-                })
-                .filter(t -> ! DateTimeUtilities.isBefore(t, start2)); // remove too early events;
-
-        return stream4;
+        return stream3.filter(t -> ! DateTimeUtilities.isBefore(t, start2)); // remove too early events
     }
-
-    /** Stream of date/times that indicate the start of the event(s).
-     * For a VEvent without RRULE the stream will contain only one date/time element.
-     * A VEvent with a RRULE the stream contains more than one date/time element.  It will be infinite 
-     * if COUNT or UNTIL is not present.  The stream has an end when COUNT or UNTIL condition is met.
-     * Starts on startDateTime, which must be a valid event date/time, not necessarily the
-     * first date/time (DTSTART) in the sequence. 
-     * 
-     * @param start - starting date or date/time for which occurrence start date or date/time
-     * are generated by the returned stream
-     * @return stream of starting dates or date/times for occurrences after rangeStart
+    
+    /** Epoch values of {@link #stream(Temporal)}, zoned date/times converted with zoneTransitions if not null.
+     * Without RDATE and EXDATE the RRULE epoch values are made by the primitive epoch recurrence engine
+     * (see {@link RRule#epochStream(Temporal, ZoneTransitions)}).
      */
-    private Stream<Temporal> streamNoCache(Temporal start)
+    @Override
+    public LongStream epochStream(Temporal start, ZoneTransitions zoneTransitions)
     {
-        final Stream<Temporal> stream1;
-        if (getRRule() == null)
-        { // if individual event
-            stream1 = Arrays.asList(getDateTimeStart())
-                    .stream()
-                    .filter(d -> ! DateTimeUtilities.isBefore(d, start));
-        } else
-        { // if has recurrence rule
-            stream1 = getRRule().stream(getDateTimeStart());
-        }
-        Stream<Temporal> stream2 = (getRDate() == null) ? stream1 : getRDate().stream(stream1, start); // add recurrence list
-        Stream<Temporal> stream3 = (getExDate() == null) ? stream2 : getExDate().stream(stream2, start); // remove exceptions
-        return stream3.filter(t -> ! DateTimeUtilities.isBefore(t, start));
+        if ((getRRule() == null) || (getRDate() != null) || (getExDate() != null)) return VComponent.super.epochStream(start, zoneTransitions);
+        final Temporal start2 = (DateTimeUtilities.isBefore(start, getDateTimeStart())) ? getDateTimeStart() : start;
+        ZoneId zone = (getDateTimeStart() instanceof ZonedDateTime) ? ((ZonedDateTime) getDateTimeStart()).getZone() : null;
+        long startEpoch = EpochDays.toEpoch(DateTimeType.of(getDateTimeStart()).from(start2, zone), zoneTransitions);
+        return getRRule().epochStreamFrom(getDateTimeStart(), start2, zoneTransitions)
+                .filter(e -> e >= startEpoch); // remove too early events
     }
     
     private enum RRuleStatus
@@ -0,0 +1,260 @@
+package jfxtras.labs.icalendar.components;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
+import jfxtras.labs.icalendar.properties.recurrence.RecurrenceAbstract;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+
+/**
+ * Interval index over a list of VComponents for fast "which components can have instances in this
+ * date/time range" queries.  Each VComponent covers the interval from its DTSTART to the end of its
+ * last recurrence (DTEND or DURATION added to {@link VComponent#lastRecurrence()}), or forever if its
+ * RRULE is infinite.
+ *
+ * The intervals are kept in an augmented interval tree: sorted by start, with the greatest end of
+ * each subtree, so a query is O(log n + k) where k is the number of returned components.
+ *
+ * The index listens to the list and to the properties of each VComponent that change its interval
+ * (DTSTART, RRULE, RDATE, EXDATE and, for a VEvent, DTEND and DURATION).  Changed intervals are recalculated
+ * and the tree is rebuilt lazily on the next query, so loading or editing many components doesn't
+ * calculate any intervals.
+ *
+ * Date/times of different types are compared as LocalDateTime in the default time zone, the same
+ * as {@link jfxtras.labs.icalendar.DateTimeUtilities#TEMPORAL_COMPARATOR}.  Intervals are widened by
+ * one day on both sides, so differences in time zone handling can only add components, never leave
+ * one out.
+ *
+ * Must only be used on the thread that changes the list, usually the JavaFX Application Thread.
+ *
+ * @author David Bal
+ *
+ * @param <T> - type of VComponent
+ */
+public class VComponentIntervalIndex<T extends VComponent<?>>
+{
+    private final static long PADDING = 86400; // one day in seconds
+
+    private final Map<T, Entry> entries = new IdentityHashMap<>();
+    private List<Entry> sortedEntries = new ArrayList<>(); // sorted by start
+    private long[] maxEnds = new long[0]; // greatest end in subtree of implicit tree over sortedEntries
+    private boolean isTreeValid = true;
+
+    private final ListChangeListener<T> listListener = (ListChangeListener.Change<? extends T> change) ->
+    {
+        while (change.next())
+        {
+            if (change.wasPermutated()) continue;
+            change.getRemoved().forEach(v -> remove(v));
+            change.getAddedSubList().forEach(v -> add(v));
+        }
+    };
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /** Index that is maintained by calling {@link #add(VComponent)} and {@link #remove(VComponent)} */
+    public VComponentIntervalIndex() { }
+
+    /** Index that contains, and stays synchronized with, the VComponents in list */
+    public VComponentIntervalIndex(ObservableList<? extends T> list)
+    {
+        list.forEach(v -> add(v));
+        list.addListener(listListener);
+    }
+
+    /** Number of indexed VComponents */
+    public int size() { return entries.size(); }
+
+    /** Add vComponent to index.  Does nothing if already present. */
+    public void add(T vComponent)
+    {
+        if (entries.containsKey(vComponent)) return;
+        Entry entry = new Entry(vComponent);
+        entries.put(vComponent, entry);
+        entry.attach();
+        isTreeValid = false;
+    }
+
+    /** Remove vComponent from index.  Does nothing if not present. */
+    public void remove(T vComponent)
+    {
+        Entry entry = entries.remove(vComponent);
+        if (entry != null)
+        {
+            entry.detach();
+            isTreeValid = false;
+        }
+    }
+
+    /**
+     * Returns the VComponents that can have instances between start and end.  The result can contain
+     * some VComponents without instances in the range, but never misses one with instances.
+     *
+     * @param start - start of range (inclusive)
+     * @param end - end of range (exclusive)
+     * @return - list of VComponents sorted by DTSTART
+     */
+    public List<T> query(Temporal start, Temporal end)
+    {
+        if (! isTreeValid) rebuild();
+        List<T> result = new ArrayList<>();
+        query(0, sortedEntries.size(), toKey(start), toKey(end), result);
+        return result;
+    }
+
+    private void query(int low, int high, long startKey, long endKey, List<T> result)
+    {
+        if (low >= high) return;
+        int middle = (low + high) >>> 1;
+        if (maxEnds[middle] < startKey) return; // no interval in subtree reaches start
+        query(low, middle, startKey, endKey, result);
+        Entry entry = sortedEntries.get(middle);
+        if (entry.start < endKey)
+        { // intervals in right subtree start after this one, so they can only qualify if this one starts before end
+            if (entry.end >= startKey) result.add(entry.vComponent);
+            query(middle + 1, high, startKey, endKey, result);
+        }
+    }
+
+    /* recalculate changed intervals, sort by start and make subtree maximum ends */
+    private void rebuild()
+    {
+        sortedEntries = new ArrayList<>(entries.values());
+        for (Entry entry : sortedEntries)
+        {
+            if (! entry.isValid) entry.update();
+        }
+        sortedEntries.sort((e1, e2) -> Long.compare(e1.start, e2.start));
+        maxEnds = new long[sortedEntries.size()];
+        makeMaxEnds(0, sortedEntries.size());
+        isTreeValid = true;
+    }
+
+    private long makeMaxEnds(int low, int high)
+    {
+        if (low >= high) return Long.MIN_VALUE;
+        int middle = (low + high) >>> 1;
+        long maxEnd = Math.max(sortedEntries.get(middle).end, Math.max(makeMaxEnds(low, middle), makeMaxEnds(middle + 1, high)));
+        maxEnds[middle] = maxEnd;
+        return maxEnd;
+    }
+
+    /* date/time as seconds of LocalDateTime in default time zone */
+    private static long toKey(Temporal temporal)
+    {
+        return ((LocalDateTime) DateTimeType.DATE_WITH_LOCAL_TIME.from(temporal)).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /* Interval of one VComponent with listeners that invalidate it */
+    private class Entry
+    {
+        private final T vComponent;
+        private long start;
+        private long end;
+        private boolean isValid;
+
+        private final InvalidationListener invalidationListener = (obs) -> invalidate();
+        private final ChangeListener<RRule> rRuleListener = (obs, oldValue, newValue) ->
+        {
+            if (oldValue != null) oldValue.removeListener(invalidationListener);
+            if (newValue != null) newValue.addListener(invalidationListener);
+        };
+        private final ChangeListener<RecurrenceAbstract<?>> recurrenceListener = (obs, oldValue, newValue) ->
+        {
+            if (oldValue != null) oldValue.getTemporals().removeListener(invalidationListener);
+            if (newValue != null) newValue.getTemporals().addListener(invalidationListener);
+        };
+
+        Entry(T vComponent)
+        {
+            this.vComponent = vComponent;
+        }
+
+        private void invalidate()
+        {
+            isValid = false;
+            isTreeValid = false;
+        }
+
+        private void update()
+        {
+            isValid = true;
+            Temporal dateTimeStart = vComponent.getDateTimeStart();
+            if (dateTimeStart == null)
+            { // incomplete component - always included
+                start = Long.MIN_VALUE;
+                end = Long.MAX_VALUE;
+                return;
+            }
+            start = toKey(dateTimeStart) - PADDING;
+            if ((vComponent.getRRule() != null) && vComponent.getRRule().isInfinite())
+            {
+                end = Long.MAX_VALUE;
+                return;
+            }
+            Temporal last = vComponent.lastRecurrence();
+            if (last == null) last = dateTimeStart;
+            if (vComponent instanceof VEvent)
+            {
+                VEvent<?,?> vEvent = (VEvent<?,?>) vComponent;
+                TemporalAmount duration = vEvent.endType().getDuration(vEvent);
+                if (duration != null) last = last.plus(duration);
+            }
+            end = toKey(last) + PADDING;
+        }
+
+        private void attach()
+        {
+            for (Observable observable : observables()) observable.addListener(invalidationListener);
+            vComponent.rRuleProperty().addListener(rRuleListener);
+            vComponent.rDateProperty().addListener(recurrenceListener);
+            vComponent.exDateProperty().addListener(recurrenceListener);
+            if (vComponent.getRRule() != null) vComponent.getRRule().addListener(invalidationListener);
+            if (vComponent.getRDate() != null) vComponent.getRDate().getTemporals().addListener(invalidationListener);
+            if (vComponent.getExDate() != null) vComponent.getExDate().getTemporals().addListener(invalidationListener);
+        }
+
+        private void detach()
+        {
+            for (Observable observable : observables()) observable.removeListener(invalidationListener);
+            vComponent.rRuleProperty().removeListener(rRuleListener);
+            vComponent.rDateProperty().removeListener(recurrenceListener);
+            vComponent.exDateProperty().removeListener(recurrenceListener);
+            if (vComponent.getRRule() != null) vComponent.getRRule().removeListener(invalidationListener);
+            if (vComponent.getRDate() != null) vComponent.getRDate().getTemporals().removeListener(invalidationListener);
+            if (vComponent.getExDate() != null) vComponent.getExDate().getTemporals().removeListener(invalidationListener);
+        }
+
+        /* properties that change the interval */
+        private List<Observable> observables()
+        {
+            List<Observable> observables = new ArrayList<>(Arrays.asList(
+                    vComponent.dateTimeStartProperty()
+                  , vComponent.rRuleProperty()
+                  , vComponent.rDateProperty()
+                  , vComponent.exDateProperty()));
+            if (vComponent instanceof VEvent)
+            {
+                VEvent<?,?> vEvent = (VEvent<?,?>) vComponent;
+                observables.add(vEvent.dateTimeEndProperty());
+                observables.add(vEvent.durationProperty());
+            }
+            return observables;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package jfxtras.labs.icalendar.components;
 
+import java.io.IOException;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
@@ -12,6 +14,7 @@ import java.util.stream.Collectors;
 
 import javafx.util.Pair;
 import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.ICalendarWriter;
 import jfxtras.labs.icalendar.properties.descriptive.Comment;
 import jfxtras.labs.icalendar.properties.descriptive.Summary;
 import jfxtras.labs.icalendar.properties.recurrence.ExDate;
@@ -208,6 +211,12 @@ public final class VComponentUtilities
                         + DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER.format(vComponent.getDateTimeCreated());
             }
 
+            @Override
+            public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+            {
+                writer.writeDateTimeProperty(toString(), toUTC(vComponent.getDateTimeCreated()));
+            }
+
             @Override
             public boolean isPropertyEqual(VComponent<?> v1, VComponent<?> v2)
             {
@@ -254,6 +263,12 @@ public final class VComponentUtilities
                         + DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER.format(vComponent.getDateTimeStamp());
             }
 
+            @Override
+            public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+            {
+                writer.writeDateTimeProperty(toString(), toUTC(vComponent.getDateTimeStamp()));
+            }
+
             @Override
             public boolean isPropertyEqual(VComponent<?> v1, VComponent<?> v2)
             {
@@ -305,6 +320,12 @@ public final class VComponentUtilities
                 }
             }
 
+            @Override
+            public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+            {
+                writer.writeDateTimeProperty(toString(), vComponent.getDateTimeStart());
+            }
+
             @Override
             public boolean isPropertyEqual(VComponent<?> v1, VComponent<?> v2)
             {
@@ -367,6 +388,21 @@ public final class VComponentUtilities
                 }
             }
 
+            @Override
+            public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+            {
+                if (vComponent.getExDate() == null)
+                {
+                    return;
+                } else if (vComponent.isExDatesOnOneLine())
+                {
+                    writer.writeDateTimeProperty(toString(), vComponent.getExDate().getTemporals());
+                } else
+                {
+                    for (Temporal t : vComponent.getExDate().getTemporals()) writer.writeDateTimeProperty(toString(), t);
+                }
+            }
+
             @Override
             public boolean isPropertyEqual(VComponent<?> v1, VComponent<?> v2)
             {
@@ -426,6 +462,12 @@ public final class VComponentUtilities
                         + DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER.format(vComponent.getDateTimeLastModified());
             }
 
+            @Override
+            public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+            {
+                writer.writeDateTimeProperty(toString(), toUTC(vComponent.getDateTimeLastModified()));
+            }
+
             @Override
             public boolean isPropertyEqual(VComponent<?> v1, VComponent<?> v2)
             {
@@ -517,6 +559,12 @@ public final class VComponentUtilities
                 }
             }
 
+            @Override
+            public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+            {
+                if (vComponent.getRDate() != null) writer.writeDateTimeProperty(toString(), vComponent.getRDate().getTemporals());
+            }
+
             @Override
             public boolean isPropertyEqual(VComponent<?> v1, VComponent<?> v2)
             {
@@ -581,6 +629,12 @@ public final class VComponentUtilities
                 }
             }
 
+            @Override
+            public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+            {
+                writer.writeDateTimeProperty(toString(), vComponent.getDateTimeRecurrence());
+            }
+
             @Override
             public boolean isPropertyEqual(VComponent<?> v1, VComponent<?> v2)
             {
@@ -869,6 +923,19 @@ public final class VComponentUtilities
         @Override public String toString() { return name; }
         public boolean isDialogRequired() { return dialogRequired; }
         
+        /** writes content line of vComponent's property, if present, to writer.  The default writes
+         * {@link #toPropertyString(VComponent)}.  Date/time properties override it to write their digits directly. */
+        public void writeProperty(VComponent<?> vComponent, ICalendarWriter writer) throws IOException
+        {
+            writer.writeContentLines(toPropertyString(vComponent));
+        }
+
+        /* CREATED, DTSTAMP and LAST-MODIFIED are always written in UTC */
+        private static ZonedDateTime toUTC(ZonedDateTime dateTime)
+        {
+            return ((dateTime == null) || (dateTime.getZone() == ZoneOffset.UTC)) ? dateTime : dateTime.withZoneSameInstant(ZoneOffset.UTC);
+        }
+
         /*
          * ABSTRACT METHODS
          */
@@ -1,5 +1,6 @@
 package jfxtras.labs.icalendar.components;
 
+import java.io.IOException;
 import java.time.DateTimeException;
 import java.time.Duration;
 import java.time.LocalDate;
@@ -22,6 +23,7 @@ import javafx.beans.property.StringProperty;
 import jfxtras.labs.icalendar.DateTimeUtilities;
 import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
 import jfxtras.labs.icalendar.ICalendarUtilities;
+import jfxtras.labs.icalendar.ICalendarWriter;
 import jfxtras.labs.icalendar.components.VEventUtilities.VEventProperty;
 import jfxtras.labs.icalendaragenda.scene.control.agenda.VEventImpl;
 
@@ -290,7 +292,7 @@ public abstract class VEvent<I, T> extends VComponentBase<I, T>
     }
 
     @Override // edit end date or date/time
-    protected Collection<I> editOne(
+    protected InstanceChanges<I> editOne(
             VComponent<I> vComponentOriginal
           , Collection<VComponent<I>> vComponents
           , Temporal startOriginalInstance
@@ -317,7 +319,7 @@ public abstract class VEvent<I, T> extends VComponentBase<I, T>
     }
 
     @Override // edit end date or date/time
-    protected Collection<I> editThisAndFuture(
+    protected InstanceChanges<I> editThisAndFuture(
             VComponent<I> vComponentOriginal
           , Collection<VComponent<I>> vComponents
           , Temporal startOriginalInstance
@@ -395,6 +397,24 @@ public abstract class VEvent<I, T> extends VComponentBase<I, T>
                 });
         return properties;
     }
+
+    @Override
+    public void writeComponent(ICalendarWriter writer) throws IOException
+    {
+        writer.beginComponent("VEVENT");
+        writeContentLines(writer);
+        writer.endComponent("VEVENT");
+    }
+
+    @Override
+    protected void writeContentLines(ICalendarWriter writer) throws IOException
+    {
+        super.writeContentLines(writer);
+        for (VEventProperty p : VEventProperty.values())
+        {
+            p.writeProperty(this, writer);
+        }
+    }
     
     @Override
     public Stream<Temporal> streamLimitedByRange()
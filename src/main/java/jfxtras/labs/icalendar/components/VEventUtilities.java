@@ -1,5 +1,6 @@
 package jfxtras.labs.icalendar.components;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
@@ -11,6 +12,7 @@ import java.util.stream.Collectors;
 
 import javafx.util.Pair;
 import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.ICalendarWriter;
 import jfxtras.labs.icalendar.components.VEvent.EndType;
 
 public final class VEventUtilities
@@ -237,6 +239,18 @@ public final class VEventUtilities
                     throw new RuntimeException("DTEND and EndPriority don't match");
                 }
             }
+
+            @Override
+            public void writeProperty(VEvent<?,?> vEvent, ICalendarWriter writer) throws IOException
+            {
+                if ((vEvent.getDateTimeEnd() != null) && (vEvent.endPriority == EndType.DTEND))
+                {
+                    writer.writeDateTimeProperty(toString(), vEvent.getDateTimeEnd());
+                } else
+                {
+                    super.writeProperty(vEvent, writer); // same error as toPropertyString
+                }
+            }
     
             @Override
             public boolean isPropertyEqual(VEvent<?,?> v1, VEvent<?,?> v2)
@@ -324,6 +338,13 @@ public final class VEventUtilities
         public String toString() { return name; }
         public boolean isDialogRequired() { return dialogRequired; }
         
+        /** writes content line of vEvent's property, if present, to writer.  The default writes
+         * {@link #toPropertyString(VEvent)}. */
+        public void writeProperty(VEvent<?,?> vEvent, ICalendarWriter writer) throws IOException
+        {
+            writer.writeContentLines(toPropertyString(vEvent));
+        }
+
         /*
          * ABSTRACT METHODS
          */
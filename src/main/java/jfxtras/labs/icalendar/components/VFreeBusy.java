@@ -1,13 +1,398 @@
 package jfxtras.labs.icalendar.components;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+import jfxtras.labs.icalendar.DateTimeUtilities;
+
 /**
  * VFREEBUSY: RFC 5545 iCalendar 3.6.4. page 59
- * currently not supported - ZonedDateTime is providing time zone information
- * 
+ *
+ * Busy time of a set of VComponents in a window of time, and the static methods that calculate it.
+ *
+ * Busy intervals are kept in a compact primitive array of epoch seconds - start and end of each interval
+ * in turn: [start0, end0, start1, end1, ...].  The intervals are sorted, don't overlap and don't touch.
+ * Starts are inclusive and ends are exclusive.
+ *
+ * Busy time is made from the start date/times of each VEvent's recurrence set (RRULE, RDATE and EXDATE)
+ * and its DTEND or DURATION.  A parent's date/time that is replaced by a child component with a matching
+ * UID and RECURRENCE-ID is skipped - the child contributes its own busy time.  The intervals of all
+ * VEvents are merged with a sweep line over their sorted starts and ends.
+ *
+ * DATE and floating DATE-TIME values are converted to instants in the zone passed to
+ * {@link #busy(Collection, Temporal, Temporal, ZoneId)}.
+ *
+ * Only busy time (FBTYPE=BUSY) is supported.  VTODO and VJOURNAL don't make busy time.
+ *
  * @author David Bal
  *
  */
 public class VFreeBusy
 {
-    public VFreeBusy() { throw new RuntimeException("not supported"); }
+    private final static long[] EMPTY = new long[0];
+
+    /**
+     * UID: RFC 5545 iCalendar 3.8.4.7 page 117
+     */
+    public String getUniqueIdentifier() { return uniqueIdentifier; }
+    private String uniqueIdentifier;
+    public void setUniqueIdentifier(String uniqueIdentifier) { this.uniqueIdentifier = uniqueIdentifier; }
+    public VFreeBusy withUniqueIdentifier(String uniqueIdentifier) { setUniqueIdentifier(uniqueIdentifier); return this; }
+
+    /**
+     * DTSTAMP: RFC 5545 iCalendar 3.8.7.2 page 137, must be in UTC
+     */
+    public ZonedDateTime getDateTimeStamp() { return dateTimeStamp; }
+    private ZonedDateTime dateTimeStamp;
+    public void setDateTimeStamp(ZonedDateTime dateTimeStamp) { this.dateTimeStamp = dateTimeStamp; }
+    public VFreeBusy withDateTimeStamp(ZonedDateTime dateTimeStamp) { setDateTimeStamp(dateTimeStamp); return this; }
+
+    /**
+     * ORGANIZER: RFC 5545 iCalendar 3.8.4.3. page 111
+     */
+    public String getOrganizer() { return organizer; }
+    private String organizer;
+    public void setOrganizer(String organizer) { this.organizer = organizer; }
+    public VFreeBusy withOrganizer(String organizer) { setOrganizer(organizer); return this; }
+
+    /** DTSTART: start of window, as epoch second */
+    public long getStart() { return start; }
+    private long start;
+
+    /** DTEND: end of window, as epoch second */
+    public long getEnd() { return end; }
+    private long end;
+
+    /** FREEBUSY: busy intervals in window - see class comment for the format.  Don't modify the returned array. */
+    public long[] getBusy() { return busy; }
+    private long[] busy = EMPTY;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    /**
+     * Busy time of vComponents between start and end
+     *
+     * @param vComponents - calendar components of one calendar user
+     * @param start - start of window (inclusive)
+     * @param end - end of window (exclusive)
+     * @param zone - time zone of DATE and floating DATE-TIME values
+     */
+    public VFreeBusy(Collection<? extends VComponent<?>> vComponents, Temporal start, Temporal end, ZoneId zone)
+    {
+        this(DateTimeUtilities.toEpochSecond(start, zone), DateTimeUtilities.toEpochSecond(end, zone), busy(vComponents, start, end, zone));
+    }
+
+    /**
+     * @param start - start of window as epoch second
+     * @param end - end of window as epoch second
+     * @param busy - busy intervals, sorted and merged, in window
+     */
+    public VFreeBusy(long start, long end, long[] busy)
+    {
+        if (end < start) throw new IllegalArgumentException("End (" + end + ") can't be before start (" + start + ")");
+        if ((busy.length & 1) != 0) throw new IllegalArgumentException("Busy intervals must have an even number of elements");
+        this.start = start;
+        this.end = end;
+        this.busy = busy;
+    }
+
+    /** Free intervals in window - the complement of the busy intervals */
+    public long[] free() { return free(busy, start, end); }
+
+    /** Start of the first free interval in window that is at least seconds long, if there is one */
+    public OptionalLong firstFreeSlot(long seconds) { return firstFreeSlot(busy, start, end, seconds); }
+
+    /** Returns true if any busy interval overlaps the interval from start (inclusive) to end (exclusive) */
+    public boolean isBusy(long start, long end)
+    {
+        int i = firstEndAfter(busy, start);
+        return (i < busy.length) && (busy[i-1] < end);
+    }
+
+    /**
+     * Produces a VFREEBUSY component with one FREEBUSY property per busy interval.  DTSTART, DTEND and
+     * the intervals are in UTC.
+     *
+     * @return - the component text
+     */
+    public String toComponentText()
+    {
+        List<String> properties = new ArrayList<>();
+        if (getUniqueIdentifier() != null) properties.add("UID:" + getUniqueIdentifier());
+        if (getDateTimeStamp() != null) properties.add("DTSTAMP:" + DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER.format(getDateTimeStamp()));
+        if (getOrganizer() != null) properties.add("ORGANIZER:" + getOrganizer());
+        properties.add("DTSTART:" + format(start));
+        properties.add("DTEND:" + format(end));
+        for (int i=0; i<busy.length; i+=2)
+        {
+            properties.add("FREEBUSY;FBTYPE=BUSY:" + format(busy[i]) + "/" + format(busy[i+1]));
+        }
+        String propertiesString = properties
+                .stream()
+                .map(p -> p + System.lineSeparator())
+                .collect(Collectors.joining());
+        return "BEGIN:VFREEBUSY" + System.lineSeparator() + propertiesString + "END:VFREEBUSY";
+    }
+
+    @Override
+    public String toString() { return super.toString() + System.lineSeparator() + "[" + toComponentText() + "]"; }
+
+    private static String format(long epochSecond)
+    {
+        return DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER.format(ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC));
+    }
+
+    /*
+     * BUSY TIME ENGINE
+     */
+
+    /**
+     * Busy intervals of vComponents between start and end.
+     *
+     * @param vComponents - calendar components of one calendar user
+     * @param start - start of window (inclusive)
+     * @param end - end of window (exclusive)
+     * @param zone - time zone of DATE and floating DATE-TIME values
+     * @return - merged busy intervals, as epoch seconds, clipped to window
+     */
+    public static long[] busy(Collection<? extends VComponent<?>> vComponents, Temporal start, Temporal end, ZoneId zone)
+    {
+        long windowStart = DateTimeUtilities.toEpochSecond(start, zone);
+        long windowEnd = DateTimeUtilities.toEpochSecond(end, zone);
+        if (windowEnd <= windowStart) return EMPTY;
+
+        // date/times replaced by child components with RECURRENCE-ID, by UID
+        Map<String, List<Temporal>> replacedByUID = new HashMap<>();
+        for (VComponent<?> v : vComponents)
+        {
+            if ((v.getDateTimeRecurrence() != null) && (v.getUniqueIdentifier() != null))
+            {
+                replacedByUID.computeIfAbsent(v.getUniqueIdentifier(), k -> new ArrayList<>()).add(v.getDateTimeRecurrence());
+            }
+        }
+
+        IntervalBuffer intervals = new IntervalBuffer();
+        for (VComponent<?> v : vComponents)
+        {
+            if (! (v instanceof VEvent)) continue;
+            List<Temporal> replaced = (v.getDateTimeRecurrence() == null) ? replacedByUID.get(v.getUniqueIdentifier()) : null;
+            addBusy((VEvent<?,?>) v, replaced, windowStart, windowEnd, zone, intervals);
+        }
+        return intervals.union();
+    }
+
+    /**
+     * Busy intervals of each calendar, calculated in parallel
+     *
+     * @param calendars - VComponents of each calendar user
+     * @return - busy intervals of each calendar, in the same order as calendars
+     * @see #busy(Collection, Temporal, Temporal, ZoneId)
+     */
+    public static List<long[]> busyOfEach(List<? extends Collection<? extends VComponent<?>>> calendars, Temporal start, Temporal end, ZoneId zone)
+    {
+        return calendars
+                .parallelStream()
+                .map(c -> busy(c, start, end, zone))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Intervals in which at least one of the calendar users is busy.  The complement ({@link #free(long[], long, long)})
+     * is the time all of them are free.  Calendars are calculated in parallel.
+     *
+     * @param calendars - VComponents of each calendar user
+     * @return - merged busy intervals of all calendars
+     */
+    public static long[] busyOfAny(List<? extends Collection<? extends VComponent<?>>> calendars, Temporal start, Temporal end, ZoneId zone)
+    {
+        return union(busyOfEach(calendars, start, end, zone));
+    }
+
+    /** Merge of busy intervals arrays into one sorted array without overlapping intervals */
+    public static long[] union(Collection<long[]> busyIntervals)
+    {
+        IntervalBuffer intervals = new IntervalBuffer();
+        for (long[] b : busyIntervals)
+        {
+            for (int i=0; i<b.length; i+=2)
+            {
+                intervals.add(b[i], b[i+1]);
+            }
+        }
+        return intervals.union();
+    }
+
+    /**
+     * Free intervals - the complement of busy between start and end
+     *
+     * @param busy - merged busy intervals
+     * @param start - start of window as epoch second
+     * @param end - end of window as epoch second
+     * @return - free intervals in window
+     */
+    public static long[] free(long[] busy, long start, long end)
+    {
+        long[] free = new long[busy.length + 2];
+        int size = 0;
+        long freeStart = start;
+        for (int i=firstEndAfter(busy, start)-1; (i < busy.length) && (busy[i] < end); i+=2)
+        {
+            if (busy[i] > freeStart)
+            {
+                free[size++] = freeStart;
+                free[size++] = busy[i];
+            }
+            freeStart = Math.max(freeStart, busy[i+1]);
+        }
+        if (freeStart < end)
+        {
+            free[size++] = freeStart;
+            free[size++] = end;
+        }
+        return Arrays.copyOf(free, size);
+    }
+
+    /**
+     * Start of the first free interval between start and end that is at least seconds long
+     *
+     * @param busy - merged busy intervals
+     * @param start - start of window as epoch second
+     * @param end - end of window as epoch second
+     * @param seconds - length of required free time
+     * @return - start of free time, empty if there isn't enough free time in window
+     */
+    public static OptionalLong firstFreeSlot(long[] busy, long start, long end, long seconds)
+    {
+        long freeStart = start;
+        for (int i=firstEndAfter(busy, start)-1; (i < busy.length) && (busy[i] < end); i+=2)
+        {
+            if (busy[i] - freeStart >= seconds) return OptionalLong.of(freeStart);
+            freeStart = Math.max(freeStart, busy[i+1]);
+        }
+        return (end - freeStart >= seconds) ? OptionalLong.of(freeStart) : OptionalLong.empty();
+    }
+
+    /* index of the end of the first busy interval that ends after epochSecond, busy.length + 1 if none */
+    private static int firstEndAfter(long[] busy, long epochSecond)
+    {
+        int low = 0;
+        int high = busy.length / 2; // interval index
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (busy[2*middle+1] <= epochSecond) low = middle + 1;
+            else high = middle;
+        }
+        return 2*low + 1;
+    }
+
+    /* add busy intervals of vEvent's recurrence set that overlap window, except the replaced date/times */
+    private static void addBusy(VEvent<?,?> vEvent, List<Temporal> replaced, long windowStart, long windowEnd, ZoneId zone, IntervalBuffer intervals)
+    {
+        Temporal dateTimeStart = vEvent.getDateTimeStart();
+        TemporalAmount duration = vEvent.endType().getDuration(vEvent);
+        if ((dateTimeStart == null) || (duration == null)) return;
+        long[] replacedSeconds = replacedEpochSeconds(replaced, dateTimeStart, zone);
+
+        // seek to date/times that can end in window - DTSTART's duration with one day for time zone transitions
+        long durationSeconds = DateTimeUtilities.toEpochSecond(dateTimeStart.plus(duration), zone) - DateTimeUtilities.toEpochSecond(dateTimeStart, zone);
+        long seekSecond = windowStart - Math.max(durationSeconds, 0) - 86400;
+        Iterator<Temporal> i = vEvent.stream(DateTimeUtilities.fromEpochSecond(seekSecond, dateTimeStart, zone)).iterator();
+        while (i.hasNext())
+        {
+            Temporal t = i.next();
+            long busyStart = DateTimeUtilities.toEpochSecond(t, zone);
+            if (busyStart >= windowEnd) break;
+            if ((replacedSeconds != null) && (Arrays.binarySearch(replacedSeconds, busyStart) >= 0)) continue;
+            long busyEnd = DateTimeUtilities.toEpochSecond(t.plus(duration), zone);
+            if (busyEnd <= windowStart) continue;
+            intervals.add(Math.max(busyStart, windowStart), Math.min(busyEnd, windowEnd));
+        }
+    }
+
+    /*
+     * sorted epoch seconds of RECURRENCE-ID values, null if there are none.  Compared as epoch seconds
+     * the values match the parent's date/times whatever their type and zone.  A floating DATE-TIME is in
+     * the zone of a zoned DTSTART.
+     */
+    private static long[] replacedEpochSeconds(List<Temporal> replaced, Temporal dateTimeStart, ZoneId zone)
+    {
+        if (replaced == null) return null;
+        ZoneId replacedZone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : zone;
+        long[] replacedSeconds = new long[replaced.size()];
+        for (int i=0; i<replacedSeconds.length; i++)
+        {
+            replacedSeconds[i] = DateTimeUtilities.toEpochSecond(replaced.get(i), replacedZone);
+        }
+        Arrays.sort(replacedSeconds);
+        return replacedSeconds;
+    }
+
+    /*
+     * Growable primitive starts and ends of busy intervals.  union() merges them with a sweep line:
+     * starts and ends are sorted separately and walked in order, counting open intervals.  A merged
+     * interval begins when the count rises from zero and ends when it falls back to zero.
+     */
+    private static class IntervalBuffer
+    {
+        private long[] starts = new long[64];
+        private long[] ends = new long[64];
+        private int size;
+
+        void add(long start, long end)
+        {
+            if (end <= start) return; // empty
+            if (size == starts.length)
+            {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        long[] union()
+        {
+            if (size == 0) return EMPTY;
+            Arrays.sort(starts, 0, size);
+            Arrays.sort(ends, 0, size);
+            long[] result = new long[size * 2];
+            int resultSize = 0;
+            int open = 0;
+            int j = 0;
+            long begin = 0;
+            for (int i=0; i<size; i++)
+            {
+                while (ends[j] < starts[i]) // starts before ends at same time, so touching intervals are merged
+                {
+                    if (--open == 0)
+                    {
+                        result[resultSize++] = begin;
+                        result[resultSize++] = ends[j];
+                    }
+                    j++;
+                }
+                if (open++ == 0) begin = starts[i];
+            }
+            result[resultSize++] = begin;
+            result[resultSize++] = ends[size-1]; // all starts are in the open interval, it ends at the greatest end
+            return Arrays.copyOf(result, resultSize);
+        }
+    }
 }
@@ -1,18 +1,296 @@
 package jfxtras.labs.icalendar.components;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.ZoneTransitions;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+
 /**
  * VTIMEZONE: RFC 5545 iCalendar 3.6.5. page 62
- * currently not supported - ZonedDateTime is providing time zone information
- * 
- * While the ZoneId class has the IANA Time Zone Database (TZDB) so no other
- * time zone information is needed.
- * However, it can be important to output VTimeZone components to communicate with other
- * applications.  Therefore, this component may be implemented in the future.
- * 
- * @author David Bal
  *
+ * A time zone defined by its STANDARD and DAYLIGHT observances.  Each observance has an onset
+ * (DTSTART, RRULE and RDATE) and the offsets before and after it (TZOFFSETFROM and TZOFFSETTO).
+ *
+ * The observances are compiled into a {@link ZoneTransitions} table on first use, so local date/times
+ * in the zone can be converted to instants without ZoneRules.  Onsets made by an infinite RRULE are
+ * compiled up to {@link #HORIZON_YEAR}; the last offset applies to all later date/times.
+ *
+ * Date/times in VComponents use the IANA Time Zone Database (TZDB) through their ZoneId.  The epoch
+ * recurrence engine uses the compiled table instead when a VComponent's epoch values are made by its
+ * VCalendar, which resolves the TZID of DTSTART against its VTIMEZONEs.
+ *
+ * @author David Bal
+ * @see jfxtras.labs.icalendar.VCalendar#epochStream(VComponent, Temporal)
  */
 public class VTimeZone
 {
-    public VTimeZone() { throw new RuntimeException("not supported"); }
+    /** Last year that onsets of an infinite RRULE are compiled for */
+    public final static int HORIZON_YEAR = 2100;
+
+    /**
+     * TZID: RFC 5545 iCalendar 3.8.3.1 page 102
+     */
+    public String getTimeZoneIdentifier() { return timeZoneIdentifier; }
+    private String timeZoneIdentifier;
+    public void setTimeZoneIdentifier(String timeZoneIdentifier) { this.timeZoneIdentifier = timeZoneIdentifier; }
+    public VTimeZone withTimeZoneIdentifier(String timeZoneIdentifier) { setTimeZoneIdentifier(timeZoneIdentifier); return this; }
+
+    /** STANDARD and DAYLIGHT sub-components.  Changes made after {@link #transitions()} is called aren't compiled. */
+    public List<Observance> observances() { return observances; }
+    private final List<Observance> observances = new ArrayList<>();
+    public VTimeZone withObservances(Observance... observances)
+    {
+        for (Observance o : observances) observances().add(o);
+        return this;
+    }
+
+    private volatile ZoneTransitions transitions;
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    public VTimeZone() { }
+
+    /**
+     * Parse a VTIMEZONE component.  Unknown properties and sub-components are ignored.
+     *
+     * @param componentString - content lines from BEGIN:VTIMEZONE to END:VTIMEZONE, can be folded
+     * @return - the parsed VTimeZone
+     */
+    public static VTimeZone parse(String componentString)
+    {
+        VTimeZone vTimeZone = new VTimeZone();
+        Observance observance = null;
+        // unfold - drop each line break followed by whitespace, with that one whitespace character
+        String unfolded = componentString.replaceAll("\\r?\\n[ \\t]", "");
+        for (String line : unfolded.split("\\r?\\n"))
+        {
+            int valueIndex = line.indexOf(':');
+            if (valueIndex < 0) continue;
+            int parameterIndex = line.indexOf(';');
+            String name = line.substring(0, ((parameterIndex >= 0) && (parameterIndex < valueIndex)) ? parameterIndex : valueIndex).trim().toUpperCase();
+            String value = line.substring(valueIndex + 1).trim();
+            if (name.equals("BEGIN") && (value.equals(Observance.STANDARD) || value.equals(Observance.DAYLIGHT)))
+            {
+                observance = new Observance(value.equals(Observance.DAYLIGHT));
+            } else if (name.equals("END") && (observance != null))
+            {
+                vTimeZone.observances().add(observance);
+                observance = null;
+            } else if (observance == null)
+            {
+                if (name.equals("TZID")) vTimeZone.setTimeZoneIdentifier(value);
+            } else
+            {
+                observance.parseProperty(name, value);
+            }
+        }
+        return vTimeZone;
+    }
+
+    /** Offset transitions of all observances, compiled when first called */
+    public ZoneTransitions transitions()
+    {
+        if (transitions == null)
+        {
+            synchronized (this)
+            {
+                if (transitions == null) transitions = compile();
+            }
+        }
+        return transitions;
+    }
+
+    /* sort onsets of all observances into a transition table */
+    private ZoneTransitions compile()
+    {
+        Map<Long, Observance> onsets = new TreeMap<>(); // by instant
+        for (Observance o : observances())
+        {
+            o.onsets().forEach(onset -> onsets.put(onset.toEpochSecond(o.getOffsetFrom()), o));
+        }
+        long[] instants = new long[onsets.size()];
+        int[] offsets = new int[onsets.size() + 1];
+        int i = 0;
+        for (Map.Entry<Long, Observance> e : onsets.entrySet())
+        {
+            if (i == 0) offsets[0] = e.getValue().getOffsetFrom().getTotalSeconds();
+            instants[i] = e.getKey();
+            offsets[++i] = e.getValue().getOffsetTo().getTotalSeconds();
+        }
+        return new ZoneTransitions(instants, offsets);
+    }
+
+    /** Produces a VTIMEZONE component */
+    public String toComponentText()
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append("BEGIN:VTIMEZONE").append(System.lineSeparator());
+        if (getTimeZoneIdentifier() != null) builder.append("TZID:").append(getTimeZoneIdentifier()).append(System.lineSeparator());
+        observances().forEach(o -> builder.append(o.toComponentText()).append(System.lineSeparator()));
+        return builder.append("END:VTIMEZONE").toString();
+    }
+
+    @Override
+    public String toString() { return super.toString() + System.lineSeparator() + "[" + toComponentText() + "]"; }
+
+    /**
+     * STANDARD or DAYLIGHT sub-component of a VTIMEZONE
+     */
+    public static class Observance
+    {
+        final static String STANDARD = "STANDARD";
+        final static String DAYLIGHT = "DAYLIGHT";
+
+        /** true for DAYLIGHT, false for STANDARD */
+        public boolean isDaylight() { return isDaylight; }
+        private final boolean isDaylight;
+
+        /** DTSTART: first onset, in local time before the onset */
+        public LocalDateTime getDateTimeStart() { return dateTimeStart; }
+        private LocalDateTime dateTimeStart;
+        public Observance withDateTimeStart(LocalDateTime dateTimeStart) { this.dateTimeStart = dateTimeStart; return this; }
+
+        /** TZOFFSETFROM: offset before onset */
+        public ZoneOffset getOffsetFrom() { return offsetFrom; }
+        private ZoneOffset offsetFrom;
+        public Observance withOffsetFrom(ZoneOffset offsetFrom) { this.offsetFrom = offsetFrom; return this; }
+
+        /** TZOFFSETTO: offset after onset */
+        public ZoneOffset getOffsetTo() { return offsetTo; }
+        private ZoneOffset offsetTo;
+        public Observance withOffsetTo(ZoneOffset offsetTo) { this.offsetTo = offsetTo; return this; }
+
+        /** TZNAME: name of observance, such as EST */
+        public String getName() { return name; }
+        private String name;
+        public Observance withName(String name) { this.name = name; return this; }
+
+        /** RRULE value of onsets, such as FREQ=YEARLY;BYMONTH=3;BYDAY=2SU */
+        public String getRRule() { return rRule; }
+        private String rRule;
+        public Observance withRRule(String rRule) { this.rRule = rRule; return this; }
+
+        /** RDATE: onsets in addition to DTSTART and RRULE */
+        public List<LocalDateTime> rDates() { return rDates; }
+        private final List<LocalDateTime> rDates = new ArrayList<>();
+
+        public Observance(boolean isDaylight)
+        {
+            this.isDaylight = isDaylight;
+        }
+
+        private void parseProperty(String name, String value)
+        {
+            switch (name)
+            {
+            case "DTSTART":
+                dateTimeStart = parseLocalDateTime(value);
+                break;
+            case "TZOFFSETFROM":
+                offsetFrom = ZoneOffset.of(value);
+                break;
+            case "TZOFFSETTO":
+                offsetTo = ZoneOffset.of(value);
+                break;
+            case "TZNAME":
+                this.name = value;
+                break;
+            case "RRULE":
+                rRule = value;
+                break;
+            case "RDATE":
+                for (String rDate : value.split(","))
+                {
+                    int periodIndex = rDate.indexOf('/'); // PERIOD - onset is its start
+                    rDates.add(parseLocalDateTime((periodIndex < 0) ? rDate : rDate.substring(0, periodIndex)));
+                }
+                break;
+            default:
+                break; // ignore unknown property
+            }
+        }
+
+        private static LocalDateTime parseLocalDateTime(String value)
+        {
+            return LocalDateTime.parse(value.trim(), DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER);
+        }
+
+        /* Local date/times of all onsets - DTSTART, RDATEs and, up to HORIZON_YEAR or UNTIL, the RRULE */
+        List<LocalDateTime> onsets()
+        {
+            List<LocalDateTime> onsets = new ArrayList<>();
+            if (dateTimeStart == null) return onsets;
+            onsets.add(dateTimeStart);
+            onsets.addAll(rDates);
+            if (rRule != null)
+            {
+                // UNTIL is in UTC, so it is compared to the onset's instant instead of applied by RRule
+                String untilValue = null;
+                List<String> parts = new ArrayList<>();
+                for (String part : rRule.split(";"))
+                {
+                    if (part.toUpperCase().startsWith("UNTIL=")) untilValue = part.substring(6).trim();
+                    else parts.add(part);
+                }
+                Long untilEpochSecond = null;
+                LocalDate untilDate = null;
+                if (untilValue != null)
+                {
+                    if (untilValue.indexOf('T') < 0) untilDate = LocalDate.parse(untilValue, DateTimeFormatter.BASIC_ISO_DATE);
+                    else untilEpochSecond = parseLocalDateTime(untilValue.replace("Z", "")).toEpochSecond(ZoneOffset.UTC);
+                }
+                RRule onsetRule = new RRule(parts.stream().collect(Collectors.joining(";")));
+                Iterator<Temporal> i = onsetRule.stream(dateTimeStart).iterator();
+                while (i.hasNext())
+                {
+                    LocalDateTime onset = (LocalDateTime) i.next();
+                    if (onset.getYear() > HORIZON_YEAR) break;
+                    if ((untilEpochSecond != null) && (onset.toEpochSecond(offsetFrom) > untilEpochSecond)) break;
+                    if ((untilDate != null) && onset.toLocalDate().isAfter(untilDate)) break;
+                    onsets.add(onset);
+                }
+            }
+            return onsets;
+        }
+
+        /** Produces a STANDARD or DAYLIGHT sub-component */
+        public String toComponentText()
+        {
+            String type = isDaylight ? DAYLIGHT : STANDARD;
+            List<String> properties = new ArrayList<>();
+            if (dateTimeStart != null) properties.add("DTSTART:" + DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER.format(dateTimeStart));
+            if (offsetFrom != null) properties.add("TZOFFSETFROM:" + formatOffset(offsetFrom));
+            if (offsetTo != null) properties.add("TZOFFSETTO:" + formatOffset(offsetTo));
+            if (name != null) properties.add("TZNAME:" + name);
+            if (rRule != null) properties.add("RRULE:" + rRule);
+            rDates.forEach(d -> properties.add("RDATE:" + DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER.format(d)));
+            String propertiesString = properties
+                    .stream()
+                    .map(p -> p + System.lineSeparator())
+                    .collect(Collectors.joining());
+            return "BEGIN:" + type + System.lineSeparator() + propertiesString + "END:" + type;
+        }
+
+        /* iCalendar UTC-OFFSET format: +hhmm or +hhmmss */
+        private static String formatOffset(ZoneOffset offset)
+        {
+            int totalSeconds = offset.getTotalSeconds();
+            int absoluteSeconds = Math.abs(totalSeconds);
+            String text = String.format("%s%02d%02d", (totalSeconds < 0) ? "-" : "+", absoluteSeconds / 3600, (absoluteSeconds / 60) % 60);
+            return (absoluteSeconds % 60 == 0) ? text : text + String.format("%02d", absoluteSeconds % 60);
+        }
+    }
 }
@@ -3,9 +3,9 @@ package jfxtras.labs.icalendar.properties.recurrence;
 import java.time.temporal.Temporal;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
-import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -26,60 +26,39 @@ public class RDate extends RecurrenceAbstract<RDate>
     public RDate() { }
     public RDate(Temporal... dateOrDateTime) { super(dateOrDateTime); }
     
-    /** Add date/times in RDates set */
+    /** Add date/times in RDates set.  Only the RDATEs that aren't before startTemporal are merged into inStream,
+     * which must be sorted. */
     @Override
     public Stream<Temporal> stream(Stream<Temporal> inStream, Temporal startTemporal)
     {
         if (inStream == null)
         {
-            getTemporalStream().filter(d -> ! DateTimeUtilities.isBefore(d, startTemporal));
+            return stream(startTemporal);
         }
         return merge(inStream
-                   , getTemporalStream()
+                   , getTemporalStream(startTemporal)
                    , DateTimeUtilities.TEMPORAL_COMPARATOR);
     }
 
+    /** Sorted stream of RDATEs that aren't before startTemporal */
     public Stream<Temporal> stream(Temporal startTemporal)
     {
-        return getTemporalStream()
+        return getTemporalStream(startTemporal)
                 .filter(d -> ! DateTimeUtilities.isBefore(d, startTemporal));
     }
 
     
-    private <T> Stream<T> merge(Stream<T> stream1, Stream<T> stream2, Comparator<T> comparator)
+    private static <T> Stream<T> merge(Stream<T> stream1, Stream<T> stream2, Comparator<T> comparator)
     {
-            Iterator<T> iterator = new MergedIterator<T>(
-                    stream1.iterator()
-                  , stream2.iterator()
-                  , comparator);
-            Spliterator<T> spliterator = new SpliteratorAdapter<>(iterator);
-            return StreamSupport.stream(spliterator, false);
+        Iterator<T> iterator = new MergedIterator<T>(
+                stream1.iterator()
+              , stream2.iterator()
+              , comparator);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
-    
-    /*
-     * Recommend using with StreamSupport.stream(iteratorStream, false);
-     */
-    private class SpliteratorAdapter<T> extends Spliterators.AbstractSpliterator <T>
-    {
-        private final Iterator<T> iterator;
-     
-        public SpliteratorAdapter(Iterator<T> iter) {
-            super(Long.MAX_VALUE, 0);
-            iterator = iter;
-        }
-     
-        @Override
-        public synchronized boolean tryAdvance(Consumer<? super T> action) {
-            if(iterator.hasNext()) {
-                action.accept(iterator.next());
-                return true;
-            }
-            return false;
-        }
-    }        
 
-    /** Merge two sorted iterators */
-    private class MergedIterator<T> implements Iterator<T>
+    /** Merge two sorted iterators.  An element in both is returned once. */
+    private static class MergedIterator<T> implements Iterator<T>
     {
         private final Iterator<T> iterator1;
         private final Iterator<T> iterator2;
@@ -103,17 +82,18 @@ public class RDate extends RecurrenceAbstract<RDate>
         @Override
         public T next()
         {
-            if (iterator1.hasNext() && (next1 == null)) next1 = iterator1.next();
-            if (iterator2.hasNext() && (next2 == null)) next2 = iterator2.next();
-            T theNext;
+            if ((next1 == null) && iterator1.hasNext()) next1 = iterator1.next();
+            if ((next2 == null) && iterator2.hasNext()) next2 = iterator2.next();
+            if ((next1 == null) && (next2 == null)) throw new NoSuchElementException();
             int result = (next1 == null) ? 1 :
                          (next2 == null) ? -1 :
                          comparator.compare(next1, next2);
+            T theNext;
             if (result > 0)
             {
                 theNext = next2;
                 next2 = null;
-            } else if (comparator.compare(next1, next2) < 0)
+            } else if ((result < 0) || ! next1.equals(next2))
             {
                 theNext = next1;
                 next1 = null;
@@ -126,6 +106,5 @@ public class RDate extends RecurrenceAbstract<RDate>
             return theNext;
         }
     }
-
 }
 
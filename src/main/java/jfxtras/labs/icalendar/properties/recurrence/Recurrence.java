@@ -20,7 +20,7 @@ public interface Recurrence
     {
         // find time zone id, if present
         final String tzid;
-        if (string.matches("^TZID=.*"))
+        if (string.startsWith("TZID="))
         {
             tzid = string.substring(0,string.indexOf(":")+1);
             string = string.substring(string.indexOf(":")+1).trim();
@@ -1,10 +1,14 @@
 package jfxtras.labs.icalendar.properties.recurrence;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -15,6 +19,10 @@ import jfxtras.labs.icalendar.DateTimeUtilities;
 
 /** For EXDate and RDate
  * Stores either date or date-time values
+ * 
+ * The values are kept sorted (see {@link DateTimeUtilities#TEMPORAL_COMPARATOR}) in a navigable set
+ * wrapped by the observable set, so streams are in date/time order, a range of values can be
+ * found without scanning all of them, and equals and toString don't need to sort.
  * @param <T> either EXDate or RDate
  * @see ExDate
  * @see RDate
@@ -29,7 +37,22 @@ public abstract class RecurrenceAbstract<T> implements Recurrence
     public ObservableSet<Temporal> getTemporals() { return vDateTimes; }
 //    private Set<Temporal> vDateTimes = new HashSet<Temporal>();
 //    public void setTemporals(Set<Temporal> temporals) { vDateTimes = temporals; }
-    private ObservableSet<Temporal> vDateTimes = FXCollections.observableSet(new HashSet<Temporal>());
+    private final NavigableSet<Temporal> sortedDateTimes = new TreeSet<Temporal>(TEMPORAL_SET_COMPARATOR);
+    private ObservableSet<Temporal> vDateTimes = FXCollections.observableSet(sortedDateTimes);
+    
+    /** Read-only sorted view of {@link #getTemporals()}.  Changes must be made through getTemporals, so listeners are notified. */
+    public NavigableSet<Temporal> getSortedTemporals() { return Collections.unmodifiableNavigableSet(sortedDateTimes); }
+    
+    /* Orders by TEMPORAL_COMPARATOR.  Different Temporals that are at the same date/time by TEMPORAL_COMPARATOR (e.g. a
+     * LocalDate and a LocalDateTime at midnight, or ZonedDateTimes with different zones) are ordered by class
+     * and string, so they are both kept as they were in a HashSet. */
+    private final static Comparator<Temporal> TEMPORAL_SET_COMPARATOR = (t1, t2) ->
+    {
+        int result = DateTimeUtilities.TEMPORAL_COMPARATOR.compare(t1, t2);
+        if (result != 0) return result;
+        result = t1.getClass().getName().compareTo(t2.getClass().getName());
+        return (result != 0) ? result : t1.toString().compareTo(t2.toString());
+    };
     void setVDateTimes(Temporal...dateOrDateTime)
     {
         for (Temporal d : dateOrDateTime)
@@ -55,6 +78,15 @@ public abstract class RecurrenceAbstract<T> implements Recurrence
     {
         return getTemporals().stream();
     }
+    
+    /** Sorted stream of the values that aren't before startTemporal */
+    protected Stream<Temporal> getTemporalStream(Temporal startTemporal)
+    {
+        // Start just before startTemporal so values at the same date/time, but ordered before it by class or zone, are included
+        LocalDateTime start = (startTemporal.isSupported(ChronoUnit.NANOS)) ? LocalDateTime.from(startTemporal)
+                : LocalDate.from(startTemporal).atStartOfDay();
+        return sortedDateTimes.tailSet(start.minusNanos(1), false).stream();
+    }
 
     /**
      * Allows initialization of LocalDate or LocalDate Temporal objects.
@@ -133,14 +165,12 @@ public abstract class RecurrenceAbstract<T> implements Recurrence
         if (getTemporals() == null) return testObj.getTemporals() == null;
         if (getTemporals().size() != testObj.getTemporals().size()) return false;
         
-        // Sort both sets as lists and compare each element
-        List<Temporal> l1 = new ArrayList<Temporal>(getTemporals());
-        Collections.sort(l1, DateTimeUtilities.TEMPORAL_COMPARATOR);
-        List<Temporal> l2 = new ArrayList<Temporal>(testObj.getTemporals());
-        Collections.sort(l2, DateTimeUtilities.TEMPORAL_COMPARATOR);
-        for (int i=0; i<l1.size(); i++)
+        // Both sets are sorted - compare each element
+        Iterator<Temporal> i1 = getTemporals().iterator();
+        Iterator<Temporal> i2 = testObj.getTemporals().iterator();
+        while (i1.hasNext())
         {
-            if(! l1.get(i).equals(l2.get(i))) return false;
+            if(! i1.next().equals(i2.next())) return false;
         }
         return true;
     }
@@ -156,10 +186,9 @@ public abstract class RecurrenceAbstract<T> implements Recurrence
     {
         String datesString = getTemporals()
                 .stream()
-                .sorted()
-                .map(d -> DateTimeUtilities.format(d) + ",")
-                .collect(Collectors.joining());
-        return datesString.substring(0, datesString.length()-1); // remove last comma
+                .map(d -> DateTimeUtilities.format(d))
+                .collect(Collectors.joining(","));
+        return datesString;
     }
 
 }
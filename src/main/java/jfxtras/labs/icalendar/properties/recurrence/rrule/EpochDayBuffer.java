@@ -0,0 +1,85 @@
+package jfxtras.labs.icalendar.properties.recurrence.rrule;
+
+import java.util.Arrays;
+
+/**
+ * Reusable primitive buffer of the epoch days in one frequency period, used by the epoch recurrence
+ * engine to apply BYxxx rules without boxing.
+ *
+ * A rule reads the input days with {@link #size()} and {@link #get(int)} and writes the filtered or
+ * expanded days with {@link #add(long)}.  The engine then calls {@link #swap()} so the added days
+ * become the input of the next rule.  The arrays grow as needed and are never shrunk, so after the
+ * first few periods no memory is allocated.
+ *
+ * Not thread-safe.  Each stream has its own buffer.
+ *
+ * @author David Bal
+ * @see jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByRule#expandEpochDays(EpochDayBuffer, java.time.temporal.ChronoUnit, long)
+ */
+public class EpochDayBuffer
+{
+    private long[] input = new long[16];
+    private int inputSize;
+    private long[] output = new long[16];
+    private int outputSize;
+
+    /** Number of input days */
+    public int size() { return inputSize; }
+
+    /** Input day at index */
+    public long get(int index) { return input[index]; }
+
+    /** Number of days added since last swap */
+    public int addedSize() { return outputSize; }
+
+    /** Add a day to output */
+    public void add(long epochDay)
+    {
+        if (outputSize == output.length) output = Arrays.copyOf(output, outputSize * 2);
+        output[outputSize++] = epochDay;
+    }
+
+    /**
+     * Add firstDay plus the index of each set bit in mask, in ascending order.  Used with the day
+     * masks precomputed by BYxxx rules, so the added days are already sorted.
+     */
+    public void addMasked(long firstDay, long mask)
+    {
+        while (mask != 0)
+        {
+            add(firstDay + Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1; // clear lowest bit
+        }
+    }
+
+    /** Mask of the bits of {@link #addMasked(long, long)} for days on or after minDay */
+    public static long onOrAfter(long firstDay, long minDay)
+    {
+        if (minDay <= firstDay) return -1L;
+        return (minDay - firstDay >= Long.SIZE) ? 0 : -1L << (minDay - firstDay);
+    }
+
+    /** Sort days added from fromIndex (inclusive) to the last added day */
+    public void sortAdded(int fromIndex)
+    {
+        Arrays.sort(output, fromIndex, outputSize);
+    }
+
+    /** Make the added days the input and empty the output */
+    public void swap()
+    {
+        long[] temp = input;
+        input = output;
+        inputSize = outputSize;
+        output = temp;
+        outputSize = 0;
+    }
+
+    /** Make epochDay the only input day and empty the output */
+    public void reset(long epochDay)
+    {
+        input[0] = epochDay;
+        inputSize = 1;
+        outputSize = 0;
+    }
+}
@@ -0,0 +1,126 @@
+package jfxtras.labs.icalendar.properties.recurrence.rrule;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByRule;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.BySetPosition;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Frequency;
+
+/**
+ * Expands the frequency periods of a DAILY, WEEKLY, MONTHLY or YEARLY rule into epoch days (see
+ * {@link EpochDays}), one period at a time.  Each BYxxx rule reads the period's days from a reused
+ * {@link EpochDayBuffer} and writes its result from tables precomputed for the rule, already sorted,
+ * so no memory is allocated per period.
+ *
+ * BYSETPOS selects from all the days of a period, so when it is present the other rules keep the
+ * days before DTSTART and they are removed after BYSETPOS instead.
+ *
+ * Not thread-safe.  Each stream has its own expander.
+ *
+ * @author David Bal
+ * @see ByRule#expandEpochDays(EpochDayBuffer, ChronoUnit, long)
+ */
+public class EpochDayExpander
+{
+    /* more than the days of the first period that can come before DTSTART */
+    private final static long SET_POSITION_LOOKBACK_DAYS = 400;
+
+    private final ByRule[] byRules;
+    private final ChronoUnit frequencyUnit;
+    private final long interval;
+    private final long startEpochDay;
+    private final long rulesStartEpochDay; // days before it are removed by the rules
+    private final boolean hasSetPosition;
+    private final EpochDayBuffer buffer = new EpochDayBuffer();
+    private long period;
+
+    /**
+     * @param frequency - frequency and BYxxx rules, must be supported (see {@link #isSupported(Frequency)})
+     * @param startEpochDay - epoch day of DTSTART
+     * @param firstPeriod - index of first frequency period
+     */
+    public EpochDayExpander(Frequency frequency, long startEpochDay, long firstPeriod)
+    {
+        byRules = frequency.byRules().stream().sorted().toArray(size -> new ByRule[size]);
+        frequencyUnit = frequency.frequencyType().getChronoUnit();
+        interval = frequency.getInterval();
+        this.startEpochDay = startEpochDay;
+        period = firstPeriod;
+        boolean hasSetPosition = false;
+        for (ByRule byRule : byRules) hasSetPosition |= byRule instanceof BySetPosition;
+        this.hasSetPosition = hasSetPosition;
+        rulesStartEpochDay = (hasSetPosition) ? startEpochDay - SET_POSITION_LOOKBACK_DAYS : startEpochDay;
+    }
+
+    /** Returns true if frequency's periods and all its BYxxx rules can be expanded on epoch days */
+    public static boolean isSupported(Frequency frequency)
+    {
+        return (frequency != null)
+                && EpochDays.isSupported(frequency.frequencyType().getChronoUnit())
+                && frequency.byRules().stream().allMatch(ByRule::isEpochDaySupported);
+    }
+
+    /**
+     * Fills the buffer with the sorted days of the next frequency period
+     *
+     * @return - the buffer, its input holds the days
+     */
+    public EpochDayBuffer nextPeriod()
+    {
+        buffer.reset(EpochDays.plus(startEpochDay, period * interval, frequencyUnit));
+        period++;
+        ChronoUnit chronoUnit = frequencyUnit;
+        for (ByRule byRule : byRules)
+        {
+            chronoUnit = byRule.expandEpochDays(buffer, chronoUnit, rulesStartEpochDay);
+            buffer.swap();
+        }
+        if (hasSetPosition && (buffer.size() > 0) && (buffer.get(0) < startEpochDay))
+        { // remove days before DTSTART
+            for (int i=0; i<buffer.size(); i++)
+            {
+                if (buffer.get(i) >= startEpochDay) buffer.add(buffer.get(i));
+            }
+            buffer.swap();
+        }
+        return buffer;
+    }
+
+    /**
+     * Stream of the date/times made by frequency, the same as {@link Frequency#stream(Temporal, long)}.
+     * Each day takes the time of day and time zone of dateTimeStart.
+     *
+     * @param frequency - frequency and BYxxx rules, must be supported (see {@link #isSupported(Frequency)})
+     * @param dateTimeStart - DTSTART, a LocalDate, LocalDateTime or ZonedDateTime
+     * @param firstPeriod - index of first frequency period
+     */
+    public static Stream<Temporal> stream(Frequency frequency, Temporal dateTimeStart, long firstPeriod)
+    {
+        EpochDayExpander expander = new EpochDayExpander(frequency, EpochDays.toEpochDay(dateTimeStart), firstPeriod);
+        Spliterator<Temporal> spliterator = new Spliterators.AbstractSpliterator<Temporal>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL)
+        {
+            private EpochDayBuffer days = expander.buffer;
+            private int index;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Temporal> action)
+            {
+                while (index >= days.size())
+                {
+                    days = expander.nextPeriod();
+                    index = 0;
+                }
+                action.accept(dateTimeStart.with(LocalDate.ofEpochDay(days.get(index++))));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+}
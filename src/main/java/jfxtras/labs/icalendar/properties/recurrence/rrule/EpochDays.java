@@ -0,0 +1,239 @@
+package jfxtras.labs.icalendar.properties.recurrence.rrule;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+
+import jfxtras.labs.icalendar.ZoneTransitions;
+
+/**
+ * Calendar arithmetic on epoch days (days since 1970-01-01 in the ISO calendar) represented as
+ * primitive longs, and conversion between Temporals and epoch values.
+ *
+ * An epoch value depends on the type of the Temporal:
+ * LocalDate - epoch day
+ * LocalDateTime - epoch second of the local date/time, as if it were UTC
+ * ZonedDateTime - epoch second of the instant
+ *
+ * Used by the epoch recurrence engine so BYxxx rules can be applied without making a Temporal for
+ * every date.  The results match the equivalent LocalDate methods (e.g. plusMonths clamps the day of
+ * month to the length of the new month).
+ *
+ * @author David Bal
+ * @see RRule#epochStream(Temporal)
+ */
+public final class EpochDays
+{
+    public final static long SECONDS_PER_DAY = 86400;
+
+    /* days from 0000-03-01 to 1970-01-01 */
+    private final static long DAYS_0000_TO_1970 = 719468;
+    private final static long DAYS_PER_CYCLE = 146097; // 400 year cycle
+
+    private EpochDays() { }
+
+    /*
+     * CIVIL DATE MATH
+     * Based on the days_from_civil and civil_from_days algorithms by Howard Hinnant
+     */
+
+    /** Epoch day of year, month (1 to 12) and dayOfMonth (1 to 31) */
+    public static long of(long year, int month, int dayOfMonth)
+    {
+        long y = (month <= 2) ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * ((month > 2) ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1; // March based
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /* year, month and day of month packed into one long - year in the high bits, then 4 bits for month and 5 bits for day */
+    private static long civil(long epochDay)
+    {
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, DAYS_PER_CYCLE);
+        long dayOfEra = z - era * DAYS_PER_CYCLE;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100); // March based
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long dayOfMonth = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+        long month = (monthIndex < 10) ? monthIndex + 3 : monthIndex - 9;
+        long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+        return (year << 9) | (month << 5) | dayOfMonth;
+    }
+
+    public static long year(long epochDay) { return civil(epochDay) >> 9; }
+
+    /** Month of year, January = 1 - December = 12 */
+    public static int monthOfYear(long epochDay) { return (int) ((civil(epochDay) >> 5) & 0xF); }
+
+    public static int dayOfMonth(long epochDay) { return (int) (civil(epochDay) & 0x1F); }
+
+    /** ISO day of week, Monday = 1 - Sunday = 7 */
+    public static int dayOfWeek(long epochDay) { return (int) Math.floorMod(epochDay + 3, 7) + 1; }
+
+    public static boolean isLeapYear(long year)
+    {
+        return ((year & 3) == 0) && ((year % 100 != 0) || (year % 400 == 0));
+    }
+
+    public static int lengthOfMonth(long year, int month)
+    {
+        switch (month)
+        {
+        case 2:
+            return isLeapYear(year) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    public static int lengthOfMonth(long epochDay)
+    {
+        long civil = civil(epochDay);
+        return lengthOfMonth(civil >> 9, (int) ((civil >> 5) & 0xF));
+    }
+
+    public static long firstDayOfMonth(long epochDay)
+    {
+        return epochDay - dayOfMonth(epochDay) + 1;
+    }
+
+    public static long lastDayOfMonth(long epochDay)
+    {
+        long civil = civil(epochDay);
+        int dayOfMonth = (int) (civil & 0x1F);
+        return epochDay - dayOfMonth + lengthOfMonth(civil >> 9, (int) ((civil >> 5) & 0xF));
+    }
+
+    public static long firstDayOfYear(long epochDay)
+    {
+        return of(year(epochDay), 1, 1);
+    }
+
+    /** Same as LocalDate plusMonths - the day of month is clamped to the length of the new month */
+    public static long plusMonths(long epochDay, long months)
+    {
+        if (months == 0) return epochDay;
+        long civil = civil(epochDay);
+        long monthCount = (civil >> 9) * 12 + ((civil >> 5) & 0xF) - 1 + months;
+        long year = Math.floorDiv(monthCount, 12);
+        int month = (int) Math.floorMod(monthCount, 12) + 1;
+        int dayOfMonth = (int) Math.min(civil & 0x1F, lengthOfMonth(year, month));
+        return of(year, month, dayOfMonth);
+    }
+
+    /** Add amount of DAYS, WEEKS, MONTHS or YEARS to epochDay */
+    public static long plus(long epochDay, long amount, ChronoUnit unit)
+    {
+        switch (unit)
+        {
+        case DAYS:
+            return epochDay + amount;
+        case WEEKS:
+            return epochDay + amount * 7;
+        case MONTHS:
+            return plusMonths(epochDay, amount);
+        case YEARS:
+            return plusMonths(epochDay, amount * 12);
+        default:
+            throw new DateTimeException("Unsupported ChronoUnit:" + unit);
+        }
+    }
+
+    /** Returns true if unit can be added with {@link #plus(long, long, ChronoUnit)} */
+    public static boolean isSupported(ChronoUnit unit)
+    {
+        return (unit == ChronoUnit.DAYS) || (unit == ChronoUnit.WEEKS) || (unit == ChronoUnit.MONTHS) || (unit == ChronoUnit.YEARS);
+    }
+
+    /*
+     * CONVERSION
+     */
+
+    /** Returns true if temporal is a LocalDate, LocalDateTime or ZonedDateTime */
+    public static boolean isSupported(Temporal temporal)
+    {
+        return (temporal instanceof LocalDate) || (temporal instanceof LocalDateTime) || (temporal instanceof ZonedDateTime);
+    }
+
+    /** Epoch value of temporal - epoch day for LocalDate, epoch second otherwise.  Fractions of a second are dropped. */
+    public static long toEpoch(Temporal temporal)
+    {
+        if (temporal instanceof LocalDate)
+        {
+            return ((LocalDate) temporal).toEpochDay();
+        } else if (temporal instanceof LocalDateTime)
+        {
+            return ((LocalDateTime) temporal).toEpochSecond(ZoneOffset.UTC);
+        } else if (temporal instanceof ZonedDateTime)
+        {
+            return ((ZonedDateTime) temporal).toEpochSecond();
+        }
+        throw new DateTimeException("Unsupported Temporal class:" + temporal.getClass().getSimpleName());
+    }
+
+    /**
+     * Same as {@link #toEpoch(Temporal)}, but a ZonedDateTime's local date/time is converted to its
+     * instant with zoneTransitions instead of the rules of its ZoneId.  Its offset is preferred in an overlap.
+     *
+     * @param temporal - date or date/time
+     * @param zoneTransitions - transitions of temporal's zone, such as those of a VTIMEZONE, null to use its ZoneId
+     */
+    public static long toEpoch(Temporal temporal, ZoneTransitions zoneTransitions)
+    {
+        if ((zoneTransitions == null) || ! (temporal instanceof ZonedDateTime)) return toEpoch(temporal);
+        ZonedDateTime zonedDateTime = (ZonedDateTime) temporal;
+        return zoneTransitions.toEpochSecond(zonedDateTime.toLocalDateTime().toEpochSecond(ZoneOffset.UTC)
+                , zonedDateTime.getOffset().getTotalSeconds());
+    }
+
+    /** Epoch day of temporal's local date */
+    public static long toEpochDay(Temporal temporal)
+    {
+        if (temporal instanceof LocalDate)
+        {
+            return ((LocalDate) temporal).toEpochDay();
+        } else if (temporal instanceof LocalDateTime)
+        {
+            return ((LocalDateTime) temporal).toLocalDate().toEpochDay();
+        } else if (temporal instanceof ZonedDateTime)
+        {
+            return ((ZonedDateTime) temporal).toLocalDate().toEpochDay();
+        }
+        throw new DateTimeException("Unsupported Temporal class:" + temporal.getClass().getSimpleName());
+    }
+
+    /**
+     * Inverse of {@link #toEpoch(Temporal)}.  Makes a Temporal of the same type as dateTimeStart, in
+     * its time zone for a ZonedDateTime.
+     *
+     * @param epoch - epoch value made from a Temporal of the same type as dateTimeStart
+     * @param dateTimeStart - DTSTART
+     */
+    public static Temporal fromEpoch(long epoch, Temporal dateTimeStart)
+    {
+        if (dateTimeStart instanceof LocalDate)
+        {
+            return LocalDate.ofEpochDay(epoch);
+        } else if (dateTimeStart instanceof LocalDateTime)
+        {
+            return LocalDateTime.ofEpochSecond(epoch, 0, ZoneOffset.UTC);
+        } else if (dateTimeStart instanceof ZonedDateTime)
+        {
+            return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epoch), ((ZonedDateTime) dateTimeStart).getZone());
+        }
+        throw new DateTimeException("Unsupported Temporal class:" + dateTimeStart.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,167 @@
+package jfxtras.labs.icalendar.properties.recurrence.rrule;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
+import jfxtras.labs.icalendar.ZoneTransitions;
+
+/**
+ * Epoch recurrence engine.  Iterates the epoch values (see {@link EpochDays}) of the date/times made
+ * by a RRule with DAILY, WEEKLY, MONTHLY or YEARLY frequency.  Periods and BYxxx rules are calculated
+ * on primitive epoch days by an {@link EpochDayExpander}.  The time of day and time zone of
+ * DTSTART are applied only when a day is converted to its epoch value, using the zone's shared
+ * {@link ZoneTransitions} table, or the table of the calendar's VTIMEZONE if one is given.
+ *
+ * Produces the same date/times as {@link RRule#stream(Temporal)}, including the removal of recurrences
+ * and the COUNT and UNTIL limits.
+ *
+ * @author David Bal
+ * @see RRule#epochStream(Temporal)
+ */
+class EpochRecurrenceIterator implements PrimitiveIterator.OfLong
+{
+    private final EpochDayExpander expander;
+    private EpochDayBuffer buffer;
+
+    /* boundary conversion from epoch day to epoch value */
+    private final boolean isDate;
+    private final long secondOfDay;
+    private final ZoneId zone;
+    private final ZoneTransitions zoneTransitions; // null if zone has a fixed offset and there is no VTIMEZONE
+    private final long fixedOffsetSeconds;
+    private final int preferredOffsetSeconds;
+
+    private final long[] recurrences; // sorted epoch values of RECURRENCE-IDs
+    private final long until;
+    private long remaining;
+
+    private int bufferIndex;
+    private boolean hasNext;
+    private boolean isNextReady;
+    private long next;
+
+    /**
+     * @param rRule - recurrence rule, must be supported (see {@link #isSupported(RRule, Temporal)})
+     * @param dateTimeStart - DTSTART
+     * @param firstPeriod - index of first frequency period, must be 0 if COUNT is present
+     * @param vTimeZoneTransitions - transitions of the VTIMEZONE of DTSTART's TZID, null to use the time-zone database
+     */
+    EpochRecurrenceIterator(RRule rRule, Temporal dateTimeStart, long firstPeriod, ZoneTransitions vTimeZoneTransitions)
+    {
+        long startEpochDay = EpochDays.toEpochDay(dateTimeStart);
+        expander = new EpochDayExpander(rRule.getFrequency(), startEpochDay, firstPeriod);
+
+        isDate = dateTimeStart instanceof LocalDate;
+        if (isDate)
+        {
+            secondOfDay = 0;
+            zone = null;
+            preferredOffsetSeconds = 0;
+        } else if (dateTimeStart instanceof LocalDateTime)
+        {
+            LocalDateTime start = (LocalDateTime) dateTimeStart;
+            secondOfDay = start.toLocalTime().toSecondOfDay();
+            zone = null;
+            preferredOffsetSeconds = 0;
+        } else
+        {
+            ZonedDateTime start = (ZonedDateTime) dateTimeStart;
+            secondOfDay = start.toLocalTime().toSecondOfDay();
+            zone = start.getZone();
+            preferredOffsetSeconds = start.getOffset().getTotalSeconds();
+        }
+        if ((zone != null) && (vTimeZoneTransitions != null))
+        {
+            zoneTransitions = vTimeZoneTransitions;
+            fixedOffsetSeconds = 0;
+        } else if ((zone != null) && ! zone.getRules().isFixedOffset())
+        {
+            zoneTransitions = ZoneTransitions.of(zone);
+            fixedOffsetSeconds = 0;
+        } else
+        {
+            zoneTransitions = null;
+            fixedOffsetSeconds = (zone == null) ? 0 : zone.getRules().getOffset(LocalDateTime.MIN).getTotalSeconds();
+        }
+
+        recurrences = rRule.recurrenceTemporals().stream()
+                .filter(t -> t.getClass() == dateTimeStart.getClass())
+                .mapToLong(t -> EpochDays.toEpoch(t, vTimeZoneTransitions))
+                .sorted()
+                .toArray();
+        if ((rRule.getCount() == 0) && (rRule.getUntil() != null))
+        {
+            ZoneId untilZone = (dateTimeStart instanceof ZonedDateTime) ? zone : null;
+            until = EpochDays.toEpoch(DateTimeType.of(dateTimeStart).from(rRule.getUntil(), untilZone));
+        } else
+        {
+            until = Long.MAX_VALUE;
+        }
+        remaining = (rRule.getCount() > 0) ? rRule.getCount() : Long.MAX_VALUE;
+    }
+
+    /** Returns true if the epoch engine can make the date/times of rRule for dateTimeStart */
+    static boolean isSupported(RRule rRule, Temporal dateTimeStart)
+    {
+        return EpochDays.isSupported(dateTimeStart) && EpochDayExpander.isSupported(rRule.getFrequency());
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        if (! isNextReady)
+        {
+            hasNext = advance();
+            isNextReady = true;
+        }
+        return hasNext;
+    }
+
+    @Override
+    public long nextLong()
+    {
+        if (! hasNext()) throw new NoSuchElementException();
+        isNextReady = false;
+        return next;
+    }
+
+    /* find next epoch value, returns false if there are no more */
+    private boolean advance()
+    {
+        if (remaining == 0) return false;
+        while (true)
+        {
+            while ((buffer != null) && (bufferIndex < buffer.size()))
+            {
+                long value = toEpochValue(buffer.get(bufferIndex++));
+                if ((recurrences.length > 0) && (Arrays.binarySearch(recurrences, value) >= 0)) continue;
+                if (value > until)
+                {
+                    remaining = 0;
+                    return false;
+                }
+                remaining--;
+                next = value;
+                return true;
+            }
+            buffer = expander.nextPeriod();
+            bufferIndex = 0;
+        }
+    }
+
+    /* apply time of day and time zone of DTSTART */
+    private long toEpochValue(long epochDay)
+    {
+        if (isDate) return epochDay;
+        long localSeconds = epochDay * EpochDays.SECONDS_PER_DAY + secondOfDay;
+        if (zoneTransitions == null) return localSeconds - fixedOffsetSeconds;
+        return zoneTransitions.toEpochSecond(localSeconds, preferredOffsetSeconds);
+    }
+}
@@ -0,0 +1,37 @@
+package jfxtras.labs.icalendar.properties.recurrence.rrule;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+
+/**
+ * Listener list shared by the Observable parts of a recurrence rule - {@link RRule}, its Frequency
+ * and the Frequency's BYxxx rules.  Listeners can be added and notified from any thread.
+ * The relay listener, added to a child part, forwards the child's invalidations to this helper's
+ * listeners, so a change to a BYxxx rule reaches the listeners of the RRule.
+ *
+ * @author David Bal
+ */
+public class InvalidationHelper
+{
+    private final Observable source;
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final InvalidationListener relay = (obs) -> fireInvalidation();
+
+    /** @param source - Observable passed to the listeners */
+    public InvalidationHelper(Observable source)
+    {
+        this.source = source;
+    }
+
+    public void addListener(InvalidationListener listener) { listeners.add(listener); }
+    public void removeListener(InvalidationListener listener) { listeners.remove(listener); }
+
+    /** Notify listeners the source has changed */
+    public void fireInvalidation() { listeners.forEach(l -> l.invalidated(source)); }
+
+    /** Listener that notifies this helper's listeners when the observed child changes */
+    public InvalidationListener relay() { return relay; }
+}
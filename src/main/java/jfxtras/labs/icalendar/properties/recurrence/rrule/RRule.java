@@ -5,28 +5,33 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashSet;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import jfxtras.labs.icalendar.DateTimeUtilities;
 import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
-import jfxtras.labs.icalendar.ICalendarUtilities;
+import jfxtras.labs.icalendar.ZoneTransitions;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
 import jfxtras.labs.icalendar.components.VComponent;
 import jfxtras.labs.icalendar.properties.ICalendarProperty;
-import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByRuleEnum;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Frequency;
 
 /**
@@ -35,10 +40,14 @@ import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Frequency;
  * 
  * Produces a stream of start date/times after applying all modification rules.
  * 
+ * Implements Observable so listeners are notified when any part of the rule changes, including
+ * the Frequency, its BYxxx rules and the recurrences.  Caches derived from the stream, such as
+ * {@link RecurrenceIndex}, use it for invalidation.
+ * 
  * @author David Bal
  *
  */
-public class RRule implements ICalendarProperty
+public class RRule implements ICalendarProperty, Observable
 {            
     /** 
      * FREQ rule as defined in RFC 5545 iCalendar 3.3.10 p37 (i.e. Daily, Weekly, Monthly, etc.) 
@@ -57,7 +66,11 @@ public class RRule implements ICalendarProperty
     final static int INITIAL_COUNT = 0;
     public IntegerProperty countProperty()
     {
-        if (count == null) count = new SimpleIntegerProperty(this, RRuleParameter.COUNT.toString(), _count);
+        if (count == null)
+        {
+            count = new SimpleIntegerProperty(this, RRuleParameter.COUNT.toString(), _count);
+            count.addListener(invalidationRelay);
+        }
         return count;
     }
     private IntegerProperty count;
@@ -72,6 +85,7 @@ public class RRule implements ICalendarProperty
                 if (count == null)
                 {
                     _count = i;
+                    fireInvalidation();
                 } else
                 {
                     count.set(i);
@@ -90,7 +104,11 @@ public class RRule implements ICalendarProperty
      */
     public SimpleObjectProperty<Temporal> untilProperty()
     {
-        if (until == null) until = new SimpleObjectProperty<Temporal>(this, RRuleParameter.UNTIL.toString(), _until);
+        if (until == null)
+        {
+            until = new SimpleObjectProperty<Temporal>(this, RRuleParameter.UNTIL.toString(), _until);
+            until.addListener(invalidationRelay);
+        }
         return until;
     }
     private SimpleObjectProperty<Temporal> until;
@@ -108,6 +126,7 @@ public class RRule implements ICalendarProperty
             if (this.until == null)
             {
                 _until = until;
+                fireInvalidation();
             } else
             {
                 this.until.set(until);
@@ -124,45 +143,84 @@ public class RRule implements ICalendarProperty
      * See 3.8.4.4 of RFC 5545 iCalendar
      */
     public Set<VComponent<?>> recurrences() { return recurrences; }
-    private Set<VComponent<?>> recurrences = new HashSet<>();
+    private ObservableSet<VComponent<?>> recurrences = FXCollections.observableSet(new HashSet<>());
 //    public void setRecurrences(Set<VComponent<?>> temporal) { recurrences = temporal; }
     public RRule withRecurrences(VComponent<?>...v) { recurrences.addAll(Arrays.asList(v)); return this; }
 
+    /*
+     * Hash index of the RECURRENCE-ID values of recurrences, so removing them from the stream is O(1)
+     * for each date/time.  Kept in sync by listeners on recurrences and on each recurrence's RECURRENCE-ID,
+     * which also catch DATE/DATE-TIME conversions made by ensureDateTimeTypeConsistency.
+     */
+    private final Set<Temporal> recurrenceTemporals = ConcurrentHashMap.newKeySet();
+    Set<Temporal> recurrenceTemporals() { return recurrenceTemporals; }
+    private final ChangeListener<Temporal> recurrenceIdListener = (obs, oldValue, newValue) ->
+    {
+        removeRecurrenceTemporal(oldValue);
+        if (newValue != null) recurrenceTemporals.add(newValue);
+        fireInvalidation();
+    };
+    private final SetChangeListener<VComponent<?>> recurrencesListener = (change) ->
+    {
+        if (change.wasAdded())
+        {
+            VComponent<?> v = change.getElementAdded();
+            v.dateTimeRecurrenceProperty().addListener(recurrenceIdListener);
+            if (v.getDateTimeRecurrence() != null) recurrenceTemporals.add(v.getDateTimeRecurrence());
+        }
+        if (change.wasRemoved())
+        {
+            VComponent<?> v = change.getElementRemoved();
+            v.dateTimeRecurrenceProperty().removeListener(recurrenceIdListener);
+            removeRecurrenceTemporal(v.getDateTimeRecurrence());
+        }
+    };
+    /* remove RECURRENCE-ID from index unless another recurrence still has it */
+    private void removeRecurrenceTemporal(Temporal temporal)
+    {
+        if (temporal == null) return;
+        boolean isPresent = recurrences().stream()
+                .anyMatch(v -> temporal.equals(v.getDateTimeRecurrence()));
+        if (! isPresent) recurrenceTemporals.remove(temporal);
+    }
+
+    /*
+     * INVALIDATION
+     * Listeners are notified when FREQ, COUNT, UNTIL, the recurrences or any part of the Frequency change.
+     */
+    private final InvalidationHelper invalidationHelper = new InvalidationHelper(this);
+    @Override public void addListener(InvalidationListener listener) { invalidationHelper.addListener(listener); }
+    @Override public void removeListener(InvalidationListener listener) { invalidationHelper.removeListener(listener); }
+    private void fireInvalidation() { invalidationHelper.fireInvalidation(); }
+    private final InvalidationListener invalidationRelay = invalidationHelper.relay();
+
     /*
      * CONSTRUCTORS
      */
     
-    public RRule() { }
+    public RRule()
+    {
+        frequencyProperty().addListener((obs, oldValue, newValue) ->
+        {
+            if (oldValue != null) oldValue.removeListener(invalidationRelay);
+            if (newValue != null) newValue.addListener(invalidationRelay);
+            fireInvalidation();
+        });
+        recurrences.addListener(recurrencesListener);
+        recurrences.addListener(invalidationRelay);
+    }
 
     // construct new object by parsing property line
     public RRule(String propertyString)
     {
-        ICalendarUtilities.propertyLineToParameterMap(propertyString)
-                .entrySet()
-                .stream()
-                .sorted((Comparator<? super Entry<String, String>>) (p1, p2) ->
-                    (p1.getKey().equals(RRuleParameter.FREQUENCY.toString())) ? -1 : 1) // FREQ must be first
-                .forEach(e ->
-                {
-                    // check parameter to see if its in RRuleParameter enum
-                    RRuleParameter rRuleParameter = RRuleParameter.propertyFromName(e.getKey());
-                    if (rRuleParameter != null)
-                    {
-                        rRuleParameter.setValue(this, e.getValue());
-                    } else
-                    { // if null try to match ByRuleParameter enum
-                        ByRuleEnum byRuleParameter = ByRuleEnum.propertyFromName(e.getKey());
-                        if (byRuleParameter != null)
-                        {
-                            byRuleParameter.setValue(this.getFrequency(), e.getValue());
-                        }
-                    }
-                });
+        this();
+        RRuleSpec.of(propertyString).applyTo(this);
     }
 
     // Copy constructor
     public RRule(RRule source)
     {
+        this();
         Arrays.stream(RRuleParameter.values())
                 .forEach(p -> p.copyProperty(source, this));
         source.recurrences().stream().forEach(r -> recurrences().add(r));
@@ -394,20 +452,157 @@ public class RRule implements ICalendarProperty
      * first date/time (DTSTART) in the sequence. */
     public Stream<Temporal> stream(Temporal start)
     {
-        // filter out recurrences
-        Stream<Temporal> filteredStream = (recurrences().size() == 0) ?
-                getFrequency().stream(start) :
-                getFrequency().stream(start).filter(t -> 
-                {
-                    return ! recurrences().stream()
-                            .map(v -> v.getDateTimeRecurrence())
-                            .filter(t2 -> t2.equals(t))
-                            .findAny()
-                            .isPresent();
-                }); // ! getRecurrences().contains(t))
+        return limit(filterRecurrences(getFrequency().stream(start)), start, getCount());
+    }
+
+    /** Stream of date/times made after applying all modification rules, that skips ahead to
+     * rangeStart instead of iterating every occurrence from DTSTART.  The first frequency period is
+     * found arithmetically (see {@link Frequency#seekPeriod(Temporal, Temporal)}), so the cost depends
+     * on the number of occurrences after rangeStart, not the number since DTSTART.
+     * The stream can contain some date/times before rangeStart; the caller should filter them out.
+     *
+     * If COUNT is present and there are no BYxxx rules, each period makes exactly one date/time so the
+     * number of skipped occurrences is calculated instead of counted.  With BYxxx rules a COUNT limited
+     * series is finite so the stream starts at DTSTART.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param rangeStart - earliest date/time of interest
+     */
+    public Stream<Temporal> streamFrom(Temporal dateTimeStart, Temporal rangeStart)
+    {
+        return streamFrom(dateTimeStart, rangeStart, null);
+    }
+
+    /** Same as {@link #streamFrom(Temporal, Temporal)}, but uses and adds to the index of checkpoints
+     * for dateTimeStart.  When COUNT is present with BYxxx rules, the stream resumes from the closest
+     * checkpoint on or before rangeStart instead of DTSTART.  Checkpoints are recorded whenever the
+     * stream starts at a known ordinal - at DTSTART, at a checkpoint, or at a calculated COUNT position.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param rangeStart - earliest date/time of interest
+     * @param index - checkpoints for dateTimeStart, can be null
+     */
+    public Stream<Temporal> streamFrom(Temporal dateTimeStart, Temporal rangeStart, RecurrenceIndex index)
+    {
+        ZoneId zone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : null;
+        rangeStart = DateTimeType.of(dateTimeStart).from(rangeStart, zone); // compare with DTSTART's type
         if (getCount() > 0)
         {
-            return filteredStream.limit(getCount());
+            if (! getFrequency().byRules().isEmpty())
+            { // number of date/times per period varies, so resume from closest checkpoint
+                RecurrenceIndex.Checkpoint checkpoint = (index == null) ? null : index.floor(rangeStart);
+                if (checkpoint == null)
+                {
+                    return record(filterRecurrences(getFrequency().stream(dateTimeStart)), 0, index).limit(getCount());
+                }
+                Temporal checkpointTemporal = checkpoint.getTemporal();
+                long remainingCount = getCount() - checkpoint.getOrdinal();
+                Stream<Temporal> stream = filterRecurrences(getFrequency().streamFrom(dateTimeStart, checkpointTemporal))
+                        .filter(t -> ! DateTimeUtilities.isBefore(t, checkpointTemporal));
+                return record(stream, checkpoint.getOrdinal(), index).limit(remainingCount);
+            }
+            long firstPeriod = getFrequency().seekPeriod(dateTimeStart, rangeStart);
+            Temporal firstPeriodStart = getFrequency().periodStart(dateTimeStart, firstPeriod);
+            long skippedRecurrences = recurrenceTemporals.stream()
+                    .filter(t -> DateTimeUtilities.isBefore(t, firstPeriodStart))
+                    .count();
+            long firstOrdinal = firstPeriod - skippedRecurrences;
+            long remainingCount = getCount() - firstOrdinal;
+            if (remainingCount <= 0) return Stream.empty();
+            return record(filterRecurrences(getFrequency().stream(dateTimeStart, firstPeriod)), firstOrdinal, index)
+                    .limit(remainingCount);
+        }
+        if (! DateTimeUtilities.isAfter(rangeStart, dateTimeStart))
+        {
+            return limit(record(filterRecurrences(getFrequency().stream(dateTimeStart)), 0, index), dateTimeStart, 0);
+        }
+        return limit(filterRecurrences(getFrequency().streamFrom(dateTimeStart, rangeStart)), dateTimeStart, 0);
+    }
+
+    /** Epoch values (see {@link EpochDays}) of the date/times made by {@link #stream(Temporal)},
+     * epoch days for a LocalDate dateTimeStart and epoch seconds otherwise.
+     * DAILY, WEEKLY, MONTHLY and YEARLY rules with BYMONTH, BYMONTHDAY and BYDAY are calculated on
+     * primitive epoch days, with the time zone applied only to the results.  Other rules are converted
+     * from the Temporal stream.
+     * Intended for bulk consumers, such as free/busy time and indexing, that don't need Temporals.
+     *
+     * @param dateTimeStart - DTSTART
+     */
+    public LongStream epochStream(Temporal dateTimeStart)
+    {
+        return epochStream(dateTimeStart, 0, null);
+    }
+
+    /** Same as {@link #epochStream(Temporal)}, but a zoned DTSTART's local date/times are converted to
+     * instants with zoneTransitions, such as those of the calendar's VTIMEZONE for DTSTART's TZID,
+     * instead of the time-zone database.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param zoneTransitions - transitions of DTSTART's zone, null to use the time-zone database
+     * @see jfxtras.labs.icalendar.VCalendar#epochStream(jfxtras.labs.icalendar.components.VComponent, Temporal)
+     */
+    public LongStream epochStream(Temporal dateTimeStart, ZoneTransitions zoneTransitions)
+    {
+        return epochStream(dateTimeStart, 0, zoneTransitions);
+    }
+
+    /** Same as {@link #epochStream(Temporal)}, but skips ahead to rangeStart like
+     * {@link #streamFrom(Temporal, Temporal)}.  The stream can contain some values before rangeStart.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param rangeStart - earliest date/time of interest
+     */
+    public LongStream epochStreamFrom(Temporal dateTimeStart, Temporal rangeStart)
+    {
+        return epochStreamFrom(dateTimeStart, rangeStart, null);
+    }
+
+    /** Same as {@link #epochStreamFrom(Temporal, Temporal)} with the zone transitions of
+     * {@link #epochStream(Temporal, ZoneTransitions)}.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param rangeStart - earliest date/time of interest
+     * @param zoneTransitions - transitions of DTSTART's zone, null to use the time-zone database
+     */
+    public LongStream epochStreamFrom(Temporal dateTimeStart, Temporal rangeStart, ZoneTransitions zoneTransitions)
+    {
+        long firstPeriod = (getCount() > 0) ? 0 : getFrequency().seekPeriod(dateTimeStart, rangeStart);
+        return epochStream(dateTimeStart, firstPeriod, zoneTransitions);
+    }
+
+    private LongStream epochStream(Temporal dateTimeStart, long firstPeriod, ZoneTransitions zoneTransitions)
+    {
+        if (! EpochRecurrenceIterator.isSupported(this, dateTimeStart))
+        {
+            Stream<Temporal> stream = (firstPeriod == 0) ? stream(dateTimeStart)
+                    : limit(filterRecurrences(getFrequency().stream(dateTimeStart, firstPeriod)), dateTimeStart, 0);
+            return stream.mapToLong(t -> EpochDays.toEpoch(t, zoneTransitions));
+        }
+        Spliterator.OfLong spliterator = Spliterators.spliteratorUnknownSize(
+                new EpochRecurrenceIterator(this, dateTimeStart, firstPeriod, zoneTransitions),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.longStream(spliterator, false);
+    }
+
+    /* add checkpoint recording, if there is an index */
+    private static Stream<Temporal> record(Stream<Temporal> inStream, long firstOrdinal, RecurrenceIndex index)
+    {
+        return (index == null) ? inStream : index.record(inStream, firstOrdinal);
+    }
+
+    /* filter out recurrences */
+    private Stream<Temporal> filterRecurrences(Stream<Temporal> inStream)
+    {
+        if (recurrenceTemporals.isEmpty()) return inStream;
+        return inStream.filter(t -> ! recurrenceTemporals.contains(t));
+    }
+
+    /* apply COUNT or UNTIL */
+    private Stream<Temporal> limit(Stream<Temporal> filteredStream, Temporal start, int count)
+    {
+        if (count > 0)
+        {
+            return filteredStream.limit(count);
         } else if (getUntil() != null)
         {
 //            return frequency
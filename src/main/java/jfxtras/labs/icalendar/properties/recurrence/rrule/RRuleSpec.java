@@ -0,0 +1,189 @@
+package jfxtras.labs.icalendar.properties.recurrence.rrule;
+
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByRule;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByRuleEnum;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Frequency;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.FrequencyUtilities.FrequencyEnum;
+
+/**
+ * Immutable parsed RRULE value.  For example, FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE has the FREQ
+ * WEEKLY, the INTERVAL 2 and a BYDAY rule.
+ *
+ * Made by a hand-written tokenizer and interned by the RRULE text, so the identical rules found in
+ * a large calendar are parsed only once - including the FREQ, UNTIL and BYxxx values.
+ * {@link #applyTo(RRule)} sets the parsed values on a new RRule.  RRule is mutable, so each RRule
+ * gets its own Frequency and copies of the BYxxx rules.
+ *
+ * @author David Bal
+ * @see RRule#RRule(String)
+ */
+public final class RRuleSpec
+{
+    /** Maximum number of interned specs.  When exceeded, the cache is emptied. */
+    public final static int MAX_CACHE_SIZE = 1024;
+    private final static Map<String, RRuleSpec> CACHE = new ConcurrentHashMap<>();
+
+    private final String rRuleValue;
+    private FrequencyEnum frequencyType;
+    private int interval = 1;
+    private int count = RRule.INITIAL_COUNT;
+    private Temporal until;
+    // parsed BYxxx rules, never exposed - RRules get copies
+    private final List<ByRule> byRules = new ArrayList<>();
+
+    /** FREQ, null if not present */
+    public FrequencyEnum getFrequencyType() { return frequencyType; }
+    /** INTERVAL, 1 if not present */
+    public int getInterval() { return interval; }
+    /** COUNT, 0 if not present */
+    public int getCount() { return count; }
+    /** UNTIL, null if not present */
+    public Temporal getUntil() { return until; }
+
+    private RRuleSpec(String rRuleValue)
+    {
+        this.rRuleValue = rRuleValue;
+    }
+
+    /**
+     * Returns the interned spec for a RRULE value, parsing it if it hasn't been seen before.
+     *
+     * @param rRuleValue - RRULE value (e.g. FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE)
+     * @return - immutable spec, shared by all callers with the same rRuleValue
+     */
+    public static RRuleSpec of(String rRuleValue)
+    {
+        RRuleSpec spec = CACHE.get(rRuleValue);
+        if (spec == null)
+        {
+            spec = parse(rRuleValue);
+            if (CACHE.size() >= MAX_CACHE_SIZE) CACHE.clear();
+            RRuleSpec previousSpec = CACHE.putIfAbsent(rRuleValue, spec);
+            if (previousSpec != null) spec = previousSpec;
+        }
+        return spec;
+    }
+
+    /* Split value into name=value parts separated by semicolons and parse each part, FREQ first
+     * because the other parts need it.  Parts without '=' and unknown parts are ignored. */
+    private static RRuleSpec parse(String rRuleValue)
+    {
+        List<String> names = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        int partStart = 0;
+        int length = rRuleValue.length();
+        while (partStart < length)
+        {
+            int partEnd = rRuleValue.indexOf(';', partStart);
+            if (partEnd == -1) partEnd = length;
+            int equalsIndex = rRuleValue.indexOf('=', partStart);
+            if ((equalsIndex != -1) && (equalsIndex < partEnd))
+            {
+                String name = rRuleValue.substring(partStart, equalsIndex).trim().toUpperCase();
+                String value = rRuleValue.substring(equalsIndex + 1, partEnd).trim();
+                if (name.equals(RRuleParameter.FREQUENCY.toString()))
+                { // FREQ must be first
+                    names.add(0, name);
+                    values.add(0, value);
+                } else
+                {
+                    names.add(name);
+                    values.add(value);
+                }
+            }
+            partStart = partEnd + 1;
+        }
+        RRuleSpec spec = new RRuleSpec(rRuleValue);
+        for (int i=0; i<names.size(); i++)
+        {
+            spec.parsePart(names.get(i), values.get(i));
+        }
+        return spec;
+    }
+
+    /* Parse one rule part, with the same checks as RRuleParameter.setValue */
+    private void parsePart(String name, String value)
+    {
+        RRuleParameter rRuleParameter = RRuleParameter.propertyFromName(name);
+        if (rRuleParameter != null)
+        {
+            switch (rRuleParameter)
+            {
+            case FREQUENCY:
+                if (frequencyType != null) throw new IllegalArgumentException(rRuleParameter + " can only appear once in calendar component");
+                frequencyType = FrequencyEnum.propertyFromName(value);
+                if (frequencyType == null) throw new IllegalArgumentException("Unknown " + rRuleParameter + " (" + value + ")");
+                break;
+            case INTERVAL:
+                checkFrequency(rRuleParameter.toString());
+                if (interval != 1) throw new IllegalArgumentException(rRuleParameter + " can only appear once in calendar component");
+                interval = Integer.parseInt(value);
+                if (interval < 1) throw new IllegalArgumentException("INTERVAL can't be less than 1. (" + interval + ")");
+                break;
+            case COUNT:
+                if (count != RRule.INITIAL_COUNT) throw new IllegalArgumentException(rRuleParameter + " can only appear once in calendar component");
+                if (until != null) throw new IllegalArgumentException(rRuleParameter + " can't be set while " + RRuleParameter.UNTIL + " has a value");
+                count = Integer.parseInt(value);
+                if (count < RRule.INITIAL_COUNT) throw new IllegalArgumentException("COUNT can't be less than 0. (" + count + ")");
+                break;
+            case UNTIL:
+                if (until != null) throw new IllegalArgumentException(rRuleParameter + " can only appear once in calendar component");
+                if (count != RRule.INITIAL_COUNT) throw new IllegalArgumentException(rRuleParameter + " can't be set while " + RRuleParameter.COUNT + " has a value");
+                until = DateTimeUtilities.parse(value);
+                break;
+            case WEEK_START:
+                throw new RuntimeException("not supported");
+            }
+        } else
+        { // if null try to match ByRuleParameter enum
+            ByRuleEnum byRuleParameter = ByRuleEnum.propertyFromName(name);
+            if (byRuleParameter != null)
+            {
+                checkFrequency(byRuleParameter.toString());
+                if (byRules.stream().anyMatch(r -> r.byRuleType() == byRuleParameter))
+                {
+                    throw new IllegalArgumentException(byRuleParameter + " can only appear once in calendar component");
+                }
+                byRules.add(byRuleParameter.newInstance(value));
+            }
+        }
+    }
+
+    private void checkFrequency(String parameterName)
+    {
+        if (frequencyType == null) throw new RuntimeException(RRuleParameter.FREQUENCY + "must be set before " + parameterName + " can be set");
+    }
+
+    /** Set parsed values on rRule, which must not have a FREQ yet */
+    public void applyTo(RRule rRule)
+    {
+        if (frequencyType != null)
+        {
+            if (rRule.getFrequency() != null) throw new IllegalArgumentException(RRuleParameter.FREQUENCY + " can only appear once in calendar component");
+            Frequency frequency = frequencyType.newInstance();
+            if (interval != 1) frequency.setInterval(interval);
+            if (! byRules.isEmpty())
+            {
+                List<ByRule> byRuleCopies = new ArrayList<>(byRules.size());
+                byRules.forEach(r -> byRuleCopies.add(r.byRuleType().newInstance(r)));
+                frequency.byRules().addAll(byRuleCopies);
+            }
+            rRule.setFrequency(frequency);
+        }
+        if (count != RRule.INITIAL_COUNT) rRule.setCount(count);
+        if (until != null) rRule.setUntil(until);
+    }
+
+    @Override
+    public String toString()
+    {
+        return rRuleValue;
+    }
+}
@@ -0,0 +1,150 @@
+package jfxtras.labs.icalendar.properties.recurrence.rrule;
+
+import java.time.temporal.Temporal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import jfxtras.labs.icalendar.DateTimeUtilities;
+
+/**
+ * Index of checkpoints into the stream of date/times made by a RRule for one DTSTART.  Each checkpoint
+ * is a date/time and its ordinal - its zero-based position in the RRule's stream after recurrences
+ * (child components with RECURRENCE-ID) are removed.  The ordinal is the number of date/times that
+ * count toward COUNT before the checkpoint, so a COUNT limited stream can resume from a checkpoint
+ * instead of from DTSTART.
+ *
+ * Checkpoints are kept sorted by date/time so finding the closest one before a date/time is O(log n).
+ * Only every density-th ordinal is recorded.  When the number of checkpoints exceeds maxSize, every
+ * other checkpoint is dropped and the density is doubled, so the index stays bounded for infinite
+ * series.
+ *
+ * The index can be shared between threads: lookups are lock-free and recording streams can run
+ * concurrently.  It doesn't observe the RRule or DTSTART itself; the owner must call {@link #clear()}
+ * when either changes.  Streams that started recording before a clear stop recording after it.
+ *
+ * @author David Bal
+ * @see RRule#streamFrom(Temporal, Temporal, RecurrenceIndex)
+ */
+public class RecurrenceIndex
+{
+    /** Default number of ordinals between checkpoints */
+    public final static int DEFAULT_DENSITY = 16;
+    /** Default maximum number of checkpoints before the index is thinned */
+    public final static int DEFAULT_MAX_SIZE = 256;
+
+    private final ConcurrentNavigableMap<Temporal, Long> checkpoints = new ConcurrentSkipListMap<>(DateTimeUtilities.TEMPORAL_COMPARATOR);
+    private final int initialDensity;
+    private final int maxSize;
+    private volatile int density;
+    /** incremented by clear, so streams made before clearing don't record stale checkpoints */
+    private final AtomicLong generation = new AtomicLong();
+
+    /*
+     * CONSTRUCTORS
+     */
+
+    public RecurrenceIndex()
+    {
+        this(DEFAULT_DENSITY, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param density - number of ordinals between recorded checkpoints
+     * @param maxSize - maximum number of checkpoints before the index is thinned
+     */
+    public RecurrenceIndex(int density, int maxSize)
+    {
+        if (density < 1) throw new IllegalArgumentException("density can't be less than 1. (" + density + ")");
+        if (maxSize < 2) throw new IllegalArgumentException("maxSize can't be less than 2. (" + maxSize + ")");
+        this.initialDensity = density;
+        this.density = density;
+        this.maxSize = maxSize;
+    }
+
+    /** Current number of ordinals between checkpoints */
+    public int getDensity() { return density; }
+
+    /** Number of checkpoints in index */
+    public int size() { return checkpoints.size(); }
+
+    /** Remove all checkpoints.  Must be called when DTSTART or any part of the RRule changes. */
+    public void clear()
+    {
+        synchronized (checkpoints)
+        {
+            generation.incrementAndGet();
+            checkpoints.clear();
+            density = initialDensity;
+        }
+    }
+
+    /** Checkpoint with greatest date/time on or before temporal, null if there isn't one */
+    public Checkpoint floor(Temporal temporal)
+    {
+        return toCheckpoint(checkpoints.floorEntry(temporal));
+    }
+
+    /** Checkpoint with greatest date/time strictly before temporal, null if there isn't one */
+    public Checkpoint lower(Temporal temporal)
+    {
+        return toCheckpoint(checkpoints.lowerEntry(temporal));
+    }
+
+    private static Checkpoint toCheckpoint(Map.Entry<Temporal, Long> entry)
+    {
+        return (entry == null) ? null : new Checkpoint(entry.getValue(), entry.getKey());
+    }
+
+    /**
+     * Returns a stream that records checkpoints as its date/times are consumed.  inStream must be the
+     * RRule stream with recurrences removed, but before COUNT or UNTIL are applied, and its first
+     * element must have the ordinal firstOrdinal.
+     *
+     * @param inStream - RRule stream starting at a known ordinal
+     * @param firstOrdinal - ordinal of inStream's first date/time
+     * @return - inStream with checkpoint recording added
+     */
+    public Stream<Temporal> record(Stream<Temporal> inStream, long firstOrdinal)
+    {
+        long myGeneration = generation.get();
+        AtomicLong ordinal = new AtomicLong(firstOrdinal);
+        return inStream.peek(t -> put(ordinal.getAndIncrement(), t, myGeneration));
+    }
+
+    private void put(long ordinal, Temporal temporal, long myGeneration)
+    {
+        if ((ordinal % density != 0) || checkpoints.containsKey(temporal)) return;
+        synchronized (checkpoints)
+        {
+            if ((myGeneration != generation.get()) || (ordinal % density != 0)) return;
+            checkpoints.put(temporal, ordinal);
+            if (checkpoints.size() > maxSize)
+            { // thin index by keeping only ordinals that are multiples of the doubled density
+                density = density * 2;
+                checkpoints.values().removeIf(o -> o % density != 0);
+            }
+        }
+    }
+
+    /** Date/time in RRule stream with its ordinal (zero-based position in stream) */
+    public static class Checkpoint
+    {
+        public long getOrdinal() { return ordinal; }
+        private final long ordinal;
+
+        public Temporal getTemporal() { return temporal; }
+        private final Temporal temporal;
+
+        Checkpoint(long ordinal, Temporal temporal)
+        {
+            this.ordinal = ordinal;
+            this.temporal = temporal;
+        }
+
+        @Override
+        public String toString() { return ordinal + ":" + temporal; }
+    }
+}
@@ -18,19 +18,21 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javafx.beans.property.ObjectProperty;
 import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDayBuffer;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDays;
 
 /** BYDAY from RFC 5545, iCalendar 3.3.10, page 40 */
 public class ByDay extends ByRuleAbstract
 {
     private final TemporalField field;
     private final int firstDayOfWeekAdjustment;
+    private final int firstDayOfWeekValue; // ISO value of the first day of the localized week, for epoch days
     /** Array of days of the week.  Ordinal number is optional.  Without will include all
      * days matching that day of the week, with the ordinal will be only include the
      * nth day of the week in the month, when n is the ordinal number.
@@ -65,6 +67,7 @@ public class ByDay extends ByRuleAbstract
             List<ByDayPair> list = new ArrayList<>(Arrays.asList(getByDayPairs()));
             list.add(new ByDayPair(dayOfWeek, 0));
             byDayPairs = list.toArray(byDayPairs);
+            fireInvalidation();
         }
     }
 
@@ -74,7 +77,7 @@ public class ByDay extends ByRuleAbstract
         byDayPairs = Arrays.stream(getByDayPairs())
                 .filter(d -> d.dayOfWeek != dayOfWeek)
                 .toArray(size -> new ByDayPair[size]);
-        
+        fireInvalidation();
     }
     
     /** Return a list of days of the week that don't have an ordinal (as every FRIDAY) */
@@ -96,36 +99,58 @@ public class ByDay extends ByRuleAbstract
         field = WeekFields.of(Locale.getDefault()).dayOfWeek();
         WeekFields weekFields = WeekFields.of(Locale.getDefault());
         firstDayOfWeekAdjustment = (weekFields.getFirstDayOfWeek() == DayOfWeek.SUNDAY) ? 1 : 0;
+        firstDayOfWeekValue = weekFields.getFirstDayOfWeek().getValue();
     }
     
     public ByDay(String dayPairs)
     {
         this();
         List<ByDayPair> dayPairsList = new ArrayList<ByDayPair>();
-        Pattern p = Pattern.compile("([0-9]+)?([A-Z]{2})");
-        Matcher m = p.matcher(dayPairs);
-        while (m.find())
+        int tokenStart = 0;
+        while (tokenStart < dayPairs.length())
         {
-            String token = m.group();
-            if (token.matches("^([0-9]+.*)")) // start with ordinal number
-            {
-                Matcher m2 = p.matcher(token);
-                if (m2.find())
-                {
-                    DayOfWeek dayOfWeek = ICalendarDayOfWeek.valueOf(m2.group(2)).getDayOfWeek();
-                    int ordinal = Integer.parseInt(m2.group(1));
-                    dayPairsList.add(new ByDayPair(dayOfWeek, ordinal));
-                }
-            } else
-            { // has no ordinal number
-                DayOfWeek dayOfWeek = ICalendarDayOfWeek.valueOf(token).getDayOfWeek();
-                dayPairsList.add(new ByDayPair(dayOfWeek, 0));
-            }
+            int tokenEnd = dayPairs.indexOf(',', tokenStart);
+            if (tokenEnd == -1) tokenEnd = dayPairs.length();
+            ByDayPair dayPair = parseByDayPair(dayPairs, tokenStart, tokenEnd);
+            if (dayPair != null) dayPairsList.add(dayPair); // skip empty tokens (e.g. MO,,TU)
+            tokenStart = tokenEnd + 1;
         }
         byDayPairs = new ByDayPair[dayPairsList.size()];
         byDayPairs = dayPairsList.toArray(byDayPairs);
     }
     
+    /* Parse one BYDAY token, [[+|-]ordinal]weekday (e.g. MO, 2TU, -1SU), from value between start and end.
+     * Returns null for an empty or blank token.
+     * Hand-written instead of regular expressions because BYDAY is parsed for every imported RRULE. */
+    private static ByDayPair parseByDayPair(String value, int start, int end)
+    {
+        while ((start < end) && Character.isWhitespace(value.charAt(start))) start++;
+        while ((end > start) && Character.isWhitespace(value.charAt(end-1))) end--;
+        if (start == end) return null;
+        if (end - start < 2) throw new IllegalArgumentException("Invalid BYDAY value (" + value + ")");
+        DayOfWeek dayOfWeek = ICalendarDayOfWeek.dayOfWeek(value.charAt(end-2), value.charAt(end-1));
+        if (dayOfWeek == null) throw new IllegalArgumentException("Invalid BYDAY value (" + value + ")");
+        int ordinal = 0;
+        int sign = 1;
+        int i = start;
+        if (i < end-2)
+        {
+            char c = value.charAt(i);
+            if ((c == '+') || (c == '-'))
+            {
+                sign = (c == '-') ? -1 : 1;
+                i++;
+            }
+        }
+        for (; i < end-2; i++)
+        {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0) throw new IllegalArgumentException("Invalid BYDAY value (" + value + ")");
+            ordinal = ordinal * 10 + digit;
+        }
+        return new ByDayPair(dayOfWeek, sign * ordinal);
+    }
+    
     /** Constructor with varargs ByDayPair */
     public ByDay(ByDayPair... byDayPairs)
     {
@@ -139,6 +164,7 @@ public class ByDay extends ByRuleAbstract
         field = WeekFields.of(Locale.getDefault()).dayOfWeek();
         WeekFields weekFields = WeekFields.of(Locale.getDefault());
         firstDayOfWeekAdjustment = (weekFields.getFirstDayOfWeek() == DayOfWeek.SUNDAY) ? 1 : 0;
+        firstDayOfWeekValue = weekFields.getFirstDayOfWeek().getValue();
     }
 
     /** Constructor that uses DayOfWeek values without a preceding integer.  All days of the 
@@ -275,17 +301,19 @@ public class ByDay extends ByRuleAbstract
                     if (byDayPair.ordinal == 0)
                     { // add every matching day of week in year
                         sortNeeded = true;
-                        Temporal newDate = (DayOfWeek.from(startTemporal).equals(byDayPair.dayOfWeek)) ? startTemporal
-                                : startTemporal.with(TemporalAdjusters.next(byDayPair.dayOfWeek));
-                        while (Year.from(newDate).equals(Year.from(startTemporal)))
+                        Year myYear = Year.from(date);
+                        Temporal newDate = date
+                                .with(TemporalAdjusters.firstDayOfYear())
+                                .with(TemporalAdjusters.nextOrSame(byDayPair.dayOfWeek));
+                        while (Year.from(newDate).equals(myYear))
                         {
-                            dates.add(newDate);
+                            if (! DateTimeUtilities.isBefore(newDate, startTemporal)) dates.add(newDate);
                             newDate = newDate.plus(1, ChronoUnit.WEEKS);
                         }
                     } else
                     { // if never any ordinal numbers then sort is not required
                         Temporal newDate = date.with(dayOfWeekInYear(byDayPair.ordinal, byDayPair.dayOfWeek));
-                        if (! DateTimeUtilities.isBefore(newDate, startTemporal)) dates.add(newDate);
+                        if (Year.from(newDate).equals(Year.from(date)) && ! DateTimeUtilities.isBefore(newDate, startTemporal)) dates.add(newDate);
                     }
                 }
                 if (sortNeeded) Collections.sort(dates, DateTimeUtilities.TEMPORAL_COMPARATOR);
@@ -301,17 +329,166 @@ public class ByDay extends ByRuleAbstract
         return null;
     }
 
-    /** Finds nth occurrence of a week in a year.  Assumes ordinal is > 0 
+    @Override
+    public boolean isEpochDaySupported() { return true; }
+
+    @Override
+    public ChronoUnit expandEpochDays(EpochDayBuffer buffer, ChronoUnit chronoUnit, long startEpochDay)
+    {
+        if (getByDayPairs().length == 0) throw new RuntimeException("ByDay rule must have at least one day specified");
+        Tables tables = tables();
+        switch (chronoUnit)
+        {
+        case DAYS:
+            for (int i=0; i<buffer.size(); i++)
+            { // filter out all but qualifying days
+                long day = buffer.get(i);
+                if ((tables.dayOfWeekMask & (1 << EpochDays.dayOfWeek(day))) != 0) buffer.add(day);
+            }
+            break;
+        case WEEKS:
+            for (int i=0; i<buffer.size(); i++)
+            { // Expand to be byDayPairs days in current week
+                long day = buffer.get(i);
+                long dayBeforeWeek = day - Math.floorMod(EpochDays.dayOfWeek(day) - firstDayOfWeekValue, 7) - 1;
+                for (int value : tables.weekValues)
+                {
+                    long newDay = dayBeforeWeek + value;
+                    if (newDay >= startEpochDay) buffer.add(newDay);
+                }
+            }
+            break;
+        case MONTHS:
+            for (int i=0; i<buffer.size(); i++)
+            { // days without ordinal are on or after start, days with ordinal are all kept
+                long day = buffer.get(i);
+                long firstDayOfMonth = EpochDays.firstDayOfMonth(day);
+                int shape = (EpochDays.lengthOfMonth(day) - 28) * 7 + EpochDays.dayOfWeek(firstDayOfMonth) - 1;
+                long mask = (tables.monthMasks[shape] & EpochDayBuffer.onOrAfter(firstDayOfMonth, startEpochDay))
+                        | tables.monthOrdinalMasks[shape];
+                buffer.addMasked(firstDayOfMonth, mask);
+            }
+            break;
+        case YEARS:
+            for (int i=0; i<buffer.size(); i++)
+            {
+                long day = buffer.get(i);
+                long year = EpochDays.year(day);
+                long firstDayOfYear = EpochDays.of(year, 1, 1);
+                int shape = ((EpochDays.isLeapYear(year) ? 7 : 0) + EpochDays.dayOfWeek(firstDayOfYear) - 1) * YEAR_WORDS;
+                for (int word=0; word<YEAR_WORDS; word++)
+                {
+                    long firstDay = firstDayOfYear + word * Long.SIZE;
+                    long mask = (tables.yearMasks[shape + word] | tables.yearOrdinalMasks[shape + word])
+                            & EpochDayBuffer.onOrAfter(firstDay, startEpochDay);
+                    buffer.addMasked(firstDay, mask);
+                }
+            }
+            break;
+        default:
+            throw new RuntimeException("Not implemented ChronoUnit: " + chronoUnit);
+        }
+        return DAYS;
+    }
+
+    /*
+     * EXPANSION TABLES
+     * The days selected by byDayPairs in every shape of month (length and day of week of the first day)
+     * and year (leap or not and day of week of January 1), as bit masks of the day of month or year.
+     * Made when first needed and again when byDayPairs is replaced, so expanding a period is a table
+     * lookup that produces the days already sorted.
+     */
+    private final static int YEAR_WORDS = (366 + Long.SIZE - 1) / Long.SIZE;
+    private volatile Tables tables;
+
+    private Tables tables()
+    {
+        Tables tables = this.tables;
+        if ((tables == null) || (tables.byDayPairs != byDayPairs))
+        {
+            tables = new Tables(byDayPairs, firstDayOfWeekAdjustment);
+            this.tables = tables;
+        }
+        return tables;
+    }
+
+    private static final class Tables
+    {
+        private final ByDayPair[] byDayPairs; // source of tables
+        private final int dayOfWeekMask; // bit of each ISO day of week value
+        private final int[] weekValues; // sorted localized day of week values, 1 to 7
+        private final long[] monthMasks = new long[4 * 7]; // days without ordinal, by month shape
+        private final long[] monthOrdinalMasks = new long[4 * 7]; // days with ordinal, by month shape
+        private final long[] yearMasks = new long[2 * 7 * YEAR_WORDS];
+        private final long[] yearOrdinalMasks = new long[2 * 7 * YEAR_WORDS];
+
+        private Tables(ByDayPair[] byDayPairs, int firstDayOfWeekAdjustment)
+        {
+            this.byDayPairs = byDayPairs;
+            int mask = 0;
+            boolean[] isWeekValue = new boolean[8];
+            for (ByDayPair byDayPair : byDayPairs)
+            {
+                mask |= 1 << byDayPair.dayOfWeek.getValue();
+                int value = byDayPair.dayOfWeek.getValue() + firstDayOfWeekAdjustment;
+                isWeekValue[(value > 7) ? value-7 : value] = true;
+            }
+            dayOfWeekMask = mask;
+            weekValues = IntStream.rangeClosed(1, 7).filter(v -> isWeekValue[v]).toArray();
+            for (int firstDayOfWeek=1; firstDayOfWeek<=7; firstDayOfWeek++)
+            {
+                for (int length=28; length<=31; length++)
+                {
+                    int shape = (length - 28) * 7 + firstDayOfWeek - 1;
+                    mark(length, firstDayOfWeek, monthMasks, monthOrdinalMasks, shape);
+                }
+                for (int leap=0; leap<=1; leap++)
+                {
+                    int shape = (leap * 7 + firstDayOfWeek - 1) * YEAR_WORDS;
+                    mark(365 + leap, firstDayOfWeek, yearMasks, yearOrdinalMasks, shape);
+                }
+            }
+        }
+
+        /* set bits of the days selected in a span of length days, starting on firstDayOfWeek, from masks index offset */
+        private void mark(int length, int firstDayOfWeek, long[] masks, long[] ordinalMasks, int offset)
+        {
+            for (ByDayPair byDayPair : byDayPairs)
+            {
+                int first = Math.floorMod(byDayPair.dayOfWeek.getValue() - firstDayOfWeek, 7);
+                if (byDayPair.ordinal == 0)
+                { // every matching day of week
+                    for (int day=first; day<length; day+=7) masks[offset + day / Long.SIZE] |= 1L << day;
+                } else
+                { // nth matching day of week, counted from the end if negative
+                    int last = first + (length - 1 - first) / 7 * 7;
+                    int day = (byDayPair.ordinal > 0) ? first + (byDayPair.ordinal - 1) * 7 : last + (byDayPair.ordinal + 1) * 7;
+                    if ((day >= 0) && (day < length)) ordinalMasks[offset + day / Long.SIZE] |= 1L << day;
+                }
+            }
+        }
+    }
+
+    /** Finds nth occurrence of a day of week in a year, counted from the end of the year if ordinal is negative.
+     * The result can be outside the year if there isn't an nth occurrence.
      * Based on TemporalAdjusters.dayOfWeekInMonth */
     private TemporalAdjuster dayOfWeekInYear(int ordinal, DayOfWeek dayOfWeek)
     {
         int dowValue = dayOfWeek.getValue();
         return (temporal) -> {
-            Temporal temp = temporal.with(TemporalAdjusters.firstDayOfYear());
+            if (ordinal > 0)
+            {
+                Temporal temp = temporal.with(TemporalAdjusters.firstDayOfYear());
+                int curDow = temp.get(DAY_OF_WEEK);
+                int dowDiff = (dowValue - curDow + 7) % 7;
+                dowDiff += (ordinal - 1L) * 7L;  // safe from overflow
+                return temp.plus(dowDiff, DAYS);
+            }
+            Temporal temp = temporal.with(TemporalAdjusters.lastDayOfYear());
             int curDow = temp.get(DAY_OF_WEEK);
-            int dowDiff = (dowValue - curDow + 7) % 7;
-            dowDiff += (ordinal - 1L) * 7L;  // safe from overflow
-            return temp.plus(dowDiff, DAYS);
+            int dowDiff = (curDow - dowValue + 7) % 7;
+            dowDiff += (-ordinal - 1L) * 7L;
+            return temp.minus(dowDiff, DAYS);
         };
     }
     
@@ -377,5 +554,26 @@ public class ByDay extends ByRuleAbstract
         }
       
         public DayOfWeek getDayOfWeek() { return dow; }
+        
+        // Precomputed table from the two letter abbreviation to DayOfWeek, indexed by the letters' positions in the alphabet
+        private final static DayOfWeek[] DAY_OF_WEEK_TABLE = makeDayOfWeekTable();
+        private static DayOfWeek[] makeDayOfWeekTable()
+        {
+            DayOfWeek[] table = new DayOfWeek[26*26];
+            for (ICalendarDayOfWeek d : values())
+            {
+                table[(d.name().charAt(0) - 'A') * 26 + (d.name().charAt(1) - 'A')] = d.getDayOfWeek();
+            }
+            return table;
+        }
+        
+        /** DayOfWeek matching the two letter abbreviation c1c2 (e.g. M and O for MONDAY), null if there isn't a match */
+        public static DayOfWeek dayOfWeek(char c1, char c2)
+        {
+            int i1 = Character.toUpperCase(c1) - 'A';
+            int i2 = Character.toUpperCase(c2) - 'A';
+            if ((i1 < 0) || (i1 >= 26) || (i2 < 0) || (i2 >= 26)) return null;
+            return DAY_OF_WEEK_TABLE[i1 * 26 + i2];
+        }
     }
 }
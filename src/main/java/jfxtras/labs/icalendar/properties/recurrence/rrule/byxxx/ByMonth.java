@@ -8,9 +8,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import javafx.beans.property.ObjectProperty;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDayBuffer;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDays;
 
 /** BYMONTH from RFC 5545, iCalendar 3.3.10, page 42 */
 public class ByMonth extends ByRuleAbstract
@@ -56,7 +59,7 @@ public class ByMonth extends ByRuleAbstract
     public void copyTo(ByRule destination)
     {
         ByMonth destination2 = (ByMonth) destination;
-        destination2.months = months;
+        destination2.months = Arrays.copyOf(months, months.length);
     }
     
     @Override
@@ -129,4 +132,72 @@ public class ByMonth extends ByRuleAbstract
         }
         return null;    
     }
+
+    @Override
+    public boolean isEpochDaySupported() { return true; }
+
+    @Override
+    public ChronoUnit expandEpochDays(EpochDayBuffer buffer, ChronoUnit chronoUnit, long startEpochDay)
+    {
+        Tables tables = tables();
+        switch (chronoUnit)
+        {
+        case DAYS:
+        case WEEKS:
+        case MONTHS:
+            for (int i=0; i<buffer.size(); i++)
+            { // filter out all but qualifying days
+                long day = buffer.get(i);
+                if ((tables.monthMask & (1 << EpochDays.monthOfYear(day))) != 0) buffer.add(day);
+            }
+            break;
+        case YEARS:
+            for (int i=0; i<buffer.size(); i++)
+            { // Expand to include matching days in all months, in order
+                long day = buffer.get(i);
+                int monthNum = EpochDays.monthOfYear(day);
+                for (int month : tables.monthValues)
+                {
+                    buffer.add(EpochDays.plusMonths(day, month - monthNum));
+                }
+            }
+            break;
+        default:
+            throw new RuntimeException("Not implemented ChronoUnit: " + chronoUnit);
+        }
+        return MONTHS;
+    }
+
+    /*
+     * EXPANSION TABLES
+     * Made when first needed and again when months is replaced.
+     */
+    private volatile Tables tables;
+
+    private Tables tables()
+    {
+        Tables tables = this.tables;
+        if ((tables == null) || (tables.months != months))
+        {
+            tables = new Tables(months);
+            this.tables = tables;
+        }
+        return tables;
+    }
+
+    private static final class Tables
+    {
+        private final Month[] months; // source of tables
+        private final int monthMask; // bit of each month value
+        private final int[] monthValues; // sorted distinct month values
+
+        private Tables(Month[] months)
+        {
+            this.months = months;
+            int mask = 0;
+            for (Month month : months) mask |= 1 << month.getValue();
+            monthMask = mask;
+            monthValues = IntStream.rangeClosed(1, 12).filter(m -> (monthMask & (1 << m)) != 0).toArray();
+        }
+    }
 }
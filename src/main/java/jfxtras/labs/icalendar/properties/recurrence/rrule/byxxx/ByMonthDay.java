@@ -4,7 +4,6 @@ import static java.time.temporal.ChronoUnit.DAYS;
 
 import java.security.InvalidParameterException;
 import java.time.LocalDate;
-import java.time.Month;
 import java.time.MonthDay;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
@@ -16,6 +15,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javafx.beans.property.ObjectProperty;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDayBuffer;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDays;
 
 /** BYMONTHDAY from RFC 5545, iCalendar */
 public class ByMonthDay extends ByRuleAbstract
@@ -28,7 +29,7 @@ public class ByMonthDay extends ByRuleAbstract
      */
     public int[] getDaysOfMonth() { return daysOfMonth; }
     private int[] daysOfMonth;
-    public void setDaysOfMonth(int... daysOfMonth) { this.daysOfMonth = daysOfMonth; }
+    public void setDaysOfMonth(int... daysOfMonth) { this.daysOfMonth = daysOfMonth; fireInvalidation(); }
     public ByRule withDaysOfMonth(int... daysOfMonth) { setDaysOfMonth(daysOfMonth); return this; }
     
     /*
@@ -109,7 +110,7 @@ public class ByMonthDay extends ByRuleAbstract
     {
         if (daysOfMonth == null)
         { // if no days specified when constructing, get day of month for startDateTime
-            daysOfMonth = new int[] { Month.from(startTemporal).getValue() };
+            daysOfMonth = new int[] { MonthDay.from(startTemporal).getDayOfMonth() };
         }
         ChronoUnit originalChronoUnit = chronoUnit.get();
         chronoUnit.set(DAYS);
@@ -134,8 +135,10 @@ public class ByMonthDay extends ByRuleAbstract
                 List<Temporal> dates = new ArrayList<>();
                 Temporal firstDateOfMonth = d.with(TemporalAdjusters.firstDayOfMonth());
                 Temporal lastDateOfMonth = d.with(TemporalAdjusters.lastDayOfMonth());
+                int daysInMonth = LocalDate.from(d).lengthOfMonth();
                 for (int day : getDaysOfMonth())
                 {
+                    if ((day > daysInMonth) || (day < -daysInMonth)) continue; // not in this month (e.g. 31 in April)
                     if (day > 0)
                     {
                         dates.add(firstDateOfMonth.plus(day-1, ChronoUnit.DAYS));
@@ -157,4 +160,77 @@ public class ByMonthDay extends ByRuleAbstract
         }
         return null;
     }
+
+    @Override
+    public boolean isEpochDaySupported() { return true; }
+
+    @Override
+    public ChronoUnit expandEpochDays(EpochDayBuffer buffer, ChronoUnit chronoUnit, long startEpochDay)
+    {
+        if (daysOfMonth == null)
+        { // if no days specified when constructing, get day of month for startDateTime
+            daysOfMonth = new int[] { EpochDays.dayOfMonth(startEpochDay) };
+        }
+        long[] masks = masks();
+        switch (chronoUnit)
+        {
+        case DAYS:
+            for (int i=0; i<buffer.size(); i++)
+            { // filter out all but qualifying days
+                long day = buffer.get(i);
+                if ((masks[EpochDays.lengthOfMonth(day) - 28] & (1L << (EpochDays.dayOfMonth(day) - 1))) != 0) buffer.add(day);
+            }
+            break;
+        case MONTHS:
+        case YEARS:
+            for (int i=0; i<buffer.size(); i++)
+            { // Expand to be daysOfMonth days in current month
+                long day = buffer.get(i);
+                buffer.addMasked(EpochDays.firstDayOfMonth(day), masks[EpochDays.lengthOfMonth(day) - 28]);
+            }
+            break;
+        case WEEKS:
+            throw new InvalidParameterException("BYMONTHDAY is not available for WEEKLY frequency."); // Not available
+        default:
+            throw new RuntimeException("Not implemented");
+        }
+        return DAYS;
+    }
+
+    /*
+     * EXPANSION TABLE
+     * Bit masks of the days of month selected by daysOfMonth for months of 28 to 31 days.  Days that
+     * aren't in a month, such as 31 in April, are left out.  Made again when daysOfMonth is replaced.
+     */
+    private volatile Masks masks;
+
+    private long[] masks()
+    {
+        Masks masks = this.masks;
+        if ((masks == null) || (masks.daysOfMonth != daysOfMonth))
+        {
+            masks = new Masks(daysOfMonth);
+            this.masks = masks;
+        }
+        return masks.masks;
+    }
+
+    private static final class Masks
+    {
+        private final int[] daysOfMonth; // source of masks
+        private final long[] masks = new long[4]; // by length of month - 28
+
+        private Masks(int[] daysOfMonth)
+        {
+            this.daysOfMonth = daysOfMonth;
+            for (int length=28; length<=31; length++)
+            {
+                for (int dayOfMonth : daysOfMonth)
+                {
+                    int index = (dayOfMonth > 0) ? dayOfMonth - 1 : length + dayOfMonth;
+                    if ((index >= 0) && (index < length)) masks[length - 28] |= 1L << index;
+                }
+            }
+        }
+    }
 }
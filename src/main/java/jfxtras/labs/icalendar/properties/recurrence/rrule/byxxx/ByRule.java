@@ -4,7 +4,9 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.stream.Stream;
 
+import javafx.beans.Observable;
 import javafx.beans.property.ObjectProperty;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDayBuffer;
 
 /**
  * Interface for a rule that applies a modification to a Stream of start date/times, such
@@ -21,8 +23,11 @@ import javafx.beans.property.ObjectProperty;
  * @see ByMinute
  * @see BySecond
  * @see BySetPosition
+ * 
+ * Implements Observable so owners, such as Frequency, are notified when the rule's values
+ * are changed in place (e.g. {@link ByDay#addDayOfWeek(java.time.DayOfWeek)})
  */
-public interface ByRule extends Comparable<ByRule>
+public interface ByRule extends Comparable<ByRule>, Observable
 {
     
     ByRuleEnum byRuleType();
@@ -38,6 +43,25 @@ public interface ByRule extends Comparable<ByRule>
      */
     Stream<Temporal> stream(Stream<Temporal> inStream, ObjectProperty<ChronoUnit> chronoUnit, Temporal startTemporal);
 
+    /** Returns true if the rule implements {@link #expandEpochDays(EpochDayBuffer, ChronoUnit, long)} */
+    default boolean isEpochDaySupported() { return false; }
+
+    /**
+     * Primitive counterpart of {@link #stream(Stream, ObjectProperty, Temporal)} used by the epoch
+     * recurrence engine.  Filters or expands the epoch days of one frequency period in buffer into the
+     * same dates stream would produce.  The input days are read from buffer and the resulting days
+     * are added to it.
+     * 
+     * @param buffer - epoch days of the current frequency period
+     * @param chronoUnit - ChronoUnit of last modification to buffer
+     * @param startEpochDay - epoch day of start Temporal (DTSTART)
+     * @return - ChronoUnit of this modification
+     */
+    default ChronoUnit expandEpochDays(EpochDayBuffer buffer, ChronoUnit chronoUnit, long startEpochDay)
+    {
+        throw new UnsupportedOperationException(byRuleType() + " doesn't support epoch days");
+    }
+
     void copyTo(ByRule destination);
 
     /** Deep copy all fields from source to destination */
@@ -1,5 +1,8 @@
 package jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx;
 
+import javafx.beans.InvalidationListener;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.InvalidationHelper;
+
 /**
  * BYxxx rule that modify frequency rule (see RFC 5545, iCalendar 3.3.10 Page 42)
  * The BYxxx rules must be applied in a specific order
@@ -20,6 +23,16 @@ public abstract class ByRuleAbstract implements ByRule, Comparable<ByRule>
     /** ByRule enum containing order in which ByRules are processed */
     final private ByRuleEnum byRuleEnum;
     @Override public ByRuleEnum byRuleType() { return byRuleEnum; }
+
+    /*
+     * INVALIDATION
+     * Listeners are notified when the rule's values change in place.
+     */
+    private final InvalidationHelper invalidationHelper = new InvalidationHelper(this);
+    @Override public void addListener(InvalidationListener listener) { invalidationHelper.addListener(listener); }
+    @Override public void removeListener(InvalidationListener listener) { invalidationHelper.removeListener(listener); }
+    /** Notify listeners the rule's values have changed */
+    protected void fireInvalidation() { invalidationHelper.fireInvalidation(); }
 //
 //    /** Constructor that takes ByRule type as parameter 
 //     * The type contains the processing order as defined in RFC 5545 iCalendar page 44 */
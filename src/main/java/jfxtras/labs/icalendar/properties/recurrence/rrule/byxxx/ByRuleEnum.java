@@ -15,47 +15,47 @@ public enum ByRuleEnum
 {
     BY_SECOND ("BYSECOND", BySecond.class, 170)
     {
-        @Override ByRule newInstance(String value) { return new BySecond(value); }
+        @Override public ByRule newInstance(String value) { return new BySecond(value); }
         @Override public ByRule newInstance(ByRule source) { return new BySecond(source); }
     }
   , BY_MINUTE ("BYMINUTE", ByMinute.class, 160)
     {
-        @Override ByRule newInstance(String value) { return new ByMinute(value); }
+        @Override public ByRule newInstance(String value) { return new ByMinute(value); }
         @Override public ByRule newInstance(ByRule source) { return new ByMinute(source); }
     }
   , BY_HOUR ("BYHOUR", ByHour.class, 150)
     {
-        @Override ByRule newInstance(String value) { return new ByHour(value); }
+        @Override public ByRule newInstance(String value) { return new ByHour(value); }
         @Override public ByRule newInstance(ByRule source) { return new ByHour(source); }
     }
   , BY_DAY ("BYDAY", ByDay.class, 140)
     {
-        @Override ByRule newInstance(String value) { return new ByDay(value); }
+        @Override public ByRule newInstance(String value) { return new ByDay(value); }
         @Override public ByRule newInstance(ByRule source) { return new ByDay(source); }
     }
   , BY_MONTH_DAY ("BYMONTHDAY", ByMonthDay.class, 130)
     {
-        @Override ByRule newInstance(String value) { return new ByMonthDay(value); }
+        @Override public ByRule newInstance(String value) { return new ByMonthDay(value); }
         @Override public ByRule newInstance(ByRule source) { return new ByMonthDay(source); }
     }
   , BY_YEAR_DAY ("BYYEARDAY", ByYearDay.class, 120)
     {
-        @Override ByRule newInstance(String value) { return new ByYearDay(value); }
+        @Override public ByRule newInstance(String value) { return new ByYearDay(value); }
         @Override public ByRule newInstance(ByRule source) { return new ByYearDay(source); }
     }
   , BY_WEEK_NUMBER ("BYWEEKNO", ByWeekNumber.class, 110)
     {
-        @Override ByRule newInstance(String value) { return new ByWeekNumber(value); }
+        @Override public ByRule newInstance(String value) { return new ByWeekNumber(value); }
         @Override public ByRule newInstance(ByRule source) { return new ByWeekNumber(source); }
     }
   , BY_MONTH ("BYMONTH", ByMonth.class, 100)
     {
-        @Override ByRule newInstance(String value) { return new ByMonth(value); }
+        @Override public ByRule newInstance(String value) { return new ByMonth(value); }
         @Override public ByRule newInstance(ByRule source) { return new ByMonth(source); }
     }
   , BY_SET_POSITION ("BYSETPOS", BySetPosition.class, 180)
     {
-        @Override ByRule newInstance(String value) { return new BySetPosition(value); }
+        @Override public ByRule newInstance(String value) { return new BySetPosition(value); }
         @Override public ByRule newInstance(ByRule source) { return new BySetPosition(source); }
     };
   
@@ -131,7 +131,8 @@ public enum ByRuleEnum
     /*
      * ABSTRACT METHODS
      */
-    abstract ByRule newInstance(String value);
+    /** return new ByRule parsed from value */
+    public abstract ByRule newInstance(String value);
     /** return copy of ByRule */
     public abstract ByRule newInstance(ByRule source);
     /** sets parameter value */
@@ -2,39 +2,142 @@ package jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx;
 
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javafx.beans.property.ObjectProperty;
+import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDayBuffer;
 
+/**
+ * BYSETPOS from RFC 5545, iCalendar 3.3.10, page 43
+ * Selects date/times by their position in the set made by the other BYxxx rules in each frequency
+ * period.  For example, FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1 is the last weekday of the month.
+ *
+ * The rule is applied to one frequency period at a time (see FrequencyAbstract#stream)
+ */
 public class BySetPosition extends ByRuleAbstract
 {
+    /** positions in the set of each period
+     * (i.e. 1, 3 = 1st and 3rd, -1 = last)
+     * Uses a varargs parameter to allow any number of values.
+     */
+    public int[] getPositions() { return positions; }
+    private int[] positions;
+    public void setPositions(int... positions)
+    {
+        for (int p : positions)
+        {
+            if (p < -366 || p > 366 || p == 0) throw new IllegalArgumentException("Invalid BYSETPOS value (" + p + "). Valid values are 1 to 366 or -366 to -1.");
+        }
+        this.positions = positions;
+        fireInvalidation();
+    }
+    public BySetPosition withPositions(int... positions) { setPositions(positions); return this; }
+
+    /*
+     * CONSTRUCTORS
+     */
     public BySetPosition()
     {
         super(BySetPosition.class);
-        throw new RuntimeException("not implemented");
     }
-    
-    public BySetPosition(String value)
+
+    /** takes String of comma-delimited integers, parses it to array of ints */
+    public BySetPosition(String positionsString)
+    {
+        this(Arrays.stream(positionsString.split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim()))
+                .toArray());
+    }
+
+    /** Constructor requires position int value(s) */
+    public BySetPosition(int... positions)
     {
         this();
+        setPositions(positions);
     }
-    
+
     public BySetPosition(ByRule source)
     {
         super(source);
     }
-    
+
+    @Override
+    public void copyTo(ByRule destination)
+    {
+        BySetPosition destination2 = (BySetPosition) destination;
+        destination2.positions = Arrays.copyOf(positions, positions.length);
+    }
+
     @Override
-    public Stream<Temporal> stream(Stream<Temporal> inStream, ObjectProperty<ChronoUnit> chronoUnit,
-            Temporal startDateTime) {
-        // TODO Auto-generated method stub
-        return null;
+    public boolean equals(Object obj)
+    {
+        if (obj == this) return true;
+        if((obj == null) || (obj.getClass() != getClass())) {
+            return false;
+        }
+        BySetPosition testObj = (BySetPosition) obj;
+        return Arrays.equals(getPositions(), testObj.getPositions());
     }
 
     @Override
-    public void copyTo(ByRule destination) {
-        // TODO Auto-generated method stub
-        
+    public int hashCode()
+    {
+        int hash = 13;
+        hash = (31 * hash) + Arrays.hashCode(getPositions());
+        return hash;
     }
 
+    @Override
+    public String toString()
+    {
+        String positions = Arrays.stream(getPositions())
+                .mapToObj(p -> Integer.toString(p))
+                .collect(Collectors.joining(","));
+        return ByRuleEnum.BY_SET_POSITION + "=" + positions;
+    }
+
+    /** true if index in a set of size elements is one of the positions */
+    private boolean isSelected(int index, int size)
+    {
+        for (int p : positions)
+        {
+            if (index == ((p > 0) ? p - 1 : size + p)) return true;
+        }
+        return false;
+    }
+
+    /** inStream must only contain the date/times of one frequency period */
+    @Override
+    public Stream<Temporal> stream(Stream<Temporal> inStream, ObjectProperty<ChronoUnit> chronoUnit, Temporal startTemporal)
+    {
+        List<Temporal> set = inStream
+                .sorted(DateTimeUtilities.TEMPORAL_COMPARATOR)
+                .distinct()
+                .collect(Collectors.toList());
+        List<Temporal> dates = new ArrayList<>();
+        for (int i=0; i<set.size(); i++)
+        {
+            if (isSelected(i, set.size())) dates.add(set.get(i));
+        }
+        return dates.stream();
+    }
+
+    @Override
+    public boolean isEpochDaySupported() { return true; }
+
+    /** The days in buffer are the sorted days of one frequency period */
+    @Override
+    public ChronoUnit expandEpochDays(EpochDayBuffer buffer, ChronoUnit chronoUnit, long startEpochDay)
+    {
+        for (int i=0; i<buffer.size(); i++)
+        {
+            if (isSelected(i, buffer.size())) buffer.add(buffer.get(i));
+        }
+        return chronoUnit;
+    }
 }
@@ -32,14 +32,15 @@ public class ByWeekNumber extends ByRuleAbstract
             if (w < -53 || w > 53 || w == 0) throw new IllegalArgumentException("Invalid BYWEEKNO value (" + w + "). Valid values are 1 to 53 or -53 to -1.");
         }
         this.weekNumbers = weekNumbers;
+        fireInvalidation();
     }
     public ByWeekNumber withWeekNumbers(int... weekNumbers) { setWeekNumbers(weekNumbers); return this; }
 
     /** Start of week - default start of week is Monday */
     public DayOfWeek getWeekStart() { return weekStart; }
     private DayOfWeek weekStart = DayOfWeek.MONDAY; // default to start on Monday
-    public void setWeekStart(DayOfWeek weekStart) { this.weekStart = weekStart; }
-    public ByWeekNumber withWeekStart(DayOfWeek weekStart) { this.weekStart = weekStart; return this; }
+    public void setWeekStart(DayOfWeek weekStart) { this.weekStart = weekStart; fireInvalidation(); }
+    public ByWeekNumber withWeekStart(DayOfWeek weekStart) { setWeekStart(weekStart); return this; }
 
     /*
      * CONSTRUCTORS
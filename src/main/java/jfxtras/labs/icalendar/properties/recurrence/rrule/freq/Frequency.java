@@ -6,6 +6,7 @@ import java.util.Iterator;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import javafx.beans.Observable;
 import javafx.beans.property.IntegerProperty;
 import javafx.collections.ObservableList;
 import jfxtras.labs.icalendar.DateTimeUtilities;
@@ -24,8 +25,11 @@ import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.FrequencyUtilitie
  * @see Daily
  * @see Hourly
  * @see Minutely
- * @see Secondly */
-public interface Frequency {
+ * @see Secondly
+ * 
+ * Implements Observable so listeners are notified when INTERVAL or any BYxxx rule changes, including
+ * in-place changes to a BYxxx rule's values. */
+public interface Frequency extends Observable {
 
     /** Number of frequency periods elapsed before next occurrence. Defaults to 1*/
     Integer getInterval();
@@ -65,6 +69,46 @@ public interface Frequency {
      */
     Stream<Temporal> stream(Temporal start);
 
+    /** Resulting stream of start date/times beginning with the frequency period firstPeriod, where
+     * period 0 starts on dateTimeStart, period 1 starts INTERVAL frequency units later, and so on.
+     * The BYxxx rules are applied as if the stream started at dateTimeStart, so skipping periods
+     * doesn't change the produced date/times.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param firstPeriod - index of first frequency period to include
+     * @return
+     */
+    Stream<Temporal> stream(Temporal dateTimeStart, long firstPeriod);
+
+    /** Index of the first frequency period that can contain an occurrence on or after rangeStart.
+     * Calculated arithmetically from INTERVAL and the frequency's ChronoUnit, without iterating
+     * over the earlier periods.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param rangeStart - earliest date/time of interest
+     * @return - period index to use with {@link #stream(Temporal, long)}
+     */
+    long seekPeriod(Temporal dateTimeStart, Temporal rangeStart);
+
+    /** Resulting stream of start date/times that skips directly to the frequency period containing
+     * rangeStart.  The stream can contain some date/times before rangeStart, but is never missing
+     * any on or after it.
+     *
+     * @param dateTimeStart - DTSTART
+     * @param rangeStart - earliest date/time of interest
+     * @return
+     */
+    default Stream<Temporal> streamFrom(Temporal dateTimeStart, Temporal rangeStart)
+    {
+        return stream(dateTimeStart, seekPeriod(dateTimeStart, rangeStart));
+    }
+
+    /** Start of the frequency period with index period, before any BYxxx rules are applied */
+    default Temporal periodStart(Temporal dateTimeStart, long period)
+    {
+        return dateTimeStart.plus(period * getInterval(), frequencyType().getChronoUnit());
+    }
+
     /** Which of the enum type FrenquencyType the implementing class represents */
     FrequencyEnum frequencyType();
         
@@ -1,12 +1,18 @@
 package jfxtras.labs.icalendar.properties.recurrence.rrule.freq;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjuster;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import javafx.beans.InvalidationListener;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -14,7 +20,13 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import jfxtras.labs.icalendar.DateTimeUtilities;
+import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDayExpander;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDays;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.InvalidationHelper;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByRule;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.BySetPosition;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.FrequencyUtilities.FrequencyEnum;
 
 public abstract class FrequencyAbstract<T> implements Frequency {
@@ -24,7 +36,11 @@ public abstract class FrequencyAbstract<T> implements Frequency {
     @Override
     public IntegerProperty intervalProperty()
     {
-        if (interval == null) interval = new SimpleIntegerProperty(this, "interval", _interval);
+        if (interval == null)
+        {
+            interval = new SimpleIntegerProperty(this, "interval", _interval);
+            interval.addListener(byRuleListener);
+        }
         return interval;
     }
     private IntegerProperty interval;
@@ -37,6 +53,7 @@ public abstract class FrequencyAbstract<T> implements Frequency {
             if (interval == null)
             {
                 _interval = i;
+                fireInvalidation();
             } else
             {
                 interval.set(i);
@@ -82,25 +99,16 @@ public abstract class FrequencyAbstract<T> implements Frequency {
         return (T) this;
     }
 
-    /** Time unit of last rule applied.  It represents the time span to apply future changes to the output stream of date/times
-     * For example:
-     * 
-     * following FREQ=WEEKLY it is WEEKS
-     * following FREQ=YEARLY it is YEARS
-     * following FREQ=YEARLY;BYWEEKNO=20 it is WEEKS
-     * following FREQ=YEARLY;BYMONTH=3 it is MONTHS
-     * following FREQ=YEARLY;BYMONTH=3;BYDAY=TH it is DAYS
-     * 
-     * Note: ChronoUnit is wrapped in an ObjectProperty to enable receiving classes to have the
-     * reference to the object and make changes to it.  If I passed a ChronoUnit object, which is an enum,
-     * changes are not propagated back.  In that case, I would need a reference to the Frequency object that owns
-     * it.  The ObjectProperty wrapper is easier.
+    /*
+     * INVALIDATION
+     * Listeners are notified when INTERVAL, the BYxxx rules list or a BYxxx rule's values change.
      */
-    ObjectProperty<ChronoUnit> chronoUnitProperty() { return chronoUnit; }
-    ChronoUnit getChronoUnit() { return chronoUnit.get(); };
-    private ObjectProperty<ChronoUnit> chronoUnit = new SimpleObjectProperty<ChronoUnit>();
-    public void setChronoUnit(ChronoUnit chronoUnit) { this.chronoUnit.set(chronoUnit); }
-    
+    private final InvalidationHelper invalidationHelper = new InvalidationHelper(this);
+    @Override public void addListener(InvalidationListener listener) { invalidationHelper.addListener(listener); }
+    @Override public void removeListener(InvalidationListener listener) { invalidationHelper.removeListener(listener); }
+    private void fireInvalidation() { invalidationHelper.fireInvalidation(); }
+    private final InvalidationListener byRuleListener = invalidationHelper.relay();
+
     @Override
     public FrequencyEnum frequencyType() { return frequencyType; }
     final private FrequencyEnum frequencyType;
@@ -112,7 +120,6 @@ public abstract class FrequencyAbstract<T> implements Frequency {
     public FrequencyAbstract(FrequencyEnum frequencyType)
     {
         this.frequencyType = frequencyType;
-        setChronoUnit(frequencyType.getChronoUnit());
         
         // Listener that ensures user doesn't add same ByRule a second time.  Also keeps the byRules list sorted.
         byRules().addListener((ListChangeListener<? super ByRule>) (change) ->
@@ -134,9 +141,15 @@ public abstract class FrequencyAbstract<T> implements Frequency {
                             throw new IllegalArgumentException("Can't add " + newByRule.getClass().getSimpleName() + " (" + c.byRuleType() + ") more than once.");
                         }
                     });
+                    change.getAddedSubList().forEach(r -> r.addListener(byRuleListener));
                     Collections.sort(byRules()); // sort additions
                 }
+                if (change.wasRemoved())
+                {
+                    change.getRemoved().forEach(r -> r.removeListener(byRuleListener));
+                }
             }
+            fireInvalidation();
         });
     }
     
@@ -150,8 +163,51 @@ public abstract class FrequencyAbstract<T> implements Frequency {
     @Override
     public Stream<Temporal> stream(Temporal start)
     {
-        setChronoUnit(frequencyType.getChronoUnit()); // start with Frequency ChronoUnit when making a stream
-        Stream<Temporal> stream = Stream.iterate(start, a -> a.with(adjuster()));
+        return stream(start, 0);
+    }
+    
+    /** Periods of DAILY to YEARLY frequencies are expanded on epoch days with the rules' precomputed
+     * tables (see {@link EpochDayExpander}).  Other frequencies and rules are applied to a stream of
+     * period start Temporals. */
+    @Override
+    public Stream<Temporal> stream(Temporal dateTimeStart, long firstPeriod)
+    {
+        if (EpochDays.isSupported(dateTimeStart) && EpochDayExpander.isSupported(this))
+        {
+            return EpochDayExpander.stream(this, dateTimeStart, firstPeriod);
+        }
+        if (byRules().stream().anyMatch(r -> r instanceof BySetPosition))
+        { // BYSETPOS selects from the whole set of each period, so apply the rules to one period at a time
+            Temporal rulesStart = dateTimeStart.minus(1, ChronoUnit.YEARS); // keep days of first period before DTSTART
+            List<ByRule> rules = byRules().stream().sorted().collect(Collectors.toList());
+            return LongStream.iterate(firstPeriod, p -> p+1)
+                    .mapToObj(p ->
+                    {
+                        ObjectProperty<ChronoUnit> periodChronoUnit = new SimpleObjectProperty<>(frequencyType.getChronoUnit());
+                        Stream<Temporal> periodStream = Stream.of(periodStart(dateTimeStart, p));
+                        for (ByRule rule : rules)
+                        {
+                            periodStream = rule.stream(periodStream, periodChronoUnit, rulesStart);
+                        }
+                        return periodStream;
+                    })
+                    .flatMap(periodStream -> periodStream)
+                    .filter(t -> ! DateTimeUtilities.isBefore(t, dateTimeStart));
+        }
+        /* Time unit of last rule applied.  It represents the time span to apply future changes to the output stream of date/times
+         * For example:
+         * 
+         * following FREQ=WEEKLY it is WEEKS
+         * following FREQ=YEARLY it is YEARS
+         * following FREQ=YEARLY;BYWEEKNO=20 it is WEEKS
+         * following FREQ=YEARLY;BYMONTH=3 it is MONTHS
+         * following FREQ=YEARLY;BYMONTH=3;BYDAY=TH it is DAYS
+         * 
+         * It is wrapped in an ObjectProperty so the rules can change it, and is local to each stream
+         * so concurrent streams of the same Frequency don't share it. */
+        ObjectProperty<ChronoUnit> chronoUnit = new SimpleObjectProperty<>(frequencyType.getChronoUnit());
+        Stream<Temporal> stream = LongStream.iterate(firstPeriod, p -> p+1)
+                .mapToObj(p -> periodStart(dateTimeStart, p));
         Iterator<ByRule> rulesIterator = byRules()
                 .stream()
                 .sorted()
@@ -159,11 +215,25 @@ public abstract class FrequencyAbstract<T> implements Frequency {
         while (rulesIterator.hasNext())
         {
             ByRule rule = rulesIterator.next();
-            stream = rule.stream(stream, chronoUnitProperty(), start);
+            stream = rule.stream(stream, chronoUnit, dateTimeStart);
         }
         return stream;
     }
     
+    @Override
+    public long seekPeriod(Temporal dateTimeStart, Temporal rangeStart)
+    {
+        // ChronoUnit.between needs both ends of the same type, so convert rangeStart to DTSTART's type
+        ZoneId zone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : null;
+        Temporal convertedRangeStart = DateTimeType.of(dateTimeStart).from(rangeStart, zone);
+        if (! DateTimeUtilities.isAfter(convertedRangeStart, dateTimeStart)) return 0;
+        long units = frequencyType.getChronoUnit().between(dateTimeStart, convertedRangeStart);
+        /* Back up one period because BYxxx expansions can produce date/times before their period's
+         * start (e.g. BYDAY in a WEEKLY rule or BYWEEKNO spilling into the previous year). */
+        long periods = (units / getInterval()) - 1;
+        return Math.max(0, periods);
+    }
+    
     @Override
     public boolean equals(Object obj)
     {
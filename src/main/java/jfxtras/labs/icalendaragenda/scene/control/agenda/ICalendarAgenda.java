@@ -9,13 +9,17 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import javafx.application.Platform;
 import javafx.beans.InvalidationListener;
@@ -34,6 +38,7 @@ import jfxtras.labs.icalendar.DateTimeUtilities;
 import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
 import jfxtras.labs.icalendar.ICalendarUtilities.ChangeDialogOption;
 import jfxtras.labs.icalendar.components.VComponent;
+import jfxtras.labs.icalendar.components.VComponentIntervalIndex;
 import jfxtras.labs.icalendar.components.VEvent;
 import jfxtras.labs.icalendar.components.VComponent.StartEndRange;
 import jfxtras.labs.icalendar.properties.recurrence.ExDate;
@@ -68,6 +73,9 @@ public class ICalendarAgenda extends Agenda
      * They make appointments for Agenda to render. */
     public ObservableList<VComponent<Appointment>> vComponents() { return vComponents; }
     private ObservableList<VComponent<Appointment>> vComponents = FXCollections.observableArrayList();
+
+    /* Interval index of vComponents - finds the VComponents that can have instances in the date range */
+    private final VComponentIntervalIndex<VComponent<Appointment>> vComponentIndex = new VComponentIntervalIndex<>(vComponents);
     
     /** VEvent class - used in factory to instantiate new VEvent objects */
     Class<? extends VComponent<Appointment>> getVEventClass() { return vEventClass; }
@@ -78,9 +86,26 @@ public class ICalendarAgenda extends Agenda
      * Match up maps
      * 
      * map stores start date/time of Appointments as they are made so I can get the original date/time
-     * if Agenda changes one (e.g. drag-n-drop).  The original is needed for RECURRENCE-ID.  */
-    private final Map<Integer, Temporal> appointmentStartOriginalMap = new HashMap<>();
-    private final Map<Integer, VComponent<Appointment>> appointmentVComponentMap = new HashMap<>(); /* map matches appointment to VComponent that made it */
+     * if Agenda changes one (e.g. drag-n-drop).  The original is needed for RECURRENCE-ID.
+     * 
+     * Appointments are keyed by identity, not by equals or hash code, because an Appointment's
+     * properties change when it is edited.  The reverse direction, VComponent to its Appointments,
+     * is VComponent#instances().  */
+    private final Map<Appointment, Temporal> appointmentStartOriginalMap = new IdentityHashMap<>();
+    private final Map<Appointment, VComponent<Appointment>> appointmentVComponentMap = new IdentityHashMap<>(); /* map matches appointment to VComponent that made it */
+    
+    /* Parent VComponents (those without RECURRENCE-ID) by UID - used to find the parent of a RECURRENCE-ID child.
+     * Kept synchronized by vComponentsParentListener, which is never removed.  A UID can be changed
+     * after its VComponent is added, so lookups are verified and the map is rebuilt on a miss. */
+    private final Map<String, VComponent<Appointment>> uidParentMap = new HashMap<>();
+    private final ListChangeListener<VComponent<Appointment>> vComponentsParentListener = (ListChangeListener.Change<? extends VComponent<Appointment>> change) ->
+    {
+        while (change.next())
+        {
+            change.getRemoved().forEach(v -> uidParentMap.remove(v.getUniqueIdentifier(), v));
+            change.getAddedSubList().forEach(v -> putParent(v));
+        }
+    };
     
     // not here - in VEventImpl
 //    // Extended appointment class used by the implementor - used to instantiate new appointment objects
@@ -219,7 +244,7 @@ public class ICalendarAgenda extends Agenda
         // TODO - NEED ANOTHER VERSION OF THIS CODE FOR VTODO
         VEvent<Appointment,?> vEvent = (VEvent<Appointment,?>) findVComponent(appointment);
         VEvent<Appointment,?> vEventOriginal = (VEvent<Appointment,?>) VComponentFactory.newVComponent(vEvent); // copy original vEvent.  If change is canceled its copied back.
-        Temporal startOriginalInstance = appointmentStartOriginalMap.get(System.identityHashCode(appointment));
+        Temporal startOriginalInstance = appointmentStartOriginalMap.get(appointment);
         final Temporal startInstance;
         final Temporal endInstance;
         boolean wasDateType = DateTimeType.of(startOriginalInstance).equals(DateTimeType.DATE);
@@ -245,6 +270,7 @@ public class ICalendarAgenda extends Agenda
 //        System.out.println("change localdatetime:" + appointment.getStartLocalDateTime() + " " + appointment.getEndLocalDateTime() + " " + appointment.isWholeDay());
         appointments().removeListener(appointmentsListChangeListener);
         vComponents().removeListener(vComponentsChangeListener);
+        int vComponentsSize = vComponents().size(); // VComponents made by the edit are added after this index
         boolean changed = vEvent.handleEdit(
                 vEventOriginal
               , vComponents
@@ -253,14 +279,19 @@ public class ICalendarAgenda extends Agenda
               , endInstance
               , appointments()
               , oneAllThisAndFutureDialogCallback);
+        if (changed)
+        { // kept appointments can belong to a VComponent made by the edit (e.g. the earlier part of a THIS_AND_FUTURE change)
+            vEvent.instances().forEach(a -> appointmentVComponentMap.put(a, vEvent));
+            vComponents().subList(vComponentsSize, vComponents().size())
+                    .forEach(v -> v.instances().forEach(a -> appointmentVComponentMap.put(a, v)));
+        }
         appointments().addListener(appointmentsListChangeListener);
         vComponents().addListener(vComponentsChangeListener);
         
 //        System.out.println("vComponents changed - added:******************************" + vComponents.size());       
         
         if (! changed) refresh(); // refresh if canceled (undo drag effect, if edited a refresh occurred when updating Appointments)
-//        System.out.println("map4:" + System.identityHashCode(appointment)+ " " +  appointment.getStartTemporal());
-        appointmentStartOriginalMap.put(System.identityHashCode(appointment), appointment.getStartTemporal()); // update start map
+        appointmentStartOriginalMap.put(appointment, appointment.getStartTemporal()); // update start map
         return null;
     };
     
@@ -283,7 +314,7 @@ public class ICalendarAgenda extends Agenda
                 {
                     if (event.getCode().equals(KeyCode.DELETE) && (! selectedAppointments().isEmpty()))
                     {
-                        VComponent<Appointment> v = appointmentVComponentMap.get(System.identityHashCode(selectedAppointments().get(0)));
+                        VComponent<Appointment> v = appointmentVComponentMap.get(selectedAppointments().get(0));
                         appointments().removeAll(selectedAppointments());
                     }
                 });
@@ -304,6 +335,18 @@ public class ICalendarAgenda extends Agenda
         {
             while (change.next())
             {
+                // removals first, a replace change (e.g. set) has both
+                if (change.wasRemoved())
+                {
+                    change.getRemoved().stream().forEach(a -> 
+                    { // add appointments to EXDATE
+                        VComponent<Appointment> v = findVComponent(a);
+                        if (v.getExDate() == null) v.setExDate(new ExDate());
+//                        Temporal t = (a.isWholeDay()) ? LocalDate.from(a.getStartLocalDateTime()) : a.getStartLocalDateTime();
+                        v.getExDate().getTemporals().add(a.getStartTemporal());
+                        if (v.isRecurrenceSetEmpty()) vComponents().remove(v);
+                    });
+                }
                 if (change.wasAdded())
                 {
                     if (change.getAddedSubList().size() == 1)
@@ -343,9 +386,8 @@ public class ICalendarAgenda extends Agenda
                             vComponents().addListener(vComponentsChangeListener);
                             // put data in maps
 //                            System.out.println("dtstart:" + newVComponent.getDateTimeStart());
-//                            System.out.println("map3:" + System.identityHashCode(a) + " " + a.getStartTemporal());
-                            appointmentStartOriginalMap.put(System.identityHashCode(a), a.getStartTemporal());
-                            appointmentVComponentMap.put(System.identityHashCode(a), newVComponent); // populate appointment-vComponent map
+                            appointmentStartOriginalMap.put(a, a.getStartTemporal());
+                            appointmentVComponentMap.put(a, newVComponent); // populate appointment-vComponent map
                             break;
                         default:
                             throw new RuntimeException("unknown button type:" + button);
@@ -356,17 +398,6 @@ public class ICalendarAgenda extends Agenda
                         }
                     } else throw new RuntimeException("Adding multiple appointments at once not supported");
                 }
-                if (change.wasRemoved())
-                {
-                    change.getRemoved().stream().forEach(a -> 
-                    { // add appointments to EXDATE
-                        VComponent<Appointment> v = findVComponent(a);
-                        if (v.getExDate() == null) v.setExDate(new ExDate());
-//                        Temporal t = (a.isWholeDay()) ? LocalDate.from(a.getStartLocalDateTime()) : a.getStartLocalDateTime();
-                        v.getExDate().getTemporals().add(a.getStartTemporal());
-                        if (v.isRecurrenceSetEmpty()) vComponents().remove(v);
-                    });
-                }
             }
         };
         
@@ -376,6 +407,26 @@ public class ICalendarAgenda extends Agenda
             System.out.println("vcomponents changed:" + vComponents.size());
             while (change.next())
             {
+                // removals first, a replace change (e.g. set) has both
+                if (change.wasRemoved())
+                {
+                    // remove associated appointments
+                    Set<Appointment> remove = Collections.newSetFromMap(new IdentityHashMap<>());
+                    change.getRemoved()
+                        .stream()
+                        .forEach(v -> 
+                        {
+                            remove.addAll(v.instances());
+                            
+                            // move deleted recurrence-id into ExDates (ensure deleted instance stays deleted)
+                            if (v.getDateTimeRecurrence() != null)
+                            {
+                                VComponent<Appointment> parent = findParent(v);
+                                parent.getExDate().getTemporals().add(v.getDateTimeRecurrence());
+                            }
+                        });
+                    if (! remove.isEmpty()) appointments().removeAll(remove); // one pass, identity set contains is constant time
+                }
                 if (change.wasAdded()) // can't make appointment if range is not set
                 {
                     // Check if all VComponets are valid, throw exception otherwise
@@ -402,15 +453,7 @@ public class ICalendarAgenda extends Agenda
                                     // add recurrence-id Temporal to parents (required to skip recurrences when making appointments)
                                     if (v.getDateTimeRecurrence() != null)
                                     {
-                                        VComponent<Appointment> parent = vComponents().stream()
-                                                .filter(v2 -> 
-                                                {
-                                                    boolean isParent1 = v2.getUniqueIdentifier().equals(v.getUniqueIdentifier());
-                                                    boolean isParent2 = v2.getDateTimeRecurrence() == null;
-                                                    return isParent1 && isParent2;
-                                                })
-                                                .findFirst()
-                                                .get();
+                                        VComponent<Appointment> parent = findParent(v);
                                         parent.getRRule().recurrences().add(v);
                                     }
                                 });
@@ -418,34 +461,6 @@ public class ICalendarAgenda extends Agenda
                         appointments().addAll(newAppointments);
                         appointments().addListener(appointmentsListChangeListener);
                     }
-                } else if (change.wasRemoved())
-                {
-                    // remove associated appointments
-                    change.getRemoved()
-                        .stream()
-                        .forEach(v -> 
-                        {
-                            List<Appointment> remove = appointments()
-                                    .stream()
-                                    .filter(a -> v.instances().stream().anyMatch(a2 -> a2 == a))
-                                    .collect(Collectors.toList());
-                            appointments().removeAll(remove);
-                            
-                            // move deleted recurrence-id into ExDates (ensure deleted instance stays deleted)
-                            if (v.getDateTimeRecurrence() != null)
-                            {
-                                VComponent<Appointment> parent = vComponents().stream()
-                                        .filter(v2 -> 
-                                        {
-                                            boolean isParent1 = v2.getUniqueIdentifier().equals(v.getUniqueIdentifier());
-                                            boolean isParent2 = v2.getDateTimeRecurrence() == null;
-                                            return isParent1 && isParent2;
-                                        })
-                                        .findFirst()
-                                        .get();
-                                parent.getExDate().getTemporals().add(v.getDateTimeRecurrence());
-                            }
-                        });
                 }
             }
         };
@@ -459,26 +474,31 @@ public class ICalendarAgenda extends Agenda
 //            System.out.println("appointmentsListener2:");
             while (change.next())
             {
+                // removals first, a replace change (e.g. setAll) has both.  Appointments in both are kept.
+                if (change.wasRemoved())
+                {
+                    Set<Appointment> added = Collections.newSetFromMap(new IdentityHashMap<>());
+                    added.addAll(change.getAddedSubList());
+                    change.getRemoved()
+                            .stream()
+                            .filter(a -> ! added.contains(a))
+                            .forEach(a -> 
+                            { // remove map entries
+                                appointmentStartOriginalMap.remove(a);
+                                appointmentVComponentMap.remove(a);
+                            });
+                }
                 if (change.wasAdded())
                 {
                     change.getAddedSubList()
                             .stream()
                             .forEach(a -> 
                             {
-                                appointmentStartOriginalMap.put(System.identityHashCode(a), a.getStartTemporal());
+                                appointmentStartOriginalMap.put(a, a.getStartTemporal());
 //                                appointmentVComponentMap.put(a, newVComponent); // populate appointment-vComponent map
                                 // TODO - IF I MOVE INSTANCE MAKING TO HERE - EITHER CALLBACK OR LISTENER THEN I CAN UPDATE
                                 // BOTH MAPS HERE
                             });
-                } else if (change.wasRemoved())
-                {
-                    change.getRemoved()
-                            .stream()
-                            .forEach(a -> 
-                            { // remove map entries
-                                appointmentStartOriginalMap.remove(System.identityHashCode(a));
-                                appointmentVComponentMap.remove(System.identityHashCode(a));
-                            });
                 }
             }
         };
@@ -486,6 +506,8 @@ public class ICalendarAgenda extends Agenda
 
         // Listen for changes to vComponents (additions and deletions)
         vComponents().addListener(vComponentsChangeListener);
+        vComponents().forEach(v -> putParent(v));
+        vComponents().addListener(vComponentsParentListener);
 
         /*
          * Open select-one appointment popup
@@ -512,25 +534,18 @@ public class ICalendarAgenda extends Agenda
         // LISTEN FOR AGENDA RANGE CHANGES
         setLocalDateTimeRangeCallback(dateTimeRange ->
         {
+            LocalDateTimeRange oldDateTimeRange = this.dateTimeRange;
             this.dateTimeRange = dateTimeRange;
             if (dateTimeRange != null)
             {        
                 appointments().removeListener(appointmentsListChangeListener); // remove appointmentListener to prevent making extra vEvents during refresh
-                appointments().clear();
-                vComponents().stream().forEach(v ->
+                if (isIncrementalRangeRefresh() && isRangeShift(oldDateTimeRange, dateTimeRange))
                 {
-                    v.instances().clear(); // Remove instances and appointments
-                    LocalDateTime start = getDateTimeRange().getStartLocalDateTime();
-                    LocalDateTime end = getDateTimeRange().getEndLocalDateTime();
-                    Collection<Appointment> newAppointments = v.makeInstances(start, end);
-                    appointments().addAll(newAppointments);
-                    newAppointments.stream().forEach(a ->
-                    {
-//                        System.out.println("map5:" + System.identityHashCode(a) + " " + a.getStartTemporal());
-                        appointmentStartOriginalMap.put(System.identityHashCode(a), a.getStartTemporal()); // populate recurrence-id map
-                        appointmentVComponentMap.put(System.identityHashCode(a), v); // populate appointment-vComponent map
-                    });
-                });
+                    shiftInstances(oldDateTimeRange, dateTimeRange);
+                } else
+                {
+                    refreshInstances(oldDateTimeRange, dateTimeRange);
+                }
                 appointments().addListener(appointmentsListChangeListener); // add back appointmentListener
             }
             return null; // return argument for the Callback
@@ -538,22 +553,197 @@ public class ICalendarAgenda extends Agenda
     } // end of constructor
     
     
+    /*
+     * RANGE REFRESH
+     */
+    
+    /** When true, a change of the date range that overlaps the previous range (e.g. scrolling by one day)
+     * only removes the appointments that left the range and makes the ones that entered it.
+     * Appointments that stay visible are reused.  When false, or when the range doesn't overlap the
+     * previous one, all appointments are remade.  Default is true. */
+    public boolean isIncrementalRangeRefresh() { return incrementalRangeRefresh; }
+    private boolean incrementalRangeRefresh = true;
+    public void setIncrementalRangeRefresh(boolean incrementalRangeRefresh) { this.incrementalRangeRefresh = incrementalRangeRefresh; }
+    
+    /* Returns true if newRange is a different range that overlaps oldRange.  The same range is a
+     * refresh request, such as undoing a canceled drag, so all appointments must be remade. */
+    private static boolean isRangeShift(LocalDateTimeRange oldRange, LocalDateTimeRange newRange)
+    {
+        if (oldRange == null) return false;
+        boolean isSameRange = oldRange.getStartLocalDateTime().equals(newRange.getStartLocalDateTime())
+                && oldRange.getEndLocalDateTime().equals(newRange.getEndLocalDateTime());
+        boolean isOverlapping = oldRange.getStartLocalDateTime().isBefore(newRange.getEndLocalDateTime())
+                && newRange.getStartLocalDateTime().isBefore(oldRange.getEndLocalDateTime());
+        return ! isSameRange && isOverlapping;
+    }
+    
+    /* Remove all instances and appointments and make new ones for newRange.  Only VComponents
+     * whose interval overlaps a range can have instances in it. */
+    private void refreshInstances(LocalDateTimeRange oldRange, LocalDateTimeRange newRange)
+    {
+        if (oldRange != null)
+        {
+            vComponentIndex.query(oldRange.getStartLocalDateTime(), oldRange.getEndLocalDateTime())
+                    .forEach(v -> v.instances().clear()); // Remove instances and appointments
+        }
+        appointmentStartOriginalMap.clear();
+        appointmentVComponentMap.clear();
+        LocalDateTime start = newRange.getStartLocalDateTime();
+        LocalDateTime end = newRange.getEndLocalDateTime();
+        List<Appointment> newAppointments = new ArrayList<>();
+        vComponentIndex.query(start, end).forEach(v ->
+        {
+            v.instances().clear();
+            Collection<Appointment> vComponentAppointments = v.makeInstances(start, end);
+            vComponentAppointments.forEach(a -> appointmentVComponentMap.put(a, v)); // populate appointment-vComponent map
+            newAppointments.addAll(vComponentAppointments);
+        });
+        appointments().setAll(newAppointments); // appointmentsListener2 populates recurrence-id map
+    }
+    
+    /* Remove the instances that left the range, make the instances that entered it and apply both
+     * to appointments as one change.  Instances that stay in the range are kept. */
+    private void shiftInstances(LocalDateTimeRange oldRange, LocalDateTimeRange newRange)
+    {
+        LocalDateTime start = newRange.getStartLocalDateTime();
+        LocalDateTime end = newRange.getEndLocalDateTime();
+        LocalDateTime oldStart = oldRange.getStartLocalDateTime();
+        LocalDateTime oldEnd = oldRange.getEndLocalDateTime();
+        Set<Appointment> removedAppointments = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Appointment> addedAppointments = new ArrayList<>();
+
+        // VComponents that can have instances in the old or the new range
+        Set<VComponent<Appointment>> vComponentsToUpdate = Collections.newSetFromMap(new IdentityHashMap<>());
+        vComponentsToUpdate.addAll(vComponentIndex.query(oldStart, oldEnd));
+        vComponentsToUpdate.addAll(vComponentIndex.query(start, end));
+        for (VComponent<Appointment> v : vComponentsToUpdate)
+        {
+            if (v.instances().isEmpty())
+            { // no instances in old range, so there aren't any in the overlap either
+                Collection<Appointment> vComponentAppointments = v.makeInstances(start, end);
+                vComponentAppointments.forEach(a -> appointmentVComponentMap.put(a, v));
+                addedAppointments.addAll(vComponentAppointments);
+            } else
+            {
+                // remove instances that left range
+                Set<Temporal> keptStarts = new HashSet<>();
+                Iterator<Appointment> i = v.instances().iterator();
+                while (i.hasNext())
+                {
+                    Appointment a = i.next();
+                    if (isInRange(a, start, end))
+                    {
+                        keptStarts.add(a.getStartTemporal());
+                    } else
+                    {
+                        i.remove();
+                        removedAppointments.add(a);
+                    }
+                }
+                // make instances in the parts of the new range that are outside the old range
+                if (start.isBefore(oldStart)) addedAppointments.addAll(makeNewInstances(v, start, oldStart, keptStarts));
+                if (end.isAfter(oldEnd)) addedAppointments.addAll(makeNewInstances(v, oldEnd, end, keptStarts));
+                v.setStartRange(start);
+                v.setEndRange(end);
+            }
+        }
+        
+        // apply as one change
+        removedAppointments.forEach(a ->
+        {
+            appointmentStartOriginalMap.remove(a);
+            appointmentVComponentMap.remove(a);
+        });
+        List<Appointment> newAppointments = new ArrayList<>(appointments().size() - removedAppointments.size() + addedAppointments.size());
+        appointments().stream()
+                .filter(a -> ! removedAppointments.contains(a))
+                .forEach(a -> newAppointments.add(a));
+        newAppointments.addAll(addedAppointments);
+        appointments().setAll(newAppointments); // appointmentsListener2 populates recurrence-id map
+    }
+    
+    /* make v's instances between start and end that aren't already present */
+    private List<Appointment> makeNewInstances(VComponent<Appointment> v, Temporal start, Temporal end, Set<Temporal> existingStarts)
+    {
+        List<Appointment> madeAppointments = new ArrayList<>();
+        for (Appointment a : v.makeInstances(start, end))
+        {
+            if (existingStarts.add(a.getStartTemporal()))
+            {
+                madeAppointments.add(a);
+                appointmentVComponentMap.put(a, v);
+            } else
+            { // instance spans the old range's boundary, so it already exists
+                v.instances().remove(a);
+            }
+        }
+        return madeAppointments;
+    }
+
+    /* Returns true if appointment overlaps the range between start (inclusive) and end (exclusive) */
+    private static boolean isInRange(Appointment appointment, LocalDateTime start, LocalDateTime end)
+    {
+        LocalDateTime appointmentStart = (LocalDateTime) DateTimeType.DATE_WITH_LOCAL_TIME.from(appointment.getStartTemporal());
+        LocalDateTime appointmentEnd = (LocalDateTime) DateTimeType.DATE_WITH_LOCAL_TIME.from(appointment.getEndTemporal());
+        return appointmentStart.isBefore(end) && appointmentEnd.isAfter(start);
+    }
+    
     // TODO - SHOULD THESE LISTENERS AND BACKING MAPS GO TO NEW CLASS?
     public VComponent<Appointment> findVComponent(Appointment appointment)
     {
-        if (appointmentVComponentMap.get(System.identityHashCode(appointment)) == null)
-        { // find appointment by searching all VComponents.  Then add it to map if not present.  This can happen if multiple edits occur between refreshes.
-            Optional<VComponent<Appointment>> v2 = vComponents.stream()
-                    .filter(v -> v.instances().stream()
-                            .map(a -> System.identityHashCode(a))
-                            .filter(h -> h.equals(System.identityHashCode(appointment)))
-                            .findAny()
-                            .isPresent())
-                    .findAny();
-            if (v2.isPresent()) appointmentVComponentMap.put(System.identityHashCode(appointment), v2.get());
-            else throw new RuntimeException("Can't find matching VComponent for appointment");
+        VComponent<Appointment> vComponent = appointmentVComponentMap.get(appointment);
+        if (vComponent == null)
+        { // Not in map.  This can happen if multiple edits occur between refreshes.  Search the instances of the
+          // VComponents that can have instances in the date range, then add it to map.
+            Collection<VComponent<Appointment>> candidates = (dateTimeRange == null) ? vComponents()
+                    : vComponentIndex.query(dateTimeRange.getStartLocalDateTime(), dateTimeRange.getEndLocalDateTime());
+            vComponent = findVComponent(appointment, candidates);
+            if (vComponent == null && dateTimeRange != null)
+            { // instance made outside date range
+                vComponent = findVComponent(appointment, vComponents());
+            }
+            if (vComponent == null) throw new RuntimeException("Can't find matching VComponent for appointment");
+            appointmentVComponentMap.put(appointment, vComponent);
+        }
+        return vComponent;
+    }
+    
+    /* Returns the VComponent in candidates that has appointment as an instance, null if none */
+    private static VComponent<Appointment> findVComponent(Appointment appointment, Collection<VComponent<Appointment>> candidates)
+    {
+        for (VComponent<Appointment> v : candidates)
+        {
+            for (Appointment a : v.instances())
+            {
+                if (a == appointment) return v;
+            }
         }
-        return appointmentVComponentMap.get(System.identityHashCode(appointment));
+        return null;
+    }
+    
+    /* Returns the parent VComponent (the one without RECURRENCE-ID) with the same UID as child */
+    private VComponent<Appointment> findParent(VComponent<Appointment> child)
+    {
+        VComponent<Appointment> parent = uidParentMap.get(child.getUniqueIdentifier());
+        if (! isParent(parent, child))
+        { // UID or RECURRENCE-ID changed since VComponent was added
+            uidParentMap.clear();
+            vComponents().forEach(v -> putParent(v));
+            parent = uidParentMap.get(child.getUniqueIdentifier());
+            if (! isParent(parent, child)) throw new RuntimeException("Can't find parent VComponent for UID:" + child.getUniqueIdentifier());
+        }
+        return parent;
+    }
+    
+    private static boolean isParent(VComponent<Appointment> parent, VComponent<Appointment> child)
+    {
+        return (parent != null) && (parent.getDateTimeRecurrence() == null)
+                && parent.getUniqueIdentifier().equals(child.getUniqueIdentifier());
+    }
+    
+    private void putParent(VComponent<Appointment> v)
+    {
+        if ((v.getDateTimeRecurrence() == null) && (v.getUniqueIdentifier() != null)) uidParentMap.put(v.getUniqueIdentifier(), v);
     }
     
     /**
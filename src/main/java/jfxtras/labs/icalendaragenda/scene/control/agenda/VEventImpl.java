@@ -209,6 +209,21 @@ public class VEventImpl extends VEvent<Appointment, VEventImpl>
         return madeAppointments;
     }
     
+    @Override
+    public Temporal instanceStart(Appointment instance) { return instance.getStartTemporal(); }
+    
+    @Override
+    public void updateInstance(Appointment instance, Appointment madeInstance)
+    {
+        instance.setStartTemporal(madeInstance.getStartTemporal());
+        instance.setEndTemporal(madeInstance.getEndTemporal());
+        instance.setDescription(madeInstance.getDescription());
+        instance.setSummary(madeInstance.getSummary());
+        instance.setLocation(madeInstance.getLocation());
+        instance.setWholeDay(madeInstance.isWholeDay());
+        instance.setAppointmentGroup(madeInstance.getAppointmentGroup());
+    }
+    
     /**
      * Returns appointments for Agenda that should exist between dateTimeRangeStart and dateTimeRangeEnd
      * based on VEvent properties.  Uses dateTimeRange previously set in VEvent.
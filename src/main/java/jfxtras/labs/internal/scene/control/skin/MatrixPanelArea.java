@@ -0,0 +1,97 @@
+/**
+ * MatrixPanelArea.java
+ *
+ * Copyright (c) 2011-2015, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package jfxtras.labs.internal.scene.control.skin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Rasterized content of a MatrixPanel: the intensity of each LED (R + 10*G + 100*B, each tone 0..3)
+ * of a text or an image, packed by rows in a short array.
+ * Areas are immutable, so the same area is shared by all the panels through a cache, bounded by
+ * the total number of LEDs it holds, and switching contents or restarting animations doesn't
+ * rasterize them again.
+ */
+final class MatrixPanelArea {
+    /*
+     * CACHE: least recently used areas are removed beyond MAX_CACHED_LEDS
+     */
+    private static final int                           MAX_CACHED_LEDS = 4 * 1024 * 1024;
+    private static final Map<String, MatrixPanelArea>  CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static int                                 cachedLeds = 0;
+    private final int                                  width;
+    private final int                                  height;
+    private final short[]                              leds;
+
+    MatrixPanelArea(final int WIDTH, final int HEIGHT, final short[] LEDS) {
+        width  = WIDTH;
+        height = HEIGHT;
+        leds   = LEDS;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    int get(final int ROW, final int COLUMN) {
+        return leds[COLUMN + ROW * width];
+    }
+
+    // ******************** Cache *********************************************
+    static String textKey(final String TEXT, final Object MATRIX_FONT, final int GAP, final Object COLOR) {
+        return "TEXT|" + MATRIX_FONT + "|" + GAP + "|" + COLOR + "|" + TEXT;
+    }
+
+    static String imageKey(final String BMP_NAME, final int MIN_LEVEL, final int MAX_LEVEL, final Object COLOR) {
+        return "IMAGE|" + MIN_LEVEL + "|" + MAX_LEVEL + "|" + COLOR + "|" + BMP_NAME;
+    }
+
+    static synchronized MatrixPanelArea getCached(final String KEY) {
+        return CACHE.get(KEY);
+    }
+
+    static synchronized void cache(final String KEY, final MatrixPanelArea AREA) {
+        final MatrixPanelArea previous = CACHE.put(KEY, AREA);
+        if (previous != null) {
+            cachedLeds -= previous.leds.length;
+        }
+        cachedLeds += AREA.leds.length;
+        // keeps at least the last area
+        while (cachedLeds > MAX_CACHED_LEDS && CACHE.size() > 1) {
+            final String eldest = CACHE.keySet().iterator().next();
+            cachedLeds -= CACHE.remove(eldest).leds.length;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * MatrixPanelImage.java
+ *
+ * Copyright (c) 2011-2015, JFXtras
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package jfxtras.labs.internal.scene.control.skin;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+
+/**
+ * LED field of a MatrixPanel painted in one WritableImage, instead of one Circle node per LED.
+ * The intensity of each LED (R + 10*G + 100*B, each tone 0..3, 0 is off) is kept in an int array,
+ * and only the rows with changed LEDs are written again to the image, with the PixelWriter,
+ * when {@link #paint()} is called once per pulse.
+ * Each LED is a precomputed antialiased circle of ARGB pixels, one per color.
+ */
+final class MatrixPanelImage {
+    private static final int       TONES = 4;
+    private final int              ledWidth;
+    private final int              ledHeight;
+    private final int[]            leds;
+    private final boolean[]        dirtyRows;
+    private boolean                dirty;
+    private final ImageView        view = new ImageView();
+    private WritableImage          image;
+    private int[][]                sprites;
+    private int                    spriteSize;
+    private int[]                  columnX;
+    private int[]                  rowY;
+
+    MatrixPanelImage(final int LED_WIDTH, final int LED_HEIGHT) {
+        ledWidth  = LED_WIDTH;
+        ledHeight = LED_HEIGHT;
+        leds      = new int[LED_WIDTH * LED_HEIGHT];
+        dirtyRows = new boolean[LED_HEIGHT];
+        view.setSmooth(false);
+    }
+
+    ImageView getView() {
+        return view;
+    }
+
+    boolean contains(final int DOT) {
+        return DOT >= 0 && DOT < leds.length;
+    }
+
+    /*
+     * intensity 0 switchs off the LED
+     */
+    void setLed(final int DOT, final int INTENSITY) {
+        if (leds[DOT] != INTENSITY) {
+            leds[DOT] = INTENSITY;
+            dirtyRows[DOT / ledWidth] = true;
+            dirty = true;
+        }
+    }
+
+    /*
+     * same positions as the Circles: center of the LED (column j, row i) at
+     * (x0 + 2*radio + j*3*radio, y0 + gapH + radio + i*(gapH + 2*radio))
+     */
+    void layout(final double X0, final double Y0, final double RADIO, final double GAP_H, final Color COLOR_OFF, final int TONE_SCALE) {
+        if (RADIO <= 0 || ledWidth == 0 || ledHeight == 0) {
+            image = null;
+            view.setImage(null);
+            return;
+        }
+        spriteSize = (int) Math.ceil(2d * RADIO) + 1;
+        int left = (int) Math.floor(X0 + 2d * RADIO - spriteSize / 2d);
+        int top  = (int) Math.floor(Y0 + GAP_H + RADIO - spriteSize / 2d);
+        columnX = new int[ledWidth];
+        for (int j = 0; j < ledWidth; j++) {
+            columnX[j] = (int) Math.floor(X0 + 2d * RADIO + j * 3d * RADIO - spriteSize / 2d) - left;
+        }
+        rowY = new int[ledHeight];
+        for (int i = 0; i < ledHeight; i++) {
+            rowY[i] = (int) Math.floor(Y0 + GAP_H + RADIO + i * (GAP_H + 2d * RADIO) - spriteSize / 2d) - top;
+        }
+        sprites = new int[TONES * TONES * TONES + 1][];
+        sprites[0] = sprite(RADIO, COLOR_OFF);
+        for (int tone = 1; tone < sprites.length; tone++) {
+            final int toneR = (tone - 1) % TONES;
+            final int toneG = (tone - 1) / TONES % TONES;
+            final int toneB = (tone - 1) / TONES / TONES;
+            sprites[tone] = sprite(RADIO, Color.rgb(TONE_SCALE * toneR, TONE_SCALE * toneG, TONE_SCALE * toneB));
+        }
+        image = new WritableImage(columnX[ledWidth - 1] + spriteSize, rowY[ledHeight - 1] + spriteSize);
+        view.setImage(image);
+        view.setTranslateX(left);
+        view.setTranslateY(top);
+        Arrays.fill(dirtyRows, true);
+        dirty = true;
+        paint();
+    }
+
+    /*
+     * writes the dirty rows to the image
+     */
+    void paint() {
+        if (!dirty || image == null) {
+            return;
+        }
+        final PixelWriter writer = image.getPixelWriter();
+        final PixelFormat<IntBuffer> format = PixelFormat.getIntArgbInstance();
+        for (int i = 0; i < ledHeight; i++) {
+            if (dirtyRows[i]) {
+                for (int j = 0; j < ledWidth; j++) {
+                    writer.setPixels(columnX[j], rowY[i], spriteSize, spriteSize, format, sprites[spriteIndex(leds[j + i * ledWidth])], 0, spriteSize);
+                }
+                dirtyRows[i] = false;
+            }
+        }
+        dirty = false;
+    }
+
+    /*
+     * R + 10*G + 100*B to 1 + R + 4*G + 16*B, 0 for LED off
+     */
+    private static int spriteIndex(final int INTENSITY) {
+        if (INTENSITY <= 0) {
+            return 0;
+        }
+        final int toneB = INTENSITY / 100;
+        final int toneG = (INTENSITY - toneB * 100) / 10;
+        final int toneR = INTENSITY - toneB * 100 - toneG * 10;
+        return 1 + toneR + TONES * toneG + TONES * TONES * toneB;
+    }
+
+    private int[] sprite(final double RADIO, final Color COLOR) {
+        final int[] pixels = new int[spriteSize * spriteSize];
+        final double center = spriteSize / 2d;
+        final int rgb = ((int) Math.round(COLOR.getRed() * 255) << 16) | ((int) Math.round(COLOR.getGreen() * 255) << 8) | (int) Math.round(COLOR.getBlue() * 255);
+        for (int y = 0; y < spriteSize; y++) {
+            for (int x = 0; x < spriteSize; x++) {
+                final double distance = Math.hypot(x + 0.5 - center, y + 0.5 - center);
+                // coverage of the pixel, for antialiased borders
+                final double coverage = Math.max(0d, Math.min(1d, RADIO + 0.5 - distance));
+                pixels[x + y * spriteSize] = ((int) Math.round(coverage * COLOR.getOpacity() * 255) << 24) | rgb;
+            }
+        }
+        return pixels;
+    }
+}
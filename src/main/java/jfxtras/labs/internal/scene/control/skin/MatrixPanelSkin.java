@@ -30,14 +30,11 @@
 package jfxtras.labs.internal.scene.control.skin;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Random;
 
 import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
@@ -63,7 +60,6 @@ import javafx.scene.paint.Color;
 import javafx.scene.paint.Stop;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.Shape;
 import javafx.util.Duration;
 import jfxtras.labs.scene.control.gauge.Content;
 import jfxtras.labs.scene.control.gauge.Content.MatrixColor;
@@ -99,7 +95,21 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
     private Region                   mainFrameIn;
     private Region                   mainForeground;
     private Pane                     dots;
-    private Map<Integer, Shape>      dotMap;
+    private Circle[]                 dotArray;
+    private MatrixPanelImage         ledImage;
+    private final Color[]            ledColors = new Color[64];
+    /*
+     * FRAMES: the contents write the leds to the back buffer, the frame timer
+     * shows once per pulse the leds of the dirty range that differ from the front buffer
+     */
+    private int[]                    backLeds;
+    private int[]                    frontLeds;
+    private int                      dirtyFrom=Integer.MAX_VALUE;
+    private int                      dirtyTo=-1;
+    private AnimationTimer           frameTimer;
+    private long                     frameCount=0l;
+    private long                     changedLedCount=0l;
+    private int                      lastChangedLeds=0;
     private int                      iDots;
     private double                   radio=0d;
     private final int                toneScale=85;
@@ -164,6 +174,12 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         gradient();
         createContents();
         
+        frameTimer = new AnimationTimer() {
+            @Override public void handle(long now) {
+                nextFrame(now);
+            }
+        };
+        frameTimer.start();
     }
     
     private void setSize(){
@@ -222,15 +238,29 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
     
     private void setDots(){
         dots = new Pane();
-        dotMap = new HashMap<>(getSkinnable().ledWidthProperty().intValue() * getSkinnable().ledHeightProperty().intValue());
-        for (int i = 0; i < getSkinnable().ledHeightProperty().intValue(); i++) {
-            for (int j = 0; j < getSkinnable().ledWidthProperty().intValue(); j++) {
-                Circle circ = new Circle(radio,COLOR_OFF);
-                dotMap.put(new Integer(j + i * getSkinnable().ledWidthProperty().intValue()), circ);
-                dots.getChildren().add(circ);
-            }
-        }      
-        dots.setCache(true);
+        if(getSkinnable().getLedRendering()==MatrixPanel.LedRendering.IMAGE){
+            /*
+             * one image for all the leds, painted once per pulse
+             */
+            dotArray = null;
+            ledImage = new MatrixPanelImage(getSkinnable().ledWidthProperty().intValue(), getSkinnable().ledHeightProperty().intValue());
+            dots.getChildren().add(ledImage.getView());
+        } else {
+            ledImage = null;
+            dotArray = new Circle[getSkinnable().ledWidthProperty().intValue() * getSkinnable().ledHeightProperty().intValue()];
+            for (int i = 0; i < getSkinnable().ledHeightProperty().intValue(); i++) {
+                for (int j = 0; j < getSkinnable().ledWidthProperty().intValue(); j++) {
+                    Circle circ = new Circle(radio,COLOR_OFF);
+                    dotArray[j + i * getSkinnable().ledWidthProperty().intValue()] = circ;
+                    dots.getChildren().add(circ);
+                }
+            }      
+            dots.setCache(true);
+        }
+        backLeds = new int[getSkinnable().ledWidthProperty().intValue() * getSkinnable().ledHeightProperty().intValue()];
+        frontLeds = new int[backLeds.length];
+        dirtyFrom = Integer.MAX_VALUE;
+        dirtyTo = -1;
         if(pane!=null && pane.getChildren().size()>0){
             pane.getChildren().remove(iDots);
             pane.getChildren().add(iDots, dots);
@@ -248,6 +278,7 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         getSkinnable().frameDesignProperty().addListener(o -> handleControlPropertyChanged("STYLE") );
         getSkinnable().frameCustomPathProperty().addListener(o -> handleControlPropertyChanged("STYLE") );
         getSkinnable().frameBaseColorProperty().addListener(o -> handleControlPropertyChanged("STYLE") );
+        getSkinnable().ledRenderingProperty().addListener(o -> handleControlPropertyChanged("UPDATE") );
         
         getSkinnable().getStyleClass().addListener((ListChangeListener.Change<? extends String> change) -> {
             resize();
@@ -265,12 +296,7 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
             t.colorProperty().addListener((o)-> handleContentPropertyChanged("CREATE",iContent)); 
             t.originProperty().addListener((o)-> handleContentPropertyChanged("CREATE",iContent)); 
             t.areaProperty().addListener((o)-> handleContentPropertyChanged("CREATE",iContent)); 
-            t.bmpNameProperty().addListener((o)-> {
-                if(byteAreas!=null && byteAreas.size()>iContent && byteAreas.get(iContent)!=null){
-                    byteAreas.set(iContent,null);
-                }
-                handleContentPropertyChanged("CREATE",iContent);
-            }); 
+            t.bmpNameProperty().addListener((o)-> handleContentPropertyChanged("CREATE",iContent)); 
             t.txtContentProperty().addListener((o)-> handleContentPropertyChanged("CREATE",iContent)); 
             t.matrixFontProperty().addListener((o)-> handleContentPropertyChanged("CREATE",iContent)); 
             t.fontGapProperty().addListener((o)-> handleContentPropertyChanged("CREATE",iContent)); 
@@ -502,12 +528,16 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
             }
             radio=(width-2d*(0.0841121495*size+5d))/(3d*getSkinnable().ledWidthProperty().doubleValue()+1);
             double gapH = (height-2d*(0.0841121495*size+5d)-2d*radio*getSkinnable().ledHeightProperty().doubleValue())/(getSkinnable().ledHeightProperty().doubleValue()+1);
-            for (int i = 0; i < getSkinnable().ledHeightProperty().intValue(); i++) {
-                for (int j = 0; j < getSkinnable().ledWidthProperty().intValue(); j++) {
-                    Circle c=(Circle)dots.getChildren().get(i*getSkinnable().ledWidthProperty().intValue()+j);
-                    c.setTranslateX(0.0841121495 * size + 5d + 2d*radio + j * 3d * radio);
-                    c.setTranslateY(0.0841121495 * size + 5d + gapH + radio + i * (gapH + 2d * radio));
-                    c.setRadius(radio);
+            if(ledImage!=null){
+                ledImage.layout(0.0841121495 * size + 5d, 0.0841121495 * size + 5d, radio, gapH, COLOR_OFF, toneScale);
+            } else {
+                for (int i = 0; i < getSkinnable().ledHeightProperty().intValue(); i++) {
+                    for (int j = 0; j < getSkinnable().ledWidthProperty().intValue(); j++) {
+                        Circle c=(Circle)dots.getChildren().get(i*getSkinnable().ledWidthProperty().intValue()+j);
+                        c.setTranslateX(0.0841121495 * size + 5d + 2d*radio + j * 3d * radio);
+                        c.setTranslateY(0.0841121495 * size + 5d + gapH + radio + i * (gapH + 2d * radio));
+                        c.setRadius(radio);
+                    }
                 }
             }
             
@@ -521,17 +551,10 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
     /***************
      *** CONTENT ***
      ***************/
-    private final int LED_COLUMN    = 0;
-    private final int LED_ROW       = 1;
-    private final int LED_INTENSITY = 2;
     /*
      * full area required for each content, even not visible
      */
-    private ArrayList<int[][]> fullAreas = null;
-    /*
-     * Contains collection of images bytes, to avoid reprocessing BMPs
-     */
-    private ArrayList<byte[]> byteAreas = null;
+    private ArrayList<MatrixPanelArea> fullAreas = null;
     /*
      * visible AREAS in the panel, one per content
      */
@@ -549,7 +572,9 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         // stop previous animations, if any
         stop();
         // reset leds
-        dotMap.values().stream().forEach((c) -> c.setFill(COLOR_OFF) );
+        for (int dot = 0; dot < backLeds.length; dot++) {
+            setLed(dot, 0);
+        }
         
         List<Content> contents=getSkinnable().getContents();
         
@@ -558,7 +583,6 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         }
         
         fullAreas = new ArrayList<>();
-        byteAreas = new ArrayList<>();
         visibleArea = new Rectangle[contents.size()];
         Anim=new ArrayList<>();
         visibleContent=new SimpleBooleanProperty[contents.size()];
@@ -595,76 +619,174 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         visibleArea[iContent] = new Rectangle(Math.max(x0, 0), Math.max(y0, 0), maxX, maxY);
 
         if (content.getType().equals(Content.Type.IMAGE)) {
-            byte[] sBytes=null;
-            if(iContent<fullAreas.size() && byteAreas!=null && byteAreas.get(iContent)!=null){
-                sBytes=byteAreas.get(iContent);
-            } else {
-                UtilHex img = new UtilHex();
-                img.convertsBmp(content.getBmpName(), 65, 190, true,true,true);
-                sBytes = img.getRawData();
-                byteAreas.add(iContent,sBytes);
-                img.resetRawData();
-            }
-            if (sBytes != null) {
-                final int levels = 3;
-                final int bmpHeight = UtilHex.bytes2int(new byte[]{sBytes[8],sBytes[9]});
-                final int tamLineaBMT = UtilHex.bytes2int(new byte[]{sBytes[20],sBytes[21],sBytes[22],sBytes[23]}) / bmpHeight / levels / 3; // en bytes
-                int pos = 32;
-                final int[][] area = new int[bmpHeight][tamLineaBMT * 8];
-                final int[] colors={(content.getColor().equals(MatrixColor.RED) || content.getColor().equals(MatrixColor.YELLOW) || content.getColor().equals(MatrixColor.RGB))?1:0,
-                    (content.getColor().equals(MatrixColor.GREEN) || content.getColor().equals(MatrixColor.YELLOW) || content.getColor().equals(MatrixColor.RGB))?1:0,
-                    (content.getColor().equals(MatrixColor.BLUE) || content.getColor().equals(MatrixColor.RGB))?1:0};
-                for (int j = 0; j < levels; j++) { // leds: [RED k=0]0-1-2-3, [GREEN k=1]0-10-20-30, [BLUE k=2] 0-100-200-300
-                    for(int k=0; k<3; k++){ // 3 colors
-                        for (int fila = 0; fila < bmpHeight; fila++) {
-                            for (int i = 0; i < tamLineaBMT; i++) { // recorrido por cada byte de cada fila
-                                BitSet bs=BitSet.valueOf(new byte[]{sBytes[pos++]}); 
-                                for (int m = 0; m < 8; m++) {
-                                    area[fila][i * 8 + m] += (bs.get(7-m)?1:0)*Math.pow(10,k)*colors[k];
-                                }
-                            }
-                        }                        
-                    }
-                }
-                fullAreas.add(iContent,area);
-            }
-            else{
+            MatrixPanelArea area=imageArea(content);
+            if (area == null) {
                 System.out.println("Error, image null: "+content.getBmpName());
-                fullAreas.add(iContent,null);
-                byteAreas.add(iContent,null);
             }
+            fullAreas.add(iContent,area);
         } else if (content.getType().equals(Content.Type.TEXT)) {
-            MatrixPanel.DotFont dotF = new MatrixPanel.DotFont(content.getTxtContent(), content.getMatrixFont(), content.getFontGap().getGapWidth());
-            boolean[][] bDots = dotF.getDotString();
-            if (bDots != null) {
-                final int color=(content.getColor().equals(MatrixColor.RED)?3:
-                        (content.getColor().equals(MatrixColor.GREEN)?30:
-                        (content.getColor().equals(MatrixColor.BLUE)?300:
-                        (content.getColor().equals(MatrixColor.YELLOW)?33:333))));
-                final int[][] area = new int[bDots.length][bDots[0].length];
-                for (int fila = 0; fila < bDots.length; fila++) {
-                    for (int j = 0; j < bDots[fila].length; j++) {
-                        area[fila][j] = ((bDots[fila][j]) ? color : 0);
-                    }
-                }
-                fullAreas.add(iContent,area);
-            }
-            else{
-                fullAreas.add(iContent,null);
+            fullAreas.add(iContent,textArea(content));
+        }
+    }
+    
+    /*
+     * Rasterized BMP of the content, from the cache if it was already read with the same color
+     */
+    private MatrixPanelArea imageArea(Content content){
+        final int minLevel=65, maxLevel=190;
+        final String key=MatrixPanelArea.imageKey(content.getBmpName(), minLevel, maxLevel, content.getColor());
+        MatrixPanelArea area=MatrixPanelArea.getCached(key);
+        if(area!=null){
+            return area;
+        }
+        UtilHex.BmpLevels bmp;
+        try {
+            bmp = UtilHex.decodeBmpLevels(content.getBmpName(), minLevel, maxLevel,
+                        content.getColor().equals(MatrixColor.RED) || content.getColor().equals(MatrixColor.YELLOW) || content.getColor().equals(MatrixColor.RGB),
+                        content.getColor().equals(MatrixColor.GREEN) || content.getColor().equals(MatrixColor.YELLOW) || content.getColor().equals(MatrixColor.RGB),
+                        content.getColor().equals(MatrixColor.BLUE) || content.getColor().equals(MatrixColor.RGB));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error with "+content.getBmpName()+": "+e.getMessage());
+            return null;
+        }
+        // leds: [RED]0-1-2-3, [GREEN]0-10-20-30, [BLUE] 0-100-200-300
+        area=new MatrixPanelArea(bmp.getWidth(), bmp.getHeight(), bmp.getLevels());
+        MatrixPanelArea.cache(key, area);
+        return area;
+    }
+    
+    /*
+     * Rasterized text of the content, from the cache if it was already written with the same font, gap and color
+     */
+    private MatrixPanelArea textArea(Content content){
+        final String key=MatrixPanelArea.textKey(content.getTxtContent(), content.getMatrixFont(), content.getFontGap().getGapWidth(), content.getColor());
+        MatrixPanelArea area=MatrixPanelArea.getCached(key);
+        if(area!=null){
+            return area;
+        }
+        MatrixPanel.DotFont dotF = new MatrixPanel.DotFont(content.getTxtContent(), content.getMatrixFont(), content.getFontGap().getGapWidth());
+        boolean[][] bDots = dotF.getDotString();
+        if (bDots == null) {
+            return null;
+        }
+        final int color=(content.getColor().equals(MatrixColor.RED)?3:
+                (content.getColor().equals(MatrixColor.GREEN)?30:
+                (content.getColor().equals(MatrixColor.BLUE)?300:
+                (content.getColor().equals(MatrixColor.YELLOW)?33:333))));
+        final int areaWidth = bDots[0].length;
+        final short[] leds = new short[bDots.length * areaWidth];
+        for (int fila = 0; fila < bDots.length; fila++) {
+            for (int j = 0; j < areaWidth; j++) {
+                leds[fila * areaWidth + j] = (short)((bDots[fila][j]) ? color : 0);
             }
-            byteAreas.add(iContent,null);
         }
+        area=new MatrixPanelArea(areaWidth, bDots.length, leds);
+        MatrixPanelArea.cache(key, area);
+        return area;
     }
     
     private void clearArea(int iContent){
         for (int i = (int) visibleArea[iContent].getY(); i < (int) visibleArea[iContent].getHeight(); i++) {
             for (int j = (int)visibleArea[iContent].getX(); j < (int) visibleArea[iContent].getWidth(); j++) {
-                Integer dot = new Integer(j + i * getSkinnable().ledWidthProperty().intValue());
-                if (dotMap.get(dot) != null) {
-                    ((Circle)dotMap.get(dot)).setFill(COLOR_OFF);
+                int dot = j + i * getSkinnable().ledWidthProperty().intValue();
+                if (isLed(dot)) {
+                    setLed(dot, 0);
+                }
+            }
+        }
+    }
+    
+    private boolean isLed(int dot){
+        return dot >= 0 && dot < backLeds.length;
+    }
+    
+    /*
+     * intensity: R + 10*G + 100*B, each tone 0..3, 0 switchs the led off.
+     * The led is shown in the next frame
+     */
+    private void setLed(int dot, int intensity){
+        if(backLeds[dot]!=intensity){
+            backLeds[dot]=intensity;
+            dirtyFrom=Math.min(dirtyFrom, dot);
+            dirtyTo=Math.max(dirtyTo, dot);
+        }
+    }
+    
+    /*
+     * One frame per pulse: steps all the running contents, then shows only the leds changed
+     * since the previous frame, looking for them in the dirty range of the back buffer
+     */
+    private void nextFrame(long now){
+        if(Anim!=null){
+            for(int i=0; i<Anim.size(); i++){
+                if(Anim.get(i).isRunning()){
+                    Anim.get(i).handle(now);
                 }
             }
         }
+        if(dirtyTo<dirtyFrom){
+            return;
+        }
+        int changed=0;
+        for (int dot = dirtyFrom; dot <= dirtyTo; dot++) {
+            if(backLeds[dot]!=frontLeds[dot]){
+                frontLeds[dot]=backLeds[dot];
+                showLed(dot, backLeds[dot]);
+                changed++;
+            }
+        }
+        dirtyFrom=Integer.MAX_VALUE;
+        dirtyTo=-1;
+        if(changed==0){
+            // the leds were set back to the shown values
+            return;
+        }
+        if(ledImage!=null){
+            ledImage.paint();
+        }
+        frameCount++;
+        changedLedCount+=changed;
+        lastChangedLeds=changed;
+    }
+    
+    private void showLed(int dot, int intensity){
+        if(ledImage!=null){
+            ledImage.setLed(dot, intensity);
+            return;
+        }
+        Color color=COLOR_OFF;
+        if(intensity>0){
+            final int toneB=intensity/100;
+            final int toneG=(intensity-toneB*100)/10;
+            final int toneR=(intensity-toneB*100-toneG*10);
+            color=ledColors[toneR+4*toneG+16*toneB];
+            if(color==null){
+                color=Color.rgb(toneScale*toneR, toneScale*toneG, toneScale*toneB);
+                ledColors[toneR+4*toneG+16*toneB]=color;
+            }
+        }
+        dotArray[dot].setFill(color);
+    }
+    
+    /**
+     * @return number of frames that changed any led
+     */
+    public long getFrameCount(){
+        return frameCount;
+    }
+    
+    /**
+     * @return number of leds changed by all the frames
+     */
+    public long getChangedLedCount(){
+        return changedLedCount;
+    }
+    
+    /**
+     * @return number of leds changed by the last frame
+     */
+    public int getLastChangedLeds(){
+        return lastChangedLeds;
     }
     
     private void animContent(int iContent){
@@ -691,6 +813,12 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
             });
         });
     }
+    @Override public void dispose() {
+        frameTimer.stop();
+        stop();
+        super.dispose();
+    }
+    
     private void stop(){
         if(Anim!=null){
             Anim.stream().forEach((a) -> a.stop() );
@@ -703,7 +831,11 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         }
     }
     
-    private class Animation extends AnimationTimer{
+    /*
+     * Animation of one content, stepped by the frame timer of the panel while it's running
+     */
+    private class Animation {
+        private boolean running=false;
         private long lastUpdate=0l;
         private boolean bBlink=false; // heartbit
         private int contBlink=0;
@@ -714,12 +846,11 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         private int areaWidth, areaHeight;
         private int contentWidth, contentHeight;
         private IntegerProperty posX, posY, posXIni, posYIni;
-//        private int[][] contentArea=null;
         private int realLapse, advance, limX, limitBlink, iterLeds;
         private boolean isBlinkEffect;
         
-        private LinkedHashMap<Integer,int[]> brightLeds=null;
-        private ArrayList<int[]> arrBrightLeds=null;
+        private int[] brightLeds=null; // dots, shuffled
+        private int[] brightValues=null;
         private IntegerProperty incrPos=null;
         
         private PauseTransition pTrans=null;
@@ -740,7 +871,6 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
         }
         
         public void initAnimation(){
-//            this.contentArea = fullAreas.get(iContent);            
 
             oriX = (int) visibleArea[iContent].getX();
             oriY = (int) visibleArea[iContent].getY();
@@ -753,8 +883,8 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
             * Total dimensions of area of the content
             */
             if(fullAreas!=null && fullAreas.get(iContent)!=null){
-                contentWidth =fullAreas.get(iContent)[0].length;
-                contentHeight = fullAreas.get(iContent).length;
+                contentWidth =fullAreas.get(iContent).getWidth();
+                contentHeight = fullAreas.get(iContent).getHeight();
             }
             /*
             * START LOCATION OF CONTENT
@@ -830,45 +960,47 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
                  * Effect.SPRAY
                  */
                 if(content.getEffect().equals(Content.Effect.SPRAY)){
-                    brightLeds = new LinkedHashMap<>();
-                    arrBrightLeds=new ArrayList<>();
-                    int[][] contentArea= fullAreas.get(iContent); 
-                    // list of brighting LEDs: column j, row i, intensity val
+                    int[] dots=new int[Math.max(areaWidth*areaHeight,0)];
+                    int[] values=new int[dots.length];
+                    int size=0;
+                    MatrixPanelArea contentArea= fullAreas.get(iContent); 
+                    // list of brighting LEDs: dot, intensity val
                     for (int i = oriY; i < endY; i++) {
                         for (int j = oriX; j < endX; j++) {
-                            Integer dot = new Integer(j + i * getSkinnable().ledWidthProperty().intValue());
-                            if (dotMap.get(dot) != null) {
+                            int dot = j + i * getSkinnable().ledWidthProperty().intValue();
+                            if (isLed(dot)) {
                                 int val;
                                 if (j + posX.intValue() >= oriX && j + posX.intValue() < contentWidth + oriX &&
                                     i + posY.intValue() >= oriY && i + posY.intValue() < contentHeight + oriY) {
-                                    val = contentArea[i + posY.intValue() - oriY][j + posX.intValue() - oriX];
-                                    if(val>0){
-                                        int[] led={j,i,val};
-                                        arrBrightLeds.add(led);
+                                    val = contentArea.get(i + posY.intValue() - oriY, j + posX.intValue() - oriX);
+                                    if(val>0 && size<dots.length){
+                                        dots[size]=dot;
+                                        values[size]=val;
+                                        size++;
                                     }
                                 } 
                             }
                         }
                     }
 
-                    // RANDOMIZE ArrayList 
-                    Collections.shuffle(arrBrightLeds);
-
-                    // Create map with shuffled list
-                    final Iterator<int[]> vIter = arrBrightLeds.iterator();
-                    for (int k=0; k<arrBrightLeds.size(); k++){
-                        brightLeds.put(k, vIter.next());
+                    // RANDOMIZE leds
+                    Random random=new Random();
+                    for (int k=size-1; k>0; k--){
+                        int r=random.nextInt(k+1);
+                        int dot=dots[k]; dots[k]=dots[r]; dots[r]=dot;
+                        int val=values[k]; values[k]=values[r]; values[r]=val;
                     }
-                    arrBrightLeds.clear();
+                    brightLeds=Arrays.copyOf(dots, size);
+                    brightValues=Arrays.copyOf(values, size);
 
                     /*
                      * SPRAY Effect. Number of new leds showed in each step
                      */
-                    if(brightLeds.size()>0){
+                    if(brightLeds.length>0){
                         if(content!=null && content.getLapse()>0){
-                            iterLeds=brightLeds.size()/content.getLapse();
+                            iterLeds=brightLeds.length/content.getLapse();
                         } else {
-                            iterLeds=brightLeds.size()/10;
+                            iterLeds=brightLeds.length/10;
                         }
                     } else {
                         iterLeds=0;
@@ -877,7 +1009,14 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
             }
         }
                 
-        @Override
+        public void start(){
+            running=true;
+        }
+        
+        public boolean isRunning(){
+            return running;
+        }
+        
         public void handle(long now) {
             /*
             *  only make one frame step animation IF enough fps, 
@@ -893,20 +1032,15 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
                 if(content.getEffect().equals(Content.Effect.SPRAY)){
                     // show bunch of leds, starting from the end of the shrinking map
                     for(int buc=0;buc<iterLeds;buc++){
-                        int[] led=(int[])brightLeds.get(brightLeds.size()-iter-1);
-                        final int toneB=(int)(led[LED_INTENSITY]/100);
-                        final int toneG=(int)((led[LED_INTENSITY]-toneB*100)/10);
-                        final int toneR=(int)(led[LED_INTENSITY]-toneB*100-toneG*10);
-                        Integer dot = new Integer(led[LED_COLUMN] + led[LED_ROW] * getSkinnable().ledWidthProperty().intValue());
-                        ((Circle)dotMap.get(dot)).setFill(Color.rgb(toneScale*toneR, toneScale*toneG, toneScale*toneB));
-                        iter=(iter<brightLeds.size()-1)?iter+1:iter;
+                        setLed(brightLeds[brightLeds.length-iter-1], brightValues[brightLeds.length-iter-1]);
+                        iter=(iter<brightLeds.length-1)?iter+1:iter;
                     }                            
                 } else {
-                    int[][] contentArea= fullAreas.get(iContent); 
+                    MatrixPanelArea contentArea= fullAreas.get(iContent); 
                     for (int j = oriX; j < endX; j++) {
                         for (int i = oriY; i < endY; i++) {
-                            Integer dot = new Integer(j + i * getSkinnable().ledWidthProperty().intValue());
-                            if (dotMap.get(dot) != null) {
+                            int dot = j + i * getSkinnable().ledWidthProperty().intValue();
+                            if (isLed(dot)) {
                                 int pos=posX.intValue();
                                 if(content.getEffect().equals(Content.Effect.MIRROR)){
                                     if(content.getTxtAlign().equals(Content.Align.LEFT) && j-oriX>contentWidth/2){
@@ -921,15 +1055,12 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
                                 int val = 0;
                                 if (j + pos >= oriX && j + pos < contentWidth + oriX &&
                                     i + posY.intValue() >= oriY && i + posY.intValue() < contentHeight + oriY) {
-                                    val = contentArea[i + posY.intValue() - oriY][j + pos - oriX];
+                                    val = contentArea.get(i + posY.intValue() - oriY, j + pos - oriX);
                                 } 
                                 if ((val > 0 && !isBlinkEffect) || (val>0 && isBlinkEffect && bBlink)) {
-                                    final int toneB=val/100;
-                                    final int toneG=(val-toneB*100)/10;
-                                    final int toneR=(val-toneB*100-toneG*10);
-                                    ((Circle)dotMap.get(dot)).setFill(Color.rgb(toneScale*toneR, toneScale*toneG, toneScale*toneB));
+                                    setLed(dot, val);
                                 } else { 
-                                    ((Circle)dotMap.get(dot)).setFill(COLOR_OFF);
+                                    setLed(dot, 0);
                                 }
                             }
                         }
@@ -987,7 +1118,7 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
                         bBlink=!bBlink;                                
                     }
                 } else if (content.getEffect().equals(Content.Effect.SPRAY)) {             
-                    if(iter>=brightLeds.size()-1){
+                    if(iter>=brightLeds.length-1){
                         endRotation=true;
                         iter=0;
                     }
@@ -1027,8 +1158,7 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
                             if(content!=null && (content.getClear() || content.getEffect().equals(Content.Effect.SPRAY))){
                                 for (int i = oriY; i < endY; i++) {
                                     for (int j = oriX; j < endX; j++) {
-                                        Integer dot = new Integer(j + i * getSkinnable().ledWidthProperty().intValue());
-                                        ((Circle)dotMap.get(dot)).setFill(COLOR_OFF);
+                                        setLed(j + i * getSkinnable().ledWidthProperty().intValue(), 0);
                                     }
                                 }
                             }
@@ -1054,16 +1184,10 @@ public class MatrixPanelSkin extends SkinBase<MatrixPanel> implements Skin<Matri
             }
         }
         
-        @Override
         public void stop(){
-            if(brightLeds!=null){
-                brightLeds.clear();
-                brightLeds=null;
-            }
-            if(arrBrightLeds!=null){
-                arrBrightLeds.clear();
-                arrBrightLeds=null;
-            }
+            running=false;
+            brightLeds=null;
+            brightValues=null;
             if(pTrans!=null){
                 pTrans.stop();
                 pTrans=null;
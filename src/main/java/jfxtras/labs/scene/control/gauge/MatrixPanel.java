@@ -29,8 +29,9 @@
 
 package jfxtras.labs.scene.control.gauge;
 
-import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
@@ -999,6 +1000,17 @@ public class MatrixPanel extends Control {
         }
     }
     
+    public static enum LedRendering {
+        /*
+         * one Circle node per LED
+         */
+        NODES,
+        /*
+         * all LEDs painted in one WritableImage
+         */
+        IMAGE
+    }
+    
     private static final String                 DEFAULT_STYLE_CLASS = "matrix-panel";
     private IntegerProperty                     ledWidth;
     private IntegerProperty                     ledHeight;
@@ -1007,6 +1019,7 @@ public class MatrixPanel extends Control {
     private ObjectProperty<Color>               frameBaseColor;
     private ObjectProperty<String>              frameCustomPath;
     private BooleanProperty                     frameVisible;
+    private ObjectProperty<LedRendering>        ledRendering;
     
     // ******************** Constructors **************************************
     public MatrixPanel() {
@@ -1025,6 +1038,7 @@ public class MatrixPanel extends Control {
         frameBaseColor = new SimpleObjectProperty<>(Color.rgb(160, 160, 160));
         frameCustomPath = new SimpleObjectProperty<>("");
         frameVisible= new SimpleBooleanProperty(true);        
+        ledRendering= new SimpleObjectProperty<>(LedRendering.NODES);
     }
 
 
@@ -1157,6 +1171,18 @@ public class MatrixPanel extends Control {
         return frameVisible;
     }
     
+    public final LedRendering getLedRendering() {
+        return ledRendering.get();
+    }
+
+    public final void setLedRendering(final LedRendering LED_RENDERING) {
+        ledRendering.set(LED_RENDERING);
+    }
+
+    public final ObjectProperty<LedRendering> ledRenderingProperty() {
+        return ledRendering;
+    }
+    
     // ******************** Style related *************************************
     @Override protected Skin createDefaultSkin() {
         return new MatrixPanelSkin(this);
@@ -1211,29 +1237,53 @@ public class MatrixPanel extends Control {
                     break;
             }
             dotString = new boolean[height][(width + GAP) * TEXT.length()];
+            final boolean[][][] glyphs = getGlyphs(MATRIX_FONT, values, width, height, bytes);
             for (int i = 0; i < TEXT.length(); i++) {
 
-                int decChar = Integer.parseInt(UtilHex.dec2hexStr((int)TEXT.charAt(i)),16);
+                boolean[][] glyph = glyphs[TEXT.charAt(i) & 0xff];
+                if (glyph != null) {
+                    for (int k = 0; k < height; k++) {
+                        System.arraycopy(glyph[k], 0, dotString[k], (width + GAP) * i, width);
+                    }
+                }
+            }
 
-                for (IDD let : values) {
-                    if (let.getDecLetra() == decChar) {
+        }
 
-                        // array of hex values for each column of dots
-                        String[] hxV = let.getHexLetra().split(" ");
-                        for (int j = 0; j < bytes * width; j += bytes) {
-                            for(int b=0; b<bytes; b++){
-                                // binaryValue of column, b 8 leds
-                                BitSet bs=BitSet.valueOf(UtilHex.toBytes(hxV[j + b])); 
-                                for (int k = 8*b; k < Math.min(8*(b+1),height); k++) {
-                                    dotString[k][j / bytes + (width + GAP) * i] = bs.get(7-k+8*b);
-                                }
+        /*
+         * GLYPH ATLAS: dots of every character of a font, decoded once from the hex values of the font
+         */
+        private static final Map<Content.MatrixFont, boolean[][][]> GLYPHS = new EnumMap<>(Content.MatrixFont.class);
+
+        private static synchronized boolean[][][] getGlyphs(final Content.MatrixFont MATRIX_FONT, final IDD[] VALUES, 
+                                                            final int WIDTH, final int HEIGHT, final int BYTES) {
+            boolean[][][] glyphs = GLYPHS.get(MATRIX_FONT);
+            if (glyphs != null) {
+                return glyphs;
+            }
+            glyphs = new boolean[256][][];
+            if (VALUES != null) {
+                for (IDD let : VALUES) {
+                    if (let.getDecLetra() < 0 || let.getDecLetra() > 255 || glyphs[let.getDecLetra()] != null) {
+                        continue;
+                    }
+                    final boolean[][] glyph = new boolean[HEIGHT][WIDTH];
+                    // array of hex values for each column of dots
+                    String[] hxV = let.getHexLetra().split(" ");
+                    for (int j = 0; j < BYTES * WIDTH; j += BYTES) {
+                        for(int b=0; b<BYTES; b++){
+                            // binaryValue of column, b 8 leds
+                            final int bits = Integer.parseInt(hxV[j + b], 16);
+                            for (int k = 8*b; k < Math.min(8*(b+1),HEIGHT); k++) {
+                                glyph[k][j / BYTES] = ((bits >> (7-k+8*b)) & 1) == 1;
                             }
                         }
-                        break;
                     }
+                    glyphs[let.getDecLetra()] = glyph;
                 }
             }
-
+            GLYPHS.put(MATRIX_FONT, glyphs);
+            return glyphs;
         }
 
         public boolean[][] getDotString() {
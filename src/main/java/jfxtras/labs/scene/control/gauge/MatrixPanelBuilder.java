@@ -43,6 +43,7 @@ import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.paint.Color;
 import jfxtras.labs.scene.control.gauge.MatrixPanel.FrameDesign;
+import jfxtras.labs.scene.control.gauge.MatrixPanel.LedRendering;
 
 
 /**
@@ -82,6 +83,17 @@ public class MatrixPanelBuilder <B extends MatrixPanelBuilder<B>> {
         return this;
     }
 
+    /**
+     * Set how the LEDs are rendered
+     * @param LED_RENDERING NODES, one Circle node per LED, or IMAGE, all the LEDs painted in one image. 
+     * IMAGE is recommended for big panels, with thousands of LEDs
+     * @return 
+     */
+    public final MatrixPanelBuilder ledRendering(final LedRendering LED_RENDERING) {
+        properties.put("ledRendering", new SimpleObjectProperty<>(LED_RENDERING));
+        return this;
+    }
+
     /**
      * Set the List of Contents
      * @see ContentBuilder#create() 
@@ -195,6 +207,9 @@ public class MatrixPanelBuilder <B extends MatrixPanelBuilder<B>> {
                 case "ledHeight":
                     CONTROL.setLedHeight(((IntegerProperty) properties.get(key)).get());
                     break;
+                case "ledRendering":
+                    CONTROL.setLedRendering(((ObjectProperty<LedRendering>) properties.get(key)).get());
+                    break;
                 case "contentsList":
                     CONTROL.setContents(((ObjectProperty<List<Content>>) properties.get(key)).get());
                     break;
@@ -29,12 +29,19 @@
 
 package jfxtras.labs.scene.control.gauge;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.BitSet;
 import java.util.MissingResourceException;
 
@@ -223,6 +230,172 @@ public class UtilHex {
         return rawData;
     }
 
+    /*
+    * LED levels of a BMP image, decoded by decodeBmpLevels:
+    * R + 10*G + 100*B for each pixel, each tone 0-3 (number of levels the color reaches),
+    * by rows from the top. As the rawData of convertsBmp, the width is padded with zeroes 
+    * to a multiple of 16
+    */
+    public static class BmpLevels {
+        private final int width;
+        private final int height;
+        private final short[] levels;
+
+        private BmpLevels(int width, int height, short[] levels) {
+            this.width = width;
+            this.height = height;
+            this.levels = levels;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public short[] getLevels() {
+            return levels;
+        }
+    }
+
+    /*
+    * Decodes the BMP directly into LED levels, like convertsBmp but without the BMT rawData.
+    * The BMP is read from this jar, a jar of the classpath if the path is provided,
+    * or memory-mapped from the file
+    * Levels: [0-255]
+    */
+    public static BmpLevels decodeBmpLevels(String pathBmp, int minLevel, int maxLevel,
+                                            boolean colorR, boolean colorG, boolean colorB) throws IOException {
+        String fullpathBmp=(pathBmp.endsWith(".bmp")?pathBmp:pathBmp.concat(".bmp"));
+        try (InputStream bmpStream = UtilHex.class.getResourceAsStream(fullpathBmp)) {
+            if (bmpStream != null) {
+                return decodeBmpLevels(bmpStream, minLevel, maxLevel, colorR, colorG, colorB);
+            }
+        }
+        return decodeBmpLevels(Paths.get(fullpathBmp), minLevel, maxLevel, colorR, colorG, colorB);
+    }
+
+    public static BmpLevels decodeBmpLevels(Path pathBmp, int minLevel, int maxLevel,
+                                            boolean colorR, boolean colorG, boolean colorB) throws IOException {
+        try (FileChannel channel = FileChannel.open(pathBmp, StandardOpenOption.READ)) {
+            ByteBuffer bmp = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decodeBmpLevels(bmp, minLevel, maxLevel, colorR, colorG, colorB);
+        }
+    }
+
+    public static BmpLevels decodeBmpLevels(InputStream bmpStream, int minLevel, int maxLevel,
+                                            boolean colorR, boolean colorG, boolean colorB) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(bmpStream.available() > 0 ? bmpStream.available() : 8192);
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = bmpStream.read(buffer)) != -1) {
+            bytes.write(buffer, 0, n);
+        }
+        return decodeBmpLevels(ByteBuffer.wrap(bytes.toByteArray()), minLevel, maxLevel, colorR, colorG, colorB);
+    }
+
+    /*
+    * Supports uncompressed BMPs of 1, 4, 8 (with palette), 24 and 32 bits per pixel,
+    * bottom-up or top-down, with any size of bitmap header
+    */
+    public static BmpLevels decodeBmpLevels(ByteBuffer bmp, int minLevel, int maxLevel,
+                                            boolean colorR, boolean colorG, boolean colorB) throws IOException {
+        if (maxLevel > 255) {
+            maxLevel = 255;
+        }
+        if (minLevel > maxLevel) {
+            minLevel = maxLevel;
+        }
+        if (minLevel < 0) {
+            minLevel = 0;
+        }
+        int[] tonos = {
+            minLevel,
+            (maxLevel + minLevel) / 2,
+            maxLevel
+        };
+        // number of tones reached by each value of a color
+        int[] toneOf = new int[256];
+        for (int v = 0; v < 256; v++) {
+            for (int tono : tonos) {
+                if (v >= tono) {
+                    toneOf[v]++;
+                }
+            }
+        }
+        int[] colores = {
+            (colorR) ? 1 : 0,
+            (colorG) ? 10 : 0,
+            (colorB) ? 100 : 0
+        }; // R-G-B
+
+        ByteBuffer buf = bmp.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int base = buf.position();
+        if (buf.remaining() < 54 || buf.getShort(base) != 0x4d42) {
+            throw new IOException("Not a BMP file");
+        }
+        int bitmapOffset = buf.getInt(base + 10);
+        int headerSize = buf.getInt(base + 14);
+        int width = buf.getInt(base + 18);
+        int height = buf.getInt(base + 22);
+        int bitsPerPixel = buf.getShort(base + 28);
+        int compression = buf.getInt(base + 30);
+        int colorsUsed = buf.getInt(base + 46);
+        if (compression != 0) {
+            throw new IOException("BMP Compression not supported");
+        }
+        if (bitsPerPixel != 1 && bitsPerPixel != 4 && bitsPerPixel != 8 && bitsPerPixel != 24 && bitsPerPixel != 32) {
+            throw new IOException("Unsupported bits-per-pixel value");
+        }
+        boolean topDown = (height < 0);
+        height = Math.abs(height);
+        // Scan line is padded with zeroes to be a multiple of four bytes
+        int scanLineSize = ((width * bitsPerPixel + 31) / 32) * 4;
+        if (width <= 0 || bitmapOffset < 0 || base + bitmapOffset + (long) scanLineSize * height > buf.limit()) {
+            throw new IOException("Scan lines end prematurely");
+        }
+
+        // palette levels, already weighted by color
+        int[] palette = null;
+        if (bitsPerPixel <= 8) {
+            int noOfEntries = (colorsUsed != 0) ? Math.min(colorsUsed, 1 << bitsPerPixel) : 1 << bitsPerPixel;
+            int pos = base + 14 + headerSize;
+            palette = new int[1 << bitsPerPixel];
+            for (int i = 0; i < noOfEntries && pos + 4 * i + 2 < buf.limit(); i++) {
+                palette[i] = toneOf[buf.get(pos + 4 * i + 2) & 0xff] * colores[0] +
+                             toneOf[buf.get(pos + 4 * i + 1) & 0xff] * colores[1] +
+                             toneOf[buf.get(pos + 4 * i) & 0xff] * colores[2];
+            }
+        }
+
+        // Scan line is padded with zeroes to be a multiple of two bytes (x 16)
+        int lineSize = (width / 16 + (width % 16 > 0 ? 1 : 0)) * 16;
+        short[] levels = new short[lineSize * height];
+        int bytesPerPixel = bitsPerPixel / 8;
+        int mask = (1 << bitsPerPixel) - 1;
+        for (int fila = 0; fila < height; fila++) {
+            int pos = base + bitmapOffset + (topDown ? fila : height - 1 - fila) * scanLineSize;
+            int offset = fila * lineSize;
+            if (palette == null) {
+                for (int col = 0; col < width; col++, pos += bytesPerPixel) {
+                    // bmp: BLUE-GREEN-RED
+                    levels[offset + col] = (short) (toneOf[buf.get(pos + 2) & 0xff] * colores[0] +
+                                                    toneOf[buf.get(pos + 1) & 0xff] * colores[1] +
+                                                    toneOf[buf.get(pos) & 0xff] * colores[2]);
+                }
+            } else {
+                for (int col = 0; col < width; col++) {
+                    int bit = col * bitsPerPixel;
+                    int index = ((buf.get(pos + bit / 8) & 0xff) >> (8 - bitsPerPixel - bit % 8)) & mask;
+                    levels[offset + col] = (short) palette[index];
+                }
+            }
+        }
+        return new BmpLevels(lineSize, height, levels);
+    }
+
     public void resetRawData(){
         rawData=null;
     }
@@ -29,10 +29,7 @@
 
 package jfxtras.labs.util;
 
-import javafx.animation.Interpolator;
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Shape;
@@ -61,33 +58,44 @@ public class BiLinearGradient {
 
 
     // ******************** Methods *******************************************
-    private Color biLinearInterpolateColor(final Color COL_00, final Color COL_10, final Color COL_01, final Color COL_11, final double FRAC_X, final double FRAC_Y) {
-        final Color INTERPOLATED_COLOR_X1 = (Color) Interpolator.LINEAR.interpolate(COL_00, COL_10, FRAC_X);
-        final Color INTERPOLATED_COLOR_X2 = (Color) Interpolator.LINEAR.interpolate(COL_01, COL_11, FRAC_X);
-        return (Color) Interpolator.LINEAR.interpolate(INTERPOLATED_COLOR_X1, INTERPOLATED_COLOR_X2, FRAC_Y);
-    }
-
     public Image getImage(final double WIDTH, final double HEIGHT) {
-        int   width  = (int) WIDTH  <= 0 ? 100 : (int) WIDTH;
-        int   height = (int) HEIGHT <= 0 ? 100 : (int) HEIGHT;
-        final WritableImage RASTER       = new WritableImage(width, height);
-        final PixelWriter   PIXEL_WRITER = RASTER.getPixelWriter();
-        final double FRACTION_STEP_X     = 1.0 / (WIDTH - 1);
-        final double FRACTION_STEP_Y     = 1.0 / (HEIGHT - 1);
-        double fractionX = 0;
-        double fractionY = 0;
+        final int width  = (int) WIDTH  <= 0 ? 100 : (int) WIDTH;
+        final int height = (int) HEIGHT <= 0 ? 100 : (int) HEIGHT;
+        return PaintRaster.getImage("BiLinearGradient|" + WIDTH + "|" + HEIGHT + "|" + COLOR_00 + "|" + COLOR_10 + "|" + COLOR_01 + "|" + COLOR_11, width, height,
+                                    () -> getPixels(width, height, 1.0 / (WIDTH - 1), 1.0 / (HEIGHT - 1)));
+    }
 
-        for (int y = 0; y < HEIGHT ; y++) {
+    /*
+     * ARGB pixels of the gradient, interpolating each channel first along x and then along y
+     */
+    int[] getPixels(final int WIDTH, final int HEIGHT, final double FRACTION_STEP_X, final double FRACTION_STEP_Y) {
+        final double[] C00 = channels(COLOR_00);
+        final double[] C10 = channels(COLOR_10);
+        final double[] C01 = channels(COLOR_01);
+        final double[] C11 = channels(COLOR_11);
+        return PaintRaster.rasterize(WIDTH, HEIGHT, (y, pixels, offset) -> {
+            final double FRACTION_Y = Math.min(1, y * FRACTION_STEP_Y);
+            final double[] X1 = new double[4];
+            final double[] X2 = new double[4];
             for (int x = 0 ; x < WIDTH ; x++) {
-                PIXEL_WRITER.setColor(x, y, biLinearInterpolateColor(COLOR_00, COLOR_10, COLOR_01, COLOR_11, fractionX, fractionY));
-                fractionX += FRACTION_STEP_X;
-                fractionX = fractionX > 1 ? 1 : fractionX;
+                final double FRACTION_X = Math.min(1, x * FRACTION_STEP_X);
+                int argb = 0;
+                for (int c = 0; c < 4; c++) {
+                    X1[c] = C00[c] + (C10[c] - C00[c]) * FRACTION_X;
+                    X2[c] = C01[c] + (C11[c] - C01[c]) * FRACTION_X;
+                    final double CHANNEL = X1[c] + (X2[c] - X1[c]) * FRACTION_Y;
+                    argb |= (int) Math.round(CHANNEL * 255) << (24 - 8 * c);
+                }
+                pixels[offset + x] = argb;
             }
-            fractionY += FRACTION_STEP_Y;
-            fractionY = fractionY > 1 ? 1 : fractionY;
-            fractionX = 0;
-        }
-        return RASTER;
+        });
+    }
+
+    /*
+     * opacity, red, green, blue
+     */
+    private static double[] channels(final Color COLOR) {
+        return new double[] { COLOR.getOpacity(), COLOR.getRed(), COLOR.getGreen(), COLOR.getBlue() };
     }
 
     public ImagePattern apply(final Shape SHAPE) {
@@ -29,12 +29,10 @@
 
 package jfxtras.labs.util;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Shape;
@@ -53,7 +51,6 @@ public class BrushedMetalPaint {
     private int     color;
     private double  shine;
     private boolean monochrome;
-    private Random  randomNumbers;
 
 
     // ******************** Constructors **************************************
@@ -78,44 +75,55 @@ public class BrushedMetalPaint {
     public Image getImage(final double W, final double H) {
         final int WIDTH  = (int) W;
         final int HEIGHT = (int) H;
-
-        WritableImage DESTINATION = new WritableImage(WIDTH, HEIGHT);
-
-        final int[] IN_PIXELS  = new int[WIDTH];
-        final int[] OUT_PIXELS = new int[WIDTH];
-
-        randomNumbers   = new Random(0);
+        return PaintRaster.getImage("BrushedMetalPaint|" + color + "|" + radius + "|" + amount + "|" + monochrome + "|" + shine, WIDTH, HEIGHT,
+                                    () -> getPixels(WIDTH, HEIGHT));
+    }
+
+    /*
+     * ARGB pixels of the paint, each row with its own noise so the rows can be painted in parallel
+     */
+    int[] getPixels(final int WIDTH, final int HEIGHT) {
+        final int RADIUS      = radius;
+        final double AMOUNT   = amount;
+        final double SHINE    = shine;
+        final boolean MONOCHROME = monochrome;
         final int ALPHA = color & 0xff000000;
         final int RED   = (color >> 16) & 0xff;
         final int GREEN = (color >> 8) & 0xff;
         final int BLUE  = color & 0xff;
-        for (int y = 0; y < HEIGHT; y++) {
+        // shine only depends on the column
+        final int[] SHINES = new int[WIDTH];
+        if (SHINE != 0) {
             for (int x = 0; x < WIDTH; x++) {
-                int tr = RED;
-                int tg = GREEN;
-                int tb = BLUE;
-                if (shine != 0) {
-                    int f = (int) (255 * shine * Math.sin((double) x / WIDTH * Math.PI));
-                    tr += f;
-                    tg += f;
-                    tb += f;
-                }
-                if (monochrome) {
-                    int n = (int) (255 * (2 * randomNumbers.nextFloat() - 1) * amount);
+                SHINES[x] = (int) (255 * SHINE * Math.sin((double) x / WIDTH * Math.PI));
+            }
+        }
+        return PaintRaster.rasterize(WIDTH, HEIGHT, (y, pixels, offset) -> {
+            final SplittableRandom RANDOM = new SplittableRandom(y);
+            final int[] IN_PIXELS = new int[WIDTH];
+            for (int x = 0; x < WIDTH; x++) {
+                final int tr = RED + SHINES[x];
+                final int tg = GREEN + SHINES[x];
+                final int tb = BLUE + SHINES[x];
+                if (MONOCHROME) {
+                    int n = (int) (255 * (2 * RANDOM.nextDouble() - 1) * AMOUNT);
                     IN_PIXELS[x] = ALPHA | (clamp(tr + n) << 16) | (clamp(tg + n) << 8) | clamp(tb + n);
                 } else {
-                    IN_PIXELS[x] = ALPHA | (random(tr) << 16) | (random(tg) << 8) | random(tb);
+                    IN_PIXELS[x] = ALPHA | (random(tr, RANDOM, AMOUNT) << 16) | (random(tg, RANDOM, AMOUNT) << 8) | random(tb, RANDOM, AMOUNT);
                 }
             }
-
-            if (radius != 0) {
-                blur(IN_PIXELS, OUT_PIXELS, WIDTH, radius);
-                setRGB(DESTINATION, 0, y, OUT_PIXELS);
+            if (RADIUS != 0) {
+                final int[] OUT_PIXELS = new int[WIDTH];
+                blur(IN_PIXELS, OUT_PIXELS, WIDTH, RADIUS);
+                System.arraycopy(OUT_PIXELS, 0, pixels, offset, WIDTH);
             } else {
-                setRGB(DESTINATION, 0, y, IN_PIXELS);
+                System.arraycopy(IN_PIXELS, 0, pixels, offset, WIDTH);
             }
-        }
-        return DESTINATION;
+            // opaque, as the colors were written before
+            for (int x = offset; x < offset + WIDTH; x++) {
+                pixels[x] |= 0xff000000;
+            }
+        });
     }
 
     public ImageView getImageView(final double W, final double H, final Shape CLIP) {
@@ -205,8 +213,8 @@ public class BrushedMetalPaint {
         return shine;
     }
 
-    private int random(int x) {
-        x += (int) (255 * (2 * randomNumbers.nextFloat() - 1) * amount);
+    private static int random(int x, final SplittableRandom RANDOM, final double AMOUNT) {
+        x += (int) (255 * (2 * RANDOM.nextDouble() - 1) * AMOUNT);
         if (x < 0) {
             x = 0;
         } else if (x > 0xff) {
@@ -215,7 +223,7 @@ public class BrushedMetalPaint {
         return x;
     }
 
-    private int clamp(final int C) {
+    private static int clamp(final int C) {
         int ret = C;
         if (C < 0) {
             ret = 0;
@@ -235,13 +243,6 @@ public class BrushedMetalPaint {
         return a;
     }
 
-    private void setRGB(final WritableImage IMAGE, final int X, final int Y, final int[] PIXELS) {
-        final PixelWriter RASTER = IMAGE.getPixelWriter();
-        for (int x = 0 ; x < PIXELS.length ; x++) {
-            RASTER.setColor(X + x, Y, Color.rgb((PIXELS[x] >> 16) & 0xFF, (PIXELS[x] >> 8) & 0xFF, (PIXELS[x] &0xFF)));
-        }
-    }
-
     private int getIntFromColor(final Color COLOR) {
         String hex = COLOR.toString();
         StringBuilder intValue = new StringBuilder(10);
@@ -41,8 +41,6 @@ import java.util.TreeSet;
 import javafx.animation.Interpolator;
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Stop;
@@ -56,6 +54,7 @@ import javafx.scene.shape.Shape;
  * Time: 09:46
  */
 public class ConicalGradient {
+    private static final int ANGLE_STEPS_PER_DEGREE = 10;
     private Point2D    center;
     private List<Stop> sortedStops;
 
@@ -167,42 +166,54 @@ public class ConicalGradient {
     }
 
     public Image getImage(final double WIDTH, final double HEIGHT) {
-        int width = (int) WIDTH <= 0 ? 100 : (int) WIDTH;
-        int height = (int) HEIGHT <= 0 ? 100 : (int) HEIGHT;
-        final WritableImage RASTER = new WritableImage(width, height);
-        final PixelWriter PIXEL_WRITER = RASTER.getPixelWriter();
-        Color color = Color.TRANSPARENT;
+        final int width = (int) WIDTH <= 0 ? 100 : (int) WIDTH;
+        final int height = (int) HEIGHT <= 0 ? 100 : (int) HEIGHT;
         if (center == null) {
             center = new Point2D(width / 2, height / 2);
         }
+        final Point2D CENTER = center;
+        return PaintRaster.getImage("ConicalGradient|" + CENTER + "|" + sortedStops, width, height, () -> getPixels(width, height, CENTER));
+    }
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                double dx = x - center.getX();
-                double dy = y - center.getY();
-                double distance = Math.sqrt((dx * dx) + (dy * dy));
-                distance = Double.compare(distance, 0) == 0 ? 1 : distance;
-
-                double angle = Math.abs(Math.toDegrees(Math.acos(dx / distance)));
-                if (dx >= 0 && dy <= 0) {
-                    angle = 90.0 - angle;
-                } else if (dx >= 0 && dy >= 0) {
-                    angle += 90.0;
-                } else if (dx <= 0 && dy >= 0) {
-                    angle += 90.0;
-                } else if (dx <= 0 && dy <= 0) {
-                    angle = 450.0 - angle;
+    /*
+     * ARGB pixels of the gradient, the color of each pixel is looked up by its angle
+     */
+    int[] getPixels(final int WIDTH, final int HEIGHT, final Point2D CENTER) {
+        final int[] ANGLE_COLORS = getAngleColors();
+        final double CENTER_X = CENTER.getX();
+        final double CENTER_Y = CENTER.getY();
+        return PaintRaster.rasterize(WIDTH, HEIGHT, (y, pixels, offset) -> {
+            double dy = y - CENTER_Y;
+            for (int x = 0; x < WIDTH; x++) {
+                double dx = x - CENTER_X;
+                // clockwise from 12 o'clock
+                double angle = (dx == 0 && dy == 0) ? 0 : Math.toDegrees(Math.atan2(dx, -dy));
+                if (angle < 0) {
+                    angle += 360.0;
                 }
-                for (int i = 0; i < (sortedStops.size() - 1); i++) {
-                    if (angle >= (sortedStops.get(i).getOffset() * 360) && angle < (sortedStops.get(i + 1).getOffset() * 360)) {
-                        double fraction = (angle - sortedStops.get(i).getOffset() * 360) / ((sortedStops.get(i + 1).getOffset() - sortedStops.get(i).getOffset()) * 360);
-                        color = (Color) Interpolator.LINEAR.interpolate(sortedStops.get(i).getColor(), sortedStops.get(i + 1).getColor(), fraction);
-                    }
+                pixels[offset + x] = ANGLE_COLORS[Math.min((int) (angle * ANGLE_STEPS_PER_DEGREE), ANGLE_COLORS.length - 1)];
+            }
+        });
+    }
+
+    /*
+     * color of the gradient every 1/ANGLE_STEPS_PER_DEGREE degrees
+     */
+    private int[] getAngleColors() {
+        final Stop[] STOPS = sortedStops.toArray(new Stop[sortedStops.size()]);
+        final int[] ANGLE_COLORS = new int[360 * ANGLE_STEPS_PER_DEGREE];
+        Color color = Color.TRANSPARENT;
+        for (int step = 0; step < ANGLE_COLORS.length; step++) {
+            double angle = (double) step / ANGLE_STEPS_PER_DEGREE;
+            for (int i = 0; i < (STOPS.length - 1); i++) {
+                if (angle >= (STOPS[i].getOffset() * 360) && angle < (STOPS[i + 1].getOffset() * 360)) {
+                    double fraction = (angle - STOPS[i].getOffset() * 360) / ((STOPS[i + 1].getOffset() - STOPS[i].getOffset()) * 360);
+                    color = (Color) Interpolator.LINEAR.interpolate(STOPS[i].getColor(), STOPS[i + 1].getColor(), fraction);
                 }
-                PIXEL_WRITER.setColor(x, y, color);
             }
+            ANGLE_COLORS[step] = PaintRaster.argb(color);
         }
-        return RASTER;
+        return ANGLE_COLORS;
     }
 
     public ImagePattern apply(final Shape SHAPE) {
@@ -41,8 +41,6 @@ import java.util.TreeSet;
 import javafx.animation.Interpolator;
 import javafx.geometry.Point2D;
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Stop;
@@ -56,6 +54,7 @@ import javafx.scene.shape.Shape;
  * Time: 10:37
  */
 public class EllipticalGradient {
+    private static final int DISTANCE_STEPS = 4096;
     private List<Stop> sortedStops;
 
     public EllipticalGradient(final Stop... STOPS) {
@@ -101,35 +100,54 @@ public class EllipticalGradient {
     }
 
     public Image getImage(final double WIDTH, final double HEIGHT, final Point2D CENTER) {
-        int     width   = (int) WIDTH <= 0 ? 100 : (int) WIDTH;
-        int     height  = (int) HEIGHT <= 0 ? 50 : (int) HEIGHT;
-        double  a       = WIDTH / 2.0;
-        double  aSquare = a * a;
-        double  b       = HEIGHT / 2.0;
-        double  bSquare = b * b;
-        Color   color   = Color.TRANSPARENT;
-        final WritableImage RASTER       = new WritableImage(width, height);
-        final PixelWriter PIXEL_WRITER = RASTER.getPixelWriter();
-        double isInside;
+        final int width  = (int) WIDTH <= 0 ? 100 : (int) WIDTH;
+        final int height = (int) HEIGHT <= 0 ? 50 : (int) HEIGHT;
+        return PaintRaster.getImage("EllipticalGradient|" + WIDTH + "|" + HEIGHT + "|" + CENTER + "|" + sortedStops, width, height,
+                                    () -> getPixels(width, height, WIDTH / 2.0, HEIGHT / 2.0, CENTER));
+    }
+
+    /*
+     * ARGB pixels of the gradient, the color of each pixel is looked up by its distance to the center
+     */
+    int[] getPixels(final int WIDTH, final int HEIGHT, final double A, final double B, final Point2D CENTER) {
+        final int[]  DISTANCE_COLORS = getDistanceColors();
+        final double A_SQUARE = A * A;
+        final double B_SQUARE = B * B;
+        final double CENTER_X = CENTER.getX();
+        final double CENTER_Y = CENTER.getY();
+        return PaintRaster.rasterize(WIDTH, HEIGHT, (y, pixels, offset) -> {
+            final double DY_SQUARE = ((y - CENTER_Y) * (y - CENTER_Y)) / B_SQUARE;
+            for (int x = 0 ; x < WIDTH ; x++) {
+                double isInside = ((x - CENTER_X) * (x - CENTER_X)) / A_SQUARE + DY_SQUARE;
+                isInside = isInside > 1 ? 1 : isInside;
+                pixels[offset + x] = DISTANCE_COLORS[(int) (isInside * (DISTANCE_STEPS - 1) + 0.5)];
+            }
+        });
+    }
+
+    /*
+     * color of the gradient for DISTANCE_STEPS distances from the center (0) to the ellipse (1)
+     */
+    private int[] getDistanceColors() {
+        final Stop[] STOPS = sortedStops.toArray(new Stop[sortedStops.size()]);
+        final int[] DISTANCE_COLORS = new int[DISTANCE_STEPS];
+        Color color = STOPS[0].getColor();
         double fraction;
         double currentOffset;
         double nextOffset;
-        for (int y = 0 ; y < height ; y++) {
-            for (int x = 0 ; x < width ; x++) {
-                isInside = ((x - CENTER.getX()) * (x - CENTER.getX())) / aSquare + ((y - CENTER.getY()) * (y - CENTER.getY())) / bSquare;
-                isInside = isInside > 1 ? 1 : isInside;
-                for (int i = 0; i < (sortedStops.size() - 1); i++) {
-                    currentOffset = sortedStops.get(i).getOffset();
-                    nextOffset    = sortedStops.get(i + 1).getOffset();
-                    if (Double.compare(isInside, currentOffset) > 0 && Double.compare(isInside, nextOffset) <= 0) {
-                        fraction = (isInside - currentOffset) / (nextOffset - currentOffset);
-                        color    = (Color) Interpolator.LINEAR.interpolate(sortedStops.get(i).getColor(), sortedStops.get(i + 1).getColor(), fraction);
-                    }
+        for (int step = 0; step < DISTANCE_STEPS; step++) {
+            double isInside = (double) step / (DISTANCE_STEPS - 1);
+            for (int i = 0; i < (STOPS.length - 1); i++) {
+                currentOffset = STOPS[i].getOffset();
+                nextOffset    = STOPS[i + 1].getOffset();
+                if (Double.compare(isInside, currentOffset) > 0 && Double.compare(isInside, nextOffset) <= 0) {
+                    fraction = (isInside - currentOffset) / (nextOffset - currentOffset);
+                    color    = (Color) Interpolator.LINEAR.interpolate(STOPS[i].getColor(), STOPS[i + 1].getColor(), fraction);
                 }
-                PIXEL_WRITER.setColor(x, y, color);
             }
+            DISTANCE_COLORS[step] = PaintRaster.argb(color);
         }
-        return RASTER;
+        return DISTANCE_COLORS;
     }
 
     public ImagePattern getFill(final Shape SHAPE) {
@@ -0,0 +1,120 @@
+/**
+ * PaintRaster.java
+ *
+ * Copyright (c) 2011-2015, JFXtras
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the organization nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package jfxtras.labs.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+
+/**
+ * Rasterization of the custom paints (ConicalGradient, EllipticalGradient, BiLinearGradient,
+ * BrushedMetalPaint) into an int[] of ARGB pixels, row by row, with the rows of big images split
+ * across the common ForkJoin pool. The image is written once with setPixels.
+ * The pixels are memoized in a cache shared by all the paints, keyed by the parameters of the
+ * paint and the size, and bounded by the total number of pixels it holds.
+ */
+final class PaintRaster {
+    private static final int                  PARALLEL_PIXELS = 128 * 128;
+    private static final int                  MAX_CACHED_PIXELS = 8 * 1024 * 1024;
+    private static final Map<String, int[]>   CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static int                        cachedPixels = 0;
+
+    interface RowPainter {
+        /*
+         * paints the row Y of the image in PIXELS, from OFFSET
+         */
+        void paintRow(int Y, int[] PIXELS, int OFFSET);
+    }
+
+    private PaintRaster() {
+    }
+
+
+    // ******************** Methods *******************************************
+    static int[] rasterize(final int WIDTH, final int HEIGHT, final RowPainter PAINTER) {
+        final int[] PIXELS = new int[WIDTH * HEIGHT];
+        IntStream rows = IntStream.range(0, HEIGHT);
+        if (WIDTH * HEIGHT >= PARALLEL_PIXELS) {
+            rows = rows.parallel();
+        }
+        rows.forEach(y -> PAINTER.paintRow(y, PIXELS, y * WIDTH));
+        return PIXELS;
+    }
+
+    static WritableImage toImage(final int WIDTH, final int HEIGHT, final int[] PIXELS) {
+        final WritableImage IMAGE = new WritableImage(WIDTH, HEIGHT);
+        IMAGE.getPixelWriter().setPixels(0, 0, WIDTH, HEIGHT, PixelFormat.getIntArgbInstance(), PIXELS, 0, WIDTH);
+        return IMAGE;
+    }
+
+    /*
+     * image of the cached pixels of KEY, rasterized with PIXELS if they aren't cached
+     */
+    static WritableImage getImage(final String KEY, final int WIDTH, final int HEIGHT, final Supplier<int[]> PIXELS) {
+        return toImage(WIDTH, HEIGHT, getPixels(KEY + "|" + WIDTH + "x" + HEIGHT, PIXELS));
+    }
+
+    static int[] getPixels(final String KEY, final Supplier<int[]> PIXELS) {
+        synchronized (CACHE) {
+            final int[] CACHED = CACHE.get(KEY);
+            if (CACHED != null) {
+                return CACHED;
+            }
+        }
+        // rasterized outside the lock, so different paints are rasterized at the same time
+        final int[] RASTER = PIXELS.get();
+        synchronized (CACHE) {
+            final int[] PREVIOUS = CACHE.put(KEY, RASTER);
+            if (PREVIOUS != null) {
+                cachedPixels -= PREVIOUS.length;
+            }
+            cachedPixels += RASTER.length;
+            // keeps at least the last raster
+            while (cachedPixels > MAX_CACHED_PIXELS && CACHE.size() > 1) {
+                final String ELDEST = CACHE.keySet().iterator().next();
+                cachedPixels -= CACHE.remove(ELDEST).length;
+            }
+        }
+        return RASTER;
+    }
+
+    static int argb(final Color COLOR) {
+        return ((int) Math.round(COLOR.getOpacity() * 255) << 24) |
+               ((int) Math.round(COLOR.getRed() * 255) << 16) |
+               ((int) Math.round(COLOR.getGreen() * 255) << 8) |
+                (int) Math.round(COLOR.getBlue() * 255);
+    }
+}
@@ -6,17 +6,21 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({ 
-                ICalendarCopyTest.class
+                ICalendarAlarmTest.class
+              , ICalendarCopyTest.class
               , ICalendarDateTest.class
               , ICalendarDeleteTest.class
               , ICalendarEditTest.class
               , ICalendarEqualsTest.class
+              , ICalendarFreeBusyTest.class
               , ICalendarMakeInstancesTest.class
               , ICalendarParseComponentTest.class
               , ICalendarParseDateTest.class
               , ICalendarParsePropertyTest.class
               , ICalendarReadICSTest.class
+              , ICalendarTimeZoneTest.class
               , ICalendarToStringTest.class
+              , ICalendarWriteTest.class
               })
 public class AllTests {
 
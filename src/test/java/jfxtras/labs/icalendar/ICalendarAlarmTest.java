@@ -0,0 +1,193 @@
+package jfxtras.labs.icalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import jfxtras.labs.icalendar.components.VAlarm;
+import jfxtras.labs.icalendar.components.VAlarmScheduler;
+import jfxtras.labs.icalendar.components.VAlarmScheduler.Firing;
+import jfxtras.labs.icalendar.mocks.VEventMock;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Daily;
+
+public class ICalendarAlarmTest extends ICalendarTestAbstract
+{
+    /** Clock advanced by hand */
+    private static class FakeClock extends Clock
+    {
+        private Instant instant;
+        FakeClock(LocalDateTime dateTime) { instant = dateTime.toInstant(ZoneOffset.UTC); }
+        void set(LocalDateTime dateTime) { instant = dateTime.toInstant(ZoneOffset.UTC); }
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { throw new UnsupportedOperationException(); }
+        @Override public Instant instant() { return instant; }
+    }
+
+    private static long millis(LocalDateTime dateTime)
+    {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Test
+    public void canParseVAlarm()
+    {
+        String componentString = "BEGIN:VALARM" + System.lineSeparator()
+                + "TRIGGER;RELATED=END:-PT15M" + System.lineSeparator()
+                + "REPEAT:2" + System.lineSeparator()
+                + "DURATION:PT5M" + System.lineSeparator()
+                + "ACTION:DISPLAY" + System.lineSeparator()
+                + "DESCRIPTION:Breakfast meeting" + System.lineSeparator()
+                + "END:VALARM";
+        VAlarm vAlarm = VAlarm.parse(componentString);
+        assertEquals(Duration.ofMinutes(-15), vAlarm.getTrigger());
+        assertTrue(vAlarm.isRelatedToEnd());
+        assertEquals(2, vAlarm.getRepeat());
+        assertEquals(Duration.ofMinutes(5), vAlarm.getDuration());
+        assertEquals("Breakfast meeting", vAlarm.getDescription());
+        String expectedString = "BEGIN:VALARM" + System.lineSeparator()
+                + "ACTION:DISPLAY" + System.lineSeparator()
+                + "TRIGGER;RELATED=END:-PT15M" + System.lineSeparator()
+                + "REPEAT:2" + System.lineSeparator()
+                + "DURATION:PT5M" + System.lineSeparator()
+                + "DESCRIPTION:Breakfast meeting" + System.lineSeparator()
+                + "END:VALARM";
+        assertEquals(expectedString, vAlarm.toComponentText());
+
+        VAlarm absoluteVAlarm = VAlarm.parse("BEGIN:VALARM" + System.lineSeparator()
+                + "TRIGGER;VALUE=DATE-TIME:19970317T133000Z" + System.lineSeparator()
+                + "ACTION:AUDIO" + System.lineSeparator()
+                + "END:VALARM");
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(1997, 3, 17, 13, 30), ZoneId.of("Z")).toInstant()
+                , absoluteVAlarm.getTriggerDateTime().toInstant());
+        assertEquals("AUDIO", absoluteVAlarm.getAction());
+
+        assertEquals(Duration.ofDays(-14), VAlarm.parse("TRIGGER:-P2W").getTrigger());
+        assertFalse(new VAlarm().withRepeat(1).withTrigger(Duration.ZERO).isValid());
+    }
+
+    /** Tests triggers of two repeatable events and an individual event fire in order as the clock advances */
+    @Test
+    public void canFireAlarmsInOrder()
+    {
+        FakeClock clock = new FakeClock(LocalDateTime.of(2015, 11, 10, 0, 0));
+        List<Firing> firings = new ArrayList<>();
+        VAlarmScheduler scheduler = new VAlarmScheduler(clock, ZoneOffset.UTC, firings::add);
+
+        VEventMock daily = getDaily2(); // 10:00 to 11:30 every 3 days from 11/9, 6 times
+        scheduler.arm(daily, new VAlarm()
+                .withTrigger(Duration.ofMinutes(-15)));
+        scheduler.arm(daily, new VAlarm()
+                .withTrigger(Duration.ZERO)
+                .withRelatedToEnd(true));
+        VEventMock individual = getIndividual1(); // 11/11 10:30 to 11:30
+        scheduler.arm(individual, new VAlarm()
+                .withTrigger(Duration.ofMinutes(-10))
+                .withRepeat(2)
+                .withDuration(Duration.ofMinutes(5)));
+        scheduler.arm(individual, new VAlarm()
+                .withTriggerDateTime(ZonedDateTime.of(LocalDateTime.of(2015, 11, 12, 8, 0), ZoneOffset.UTC)));
+        assertEquals(4, scheduler.size());
+
+        clock.set(LocalDateTime.of(2015, 11, 12, 0, 0));
+        assertEquals(3, scheduler.advance()); // individual and its repetitions, daily 11/9 was past when armed
+        clock.set(LocalDateTime.of(2015, 11, 13, 0, 0));
+        assertEquals(3, scheduler.advance());
+        clock.set(LocalDateTime.of(2015, 12, 1, 0, 0));
+        assertEquals(8, scheduler.advance());
+        assertEquals(0, scheduler.size());
+
+        List<Long> expectedTriggers = new ArrayList<>();
+        expectedTriggers.add(millis(LocalDateTime.of(2015, 11, 11, 10, 20)));
+        expectedTriggers.add(millis(LocalDateTime.of(2015, 11, 11, 10, 25)));
+        expectedTriggers.add(millis(LocalDateTime.of(2015, 11, 11, 10, 30)));
+        expectedTriggers.add(millis(LocalDateTime.of(2015, 11, 12, 8, 0)));
+        for (int day : new int[] { 12, 15, 18, 21, 24 })
+        {
+            expectedTriggers.add(millis(LocalDateTime.of(2015, 11, day, 9, 45)));
+            expectedTriggers.add(millis(LocalDateTime.of(2015, 11, day, 11, 30)));
+        }
+        List<Long> triggers = new ArrayList<>();
+        firings.forEach(f -> triggers.add(f.getTriggerMillis()));
+        assertEquals(expectedTriggers, triggers);
+        assertEquals(LocalDateTime.of(2015, 11, 24, 10, 0), firings.get(firings.size() - 1).getOccurrence());
+    }
+
+    /** Tests repetitions and cancelling */
+    @Test
+    public void canRepeatAndCancelAlarms()
+    {
+        FakeClock clock = new FakeClock(LocalDateTime.of(2015, 11, 1, 0, 0));
+        List<Firing> firings = new ArrayList<>();
+        VAlarmScheduler scheduler = new VAlarmScheduler(clock, ZoneOffset.UTC, firings::add);
+        VAlarmScheduler.Armed individual = scheduler.arm(getIndividual1(), new VAlarm()
+                .withTrigger(Duration.ofMinutes(-10))
+                .withRepeat(2)
+                .withDuration(Duration.ofMinutes(5)));
+        VAlarmScheduler.Armed daily = scheduler.arm(getDaily2(), new VAlarm()
+                .withTrigger(Duration.ofHours(-1)));
+        assertEquals(millis(LocalDateTime.of(2015, 11, 9, 9, 0)), daily.nextTriggerMillis());
+
+        clock.set(LocalDateTime.of(2015, 11, 11, 10, 25)); // between repetitions
+        assertEquals(3, scheduler.advance()); // daily 11/9 and first two of individual
+        assertEquals(1, firings.get(2).getRepetition());
+        assertTrue(daily.cancel());
+        assertFalse(daily.isArmed());
+        assertFalse(daily.cancel());
+        clock.set(LocalDateTime.of(2015, 12, 1, 0, 0));
+        assertEquals(1, scheduler.advance());
+        assertEquals(2, firings.get(3).getRepetition());
+        assertFalse(individual.isArmed());
+        assertEquals(0, scheduler.size());
+    }
+
+    /** Tests tens of thousands of daily reminders fire in order without making their future occurrences */
+    @Test
+    public void canFireManyRecurringAlarms()
+    {
+        int events = 20_000;
+        int days = 7;
+        LocalDateTime start = LocalDateTime.of(2016, 1, 1, 0, 0);
+        FakeClock clock = new FakeClock(start);
+        long[] last = { Long.MIN_VALUE };
+        int[] outOfOrder = { 0 };
+        VAlarmScheduler scheduler = new VAlarmScheduler(clock, ZoneOffset.UTC, f ->
+        {
+            if (f.getTriggerMillis() < last[0]) outOfOrder[0]++;
+            last[0] = f.getTriggerMillis();
+        });
+        for (int i=0; i<events; i++)
+        {
+            VEventMock vEvent = new VEventMock()
+                    .withDateTimeStart(start.minusYears(1).plusMinutes(i % 1440).plusSeconds(1 + i % 7)) // no trigger on window boundaries
+                    .withDuration(Duration.ofMinutes(30))
+                    .withUniqueIdentifier(i + "@jfxtras.org")
+                    .withRRule(new RRule()
+                            .withFrequency(new Daily()));
+            scheduler.arm(vEvent, new VAlarm().withTrigger(Duration.ofMinutes(-15)));
+        }
+        assertEquals(events, scheduler.size());
+
+        int fired = 0;
+        for (int minute=1; minute<=days*1440; minute++)
+        {
+            clock.set(start.plusMinutes(minute));
+            fired += scheduler.advance();
+        }
+        assertEquals(events * days, fired);
+        assertEquals(0, outOfOrder[0]);
+        assertEquals(events, scheduler.size());
+    }
+}
@@ -1,6 +1,9 @@
 package jfxtras.labs.icalendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.time.DayOfWeek;
 import java.time.Duration;
@@ -22,10 +25,19 @@ import java.util.stream.Stream;
 
 import org.junit.Test;
 
+import javafx.beans.property.SimpleObjectProperty;
 import jfxtras.labs.icalendar.DateTimeUtilities.DateTimeType;
 import jfxtras.labs.icalendar.mocks.VEventMock;
+import jfxtras.labs.icalendar.properties.recurrence.RDate;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDayBuffer;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.EpochDays;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByDay;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByDay.ByDayPair;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByMonthDay;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.BySetPosition;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Daily;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Monthly;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Weekly;
 import jfxtras.scene.control.agenda.TemporalUtilities;
 
@@ -224,6 +236,35 @@ public class ICalendarDateTest extends ICalendarTestAbstract
         assertEquals(expectedDates, madeDates);
     }
 
+    /** BYMONTHDAY without days defaults to the day of month of DTSTART, not its month number */
+    @Test
+    public void canDefaultByMonthDayToDayOfDateTimeStart()
+    {
+        VEventMock e = new VEventMock()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 15, 10, 0))
+                .withRRule(new RRule()
+                        .withFrequency(new Monthly()
+                                .withByRules(new ByMonthDay())));
+        List<Temporal> madeDates = e
+                .stream(e.getDateTimeStart())
+                .limit(3)
+                .collect(Collectors.toList());
+        List<LocalDateTime> expectedDates = new ArrayList<LocalDateTime>(Arrays.asList(
+                LocalDateTime.of(2015, 11, 15, 10, 0)
+              , LocalDateTime.of(2015, 12, 15, 10, 0)
+              , LocalDateTime.of(2016, 1, 15, 10, 0)
+                ));
+        assertEquals(expectedDates, madeDates);
+
+        // Temporal stream path
+        Stream<Temporal> months = Stream.iterate((Temporal) LocalDateTime.of(2015, 11, 1, 10, 0), t -> t.plus(1, ChronoUnit.MONTHS));
+        List<Temporal> madeDates2 = new ByMonthDay()
+                .stream(months, new SimpleObjectProperty<>(ChronoUnit.MONTHS), LocalDateTime.of(2015, 11, 15, 10, 0))
+                .limit(3)
+                .collect(Collectors.toList());
+        assertEquals(expectedDates, madeDates2);
+    }
+
     /** Tests daily stream with FREQ=MONTHLY;BYMONTHDAY=-2 */
     @Test
     public void monthlyStreamTest2()
@@ -708,6 +749,77 @@ public class ICalendarDateTest extends ICalendarTestAbstract
         assertEquals(expectedDates, madeDates);
     }
     
+    /** Tests merging RDATEs that aren't sorted when added into a RRULE stream that starts after DTSTART */
+    @Test
+    public void canStreamRDateFromStart()
+    {
+        VEventMock e = getDaily2()
+                .withRDate(new RDate(LocalDateTime.of(2015, 11, 30, 10, 0)
+                                   , LocalDateTime.of(2015, 11, 5, 10, 0)
+                                   , LocalDateTime.of(2015, 11, 15, 10, 0) // same as RRULE
+                                   , LocalDateTime.of(2015, 11, 13, 8, 0)));
+        List<Temporal> madeDates = e
+                .stream(LocalDateTime.of(2015, 11, 12, 0, 0))
+                .collect(Collectors.toList());
+        List<LocalDateTime> expectedDates = new ArrayList<LocalDateTime>(Arrays.asList(
+                LocalDateTime.of(2015, 11, 12, 10, 0)
+              , LocalDateTime.of(2015, 11, 13, 8, 0)
+              , LocalDateTime.of(2015, 11, 15, 10, 0)
+              , LocalDateTime.of(2015, 11, 18, 10, 0)
+              , LocalDateTime.of(2015, 11, 21, 10, 0)
+              , LocalDateTime.of(2015, 11, 24, 10, 0)
+              , LocalDateTime.of(2015, 11, 30, 10, 0)
+                ));
+        assertEquals(expectedDates, madeDates);
+        
+        List<Temporal> expectedRDates = new ArrayList<>(Arrays.asList(
+                LocalDateTime.of(2015, 11, 5, 10, 0)
+              , LocalDateTime.of(2015, 11, 13, 8, 0)
+              , LocalDateTime.of(2015, 11, 15, 10, 0)
+              , LocalDateTime.of(2015, 11, 30, 10, 0)
+                ));
+        assertEquals(expectedRDates, new ArrayList<>(e.getRDate().getTemporals()));
+    }
+    
+    /** Tests recurrence summary is recalculated when the recurrence set changes */
+    @Test
+    public void canCacheRecurrenceSummary()
+    {
+        VEventMock e = getDaily2();
+        assertTrue(e.recurrenceSummary() == e.recurrenceSummary());
+        assertEquals(LocalDateTime.of(2015, 11, 9, 10, 0), e.recurrenceSummary().first());
+        assertEquals(LocalDateTime.of(2015, 11, 24, 10, 0), e.lastRecurrence());
+        assertEquals(6, e.recurrenceSummary().count());
+        assertFalse(e.isIndividual());
+        assertTrue(e.isLastRecurrence(LocalDateTime.of(2015, 11, 24, 10, 0)));
+        assertFalse(e.isLastRecurrence(LocalDateTime.of(2015, 11, 21, 10, 0)));
+        assertTrue(e.isStreamValue(LocalDateTime.of(2015, 11, 15, 10, 0)));
+        assertFalse(e.isStreamValue(LocalDateTime.of(2015, 11, 16, 10, 0)));
+        assertFalse(e.isStreamValue(LocalDateTime.of(2015, 11, 27, 10, 0)));
+
+        e.getRRule().setCount(3); // in-place change to RRULE
+        assertEquals(LocalDateTime.of(2015, 11, 15, 10, 0), e.lastRecurrence());
+        assertEquals(3, e.recurrenceSummary().count());
+
+        e.setRDate(new RDate(LocalDateTime.of(2015, 11, 20, 10, 0))); // replaced RDATE
+        assertEquals(LocalDateTime.of(2015, 11, 20, 10, 0), e.lastRecurrence());
+        e.getRDate().getTemporals().add(LocalDateTime.of(2015, 11, 22, 10, 0)); // in-place change to RDATE
+        assertEquals(LocalDateTime.of(2015, 11, 22, 10, 0), e.lastRecurrence());
+        assertEquals(5, e.recurrenceSummary().count());
+
+        e.setDateTimeStart(LocalDateTime.of(2015, 11, 23, 10, 0));
+        e.setRRule(null);
+        e.setRDate(null);
+        assertTrue(e.isIndividual());
+        assertEquals(LocalDateTime.of(2015, 11, 23, 10, 0), e.lastRecurrence());
+        
+        e.setRRule(new RRule().withFrequency(new Daily()));
+        assertFalse(e.isIndividual());
+        assertEquals(null, e.lastRecurrence());
+        assertEquals(-1, e.recurrenceSummary().count());
+        assertFalse(e.isLastRecurrence(LocalDateTime.of(2015, 11, 24, 10, 0)));
+    }
+    
     @Test
     public void getWeekly2ChangeRange()
     {
@@ -1308,4 +1420,343 @@ public class ICalendarDateTest extends ICalendarTestAbstract
         }
     }
 
+    /** Tests seeking a FREQ=DAILY stream three years after DTSTART */
+    @Test
+    public void canSeekDailyStream()
+    {
+        VEventMock e = getDaily1();
+        List<Temporal> madeDates = e
+                .stream(LocalDateTime.of(2018, 11, 20, 0, 0))
+                .limit(3)
+                .collect(Collectors.toList());
+        List<LocalDateTime> expectedDates = new ArrayList<LocalDateTime>(Arrays.asList(
+                LocalDateTime.of(2018, 11, 20, 10, 0)
+              , LocalDateTime.of(2018, 11, 21, 10, 0)
+              , LocalDateTime.of(2018, 11, 22, 10, 0)
+                ));
+        assertEquals(expectedDates, madeDates);
+    }
+    
+    /** Tests seeking produces the same date/times as iterating from DTSTART for rules with BYxxx expansions */
+    @Test
+    public void canSeekStreamWithByRules()
+    {
+        List<VEventMock> vEvents = Arrays.asList(getYearly2(), getYearly3(), getYearly4(), getMonthly2()
+                , getMonthly3(), getMonthly4(), getMonthly5(), getWeekly2(), getDaily4(), getDaily5());
+        LocalDateTime start = LocalDateTime.of(2019, 2, 14, 0, 0);
+        for (VEventMock e : vEvents)
+        {
+            List<Temporal> expectedDates = e.getRRule()
+                    .stream(e.getDateTimeStart())
+                    .filter(t -> ! DateTimeUtilities.isBefore(t, start))
+                    .limit(20)
+                    .collect(Collectors.toList());
+            List<Temporal> madeDates = e
+                    .stream(start)
+                    .limit(20)
+                    .collect(Collectors.toList());
+            assertEquals(expectedDates, madeDates);
+        }
+    }
+
+    /** Tests seeking a COUNT limited stream FREQ=DAILY;INTERVAL=3;COUNT=6 */
+    @Test
+    public void canSeekCountStream()
+    {
+        VEventMock e = getDaily2();
+        List<Temporal> madeDates = e
+                .stream(LocalDateTime.of(2015, 11, 20, 0, 0))
+                .collect(Collectors.toList());
+        List<LocalDateTime> expectedDates = new ArrayList<LocalDateTime>(Arrays.asList(
+                LocalDateTime.of(2015, 11, 21, 10, 0)
+              , LocalDateTime.of(2015, 11, 24, 10, 0)
+                ));
+        assertEquals(expectedDates, madeDates);
+        assertEquals(0, e.stream(LocalDateTime.of(2016, 1, 1, 0, 0)).count());
+    }
+
+    /** Tests COUNT limited stream with BYxxx rules resumes from recorded checkpoints
+     * FREQ=WEEKLY;COUNT=300;BYDAY=MO,WE,FR */
+    @Test
+    public void canResumeCountStreamFromCheckpoint()
+    {
+        VEventMock e = new VEventMock()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 9, 10, 0))
+                .withRRule(new RRule()
+                        .withCount(300)
+                        .withFrequency(new Weekly()
+                                .withByRules(new ByDay(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY))));
+        List<Temporal> allDates = e.stream(e.getDateTimeStart()).collect(Collectors.toList());
+        assertEquals(300, allDates.size());
+        assertTrue(e.recurrenceIndex().size() > 0);
+        
+        LocalDateTime start = LocalDateTime.of(2016, 12, 25, 0, 0);
+        List<Temporal> expectedDates = allDates
+                .stream()
+                .filter(t -> ! DateTimeUtilities.isBefore(t, start))
+                .collect(Collectors.toList());
+        List<Temporal> madeDates = e.stream(start).collect(Collectors.toList());
+        assertEquals(expectedDates, madeDates);
+        assertEquals(0, e.stream(LocalDateTime.of(2018, 1, 1, 0, 0)).count());
+    }
+
+    /** Tests previousStreamValue far from DTSTART, repeated lookups find the same value */
+    @Test
+    public void canFindPreviousStreamValueWithCheckpoints()
+    {
+        VEventMock e = getWeekly2(); // FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR
+        LocalDateTime value = LocalDateTime.of(2019, 6, 5, 10, 0);
+        LocalDateTime expected = LocalDateTime.of(2019, 6, 3, 10, 0);
+        assertEquals(expected, e.previousStreamValue(value));
+        assertEquals(expected, e.previousStreamValue(value));
+        assertEquals(LocalDateTime.of(2019, 5, 24, 10, 0), e.previousStreamValue(expected));
+    }
+
+    /** Tests previousStreamValue of a COUNT limited rule with BYxxx parts resumes from checkpoints */
+    @Test
+    public void canFindPreviousStreamValueWithCheckpointsAndCount()
+    {
+        VEventMock e = getWeekly2(); // FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR
+        e.getRRule().setCount(500);
+        LocalDateTime value = LocalDateTime.of(2019, 6, 5, 10, 0);
+        LocalDateTime expected = LocalDateTime.of(2019, 6, 3, 10, 0);
+        assertEquals(expected, e.previousStreamValue(value));
+        assertTrue(e.recurrenceIndex().size() > 0);
+        assertEquals(expected, e.previousStreamValue(value));
+        assertEquals(LocalDateTime.of(2019, 5, 24, 10, 0), e.previousStreamValue(expected));
+        assertNull(e.previousStreamValue(LocalDateTime.of(2015, 11, 9, 10, 0)));
+    }
+
+    /** Tests checkpoints of a COUNT limited rule are discarded when COUNT changes */
+    @Test
+    public void canInvalidateCheckpointsWithCount()
+    {
+        VEventMock e = getWeekly2(); // FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR
+        e.getRRule().setCount(500);
+        e.previousStreamValue(LocalDateTime.of(2017, 1, 1, 0, 0));
+        assertTrue(e.recurrenceIndex().size() > 0);
+
+        e.getRRule().setCount(10);
+        assertEquals(0, e.recurrenceIndex().size());
+        assertEquals(LocalDateTime.of(2015, 12, 23, 10, 0), e.previousStreamValue(LocalDateTime.of(2017, 1, 1, 0, 0))); // 10th and last
+    }
+
+    /** Tests previous stream value of infinite rules is found by seeking, without replaying from DTSTART */
+    @Test
+    public void canSeekPreviousStreamValue()
+    {
+        VEventMock e = getWeekly2(); // FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR
+        assertEquals(LocalDateTime.of(2019, 6, 3, 10, 0), e.previousStreamValue(LocalDateTime.of(2019, 6, 5, 10, 0)));
+        assertEquals(LocalDateTime.of(2019, 5, 24, 10, 0), e.previousStreamValue(LocalDateTime.of(2019, 6, 3, 10, 0)));
+
+        VEventMock e2 = getDaily2(); // FREQ=DAILY;INTERVAL=3;COUNT=6
+        assertEquals(LocalDateTime.of(2015, 11, 24, 10, 0), e2.previousStreamValue(LocalDateTime.of(2016, 1, 1, 10, 0)));
+        assertEquals(LocalDateTime.of(2015, 11, 12, 10, 0), e2.previousStreamValue(LocalDateTime.of(2015, 11, 15, 10, 0)));
+        assertNull(e2.previousStreamValue(LocalDateTime.of(2015, 11, 9, 10, 0)));
+    }
+
+    /** Tests previousStreamValue follows changes to DTSTART and RRULE */
+    @Test
+    public void canInvalidateCheckpoints()
+    {
+        VEventMock e = getWeekly2(); // FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR
+        assertEquals(LocalDateTime.of(2016, 12, 23, 10, 0), e.previousStreamValue(LocalDateTime.of(2017, 1, 1, 0, 0)));
+        
+        ByDay byDay = (ByDay) e.getRRule().getFrequency().byRules().get(0);
+        byDay.removeDayOfWeek(DayOfWeek.FRIDAY);
+        assertEquals(LocalDateTime.of(2016, 12, 21, 10, 0), e.previousStreamValue(LocalDateTime.of(2017, 1, 1, 0, 0)));
+        
+        e.getRRule().getFrequency().setInterval(1);
+        assertEquals(LocalDateTime.of(2016, 12, 28, 10, 0), e.previousStreamValue(LocalDateTime.of(2017, 1, 1, 0, 0)));
+        e.setDateTimeStart(LocalDateTime.of(2015, 11, 10, 10, 0));
+        assertEquals(LocalDateTime.of(2016, 12, 28, 10, 0), e.previousStreamValue(LocalDateTime.of(2017, 1, 1, 0, 0)));
+        e.setDateTimeStart(LocalDateTime.of(2017, 1, 1, 10, 0));
+        assertNull(e.previousStreamValue(LocalDateTime.of(2017, 1, 1, 0, 0)));
+    }
+
+    /** Tests recurrences are removed from stream after being added, changed and removed */
+    @Test
+    public void canKeepRecurrenceIndexInSync()
+    {
+        RRule rRule = new RRule().withFrequency(new Daily());
+        LocalDateTime dtStart = LocalDateTime.of(2015, 11, 9, 10, 0);
+        VEventMock recurrence = new VEventMock().withDateTimeRecurrence(LocalDateTime.of(2015, 11, 10, 10, 0));
+        rRule.recurrences().add(recurrence);
+        List<Temporal> expectedDates = Arrays.asList(LocalDateTime.of(2015, 11, 9, 10, 0), LocalDateTime.of(2015, 11, 11, 10, 0));
+        assertEquals(expectedDates, rRule.stream(dtStart).limit(2).collect(Collectors.toList()));
+
+        recurrence.setDateTimeRecurrence(LocalDateTime.of(2015, 11, 9, 10, 0));
+        expectedDates = Arrays.asList(LocalDateTime.of(2015, 11, 10, 10, 0), LocalDateTime.of(2015, 11, 11, 10, 0));
+        assertEquals(expectedDates, rRule.stream(dtStart).limit(2).collect(Collectors.toList()));
+
+        rRule.recurrences().remove(recurrence);
+        expectedDates = Arrays.asList(LocalDateTime.of(2015, 11, 9, 10, 0), LocalDateTime.of(2015, 11, 10, 10, 0));
+        assertEquals(expectedDates, rRule.stream(dtStart).limit(2).collect(Collectors.toList()));
+    }
+
+    /** Tests epoch recurrence engine makes the same date/times as the Temporal stream */
+    @Test
+    public void canMakeEpochStream()
+    {
+        List<VEventMock> events = Arrays.asList(getYearly1(), getYearly2(), getYearly3(), getYearly4(),
+                getYearly5(), getYearly6(), getYearly7(), getYearly8(), getMonthly1(), getMonthly2(),
+                getMonthly3(), getMonthly4(), getMonthly5(), getMonthly6(), getMonthly7(), getWeekly1(),
+                getWeekly2(), getWeekly3(), getWeekly4(), getWeekly5(), getWeeklyZoned(), getDaily1(),
+                getDaily2(), getDaily3(), getDaily4(), getDaily5(), getDaily6(), getDaily7(), getDailyUTC(),
+                getDailyJapanZone(), getWholeDayDaily1(), getWholeDayDaily2(), getWholeDayDaily3());
+        for (VEventMock e : events)
+        {
+            if (e.getRRule() == null) continue;
+            Temporal dtStart = e.getDateTimeStart();
+            List<Long> expectedEpochs = e.getRRule().stream(dtStart)
+                    .limit(200)
+                    .map(t -> EpochDays.toEpoch(t))
+                    .collect(Collectors.toList());
+            List<Long> madeEpochs = e.getRRule().epochStream(dtStart)
+                    .limit(200)
+                    .boxed()
+                    .collect(Collectors.toList());
+            assertEquals(e.getRRule().toString(), expectedEpochs, madeEpochs);
+
+            Temporal start = dtStart.plus(400, ChronoUnit.DAYS);
+            expectedEpochs = e.stream(start)
+                    .limit(50)
+                    .map(t -> EpochDays.toEpoch(t))
+                    .collect(Collectors.toList());
+            madeEpochs = e.epochStream(start)
+                    .limit(50)
+                    .boxed()
+                    .collect(Collectors.toList());
+            assertEquals(e.getRRule().toString(), expectedEpochs, madeEpochs);
+        }
+    }
+
+    /** Tests epoch day calendar math matches LocalDate */
+    @Test
+    public void canDoEpochDayMath()
+    {
+        for (long day = LocalDate.of(1899, 12, 1).toEpochDay(); day < LocalDate.of(2101, 2, 1).toEpochDay(); day++)
+        {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            assertEquals(date.getYear(), EpochDays.year(day));
+            assertEquals(date.getMonthValue(), EpochDays.monthOfYear(day));
+            assertEquals(date.getDayOfMonth(), EpochDays.dayOfMonth(day));
+            assertEquals(date.getDayOfWeek().getValue(), EpochDays.dayOfWeek(day));
+            assertEquals(date.lengthOfMonth(), EpochDays.lengthOfMonth(day));
+            assertEquals(day, EpochDays.of(date.getYear(), date.getMonthValue(), date.getDayOfMonth()));
+            assertEquals(date.plusMonths(13).toEpochDay(), EpochDays.plusMonths(day, 13));
+            assertEquals(date.minusMonths(1).toEpochDay(), EpochDays.plusMonths(day, -1));
+        }
+    }
+
+    /** Tests BYSETPOS with RFC 5545 examples, in both the Temporal and epoch streams */
+    @Test
+    public void canStreamBySetPosition()
+    {
+        ZoneId zone = ZoneId.of("America/New_York");
+        VEventMock e = new VEventMock()
+                .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(1997, 9, 4, 9, 0), zone))
+                .withDuration(Duration.ofHours(1))
+                .withRRule(new RRule("FREQ=MONTHLY;COUNT=3;BYDAY=TU,WE,TH;BYSETPOS=3"));
+        List<Temporal> expectedDates = new ArrayList<>(Arrays.asList(
+                ZonedDateTime.of(LocalDateTime.of(1997, 9, 4, 9, 0), zone)
+              , ZonedDateTime.of(LocalDateTime.of(1997, 10, 7, 9, 0), zone)
+              , ZonedDateTime.of(LocalDateTime.of(1997, 11, 6, 9, 0), zone)
+                ));
+        assertEquals(expectedDates, e.stream(e.getDateTimeStart()).collect(Collectors.toList()));
+        assertEquals(expectedDates.stream().map(t -> EpochDays.toEpoch(t)).collect(Collectors.toList())
+                , e.getRRule().epochStream(e.getDateTimeStart()).boxed().collect(Collectors.toList()));
+
+        VEventMock e2 = new VEventMock() // second-to-last weekday of the month
+                .withDateTimeStart(LocalDateTime.of(1997, 9, 29, 9, 0))
+                .withDuration(Duration.ofHours(1))
+                .withRRule(new RRule("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-2"));
+        List<Temporal> expectedDates2 = new ArrayList<>(Arrays.asList(
+                LocalDateTime.of(1997, 9, 29, 9, 0)
+              , LocalDateTime.of(1997, 10, 30, 9, 0)
+              , LocalDateTime.of(1997, 11, 27, 9, 0)
+              , LocalDateTime.of(1997, 12, 30, 9, 0)
+              , LocalDateTime.of(1998, 1, 29, 9, 0)
+              , LocalDateTime.of(1998, 2, 26, 9, 0)
+              , LocalDateTime.of(1998, 3, 30, 9, 0)
+                ));
+        assertEquals(expectedDates2, e2.stream(e2.getDateTimeStart()).limit(7).collect(Collectors.toList()));
+
+        VEventMock e3 = new VEventMock() // first and last weekday of March
+                .withDateTimeStart(LocalDate.of(2016, 1, 1))
+                .withDateTimeEnd(LocalDate.of(2016, 1, 2))
+                .withRRule(new RRule("FREQ=YEARLY;BYMONTH=3;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=1,-1"));
+        List<Temporal> expectedDates3 = new ArrayList<>(Arrays.asList(
+                LocalDate.of(2016, 3, 1)
+              , LocalDate.of(2016, 3, 31)
+              , LocalDate.of(2017, 3, 1)
+              , LocalDate.of(2017, 3, 31)
+                ));
+        assertEquals(expectedDates3, e3.stream(e3.getDateTimeStart()).limit(4).collect(Collectors.toList()));
+        assertEquals("BYSETPOS=1,-1", new BySetPosition("1,-1").toString());
+    }
+
+    /** Tests BYSETPOS selects from one period's set in the Temporal stream */
+    @Test
+    public void canSelectSetPositions()
+    {
+        Stream<Temporal> period = Stream.of(LocalDate.of(2016, 3, 9), LocalDate.of(2016, 3, 2), LocalDate.of(2016, 3, 16), LocalDate.of(2016, 3, 23));
+        List<Temporal> dates = new BySetPosition(2, -1)
+                .stream(period, new SimpleObjectProperty<>(ChronoUnit.DAYS), LocalDate.of(2016, 1, 1))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(LocalDate.of(2016, 3, 9), LocalDate.of(2016, 3, 23)), dates);
+    }
+
+    /** Tests the BYDAY expansion tables make the same days as the Temporal stream, for every shape of month and year */
+    @Test
+    public void canExpandByDayTables()
+    {
+        EpochDayBuffer buffer = new EpochDayBuffer();
+        LocalDate start = LocalDate.of(2015, 1, 15);
+        int[][] ordinals = { { 0, 1, 2, 5, -1, -2, -5 }, { 0, 1, 20, 52, 53, -1, -53 } };
+        ChronoUnit[] units = { ChronoUnit.MONTHS, ChronoUnit.YEARS };
+        for (int u=0; u<units.length; u++)
+        {
+            for (int ordinal : ordinals[u])
+            {
+                for (DayOfWeek dayOfWeek : DayOfWeek.values())
+                {
+                    ByDay byDay = new ByDay(new ByDayPair(dayOfWeek, ordinal));
+                    for (int period=0; period<30; period++)
+                    {
+                        LocalDate periodStart = start.plus(period, units[u]);
+                        List<Long> expectedDays = byDay.stream(Stream.of(periodStart), new SimpleObjectProperty<>(units[u]), start)
+                                .map(t -> ((LocalDate) t).toEpochDay())
+                                .collect(Collectors.toList());
+                        buffer.reset(periodStart.toEpochDay());
+                        byDay.expandEpochDays(buffer, units[u], start.toEpochDay());
+                        buffer.swap();
+                        List<Long> days = new ArrayList<>();
+                        for (int i=0; i<buffer.size(); i++) days.add(buffer.get(i));
+                        assertEquals(byDay + " " + periodStart, expectedDays, days);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Tests seeking a LocalDateTime FREQ=DAILY stream with a LocalDate range start */
+    @Test
+    public void canSeekStreamWithMixedTypeRangeStart()
+    {
+        VEventMock e = getDaily1();
+        LocalDate rangeStart = LocalDate.of(2018, 11, 20);
+        assertEquals(1105, e.getRRule().getFrequency().seekPeriod(e.getDateTimeStart(), rangeStart));
+        List<Temporal> madeDates = e.getRRule()
+                .streamFrom(e.getDateTimeStart(), rangeStart)
+                .filter(t -> ! DateTimeUtilities.isBefore(t, rangeStart.atStartOfDay()))
+                .limit(2)
+                .collect(Collectors.toList());
+        List<LocalDateTime> expectedDates = new ArrayList<LocalDateTime>(Arrays.asList(
+                LocalDateTime.of(2018, 11, 20, 10, 0)
+              , LocalDateTime.of(2018, 11, 21, 10, 0)
+                ));
+        assertEquals(expectedDates, madeDates);
+    }
+
 }
@@ -1,6 +1,7 @@
 package jfxtras.labs.icalendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.time.DayOfWeek;
@@ -22,7 +23,12 @@ import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import javafx.beans.InvalidationListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import jfxtras.labs.icalendar.ICalendarUtilities.ChangeDialogOption;
+import jfxtras.labs.icalendar.components.InstanceChanges;
 import jfxtras.labs.icalendar.components.VComponent;
 import jfxtras.labs.icalendar.mocks.InstanceMock;
 import jfxtras.labs.icalendar.mocks.VEventMock;
@@ -631,5 +637,102 @@ public class ICalendarEditTest extends ICalendarTestAbstract
                                 .withByRules(new ByDay(DayOfWeek.MONDAY, DayOfWeek.FRIDAY))));
         assertTrue(VEventMock.isEqualTo(expectedVEvent, vEvent));
     }
-    
+
+    /**
+     * Tests THIS_AND_FUTURE edit keeps the previous instances, updated in place, and changes
+     * the list of all instances once
+     */
+    @Test
+    public void canEditThisAndFutureInPlace()
+    {
+        VEventMock vEvent = getDaily1();
+        List<VComponent<InstanceMock>> vComponents = new ArrayList<>(Arrays.asList(vEvent));
+        LocalDateTime start = LocalDateTime.of(2015, 11, 15, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2015, 11, 22, 0, 0);
+        ObservableList<InstanceMock> instances = FXCollections.observableArrayList(vEvent.makeInstances(start, end));
+        List<InstanceMock> previousInstances = new ArrayList<>(instances);
+        VEventMock vEventOriginal = new VEventMock(vEvent);
+        int[] changeCount = { 0 };
+        instances.addListener((InvalidationListener) (obs) -> changeCount[0]++);
+
+        vEvent.handleEdit(
+                vEventOriginal
+              , vComponents
+              , LocalDateTime.of(2015, 11, 17, 10, 0)
+              , LocalDateTime.of(2015, 11, 17, 9, 45)
+              , LocalDateTime.of(2015, 11, 17, 10, 30)
+              , instances
+              , (m) -> ChangeDialogOption.THIS_AND_FUTURE);
+
+        assertEquals(0, changeCount[0]); // all instances updated in place
+        assertEquals(7, instances.size());
+        for (InstanceMock previousInstance : previousInstances)
+        { // same objects, updated
+            assertTrue(instances.stream().anyMatch(a -> a == previousInstance));
+        }
+        List<Temporal> madeDates = instances.stream()
+                .map(a -> a.getStartTemporal())
+                .sorted()
+                .collect(Collectors.toList());
+        List<Temporal> expectedDates = new ArrayList<Temporal>(Arrays.asList(
+                LocalDateTime.of(2015, 11, 15, 10, 0)
+              , LocalDateTime.of(2015, 11, 16, 10, 0)
+              , LocalDateTime.of(2015, 11, 17, 9, 45)
+              , LocalDateTime.of(2015, 11, 18, 9, 45)
+              , LocalDateTime.of(2015, 11, 19, 9, 45)
+              , LocalDateTime.of(2015, 11, 20, 9, 45)
+              , LocalDateTime.of(2015, 11, 21, 9, 45)
+                ));
+        assertEquals(expectedDates, madeDates);
+        VComponent<InstanceMock> vEventFuture = vComponents.stream().filter(v -> v != vEventOriginal).findAny().get();
+        assertEquals(5, vEventFuture.instances().size());
+        assertTrue(vEventFuture.instances().stream().allMatch(a -> instances.stream().anyMatch(a2 -> a2 == a)));
+        assertEquals(2, vEventOriginal.instances().size());
+    }
+
+    /** Tests the instances of a shortened series are removed and the new ones are added */
+    @Test
+    public void canMakeInstanceChanges()
+    {
+        VEventMock vEvent = getDaily1();
+        List<InstanceMock> instances = new ArrayList<>(vEvent.makeInstances(LocalDateTime.of(2015, 11, 15, 0, 0), LocalDateTime.of(2015, 11, 22, 0, 0)));
+        InstanceMock other = new InstanceMock(); // instance of another VComponent
+        instances.add(0, other);
+        InstanceChanges<InstanceMock> instanceChanges = new InstanceChanges<>(vEvent.instances());
+        vEvent.getRRule().setCount(9); // ends 11/17
+        instanceChanges.remakeInstances(vEvent).apply(instances);
+
+        assertEquals(0, instanceChanges.addedInstances().size());
+        assertEquals(4, instanceChanges.removedInstances().size());
+        assertEquals(4, instances.size());
+        assertTrue(instances.get(0) == other);
+        assertEquals(LocalDateTime.of(2015, 11, 17, 10, 0), instances.get(3).getStartTemporal());
+    }
+
+    /** Tests an ObservableList of instances gets a remove change for each removed instance, not a replace */
+    @Test
+    public void canMakeObservableInstanceChanges()
+    {
+        VEventMock vEvent = getDaily1();
+        ObservableList<InstanceMock> instances = FXCollections.observableArrayList(vEvent.makeInstances(LocalDateTime.of(2015, 11, 15, 0, 0), LocalDateTime.of(2015, 11, 22, 0, 0)));
+        List<InstanceMock> keptInstances = new ArrayList<>(instances.subList(0, 3));
+        List<InstanceMock> removedInstances = new ArrayList<>();
+        List<InstanceMock> addedInstances = new ArrayList<>();
+        instances.addListener((ListChangeListener<InstanceMock>) (change) ->
+        {
+            while (change.next())
+            {
+                assertFalse(change.wasReplaced());
+                removedInstances.addAll(change.getRemoved());
+                addedInstances.addAll(change.getAddedSubList());
+            }
+        });
+        InstanceChanges<InstanceMock> instanceChanges = new InstanceChanges<>(vEvent.instances());
+        vEvent.getRRule().setCount(9); // ends 11/17
+        instanceChanges.remakeInstances(vEvent).apply(instances);
+
+        assertEquals(4, removedInstances.size());
+        assertEquals(0, addedInstances.size());
+        assertEquals(keptInstances, instances);
+    }
 }
@@ -0,0 +1,155 @@
+package jfxtras.labs.icalendar;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+import org.junit.Test;
+
+import jfxtras.labs.icalendar.components.VComponent;
+import jfxtras.labs.icalendar.components.VFreeBusy;
+import jfxtras.labs.icalendar.mocks.VEventMock;
+import jfxtras.labs.icalendar.properties.recurrence.ExDate;
+
+public class ICalendarFreeBusyTest extends ICalendarTestAbstract
+{
+    private static long epoch(int dayOfMonth, int hour, int minute)
+    {
+        return LocalDateTime.of(2015, 11, dayOfMonth, hour, minute).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Tests merging overlapping busy time of a repeatable and individual VEvents */
+    @Test
+    public void canMakeBusyIntervals()
+    {
+        VEventMock overlapping = new VEventMock()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 12, 11, 0))
+                .withDuration(Duration.ofMinutes(60))
+                .withUniqueIdentifier("overlapping@jfxtras.org");
+        List<VComponent<?>> vComponents = Arrays.asList(getDaily2(), getIndividual1(), overlapping);
+        long[] busy = VFreeBusy.busy(vComponents
+                , LocalDateTime.of(2015, 11, 10, 0, 0)
+                , LocalDateTime.of(2015, 11, 19, 0, 0)
+                , ZoneOffset.UTC);
+        long[] expectedBusy = {
+                epoch(11, 10, 30), epoch(11, 11, 30)
+              , epoch(12, 10, 0), epoch(12, 12, 0)
+              , epoch(15, 10, 0), epoch(15, 11, 30)
+              , epoch(18, 10, 0), epoch(18, 11, 30) };
+        assertArrayEquals(expectedBusy, busy);
+    }
+
+    /** Tests EXDATE and a child with RECURRENCE-ID replacing busy time of the parent */
+    @Test
+    public void canMakeBusyIntervalsWithRecurrence()
+    {
+        VEventMock parent = getDaily2()
+                .withExDate(new ExDate(LocalDateTime.of(2015, 11, 15, 10, 0)));
+        VEventMock child = new VEventMock()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 18, 14, 0))
+                .withDuration(Duration.ofMinutes(60))
+                .withDateTimeRecurrence(LocalDateTime.of(2015, 11, 18, 10, 0))
+                .withUniqueIdentifier(parent.getUniqueIdentifier());
+        long[] busy = VFreeBusy.busy(Arrays.asList(parent, child)
+                , LocalDateTime.of(2015, 11, 12, 11, 0) // partly through an instance
+                , LocalDateTime.of(2015, 11, 19, 0, 0)
+                , ZoneOffset.UTC);
+        long[] expectedBusy = {
+                epoch(12, 11, 0), epoch(12, 11, 30)
+              , epoch(18, 14, 0), epoch(18, 15, 0) };
+        assertArrayEquals(expectedBusy, busy);
+    }
+
+    /** Tests RECURRENCE-ID in UTC and floating replaces an instance of a parent with a zoned DTSTART */
+    @Test
+    public void canMakeBusyIntervalsWithRecurrenceInOtherZone()
+    {
+        ZoneId zone = ZoneId.of("America/New_York");
+        VEventMock parent = getDaily2()
+                .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(2015, 11, 9, 10, 0), zone));
+        long[] expectedBusy = {
+                epoch(12, 15, 0), epoch(12, 16, 30)
+              , epoch(15, 15, 0), epoch(15, 16, 30)
+              , epoch(18, 19, 0), epoch(18, 20, 0) };
+        List<Temporal> dateTimeRecurrences = Arrays.asList(
+                ZonedDateTime.of(LocalDateTime.of(2015, 11, 18, 15, 0), ZoneOffset.UTC)
+              , LocalDateTime.of(2015, 11, 18, 10, 0));
+        for (Temporal dateTimeRecurrence : dateTimeRecurrences)
+        {
+            VEventMock child = new VEventMock()
+                    .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(2015, 11, 18, 14, 0), zone))
+                    .withDuration(Duration.ofMinutes(60))
+                    .withDateTimeRecurrence(dateTimeRecurrence)
+                    .withUniqueIdentifier(parent.getUniqueIdentifier());
+            long[] busy = VFreeBusy.busy(Arrays.asList(parent, child)
+                    , LocalDateTime.of(2015, 11, 12, 0, 0)
+                    , LocalDateTime.of(2015, 11, 19, 0, 0)
+                    , ZoneOffset.UTC);
+            assertArrayEquals(expectedBusy, busy);
+        }
+    }
+
+    /** Tests finding time all attendees are free */
+    @Test
+    public void canFindFreeSlot()
+    {
+        List<VComponent<?>> attendee1 = Arrays.asList(getDaily2());
+        VEventMock meeting = new VEventMock()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 12, 12, 0))
+                .withDuration(Duration.ofMinutes(120))
+                .withUniqueIdentifier("meeting@jfxtras.org");
+        List<VComponent<?>> attendee2 = Arrays.asList(meeting);
+        long[] busy = VFreeBusy.busyOfAny(Arrays.asList(attendee1, attendee2)
+                , LocalDateTime.of(2015, 11, 12, 9, 0)
+                , LocalDateTime.of(2015, 11, 12, 17, 0)
+                , ZoneOffset.UTC);
+        long[] expectedBusy = {
+                epoch(12, 10, 0), epoch(12, 11, 30)
+              , epoch(12, 12, 0), epoch(12, 14, 0) };
+        assertArrayEquals(expectedBusy, busy);
+
+        long[] free = VFreeBusy.free(busy, epoch(12, 9, 0), epoch(12, 17, 0));
+        long[] expectedFree = {
+                epoch(12, 9, 0), epoch(12, 10, 0)
+              , epoch(12, 11, 30), epoch(12, 12, 0)
+              , epoch(12, 14, 0), epoch(12, 17, 0) };
+        assertArrayEquals(expectedFree, free);
+
+        assertEquals(OptionalLong.of(epoch(12, 9, 0)), VFreeBusy.firstFreeSlot(busy, epoch(12, 9, 0), epoch(12, 17, 0), 3600));
+        assertEquals(OptionalLong.of(epoch(12, 14, 0)), VFreeBusy.firstFreeSlot(busy, epoch(12, 9, 30), epoch(12, 17, 0), 3600));
+        assertEquals(OptionalLong.empty(), VFreeBusy.firstFreeSlot(busy, epoch(12, 9, 30), epoch(12, 17, 0), 4 * 3600));
+    }
+
+    @Test
+    public void canMakeVFreeBusyString()
+    {
+        VFreeBusy vFreeBusy = new VFreeBusy(Arrays.asList(getDaily2())
+                , LocalDateTime.of(2015, 11, 12, 0, 0)
+                , LocalDateTime.of(2015, 11, 16, 0, 0)
+                , ZoneOffset.UTC)
+                .withUniqueIdentifier("freebusy@jfxtras.org")
+                .withDateTimeStamp(ZonedDateTime.of(LocalDateTime.of(2015, 11, 1, 8, 0), ZoneOffset.UTC));
+        assertTrue(vFreeBusy.isBusy(epoch(12, 11, 0), epoch(12, 12, 0)));
+        assertFalse(vFreeBusy.isBusy(epoch(12, 11, 30), epoch(15, 10, 0)));
+        String expectedString = "BEGIN:VFREEBUSY" + System.lineSeparator()
+                + "UID:freebusy@jfxtras.org" + System.lineSeparator()
+                + "DTSTAMP:20151101T080000Z" + System.lineSeparator()
+                + "DTSTART:20151112T000000Z" + System.lineSeparator()
+                + "DTEND:20151116T000000Z" + System.lineSeparator()
+                + "FREEBUSY;FBTYPE=BUSY:20151112T100000Z/20151112T113000Z" + System.lineSeparator()
+                + "FREEBUSY;FBTYPE=BUSY:20151115T100000Z/20151115T113000Z" + System.lineSeparator()
+                + "END:VFREEBUSY";
+        assertEquals(expectedString, vFreeBusy.toComponentText());
+    }
+}
@@ -19,6 +19,9 @@ import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import jfxtras.labs.icalendar.components.VComponentIntervalIndex;
 import jfxtras.labs.icalendar.mocks.InstanceMock;
 import jfxtras.labs.icalendar.mocks.VEventMock;
 
@@ -186,4 +189,46 @@ public class ICalendarMakeInstancesTest extends ICalendarTestAbstract
         }
     }
 
+    /** Tests interval index finds the VEvents that can have instances in a range */
+    @Test
+    public void canQueryIntervalIndex()
+    {
+        VEventMock daily1 = getDaily1(); // infinite
+        VEventMock daily2 = getDaily2(); // COUNT=6, ends 2015-11-24
+        VEventMock daily6 = getDaily6(); // UNTIL 2015-12-01
+        VEventMock individual1 = getIndividual1(); // 2015-11-11
+        ObservableList<VEventMock> vEvents = FXCollections.observableArrayList(daily1, daily2, daily6, individual1);
+        VComponentIntervalIndex<VEventMock> index = new VComponentIntervalIndex<>(vEvents);
+        
+        LocalDateTime start = LocalDateTime.of(2016, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2016, 1, 8, 0, 0);
+        assertEquals(Arrays.asList(daily1), index.query(start, end));
+        
+        List<VEventMock> visible = index.query(LocalDateTime.of(2015, 11, 23, 0, 0), LocalDateTime.of(2015, 11, 30, 0, 0));
+        assertEquals(3, visible.size());
+        assertTrue(visible.containsAll(Arrays.asList(daily1, daily2, daily6)));
+        
+        // every VEvent with instances must be found
+        for (LocalDateTime s = LocalDateTime.of(2015, 11, 1, 0, 0); s.isBefore(LocalDateTime.of(2015, 12, 15, 0, 0)); s = s.plusDays(1))
+        {
+            List<VEventMock> found = index.query(s, s.plusDays(1));
+            for (VEventMock v : vEvents)
+            {
+                if (! v.makeInstances(s, s.plusDays(1)).isEmpty()) assertTrue(found.contains(v));
+            }
+        }
+
+        individual1.setDateTimeStart(LocalDateTime.of(2016, 1, 3, 10, 30));
+        visible = index.query(start, end);
+        assertEquals(2, visible.size());
+        assertTrue(visible.contains(individual1));
+
+        daily6.getRRule().setUntil(ZonedDateTime.of(LocalDateTime.of(2016, 2, 1, 9, 59, 59), ZoneOffset.UTC));
+        assertEquals(3, index.query(start, end).size());
+
+        vEvents.remove(daily1);
+        visible = index.query(start, end);
+        assertEquals(2, visible.size());
+        assertTrue(! visible.contains(daily1));
+    }
 }
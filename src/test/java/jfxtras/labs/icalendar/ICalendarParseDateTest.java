@@ -1,10 +1,15 @@
 package jfxtras.labs.icalendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
@@ -82,4 +87,57 @@ public class ICalendarParseDateTest
         Collections.sort(temporals, DateTimeUtilities.TEMPORAL_COMPARATOR);
         assertEquals(expectedTemporals, temporals);
     }
+
+    /** tests the optional VALUE parameter and a UTC value with a TZID */
+    @Test
+    public void canParseWithParameters()
+    {
+        assertEquals(LocalDate.of(1997, 3, 4), DateTimeUtilities.parse("VALUE=DATE:19970304"));
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(1998, 1, 1, 5, 0), ZoneOffset.UTC)
+                , DateTimeUtilities.parse("VALUE=DATE-TIME:19980101T050000Z"));
+        assertEquals(LocalDateTime.of(1998, 1, 1, 5, 0), DateTimeUtilities.parse(" 19980101T050000 "));
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 7, 8, 8, 30), ZoneId.of("Europe/London"))
+                , DateTimeUtilities.parse("TZID=Europe/London:20160708T073000Z"));
+    }
+
+    /** tests malformed strings are rejected */
+    @Test
+    public void canRejectBadDateTime()
+    {
+        for (String string : new String[] { "1998011", "19980119T0200", "19980119X020000", "199801a9"
+                , "VALUE=DATE:19980119T020000", "TZID=Europe/London:20160208", "19981319" })
+        {
+            try
+            {
+                DateTimeUtilities.parse(string);
+                fail(string + " should not parse");
+            } catch (DateTimeException e)
+            {
+                // expected
+            }
+        }
+    }
+
+    /** tests same type comparisons, and ZonedDateTimes by instant across a daylight saving overlap */
+    @Test
+    public void canCompareTemporals()
+    {
+        assertTrue(DateTimeUtilities.isBefore(LocalDate.of(2015, 11, 8), LocalDate.of(2015, 11, 9)));
+        assertTrue(DateTimeUtilities.isAfter(LocalDateTime.of(2015, 11, 9, 10, 1), LocalDateTime.of(2015, 11, 9, 10, 0)));
+        ZoneId zone = ZoneId.of("America/Los_Angeles");
+        ZonedDateTime daylight = ZonedDateTime.ofLocal(LocalDateTime.of(2015, 11, 1, 1, 30), zone, ZoneOffset.ofHours(-7));
+        ZonedDateTime standard = ZonedDateTime.ofLocal(LocalDateTime.of(2015, 11, 1, 1, 10), zone, ZoneOffset.ofHours(-8));
+        assertTrue(DateTimeUtilities.isBefore(daylight, standard));
+        assertFalse(DateTimeUtilities.isAfter(daylight, standard));
+
+        assertTrue(DateTimeUtilities.TEMPORAL_COMPARATOR.compare(LocalDate.of(2015, 11, 9), LocalDate.of(2015, 11, 10)) < 0);
+        assertEquals(0, DateTimeUtilities.TEMPORAL_COMPARATOR.compare(LocalDate.of(2015, 11, 9), LocalDateTime.of(2015, 11, 9, 0, 0)));
+        assertTrue(DateTimeUtilities.TEMPORAL_COMPARATOR.compare(standard, daylight) < 0); // by local date/time
+    }
+
+    @Test (expected = DateTimeException.class)
+    public void canRejectComparingDifferentTypes()
+    {
+        DateTimeUtilities.isBefore(LocalDate.of(2015, 11, 9), LocalDateTime.of(2015, 11, 9, 0, 0));
+    }
 }
@@ -1,24 +1,30 @@
 package jfxtras.labs.icalendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
 import org.junit.Test;
 
 import jfxtras.labs.icalendar.properties.descriptive.Summary;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRuleSpec;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByDay;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByDay.ByDayPair;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByMonth;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByMonthDay;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.byxxx.ByWeekNumber;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Daily;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.FrequencyUtilities.FrequencyEnum;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Monthly;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Weekly;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.freq.Yearly;
 
 public class ICalendarParsePropertyTest extends ICalendarTestAbstract
@@ -67,6 +73,64 @@ public class ICalendarParsePropertyTest extends ICalendarTestAbstract
         assertEquals(expectedRRule, rRule);
     }
 
+    /** tests FREQ is applied first and signed BYDAY ordinals */
+    @Test
+    public void canParseRRule3b()
+    {
+        String s = "BYDAY=-1SU,+2MO;INTERVAL=2;FREQ=MONTHLY";
+        RRule rRule = new RRule(s);
+        RRule expectedRRule = new RRule()
+                .withFrequency(new Monthly()
+                        .withInterval(2)
+                        .withByRules(new ByDay(new ByDayPair(DayOfWeek.SUNDAY, -1), new ByDayPair(DayOfWeek.MONDAY, 2))));
+        assertEquals(expectedRRule, rRule);
+    }
+
+    /** tests identical RRULE values share one parsed spec */
+    @Test
+    public void canInternRRuleSpec()
+    {
+        String s = "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR";
+        RRuleSpec spec = RRuleSpec.of(s);
+        assertSame(spec, RRuleSpec.of(new String(s)));
+        assertEquals(s, spec.toString());
+        assertEquals(new RRule(s), new RRule(new String(s)));
+    }
+
+    /** tests the spec holds the parsed values and each RRule gets its own copy of them */
+    @Test
+    public void canApplyParsedRRuleSpec()
+    {
+        String s = "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;UNTIL=20151201T100000Z";
+        RRuleSpec spec = RRuleSpec.of(s);
+        assertEquals(FrequencyEnum.WEEKLY, spec.getFrequencyType());
+        assertEquals(2, spec.getInterval());
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2015, 12, 1, 10, 0), ZoneOffset.UTC), spec.getUntil());
+        RRule rRule1 = new RRule(s);
+        RRule rRule2 = new RRule(s);
+        assertNotSame(rRule1.getFrequency().byRules().get(0), rRule2.getFrequency().byRules().get(0));
+        ((ByDay) rRule1.getFrequency().byRules().get(0)).addDayOfWeek(DayOfWeek.FRIDAY);
+        RRule expectedRRule = new RRule()
+                .withFrequency(new Weekly()
+                        .withInterval(2)
+                        .withByRules(new ByDay(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY)))
+                .withUntil(ZonedDateTime.of(LocalDateTime.of(2015, 12, 1, 10, 0), ZoneOffset.UTC));
+        assertEquals(expectedRRule, rRule2);
+        assertEquals(expectedRRule, new RRule(s));
+    }
+
+    /** tests empty BYDAY tokens are ignored */
+    @Test
+    public void canParseRRuleWithEmptyByDayTokens()
+    {
+        String s = "FREQ=WEEKLY;BYDAY=MO,,TU,";
+        RRule rRule = new RRule(s);
+        RRule expectedRRule = new RRule()
+                .withFrequency(new Weekly()
+                        .withByRules(new ByDay(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)));
+        assertEquals(expectedRRule, rRule);
+    }
+
     @Test
     public void canParseRRule4()
     {
@@ -2,12 +2,20 @@ package jfxtras.labs.icalendar;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import jfxtras.labs.icalendar.ICalendarParser.EventType;
 import jfxtras.labs.icalendar.mocks.VEventMock;
 
 public class ICalendarReadICSTest
@@ -27,4 +35,87 @@ public class ICalendarReadICSTest
         
         // TODO - TEST EQUALITY ON THE VCOMPONENTS
     }
+    
+    @Test
+    public void canReadYahooICSInParallel()
+    {
+        String fileName = "Yahoo_Sample_Calendar.ics";
+        URL url = getClass().getResource(fileName);
+        Path path = Paths.get(url.getFile());
+        VCalendar vCalendar = new VCalendar()
+                .withVEventCallback((s) -> VEventMock.parse(s));
+        VCalendarUtilities.parseICalendarFile(path, vCalendar);
+        VCalendar vCalendarParallel = new VCalendar()
+                .withVEventCallback((s) -> VEventMock.parse(s));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            VCalendarUtilities.parseICalendarFile(path, vCalendarParallel, pool);
+        } finally
+        {
+            pool.shutdown();
+        }
+        
+        assertEquals(7, vCalendarParallel.vEvents().size());
+        List<String> expectedUIDs = vCalendar.vEvents().stream().map(v -> v.getUniqueIdentifier()).collect(Collectors.toList());
+        List<String> madeUIDs = vCalendarParallel.vEvents().stream().map(v -> v.getUniqueIdentifier()).collect(Collectors.toList());
+        assertEquals(expectedUIDs, madeUIDs);
+        assertEquals(vCalendar.getObjectMethod(), vCalendarParallel.getObjectMethod());
+    }
+    
+    @Test
+    public void canPullParseFoldedCRLFContent() throws IOException
+    {
+        String content = "BEGIN:VCALENDAR\r\n"
+                + "VERSION:2.0\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "DESCRIPTION:This is a lo\r\n"
+                + " ng description\r\n"
+                + "\r\n"
+                + "DTSTART;TZID=America/Los_Angeles:20160214T110000\r\n"
+                + "END:VEVENT\r\n"
+                + "END:VCALENDAR\r\n";
+        ICalendarParser parser = new ICalendarParser(new StringReader(content));
+        List<String> events = new ArrayList<>();
+        while (parser.next() != EventType.END_DOCUMENT)
+        {
+            String value = (parser.getValue() == null) ? "" : "=" + parser.getValue();
+            events.add(parser.getEventType() + " " + parser.getName() + value + " " + parser.getDepth());
+        }
+        List<String> expectedEvents = Arrays.asList(
+                "BEGIN_COMPONENT VCALENDAR 1"
+              , "PROPERTY VERSION=2.0 1"
+              , "BEGIN_COMPONENT VEVENT 2"
+              , "PROPERTY DESCRIPTION=This is a long description 2"
+              , "PROPERTY DTSTART=TZID=America/Los_Angeles:20160214T110000 2"
+              , "END_COMPONENT VEVENT 2"
+              , "END_COMPONENT VCALENDAR 1");
+        assertEquals(expectedEvents, events);
+    }
+    
+    @Test
+    public void canReadICalendarFromReader() throws IOException
+    {
+        VCalendar vCalendar = new VCalendar()
+                .withVEventCallback((s) -> VEventMock.parse(s));
+        String content = "BEGIN:VCALENDAR\r\n"
+                + "PRODID:-//Test//EN\r\n"
+                + "BEGIN:X-UNKNOWN\r\n"
+                + "METHOD:SHOULD-BE-IGNORED\r\n"
+                + "END:X-UNKNOWN\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "SUMMARY:a fol\r\n"
+                + " ded summary\r\n"
+                + "DTSTART:20160306T080000\r\n"
+                + "UID:20160306T080000-0@jfxtras.org\r\n"
+                + "END:VEVENT\r\n"
+                + "METHOD:PUBLISH\r\n"
+                + "END:VCALENDAR\r\n";
+        VCalendarUtilities.parseICalendar(new StringReader(content), vCalendar);
+        
+        assertEquals(1, vCalendar.vEvents().size());
+        assertEquals("a folded summary", vCalendar.vEvents().get(0).getSummary().getText());
+        assertEquals("-//Test//EN", vCalendar.getProductIdentifier());
+        assertEquals("PUBLISH", vCalendar.getObjectMethod());
+    }
 }
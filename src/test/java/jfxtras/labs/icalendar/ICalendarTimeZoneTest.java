@@ -0,0 +1,183 @@
+package jfxtras.labs.icalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import jfxtras.labs.icalendar.components.VTimeZone;
+import jfxtras.labs.icalendar.mocks.VEventMock;
+import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
+
+public class ICalendarTimeZoneTest extends ICalendarTestAbstract
+{
+    /** Tests converting local date/times around gaps and overlaps gives the same instant as ZonedDateTime */
+    @Test
+    public void canConvertLocalDateTimesLikeZonedDateTime()
+    {
+        for (String tzid : new String[] { "America/New_York", "Europe/London", "Australia/Lord_Howe" })
+        {
+            ZoneId zone = ZoneId.of(tzid);
+            ZoneTransitions transitions = ZoneTransitions.of(zone);
+            assertSame(transitions, ZoneTransitions.of(zone));
+            LocalDateTime localDateTime = LocalDateTime.of(2014, 1, 1, 0, 0);
+            LocalDateTime end = LocalDateTime.of(2017, 1, 1, 0, 0);
+            while (localDateTime.isBefore(end))
+            {
+                ZonedDateTime earlier = localDateTime.atZone(zone).withEarlierOffsetAtOverlap();
+                ZonedDateTime later = localDateTime.atZone(zone).withLaterOffsetAtOverlap();
+                long localEpochSecond = localDateTime.toEpochSecond(ZoneOffset.UTC);
+                for (ZonedDateTime expected : new ZonedDateTime[] { earlier, later })
+                {
+                    assertEquals(tzid + " " + expected, expected.toEpochSecond()
+                            , transitions.toEpochSecond(localEpochSecond, expected.getOffset().getTotalSeconds()));
+                    assertEquals(tzid + " " + expected, expected.getOffset().getTotalSeconds()
+                            , transitions.offsetAt(expected.toEpochSecond()));
+                }
+                localDateTime = localDateTime.plus(15, ChronoUnit.MINUTES);
+            }
+        }
+    }
+
+    /** Tests date/times outside compiled table use zone rules */
+    @Test
+    public void canConvertLocalDateTimesOutsideTable()
+    {
+        ZoneId zone = ZoneId.of("America/Los_Angeles");
+        LocalDateTime localDateTime = LocalDateTime.of(2300, 3, 8, 2, 30); // in gap
+        long expected = ZonedDateTime.ofLocal(localDateTime, zone, null).toEpochSecond();
+        assertEquals(expected, ZoneTransitions.of(zone).toEpochSecond(localDateTime.toEpochSecond(ZoneOffset.UTC), 0));
+    }
+
+    /** Tests parsed VTIMEZONE has the same offsets as the time-zone database */
+    @Test
+    public void canCompileVTimeZone()
+    {
+        String fileName = "Yahoo_Sample_Calendar.ics";
+        URL url = getClass().getResource(fileName);
+        Path path = Paths.get(url.getFile());
+        VCalendar vCalendar = new VCalendar()
+                .withVEventCallback((s) -> VEventMock.parse(s));
+        VCalendarUtilities.parseICalendarFile(path, vCalendar);
+        assertEquals(1, vCalendar.vTimeZones().size());
+        VTimeZone vTimeZone = vCalendar.vTimeZones().get(0);
+        assertEquals("Europe/London", vTimeZone.getTimeZoneIdentifier());
+
+        ZoneTransitions transitions = vTimeZone.transitions();
+        assertSame(transitions, vTimeZone.transitions());
+        ZoneId zone = ZoneId.of("Europe/London");
+        ZonedDateTime dateTime = ZonedDateTime.of(LocalDateTime.of(1997, 1, 1, 0, 0), ZoneOffset.UTC);
+        ZonedDateTime end = ZonedDateTime.of(LocalDateTime.of(2030, 1, 1, 0, 0), ZoneOffset.UTC);
+        while (dateTime.isBefore(end))
+        {
+            assertEquals(dateTime.toString(), zone.getRules().getOffset(dateTime.toInstant()).getTotalSeconds()
+                    , transitions.offsetAt(dateTime.toEpochSecond()));
+            dateTime = dateTime.plusHours(6);
+        }
+    }
+
+    /** Tests epoch values of a VComponent in a VCalendar use the calendar's VTIMEZONE for DTSTART's TZID */
+    @Test
+    public void canStreamEpochsWithCustomVTimeZone()
+    {
+        // daylight saving time rules before 2007, with a folded RRULE
+        String vTimeZoneString = "BEGIN:VTIMEZONE" + System.lineSeparator()
+                + "TZID:America/New_York" + System.lineSeparator()
+                + "BEGIN:DAYLIGHT" + System.lineSeparator()
+                + "DTSTART:19870405T020000" + System.lineSeparator()
+                + "TZOFFSETFROM:-0500" + System.lineSeparator()
+                + "TZOFFSETTO:-0400" + System.lineSeparator()
+                + "RRULE:FREQ=YEARLY;BYMONTH=4;" + System.lineSeparator()
+                + " BYDAY=1SU" + System.lineSeparator()
+                + "END:DAYLIGHT" + System.lineSeparator()
+                + "BEGIN:STANDARD" + System.lineSeparator()
+                + "DTSTART:19671029T020000" + System.lineSeparator()
+                + "TZOFFSETFROM:-0400" + System.lineSeparator()
+                + "TZOFFSETTO:-0500" + System.lineSeparator()
+                + "RRULE:FREQ=YEARLY;BYMONTH=10;BYDAY=-1SU" + System.lineSeparator()
+                + "END:STANDARD" + System.lineSeparator()
+                + "END:VTIMEZONE";
+        VTimeZone vTimeZone = VTimeZone.parse(vTimeZoneString);
+        assertEquals("FREQ=YEARLY;BYMONTH=4;BYDAY=1SU", vTimeZone.observances().get(0).getRRule());
+        VCalendar vCalendar = new VCalendar();
+        vCalendar.vTimeZones().add(vTimeZone);
+        assertSame(vTimeZone.transitions(), vCalendar.zoneTransitions("America/New_York"));
+        assertSame(ZoneTransitions.of(ZoneId.of("America/Los_Angeles")), vCalendar.zoneTransitions("America/Los_Angeles"));
+
+        ZonedDateTime dateTimeStart = ZonedDateTime.of(LocalDateTime.of(2016, 3, 14, 9, 0), ZoneId.of("America/New_York"));
+        VEventMock vEvent = new VEventMock()
+                .withDateTimeStart(dateTimeStart)
+                .withRRule(new RRule("FREQ=WEEKLY;COUNT=4"));
+        long standard = LocalDateTime.of(2016, 3, 14, 14, 0).toEpochSecond(ZoneOffset.UTC);
+        long daylight = LocalDateTime.of(2016, 3, 14, 13, 0).toEpochSecond(ZoneOffset.UTC);
+        long week = 7 * 86400;
+        List<Long> expectedEpochs = Arrays.asList(standard, standard + week, standard + 2*week, daylight + 3*week);
+        List<Long> madeEpochs = vCalendar.epochStream(vEvent, dateTimeStart).boxed().collect(Collectors.toList());
+        assertEquals(expectedEpochs, madeEpochs);
+
+        // without the calendar the time-zone database is used
+        List<Long> expectedDatabaseEpochs = Arrays.asList(daylight, daylight + week, daylight + 2*week, daylight + 3*week);
+        assertEquals(expectedDatabaseEpochs, vEvent.epochStream(dateTimeStart).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void canMakeVTimeZoneString()
+    {
+        VTimeZone vTimeZone = new VTimeZone()
+                .withTimeZoneIdentifier("America/New_York")
+                .withObservances(new VTimeZone.Observance(true)
+                        .withDateTimeStart(LocalDateTime.of(2007, 3, 11, 2, 0))
+                        .withOffsetFrom(ZoneOffset.ofHours(-5))
+                        .withOffsetTo(ZoneOffset.ofHours(-4))
+                        .withName("EDT")
+                        .withRRule("FREQ=YEARLY;BYMONTH=3;BYDAY=2SU")
+                        , new VTimeZone.Observance(false)
+                        .withDateTimeStart(LocalDateTime.of(2007, 11, 4, 2, 0))
+                        .withOffsetFrom(ZoneOffset.ofHours(-4))
+                        .withOffsetTo(ZoneOffset.ofHours(-5))
+                        .withName("EST")
+                        .withRRule("FREQ=YEARLY;BYMONTH=11;BYDAY=1SU"));
+        String expectedString = "BEGIN:VTIMEZONE" + System.lineSeparator()
+                + "TZID:America/New_York" + System.lineSeparator()
+                + "BEGIN:DAYLIGHT" + System.lineSeparator()
+                + "DTSTART:20070311T020000" + System.lineSeparator()
+                + "TZOFFSETFROM:-0500" + System.lineSeparator()
+                + "TZOFFSETTO:-0400" + System.lineSeparator()
+                + "TZNAME:EDT" + System.lineSeparator()
+                + "RRULE:FREQ=YEARLY;BYMONTH=3;BYDAY=2SU" + System.lineSeparator()
+                + "END:DAYLIGHT" + System.lineSeparator()
+                + "BEGIN:STANDARD" + System.lineSeparator()
+                + "DTSTART:20071104T020000" + System.lineSeparator()
+                + "TZOFFSETFROM:-0400" + System.lineSeparator()
+                + "TZOFFSETTO:-0500" + System.lineSeparator()
+                + "TZNAME:EST" + System.lineSeparator()
+                + "RRULE:FREQ=YEARLY;BYMONTH=11;BYDAY=1SU" + System.lineSeparator()
+                + "END:STANDARD" + System.lineSeparator()
+                + "END:VTIMEZONE";
+        assertEquals(expectedString, vTimeZone.toComponentText());
+
+        // round trip, then compare offsets at 2:30 on days of transitions
+        VTimeZone parsedVTimeZone = VTimeZone.parse(vTimeZone.toComponentText());
+        assertEquals(expectedString, parsedVTimeZone.toComponentText());
+        ZoneTransitions transitions = parsedVTimeZone.transitions();
+        ZoneId zone = ZoneId.of("America/New_York");
+        for (LocalDateTime d : new LocalDateTime[] { LocalDateTime.of(2016, 3, 13, 2, 30), LocalDateTime.of(2016, 11, 6, 1, 30)
+                , LocalDateTime.of(2040, 3, 11, 2, 30), LocalDateTime.of(2040, 11, 4, 1, 30) })
+        {
+            assertEquals(d.toString(), ZonedDateTime.ofLocal(d, zone, null).toEpochSecond()
+                    , transitions.toEpochSecond(d.toEpochSecond(ZoneOffset.UTC), 0));
+        }
+    }
+}
@@ -24,9 +24,9 @@ public class ICalendarToStringTest extends ICalendarTestAbstract
         VEventMock v = getGoogleWithExDates();
 
         String madeString = VComponentProperty.EXCEPTIONS.toPropertyString(v);
-        String expectedString = "EXDATE;TZID=America/Los_Angeles:20160212T123000" + System.lineSeparator()
+        String expectedString = "EXDATE;TZID=America/Los_Angeles:20160209T123000" + System.lineSeparator()
                                 + "EXDATE;TZID=America/Los_Angeles:20160210T123000" + System.lineSeparator()
-                                + "EXDATE;TZID=America/Los_Angeles:20160209T123000";
+                                + "EXDATE;TZID=America/Los_Angeles:20160212T123000";
         assertEquals(expectedString, madeString);
         
         v.setExDatesOnOneLine(true);
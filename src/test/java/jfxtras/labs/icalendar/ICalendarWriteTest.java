@@ -0,0 +1,99 @@
+package jfxtras.labs.icalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import jfxtras.labs.icalendar.mocks.VEventMock;
+
+public class ICalendarWriteTest extends ICalendarTestAbstract
+{
+    /** Tests lines are folded to 75 octets without splitting multi-octet characters */
+    @Test
+    public void canFoldLongLines() throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i=0; i<40; i++) builder.append("Café meeting 😀 ");
+        String description = builder.toString();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ICalendarWriter writer = new ICalendarWriter(Channels.newChannel(bytes)))
+        {
+            writer.writeProperty("DESCRIPTION", description);
+        }
+        String content = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(content.endsWith("\r\n"));
+        String[] lines = content.split("\r\n");
+        assertTrue(lines.length > 1);
+        for (String line : lines)
+        {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        String unfolded = content.replace("\r\n ", "");
+        assertEquals("DESCRIPTION:" + description + "\r\n", unfolded);
+    }
+
+    /** Tests streamed components have the same content lines as toComponentText */
+    @Test
+    public void canWriteSameLinesAsComponentText() throws IOException
+    {
+        List<VEventMock> vEvents = Arrays.asList(getDaily2(), getDailyUTC(), getDailyJapanZone(), getWeeklyZoned()
+                , getDailyWithException1(), getIndividualZoned(), getRDate());
+        for (VEventMock vEvent : vEvents)
+        {
+            StringWriter stringWriter = new StringWriter();
+            try (ICalendarWriter writer = new ICalendarWriter(stringWriter))
+            {
+                vEvent.writeComponent(writer);
+            }
+            List<String> expectedLines = Arrays.stream(vEvent.toComponentText().split(System.lineSeparator()))
+                    .sorted()
+                    .collect(Collectors.toList());
+            List<String> lines = Arrays.stream(stringWriter.toString().split("\r\n"))
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals(expectedLines, lines);
+        }
+    }
+
+    /** Tests a written calendar parses back to equal VEvents */
+    @Test
+    public void canWriteAndParseCalendar() throws IOException
+    {
+        VCalendar vCalendar = new VCalendar()
+                .withVEventCallback((s) -> VEventMock.parse(s));
+        List<VEventMock> vEvents = Arrays.asList(getDaily2(), getWeeklyZoned(), getDailyWithException1(), getIndividualZoned());
+        vCalendar.vEvents().addAll(vEvents);
+        vCalendar.setProductIdentifier("-//Test//EN");
+
+        StringWriter stringWriter = new StringWriter();
+        try (ICalendarWriter writer = new ICalendarWriter(stringWriter))
+        {
+            writer.writeCalendar(vCalendar);
+        }
+        String content = stringWriter.toString();
+        assertTrue(content.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(content.endsWith("END:VCALENDAR\r\n"));
+
+        VCalendar parsedVCalendar = new VCalendar()
+                .withVEventCallback((s) -> VEventMock.parse(s));
+        VCalendarUtilities.parseICalendar(new StringReader(content), parsedVCalendar);
+        assertEquals("-//Test//EN", parsedVCalendar.getProductIdentifier());
+        assertEquals(vEvents.size(), parsedVCalendar.vEvents().size());
+        for (int i=0; i<vEvents.size(); i++)
+        {
+            assertTrue(VEventMock.isEqualTo(vEvents.get(i), (VEventMock) parsedVCalendar.vEvents().get(i)));
+        }
+    }
+}
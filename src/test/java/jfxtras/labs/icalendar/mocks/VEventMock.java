@@ -14,6 +14,7 @@ import jfxtras.labs.icalendar.ICalendarUtilities;
 import jfxtras.labs.icalendar.components.VComponentUtilities;
 import jfxtras.labs.icalendar.components.VEvent;
 import jfxtras.labs.icalendar.components.VEventUtilities;
+import jfxtras.labs.icalendar.properties.descriptive.Summary;
 
 /**
  * Mock VEvent class for testing
@@ -57,6 +58,17 @@ public class VEventMock extends VEvent<InstanceMock, VEventMock>
       return madeInstances;
     }
 
+    @Override
+    public Temporal instanceStart(InstanceMock instance) { return instance.getStartTemporal(); }
+
+    @Override
+    public void updateInstance(InstanceMock instance, InstanceMock madeInstance)
+    {
+        instance.setStartTemporal(madeInstance.getStartTemporal());
+        instance.setEndTemporal(madeInstance.getEndTemporal());
+        instance.setSummary((madeInstance.getSummary() == null) ? null : new Summary(madeInstance.getSummary()));
+    }
+
     /*
      * CONSTRUCTORS
      */
@@ -18,12 +18,15 @@ import java.util.stream.Collectors;
 import org.junit.Test;
 
 import javafx.scene.Parent;
+import javafx.scene.control.ButtonBar.ButtonData;
 import javafx.scene.control.ComboBox;
 import javafx.scene.input.MouseButton;
 import jfxtras.labs.icalendar.ICalendarUtilities.ChangeDialogOption;
 import jfxtras.labs.icalendar.components.VComponent;
 import jfxtras.labs.icalendar.properties.recurrence.rrule.RRule;
 import jfxtras.labs.icalendaragenda.scene.control.agenda.VEventImpl;
+import jfxtras.scene.control.agenda.Agenda;
+import jfxtras.scene.control.agenda.Agenda.Appointment;
 import jfxtras.test.TestUtil;
 
 public class AgendaChangeTest extends AgendaTestAbstract
@@ -306,4 +309,109 @@ public class AgendaChangeTest extends AgendaTestAbstract
         assertEquals(expectedStartDates, startDates);
     }
 
+    /* Changes this-and-future, then changes a kept appointment of the earlier part of the series again.
+     * The kept appointment must be matched to the VComponent that now owns it. */
+    @Test
+    public void canChangeKeptAppointmentAfterThisAndFuture()
+    {
+        TestUtil.runThenWaitForPaintPulse( () -> agenda.vComponents().add(ICalendarStaticVEvents.getDaily1()));
+        Appointment keptAppointment = agenda.appointments()
+                .stream()
+                .filter(a -> a.getStartLocalDateTime().equals(LocalDateTime.of(2015, 11, 10, 10, 0)))
+                .findAny()
+                .get();
+        
+        // move appointment, change this and future
+        assertFind("#AppointmentRegularBodyPane2015-11-11/0");
+        move("#hourLine11");
+        press(MouseButton.PRIMARY);
+        move("#hourLine15");
+        release(MouseButton.PRIMARY);
+        ComboBox<ChangeDialogOption> c = find("#changeDialogComboBox");
+        TestUtil.runThenWaitForPaintPulse( () -> c.getSelectionModel().select(ChangeDialogOption.THIS_AND_FUTURE));
+        click("#changeDialogOkButton");
+
+        assertEquals(2, agenda.vComponents().size());
+        assertEquals(6, agenda.appointments().size());
+        assertTrue(agenda.appointments().stream().anyMatch(a -> a == keptAppointment));
+        VComponent<Appointment> earlierSeries = agenda.vComponents().get(1); // original series ending before 11/11
+        assertTrue(earlierSeries.getRRule().getUntil() != null);
+        assertTrue(agenda.findVComponent(keptAppointment) == earlierSeries);
+
+        // move kept appointment, change one.  The earlier series becomes the changed instance and its copy the parent.
+        Appointment otherKeptAppointment = agenda.appointments()
+                .stream()
+                .filter(a -> a.getStartLocalDateTime().equals(LocalDateTime.of(2015, 11, 9, 10, 0)))
+                .findAny()
+                .get();
+        String earlierUID = earlierSeries.getUniqueIdentifier();
+        move("#AppointmentRegularBodyPane2015-11-10/0");
+        press(MouseButton.PRIMARY);
+        move("#hourLine15");
+        release(MouseButton.PRIMARY);
+        ComboBox<ChangeDialogOption> c2 = find("#changeDialogComboBox");
+        TestUtil.runThenWaitForPaintPulse( () -> c2.getSelectionModel().select(ChangeDialogOption.ONE));
+        click("#changeDialogOkButton");
+
+        assertEquals(3, agenda.vComponents().size());
+        assertEquals(6, agenda.appointments().size());
+        VComponent<Appointment> earlierParent = agenda.vComponents().get(2);
+        assertEquals(LocalDateTime.of(2015, 11, 10, 10, 0), earlierSeries.getDateTimeRecurrence());
+        assertEquals(earlierUID, earlierSeries.getUniqueIdentifier());
+        assertEquals(earlierUID, earlierParent.getUniqueIdentifier());
+        assertTrue(earlierParent.getRRule().recurrences().contains(earlierSeries));
+        assertTrue(agenda.findVComponent(otherKeptAppointment) == earlierParent);
+    }
+
+    /* Replaces one VComponent with another - the replaced VComponent's appointments are removed */
+    @Test
+    public void canReplaceVComponent()
+    {
+        TestUtil.runThenWaitForPaintPulse( () -> agenda.vComponents().add(ICalendarStaticVEvents.getDaily1()));
+        assertEquals(6, agenda.appointments().size());
+        
+        TestUtil.runThenWaitForPaintPulse( () -> agenda.vComponents().set(0, ICalendarStaticVEvents.getIndividual1()));
+
+        assertEquals(1, agenda.vComponents().size());
+        List<LocalDateTime> startDates = agenda.appointments()
+                .stream()
+                .map(a -> a.getStartLocalDateTime())
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(LocalDateTime.of(2015, 11, 11, 10, 30)), startDates);
+    }
+
+    /* Replaces one appointment with a new one - the replaced appointment's date is added to EXDATE
+     * and the new appointment gets its own VComponent */
+    @Test
+    public void canReplaceAppointment()
+    {
+        agenda.setNewAppointmentDrawnCallback((a) -> ButtonData.OK_DONE);
+        TestUtil.runThenWaitForPaintPulse( () -> agenda.vComponents().add(ICalendarStaticVEvents.getDaily1()));
+        VComponent<Appointment> daily = agenda.vComponents().get(0);
+        Appointment replacedAppointment = agenda.appointments()
+                .stream()
+                .filter(a -> a.getStartLocalDateTime().equals(LocalDateTime.of(2015, 11, 10, 10, 0)))
+                .findAny()
+                .get();
+        Appointment newAppointment = new Agenda.AppointmentImplTemporal()
+                .withStartTemporal(LocalDateTime.of(2015, 11, 10, 14, 0).atZone(ZoneId.systemDefault()))
+                .withEndTemporal(LocalDateTime.of(2015, 11, 10, 15, 0).atZone(ZoneId.systemDefault()))
+                .withSummary("New")
+                .withDescription("")
+                .withAppointmentGroup(agenda.appointmentGroups().get(0));
+
+        TestUtil.runThenWaitForPaintPulse( () ->
+        {
+            int index = agenda.appointments().indexOf(replacedAppointment);
+            agenda.appointments().set(index, newAppointment);
+        });
+
+        assertEquals(2, agenda.vComponents().size());
+        assertEquals(6, agenda.appointments().size());
+        assertTrue(daily.getExDate().getTemporals().contains(LocalDateTime.of(2015, 11, 10, 10, 0)));
+        VComponent<Appointment> newVComponent = agenda.findVComponent(newAppointment);
+        assertTrue(newVComponent != daily);
+        assertTrue(agenda.vComponents().get(1) == newVComponent);
+    }
+
 }